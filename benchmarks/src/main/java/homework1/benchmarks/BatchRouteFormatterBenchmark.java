@@ -0,0 +1,82 @@
+package homework1.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.BatchRouteFormatter;
+import homework1.DirectionsRequest;
+import homework1.DrivingRouteFormatter;
+import homework1.GeoSegment;
+import homework1.Route;
+
+/**
+ * Measures how batch direction generation scales with the number of threads.
+ * A batch has the given number of routes of ROUTE_SIZE segments each, one
+ * feature per segment. Compare the scores of a batch over the parallelism
+ * values up to the number of cores of the machine (the score at
+ * parallelism 1 divided by the score at parallelism n is the speedup).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchRouteFormatterBenchmark {
+
+	/** Number of segments of every route in a batch. **/
+	private static final int ROUTE_SIZE = 100;
+
+	@Param({"1000"})
+	public int routes;
+
+	@Param({"1", "2", "4", "8"})
+	public int parallelism;
+
+	private List<DirectionsRequest> requests;
+	private BatchRouteFormatter batch;
+
+	@Setup
+	public void setUp() {
+		GeoSegment[] segments = BenchmarkRoutes.segments(ROUTE_SIZE, 1);
+		requests = new ArrayList<DirectionsRequest>(routes);
+		for (int i = 0; i < routes; i++) {
+			// distinct Route objects, as in a real batch
+			Route route = BenchmarkRoutes.route(segments);
+			requests.add(new DirectionsRequest(route, (i * 7) % 360));
+		}
+		batch = new BatchRouteFormatter(new DrivingRouteFormatter(), parallelism);
+	}
+
+	@TearDown
+	public void tearDown() {
+		batch.close();
+	}
+
+	@Benchmark
+	public List<String> ordered() {
+		return batch.computeDirections(requests);
+	}
+
+	@Benchmark
+	public long unordered() {
+		LongAdder length = new LongAdder();
+		batch.computeDirections(requests.stream(), false, (r, d) -> length.add(d.length()));
+		return length.sum();
+	}
+}
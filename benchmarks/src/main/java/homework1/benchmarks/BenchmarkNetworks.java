@@ -0,0 +1,79 @@
+package homework1.benchmarks;
+
+import homework1.SegmentStore;
+
+/**
+ * Synthetic road networks shared by the benchmarks.
+ */
+public final class BenchmarkNetworks {
+
+	/** Distance between neighboring grid intersections, in millionths of degrees. **/
+	public static final int GRID_SPACING = 1000;
+
+	/** Latitude of the south-west corner of the generated grids. **/
+	public static final int GRID_LATITUDE = 32700000;
+
+	/** Longitude of the south-west corner of the generated grids. **/
+	public static final int GRID_LONGITUDE = 34900000;
+
+	private BenchmarkNetworks() {
+	}
+
+
+	/**
+	 * Returns the side of the smallest square grid with at least the given
+	 * number of segments.
+	 * @requires segments > 0
+	 * @return the smallest side >= 2 such that gridSegments(side) >= segments
+	 */
+	public static int sideFor(int segments) {
+		int side = 2;
+		while (gridSegments(side) < segments) {
+			side++;
+		}
+		return side;
+	}
+
+
+	/**
+	 * Returns the number of segments of a square grid.
+	 * @requires side >= 2
+	 * @return the number of segments of grid(side).
+	 */
+	public static int gridSegments(int side) {
+		return 2 * side * (side - 1);
+	}
+
+
+	/**
+	 * Creates a square grid of streets, like a city center. Intersection
+	 * (row, column) is at GRID_LATITUDE + row * GRID_SPACING,
+	 * GRID_LONGITUDE + column * GRID_SPACING (about 110 meters apart).
+	 * Every row is an east-bound street named "Row r" and every column is a
+	 * north-bound street named "Column c"; each street is made of one
+	 * segment per block.
+	 * @requires side >= 2
+	 * @return a SegmentStore with the gridSegments(side) segments of the
+	 *         grid, rows first.
+	 */
+	public static SegmentStore grid(int side) {
+		SegmentStore store = new SegmentStore(gridSegments(side));
+		for (int row = 0; row < side; row++) {
+			String name = "Row " + row;
+			int latitude = GRID_LATITUDE + row * GRID_SPACING;
+			for (int column = 0; column < side - 1; column++) {
+				int longitude = GRID_LONGITUDE + column * GRID_SPACING;
+				store.add(name, latitude, longitude, latitude, longitude + GRID_SPACING);
+			}
+		}
+		for (int column = 0; column < side; column++) {
+			String name = "Column " + column;
+			int longitude = GRID_LONGITUDE + column * GRID_SPACING;
+			for (int row = 0; row < side - 1; row++) {
+				int latitude = GRID_LATITUDE + row * GRID_SPACING;
+				store.add(name, latitude, longitude, latitude + GRID_SPACING, longitude);
+			}
+		}
+		return store;
+	}
+}
@@ -0,0 +1,129 @@
+package homework1.benchmarks;
+
+import homework1.GeoFeature;
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.Route;
+
+/**
+ * Synthetic GeoSegment data shared by the benchmarks. All generated data
+ * starts at the Ziv center and stays within the valid GeoPoint range for
+ * every size used by the benchmarks.
+ */
+public final class BenchmarkRoutes {
+
+	/** Number of consecutive segments that share a street name. **/
+	public static final int SEGMENTS_PER_STREET = 50;
+
+	/** Latitude step of every generated segment, in millionths of degrees. **/
+	private static final int LATITUDE_STEP = 10;
+
+	/** Longitude step of every generated segment, in millionths of degrees. **/
+	private static final int LONGITUDE_STEP = 7;
+
+	private static final int START_LATITUDE = 32783098;
+	private static final int START_LONGITUDE = 35014528;
+
+	private BenchmarkRoutes() {
+	}
+
+
+	/**
+	 * Creates a contiguous sequence of segments.
+	 * @requires size > 0
+	 * @return segments(size, SEGMENTS_PER_STREET)
+	 */
+	public static GeoSegment[] segments(int size) {
+		return segments(size, SEGMENTS_PER_STREET);
+	}
+
+
+	/**
+	 * Creates a contiguous sequence of segments.
+	 * @requires size > 0 && segmentsPerStreet > 0
+	 * @return an array a of size segments such that a[i].p2 = a[i+1].p1.
+	 *         Every segmentsPerStreet consecutive segments share the same
+	 *         name, and consecutive streets zigzag to the north-east and to
+	 *         the north-west, so a route over them has a turn per street.
+	 */
+	public static GeoSegment[] segments(int size, int segmentsPerStreet) {
+		GeoSegment[] segments = new GeoSegment[size];
+		String name = null;
+		GeoPoint p1 = new GeoPoint(START_LATITUDE, START_LONGITUDE);
+		for (int i = 0; i < size; i++) {
+			int street = i / segmentsPerStreet;
+			if (i % segmentsPerStreet == 0) {
+				name = "Street " + street;
+			}
+			int longitudeStep = (street % 2 == 0) ? LONGITUDE_STEP : -LONGITUDE_STEP;
+			GeoPoint p2 = new GeoPoint(p1.getLatitude() + LATITUDE_STEP,
+					p1.getLongitude() + longitudeStep);
+			segments[i] = new GeoSegment(name, p1, p2);
+			p1 = p2;
+		}
+		return segments;
+	}
+
+
+	/**
+	 * Creates a contiguous sequence of segments that all have the same name.
+	 * @requires size > 0
+	 * @return an array a of size segments such that a[i].p2 = a[i+1].p1 and
+	 *         a[i].name = a[j].name.
+	 */
+	public static GeoSegment[] featureSegments(int size) {
+		GeoSegment[] segments = new GeoSegment[size];
+		GeoPoint p1 = new GeoPoint(START_LATITUDE, START_LONGITUDE);
+		for (int i = 0; i < size; i++) {
+			int longitudeStep = (i % 2 == 0) ? LONGITUDE_STEP : -LONGITUDE_STEP;
+			GeoPoint p2 = new GeoPoint(p1.getLatitude() + LATITUDE_STEP,
+					p1.getLongitude() + longitudeStep);
+			segments[i] = new GeoSegment("Street", p1, p2);
+			p1 = p2;
+		}
+		return segments;
+	}
+
+
+	/**
+	 * Builds a Route by appending segments one at a time.
+	 * @requires segments != null && segments.length > 0 && segments is contiguous
+	 * @return a Route over all of segments, in order.
+	 */
+	public static Route route(GeoSegment[] segments) {
+		Route route = new Route(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			route = route.addSegment(segments[i]);
+		}
+		return route;
+	}
+
+
+	/**
+	 * Builds a GeoFeature by appending segments one at a time.
+	 * @requires segments != null && segments.length > 0 && segments is
+	 *           contiguous && all of segments have the same name
+	 * @return a GeoFeature over all of segments, in order.
+	 */
+	public static GeoFeature feature(GeoSegment[] segments) {
+		GeoFeature feature = new GeoFeature(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			feature = feature.addSegment(segments[i]);
+		}
+		return feature;
+	}
+
+
+	/**
+	 * Returns the segment that continues the given contiguous sequence.
+	 * @requires segments != null && segments.length > 0
+	 * @return a segment gs with gs.p1 = segments[segments.length-1].p2 and
+	 *         gs.name = segments[segments.length-1].name
+	 */
+	public static GeoSegment nextSegment(GeoSegment[] segments) {
+		GeoSegment last = segments[segments.length - 1];
+		GeoPoint p1 = last.getP2();
+		GeoPoint p2 = new GeoPoint(p1.getLatitude() + LATITUDE_STEP, p1.getLongitude());
+		return new GeoSegment(last.getName(), p1, p2);
+	}
+}
@@ -0,0 +1,98 @@
+package homework1.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.ContractionHierarchy;
+import homework1.HierarchyRouteFinder;
+import homework1.RoadGraph;
+import homework1.Route;
+import homework1.RouteFinder;
+
+/**
+ * Compares shortest-route queries between random intersections of a square
+ * grid of the given number of segments, answered by A* (RouteFinder) and by
+ * a ContractionHierarchy (HierarchyRouteFinder), and measures loading the
+ * serialized index. The index is built once per fork, in setUp.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ContractionHierarchyBenchmark {
+
+	private static final int QUERIES = 1024;
+
+	@Param({"10000", "100000"})
+	public int size;
+
+	private RoadGraph graph;
+	private RouteFinder finder;
+	private HierarchyRouteFinder hierarchyFinder;
+	private byte[] index;
+	private int[] sources;
+	private int[] targets;
+	private int query;
+
+	@Setup
+	public void setUp() throws IOException {
+		graph = new RoadGraph(BenchmarkNetworks.grid(BenchmarkNetworks.sideFor(size)));
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hierarchy.write(bytes);
+		index = bytes.toByteArray();
+		finder = new RouteFinder(graph);
+		hierarchyFinder = new HierarchyRouteFinder(hierarchy);
+		Random random = new Random(42);
+		sources = new int[QUERIES];
+		targets = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			sources[i] = random.nextInt(graph.nodeCount());
+			targets[i] = random.nextInt(graph.nodeCount());
+		}
+	}
+
+	@Benchmark
+	public double aStarDistance() {
+		int i = query++ & (QUERIES - 1);
+		return finder.distance(sources[i], targets[i]);
+	}
+
+	@Benchmark
+	public double hierarchyDistance() {
+		int i = query++ & (QUERIES - 1);
+		return hierarchyFinder.distance(sources[i], targets[i]);
+	}
+
+	@Benchmark
+	public Route hierarchyFindRoute() {
+		int i = query++ & (QUERIES - 1);
+		return hierarchyFinder.findRoute(sources[i], targets[i]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public ContractionHierarchy readIndex() throws IOException {
+		return ContractionHierarchy.read(new ByteArrayInputStream(index), graph);
+	}
+}
@@ -0,0 +1,120 @@
+package homework1.benchmarks;
+
+import java.util.Arrays;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JTextArea;
+
+import homework1.DrivingRouteFormatter;
+import homework1.GeoSegment;
+import homework1.IncrementalDirections;
+import homework1.Route;
+import homework1.WalkingRouteFormatter;
+
+/**
+ * Reports the latency of adding a segment to a long route in
+ * RouteFormatterGUI: the route, the segment list and both direction text
+ * areas are updated as RouteFormatterGUI.addSegment updates them, with no
+ * window (so it runs headless):
+ * <pre>
+ *   java -Djava.awt.headless=true -cp benchmarks.jar homework1.benchmarks.DirectionsLatencyReport [SEGMENTS [ADDS]]
+ * </pre>
+ * The route is built up to SEGMENTS - ADDS segments (10000 - 1000 by
+ * default), then each of the last ADDS segments is added and timed.
+ * "full" recomputes both directions and sets the whole text, as addSegment
+ * did on the event thread. "incremental" extends IncrementalDirections and
+ * edits the end of the text: the extend part runs on a SwingWorker in the
+ * GUI, and only the text edit ("event thread") runs on the event thread.
+ * Routes of 50 segments per street and of a turn at every segment are
+ * measured.
+ */
+public final class DirectionsLatencyReport {
+
+	private DirectionsLatencyReport() {
+	}
+
+
+	private static void print(String what, long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-36s median %9.1f us   p99 %9.1f us   max %9.1f us%n", what,
+				sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3,
+				sorted[sorted.length - 1] / 1e3);
+	}
+
+
+	private static void measure(String shape, GeoSegment[] segments, int adds) {
+		int first = segments.length - adds;
+		WalkingRouteFormatter walking = new WalkingRouteFormatter();
+		DrivingRouteFormatter driving = new DrivingRouteFormatter();
+
+		//full: every add recomputes and resets both texts
+		DefaultListModel<GeoSegment> model = new DefaultListModel<>();
+		JTextArea walkingText = new JTextArea();
+		JTextArea drivingText = new JTextArea();
+		Route route = new Route(segments[0]);
+		model.addElement(segments[0]);
+		for (int i = 1; i < first; i++) {
+			route = route.addSegment(segments[i]);
+			model.addElement(segments[i]);
+		}
+		long[] full = new long[adds];
+		for (int i = first; i < segments.length; i++) {
+			long start = System.nanoTime();
+			route = route.addSegment(segments[i]);
+			model.addElement(segments[i]);
+			walkingText.setText(walking.computeDirections(route, 0));
+			drivingText.setText(driving.computeDirections(route, 0));
+			full[i - first] = System.nanoTime() - start;
+		}
+		String fullWalking = walkingText.getText();
+
+		//incremental: every add extends the directions and edits the end of the texts
+		model = new DefaultListModel<>();
+		walkingText = new JTextArea();
+		drivingText = new JTextArea();
+		IncrementalDirections walkingDirections = new IncrementalDirections(walking, 0);
+		IncrementalDirections drivingDirections = new IncrementalDirections(driving, 0);
+		route = null;
+		long[] total = new long[adds];
+		long[] eventThread = new long[adds];
+		for (int i = 0; i < segments.length; i++) {
+			long start = System.nanoTime();
+			route = (route == null) ? new Route(segments[i]) : route.addSegment(segments[i]);
+			model.addElement(segments[i]);
+			walkingDirections = walkingDirections.extend(route);
+			drivingDirections = drivingDirections.extend(route);
+			long edit = System.nanoTime();
+			walkingText.replaceRange(walkingDirections.getAppendedText(), walkingDirections.getKeptLength(),
+					walkingText.getDocument().getLength());
+			drivingText.replaceRange(drivingDirections.getAppendedText(), drivingDirections.getKeptLength(),
+					drivingText.getDocument().getLength());
+			long end = System.nanoTime();
+			if (i >= first) {
+				total[i - first] = end - start;
+				eventThread[i - first] = end - edit;
+			}
+		}
+		if (!walkingText.getText().equals(fullWalking)) {
+			throw new AssertionError("incremental directions differ");
+		}
+
+		System.out.printf("== %s: %d segments, %d lines, last %d adds ==%n", shape, segments.length,
+				walkingText.getLineCount() - 1, adds);
+		print("full (event thread)", full);
+		print("incremental, total", total);
+		print("incremental, event thread", eventThread);
+	}
+
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int adds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		for (int round = 0; round < 2; round++) {
+			//the first round warms up the JIT
+			System.out.println(round == 0 ? "-- warm-up --" : "-- measured --");
+			measure("streets", BenchmarkRoutes.segments(size), adds);
+			measure("turns", BenchmarkRoutes.segments(size, 1), adds);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package homework1.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.ContractionHierarchy;
+import homework1.DistanceMatrix;
+import homework1.DistanceMatrixEngine;
+import homework1.HierarchyRouteFinder;
+import homework1.RoadGraph;
+
+/**
+ * Measures computing a matrix x matrix distance matrix between random
+ * intersections of a square grid of the given number of segments, with the
+ * bucket algorithm of DistanceMatrixEngine, against a query per cell for
+ * ten of its rows (multiply by matrix / 10 for the whole matrix).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DistanceMatrixBenchmark {
+
+	@Param({"100000"})
+	public int size;
+
+	@Param({"100", "1000"})
+	public int matrix;
+
+	@Param({"1", "2"})
+	public int parallelism;
+
+	private ContractionHierarchy hierarchy;
+	private DistanceMatrixEngine engine;
+	private HierarchyRouteFinder finder;
+	private int[] sources;
+	private int[] targets;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		RoadGraph graph = new RoadGraph(BenchmarkNetworks.grid(BenchmarkNetworks.sideFor(size)));
+		hierarchy = ContractionHierarchy.build(graph);
+		engine = new DistanceMatrixEngine(hierarchy, parallelism);
+		finder = new HierarchyRouteFinder(hierarchy);
+		Random random = new Random(42);
+		sources = new int[matrix];
+		targets = new int[matrix];
+		for (int i = 0; i < matrix; i++) {
+			sources[i] = random.nextInt(graph.nodeCount());
+			targets[i] = random.nextInt(graph.nodeCount());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		engine.close();
+	}
+
+	@Benchmark
+	public DistanceMatrix buckets() {
+		return engine.compute(sources, targets);
+	}
+
+	@Benchmark
+	public double tenRowsCellByCell() {
+		double sum = 0;
+		for (int i = 0; i < 10; i++) {
+			for (int target : targets) {
+				sum += finder.distance(sources[i], target);
+			}
+		}
+		return sum;
+	}
+}
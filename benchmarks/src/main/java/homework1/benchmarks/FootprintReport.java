@@ -0,0 +1,139 @@
+package homework1.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import homework1.GeoPoint;
+import homework1.GeoPointArray;
+import homework1.GeoPointPool;
+import homework1.GeoSegment;
+import homework1.SegmentStore;
+
+/**
+ * Reports the heap footprint of the ways the geo classes can be stored.
+ * Per-object sizes come from JOL; totals are measured as the growth of the
+ * used heap after a full GC, so run this with enough heap (e.g. -Xmx3g)
+ * and nothing else running in the JVM. The GeoSegment[] totals are
+ * followed by the live GeoPoint and GeoSegment rows of the JVM's class
+ * histogram, without and with a GeoPointPool.
+ */
+public final class FootprintReport {
+
+	private static final int POINTS = 10_000_000;
+	private static final int SEGMENTS = 2_000_000;
+
+	private FootprintReport() {
+	}
+
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+
+	private static void print(String what, long bytes, int count) {
+		System.out.printf("%-40s %10.1f MB %8.1f bytes/item%n",
+				what, bytes / (1024.0 * 1024.0), (double) bytes / count);
+	}
+
+
+	//prints the rows of the live class histogram (which forces a full GC) of homework1
+	//classes whose names match a pattern
+	private static void histogram(String title, String classes) {
+		String text;
+		try {
+			text = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+					new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+					new Object[] {new String[0]}, new String[] {String[].class.getName()});
+		} catch (JMException e) {
+			System.out.println("no class histogram: " + e);
+			return;
+		}
+		System.out.println("-- histogram: " + title + " --");
+		for (String line : text.split("\n")) {
+			if (line.trim().startsWith("num") || line.matches(".*\\bhomework1\\.(" + classes + ")\\b.*")) {
+				System.out.println(line);
+			}
+		}
+	}
+
+
+	private static void points() {
+		System.out.println(ClassLayout.parseClass(GeoPoint.class).toPrintable());
+		System.out.println("== " + POINTS + " points ==");
+
+		long before = usedHeap();
+		GeoPoint[] objects = new GeoPoint[POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			objects[i] = new GeoPoint(32783098 + i / 4000, 35014528 + i % 4000);
+		}
+		long after = usedHeap();
+		print("GeoPoint[]", after - before, POINTS);
+		objects = null;
+
+		before = usedHeap();
+		GeoPointArray packed = new GeoPointArray(POINTS);
+		for (int i = 0; i < POINTS; i++) {
+			packed.add(32783098 + i / 4000, 35014528 + i % 4000);
+		}
+		after = usedHeap();
+		print("GeoPointArray", after - before, POINTS);
+		if (packed.size() != POINTS) {
+			throw new AssertionError();
+		}
+	}
+
+
+	private static void segments() {
+		System.out.println(ClassLayout.parseClass(GeoSegment.class).toPrintable());
+		int side = BenchmarkNetworks.sideFor(SEGMENTS);
+		int count = BenchmarkNetworks.gridSegments(side);
+		System.out.println("== " + count + " segments ==");
+
+		long before = usedHeap();
+		SegmentStore store = BenchmarkNetworks.grid(side);
+		store.trimToSize();
+		long after = usedHeap();
+		print("SegmentStore", after - before, count);
+
+		before = usedHeap();
+		GeoSegment[] objects = new GeoSegment[count];
+		for (int i = 0; i < count; i++) {
+			objects[i] = new GeoSegment(store.getName(i),
+					new GeoPoint(store.getLatitude1(i), store.getLongitude1(i)),
+					new GeoPoint(store.getLatitude2(i), store.getLongitude2(i)));
+		}
+		after = usedHeap();
+		print("GeoSegment[] (names shared)", after - before, count);
+		histogram("GeoSegment[]", "GeoPoint|GeoSegment");
+		objects = null;
+
+		before = usedHeap();
+		GeoPointPool pool = new GeoPointPool();
+		GeoSegment[] pooled = new GeoSegment[count];
+		for (int i = 0; i < count; i++) {
+			pooled[i] = store.get(i, pool);
+		}
+		pool = null;
+		after = usedHeap();
+		print("GeoSegment[] (points pooled)", after - before, count);
+		histogram("GeoSegment[] (points pooled)", "GeoPoint|GeoSegment");
+		if (pooled.length != store.size()) {
+			throw new AssertionError();
+		}
+	}
+
+
+	public static void main(String[] args) {
+		points();
+		segments();
+	}
+}
@@ -0,0 +1,59 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoFeature;
+import homework1.GeoSegment;
+
+/**
+ * Measures appending a segment to a GeoFeature of the given size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoFeatureBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int size;
+
+	private GeoSegment[] segments;
+	private GeoFeature feature;
+	private GeoSegment next;
+
+	@Setup
+	public void setUp() {
+		segments = BenchmarkRoutes.featureSegments(size);
+		feature = BenchmarkRoutes.feature(segments);
+		next = BenchmarkRoutes.nextSegment(segments);
+	}
+
+	@Benchmark
+	public GeoFeature addSegment() {
+		return feature.addSegment(next);
+	}
+
+	@Benchmark
+	public GeoFeature buildFeature() {
+		return BenchmarkRoutes.feature(segments);
+	}
+
+	@Benchmark
+	public double getLength() {
+		return feature.getLength();
+	}
+}
@@ -0,0 +1,61 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.GeoPointArray;
+
+/**
+ * Measures the length of a path through many points, stored as GeoPoint
+ * objects and as packed longs in a GeoPointArray.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoPointArrayBenchmark {
+
+	@Param({"1000000"})
+	public int points;
+
+	private GeoPoint[] objects;
+	private GeoPointArray packed;
+
+	@Setup
+	public void setUp() {
+		objects = new GeoPoint[points];
+		packed = new GeoPointArray(points);
+		for (int i = 0; i < points; i++) {
+			objects[i] = new GeoPoint(32783098 + 10 * (i / 1000), 35014528 + 10 * (i % 1000));
+			packed.add(objects[i]);
+		}
+	}
+
+	@Benchmark
+	public double objectPathLength() {
+		double length = 0;
+		for (int i = 0; i < objects.length - 1; i++) {
+			length += objects[i].distanceTo(objects[i + 1]);
+		}
+		return length;
+	}
+
+	@Benchmark
+	public double packedPathLength() {
+		return packed.pathLength();
+	}
+}
@@ -0,0 +1,47 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+
+/**
+ * Measures the flat-earth distance and heading computations of GeoPoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoPointBenchmark {
+
+	private GeoPoint zivCenter;
+	private GeoPoint waterTower;
+
+	@Setup
+	public void setUp() {
+		zivCenter = new GeoPoint(32783098, 35014528);
+		waterTower = new GeoPoint(32789768, 35018578);
+	}
+
+	@Benchmark
+	public double distanceTo() {
+		return zivCenter.distanceTo(waterTower);
+	}
+
+	@Benchmark
+	public double headingTo() {
+		return zivCenter.headingTo(waterTower);
+	}
+}
@@ -0,0 +1,47 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+
+/**
+ * Measures the GeoSegment accessors that the formatters call per segment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoSegmentBenchmark {
+
+	private GeoSegment segment;
+
+	@Setup
+	public void setUp() {
+		segment = new GeoSegment("HaGalil",
+				new GeoPoint(32787081, 35020735), new GeoPoint(32795631, 35010296));
+	}
+
+	@Benchmark
+	public double getLength() {
+		return segment.getLength();
+	}
+
+	@Benchmark
+	public double getHeading() {
+		return segment.getHeading();
+	}
+}
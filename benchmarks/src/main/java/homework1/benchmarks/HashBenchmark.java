@@ -0,0 +1,76 @@
+package homework1.benchmarks;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.Route;
+
+/**
+ * Measures hash-based collections keyed by the geo classes: inserting the
+ * points of a square grid of GeoPoints into a HashSet, and looking Routes
+ * up in a HashSet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashBenchmark {
+
+	@Param({"10000", "1000000"})
+	public int points;
+
+	private GeoPoint[] grid;
+	private HashSet<Route> routes;
+	private Route lookup;
+
+	@Setup
+	public void setUp() {
+		int side = (int) Math.ceil(Math.sqrt(points));
+		grid = new GeoPoint[points];
+		for (int i = 0; i < points; i++) {
+			// a grid with a spacing of about one meter
+			grid[i] = new GeoPoint(32783098 + 10 * (i / side), 35014528 + 10 * (i % side));
+		}
+		routes = new HashSet<Route>();
+		GeoSegment[] segments = BenchmarkRoutes.segments(1000);
+		for (int i = 0; i < 100; i++) {
+			GeoSegment[] prefix = new GeoSegment[900 + i];
+			System.arraycopy(segments, 0, prefix, 0, prefix.length);
+			routes.add(BenchmarkRoutes.route(prefix));
+		}
+		GeoSegment[] prefix = new GeoSegment[999];
+		System.arraycopy(segments, 0, prefix, 0, prefix.length);
+		lookup = BenchmarkRoutes.route(prefix);
+	}
+
+	@Benchmark
+	public HashSet<GeoPoint> insertGeoPoints() {
+		HashSet<GeoPoint> set = new HashSet<GeoPoint>();
+		for (GeoPoint gp : grid) {
+			set.add(gp);
+		}
+		return set;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public boolean containsRoute() {
+		return routes.contains(lookup);
+	}
+}
@@ -0,0 +1,159 @@
+package homework1.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import homework1.NetworkImporter;
+import homework1.SegmentSink;
+
+/**
+ * Reports the throughput of NetworkImporter on large generated exports.
+ * The segments are given to a sink that only counts them, so the numbers
+ * are those of reading and parsing:
+ * <pre>
+ *   java -cp benchmarks.jar homework1.benchmarks.ImportThroughputReport write DIR [MB]
+ *   java -cp benchmarks.jar homework1.benchmarks.ImportThroughputReport csv DIR [PARALLELISM]
+ *   java -cp benchmarks.jar homework1.benchmarks.ImportThroughputReport geojson DIR
+ *   java -cp benchmarks.jar homework1.benchmarks.ImportThroughputReport baseline DIR
+ * </pre>
+ * write creates a CSV and a GeoJSON file of about MB megabytes each (2048
+ * by default): streets of 5 to 50 blocks at jittered grid coordinates,
+ * one feature per street in the GeoJSON. baseline reads the CSV with
+ * BufferedReader.readLine, String.split and Double.parseDouble.
+ */
+public final class ImportThroughputReport {
+
+	private static final String CSV_FILE = "network.csv";
+	private static final String GEOJSON_FILE = "network.geojson";
+
+	private ImportThroughputReport() {
+	}
+
+
+	private static final class Counter implements SegmentSink {
+		long segments;
+		long checksum;
+
+		public void add(String name, int latitude1, int longitude1, int latitude2, int longitude2) {
+			segments++;
+			checksum += latitude2 - latitude1 + longitude2 - longitude1 + name.length();
+		}
+	}
+
+
+	private static String degrees(int millionths) {
+		StringBuilder text = new StringBuilder(12);
+		text.append(millionths / 1000000).append('.');
+		String fraction = Integer.toString(millionths % 1000000);
+		for (int i = fraction.length(); i < 6; i++) {
+			text.append('0');
+		}
+		return text.append(fraction).toString();
+	}
+
+
+	private static void write(Path directory, long megabytes) throws IOException {
+		Files.createDirectories(directory);
+		long target = megabytes << 20;
+		Random random = new Random(42);
+		try (BufferedWriter csv = Files.newBufferedWriter(directory.resolve(CSV_FILE), StandardCharsets.UTF_8);
+				BufferedWriter json = Files.newBufferedWriter(directory.resolve(GEOJSON_FILE), StandardCharsets.UTF_8)) {
+			csv.write("name,latitude1,longitude1,latitude2,longitude2\n");
+			json.write("{\"type\": \"FeatureCollection\", \"features\": [\n");
+			long csvBytes = 0, jsonBytes = 0;
+			for (int street = 0; csvBytes < target || jsonBytes < target; street++) {
+				String name = "Street " + street;
+				int latitude = 29500000 + random.nextInt(3800000);
+				int longitude = 34200000 + random.nextInt(1500000);
+				int blocks = 5 + random.nextInt(46);
+				StringBuilder feature = new StringBuilder(street == 0 ? "" : ",\n");
+				feature.append("{\"type\": \"Feature\", \"properties\": {\"name\": \"").append(name)
+					.append("\"}, \"geometry\": {\"type\": \"LineString\", \"coordinates\": [[")
+					.append(degrees(longitude)).append(", ").append(degrees(latitude)).append(']');
+				for (int b = 0; b < blocks; b++) {
+					int nextLatitude = latitude + random.nextInt(1200) - 200;
+					int nextLongitude = longitude + random.nextInt(1200) - 200;
+					if (csvBytes < target) {
+						String line = name + "," + degrees(latitude) + "," + degrees(longitude) + ","
+							+ degrees(nextLatitude) + "," + degrees(nextLongitude) + "\n";
+						csv.write(line);
+						csvBytes += line.length();
+					}
+					feature.append(", [").append(degrees(nextLongitude)).append(", ")
+						.append(degrees(nextLatitude)).append(']');
+					latitude = nextLatitude;
+					longitude = nextLongitude;
+				}
+				feature.append("]}}");
+				if (jsonBytes < target) {
+					json.write(feature.toString());
+					jsonBytes += feature.length();
+				}
+			}
+			json.write("\n]}\n");
+		}
+	}
+
+
+	private static void report(String what, Path file, long start, Counter counter) throws IOException {
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double megabytes = Files.size(file) / (1024.0 * 1024.0);
+		System.out.printf("%-12s %8.0f MB %11d segments %7.1f s %7.1f MB/s %10.2f M segments/s  (%d)%n",
+				what, megabytes, counter.segments, seconds, megabytes / seconds,
+				counter.segments / seconds / 1e6, counter.checksum);
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: ImportThroughputReport write|csv|geojson|baseline DIR [MB|PARALLELISM]");
+			return;
+		}
+		Path directory = Paths.get(args[1]);
+		Counter counter = new Counter();
+		long start = System.nanoTime();
+		switch (args[0]) {
+		case "write":
+			write(directory, args.length > 2 ? Long.parseLong(args[2]) : 2048);
+			break;
+		case "csv": {
+			int parallelism = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+			try (NetworkImporter importer = new NetworkImporter(parallelism)) {
+				importer.readCsv(directory.resolve(CSV_FILE), counter);
+			}
+			report("csv x" + parallelism, directory.resolve(CSV_FILE), start, counter);
+			break;
+		}
+		case "geojson":
+			try (NetworkImporter importer = new NetworkImporter(1)) {
+				importer.readGeoJson(directory.resolve(GEOJSON_FILE), counter);
+			}
+			report("geojson", directory.resolve(GEOJSON_FILE), start, counter);
+			break;
+		case "baseline":
+			try (BufferedReader in = Files.newBufferedReader(directory.resolve(CSV_FILE), StandardCharsets.UTF_8)) {
+				in.readLine();
+				String line;
+				while ((line = in.readLine()) != null) {
+					String[] fields = line.split(",");
+					counter.add(fields[0],
+						(int) Math.round(Double.parseDouble(fields[1]) * 1e6),
+						(int) Math.round(Double.parseDouble(fields[2]) * 1e6),
+						(int) Math.round(Double.parseDouble(fields[3]) * 1e6),
+						(int) Math.round(Double.parseDouble(fields[4]) * 1e6));
+				}
+			}
+			report("baseline", directory.resolve(CSV_FILE), start, counter);
+			break;
+		default:
+			System.err.println("unknown step " + args[0]);
+		}
+	}
+}
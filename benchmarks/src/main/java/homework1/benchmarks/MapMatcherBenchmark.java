@@ -0,0 +1,96 @@
+package homework1.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.MapMatcher;
+import homework1.RoadGraph;
+import homework1.Route;
+
+/**
+ * Measures map matching throughput on one core, in fixes per second: a
+ * MapMatcher matches a GPS trace of FIXES fixes over a square grid of the
+ * given number of segments. The trace drives a random walk of the grid,
+ * turning at random intersections, with a fix every 20 meters and a GPS
+ * error of 5 meters, like a car sampled at 1 Hz in town.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MapMatcherBenchmark {
+
+	private static final int FIXES = 10000;
+	private static final int FIXES_PER_BLOCK = 5;
+
+	@Param({"10000", "1000000"})
+	public int size;
+
+	/** The window of the matcher, in fixes. **/
+	@Param({"8", "32"})
+	public int window;
+
+	private MapMatcher matcher;
+	private List<GeoPoint> trace;
+
+	@Setup
+	public void setUp() {
+		int side = BenchmarkNetworks.sideFor(size);
+		matcher = new MapMatcher(new RoadGraph(BenchmarkNetworks.grid(side)), MapMatcher.DEFAULT_SIGMA,
+			MapMatcher.DEFAULT_BETA, MapMatcher.DEFAULT_RADIUS, window);
+
+		//a random walk from the middle of the grid that doesn't turn back or leave it
+		Random random = new Random(42);
+		int[][] moves = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+		int row = side / 2, column = side / 2, direction = 0;
+		double noiseLatitude = 0.005 / GeoPoint.KM_PER_DEGREE_LATITUDE * 1000000;
+		double noiseLongitude = 0.005 / GeoPoint.KM_PER_DEGREE_LONGITUDE * 1000000;
+		trace = new ArrayList<>(FIXES);
+		while (trace.size() < FIXES) {
+			int next;
+			do {
+				next = random.nextInt(4) == 0 ? (direction + 1 + 2 * random.nextInt(2)) % 4 : direction;
+			} while (!inGrid(row + moves[next][0], column + moves[next][1], side));
+			direction = next;
+			for (int i = 0; i < FIXES_PER_BLOCK && trace.size() < FIXES; i++) {
+				double r = row + moves[direction][0] * (double) i / FIXES_PER_BLOCK;
+				double c = column + moves[direction][1] * (double) i / FIXES_PER_BLOCK;
+				trace.add(new GeoPoint(
+					(int) Math.round(BenchmarkNetworks.GRID_LATITUDE + r * BenchmarkNetworks.GRID_SPACING
+						+ random.nextGaussian() * noiseLatitude),
+					(int) Math.round(BenchmarkNetworks.GRID_LONGITUDE + c * BenchmarkNetworks.GRID_SPACING
+						+ random.nextGaussian() * noiseLongitude)));
+			}
+			row += moves[direction][0];
+			column += moves[direction][1];
+		}
+	}
+
+	private static boolean inGrid(int row, int column, int side) {
+		return row >= 0 && row < side && column >= 0 && column < side;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FIXES)
+	public List<Route> match() {
+		return matcher.match(trace);
+	}
+}
@@ -0,0 +1,136 @@
+package homework1.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import homework1.GeoPoint;
+import homework1.MapPanel;
+import homework1.Route;
+import homework1.SegmentStore;
+
+/**
+ * Reports the frame times of a MapPanel panned over a large grid network
+ * with a route across it, painted into an image of a 800x600 view with no
+ * window (so it runs headless):
+ * <pre>
+ *   java -Djava.awt.headless=true -cp benchmarks.jar homework1.benchmarks.MapRenderReport [SEGMENTS]
+ * </pre>
+ * The network has 1000000 segments by default. Each pan is a drag of
+ * FRAMES frames of PAN_X, PAN_Y pixels, at street level (a block is about
+ * 100 pixels), city level (about 6 pixels) and with the whole network in
+ * view (less than a pixel). "no cache" is a MapPanel that keeps one tile,
+ * so every frame draws all its tiles: only the index and the levels of
+ * detail are used. "draw all" is what a panel without any of them does:
+ * every segment drawn as a line, every frame. A frame of 60 fps is 16.7 ms.
+ */
+public final class MapRenderReport {
+
+	private static final int WIDTH = 800;
+	private static final int HEIGHT = 600;
+	private static final int FRAMES = 600;
+	private static final int PAN_X = 7;
+	private static final int PAN_Y = 3;
+
+	private MapRenderReport() {
+	}
+
+
+	private static void print(String what, long[] nanos, long tiles) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-38s median %8.3f ms   p99 %8.3f ms   max %8.3f ms   %6d tiles drawn%n", what,
+				sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+				sorted[sorted.length - 1] / 1e6, tiles);
+	}
+
+
+	//the route along the middle row of the grid, from its west end to its east end
+	private static Route middleRow(SegmentStore store, int side) {
+		int first = (side / 2) * (side - 1);
+		Route route = new Route(store.get(first));
+		for (int i = first + 1; i < first + side - 1; i++) {
+			route = route.addSegment(store.get(i));
+		}
+		return route;
+	}
+
+
+	private static void pan(String what, MapPanel panel, GeoPoint center, int zoom, int frames) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		panel.setView(center, zoom);
+		long tiles = panel.getTilesDrawn();
+		long[] nanos = new long[frames];
+		for (int i = 0; i < frames; i++) {
+			long start = System.nanoTime();
+			Graphics2D g = image.createGraphics();
+			panel.paint(g);
+			g.dispose();
+			nanos[i] = System.nanoTime() - start;
+			panel.panBy(-PAN_X, -PAN_Y);
+		}
+		print(what + ", zoom " + zoom, nanos, panel.getTilesDrawn() - tiles);
+	}
+
+
+	//every segment drawn as a line, with the panel's projection at the zoom that shows them all
+	private static void drawAll(SegmentStore store, int zoom, int frames) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		double pixelsPerKilometer = Math.scalb(1.0 / 16, zoom);
+		double xScale = GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000 * pixelsPerKilometer;
+		double yScale = GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000 * pixelsPerKilometer;
+		double left = BenchmarkNetworks.GRID_LONGITUDE * xScale;
+		double top = -(BenchmarkNetworks.GRID_LATITUDE + 0.75 * 1000000) * yScale;
+		long[] nanos = new long[frames];
+		for (int frame = 0; frame < frames; frame++) {
+			long start = System.nanoTime();
+			Graphics2D g = image.createGraphics();
+			g.setColor(Color.GRAY);
+			for (int i = 0; i < store.size(); i++) {
+				g.drawLine((int) (store.getLongitude1(i) * xScale - left), (int) (-store.getLatitude1(i) * yScale - top),
+						(int) (store.getLongitude2(i) * xScale - left), (int) (-store.getLatitude2(i) * yScale - top));
+			}
+			g.dispose();
+			nanos[frame] = System.nanoTime() - start;
+			left -= PAN_X;
+			top -= PAN_Y;
+		}
+		print("draw all, zoom " + zoom, nanos, 0);
+	}
+
+
+	private static void measure(SegmentStore store, int side) {
+		System.out.println("== " + store.size() + " segments, " + WIDTH + "x" + HEIGHT + " view ==");
+		long start = System.nanoTime();
+		MapPanel panel = new MapPanel(store);
+		panel.setSize(WIDTH, HEIGHT);
+		panel.fitNetwork();
+		System.out.printf("%-38s %8.1f ms%n", "create (builds the index)", (System.nanoTime() - start) / 1e6);
+		panel.setRoute(middleRow(store, side));
+		GeoPoint center = panel.getCenter();
+		int whole = panel.getZoom();
+
+		pan("pan, street", panel, center, 14, FRAMES);
+		pan("pan, city", panel, center, 10, FRAMES);
+		pan("pan, whole network", panel, center, whole, FRAMES);
+
+		MapPanel uncached = new MapPanel(store, 1);
+		uncached.setSize(WIDTH, HEIGHT);
+		uncached.setRoute(panel.getRoute());
+		pan("pan, street, no cache", uncached, center, 14, FRAMES / 10);
+		pan("pan, city, no cache", uncached, center, 10, FRAMES / 10);
+		pan("pan, whole network, no cache", uncached, center, whole, FRAMES / 10);
+		drawAll(store, whole, 10);
+	}
+
+
+	public static void main(String[] args) {
+		int segments = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		//the first pass warms up the JIT
+		int warmUp = BenchmarkNetworks.sideFor(segments / 10);
+		measure(BenchmarkNetworks.grid(warmUp), warmUp);
+		int side = BenchmarkNetworks.sideFor(segments);
+		measure(BenchmarkNetworks.grid(side), side);
+	}
+}
@@ -0,0 +1,128 @@
+package homework1.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import homework1.MappedNetwork;
+import homework1.SegmentStore;
+
+/**
+ * Reports the startup time and memory of loading a road network from a
+ * MappedNetwork file against parsing the same network from text. Run each
+ * step in a fresh JVM, so that the resident set size is that of one load:
+ * <pre>
+ *   java -cp benchmarks.jar homework1.benchmarks.NetworkStartupReport write DIR [SEGMENTS]
+ *   java -cp benchmarks.jar homework1.benchmarks.NetworkStartupReport text DIR
+ *   java -cp benchmarks.jar homework1.benchmarks.NetworkStartupReport binary DIR
+ * </pre>
+ * The text file has a line "name,latitude1,longitude1,latitude2,longitude2"
+ * per segment. Each load is followed by a pass that reads every segment's
+ * coordinates and length, the work of building a RoadGraph or SegmentIndex.
+ */
+public final class NetworkStartupReport {
+
+	private static final String TEXT_FILE = "network.csv";
+	private static final String BINARY_FILE = "network.bin";
+
+	private NetworkStartupReport() {
+	}
+
+
+	//the resident set size of this process, in MB, from /proc (Linux only)
+	private static double residentMegabytes() throws IOException {
+		for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024.0;
+			}
+		}
+		return Double.NaN;
+	}
+
+
+	private static double usedHeapMegabytes() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0);
+	}
+
+
+	private static void write(Path directory, int segments) throws IOException {
+		SegmentStore store = BenchmarkNetworks.grid(BenchmarkNetworks.sideFor(segments));
+		Files.createDirectories(directory);
+		try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(TEXT_FILE), StandardCharsets.UTF_8)) {
+			for (int i = 0; i < store.size(); i++) {
+				out.write(store.getName(i) + "," + store.getLatitude1(i) + "," + store.getLongitude1(i)
+						+ "," + store.getLatitude2(i) + "," + store.getLongitude2(i));
+				out.newLine();
+			}
+		}
+		MappedNetwork.write(store, directory.resolve(BINARY_FILE));
+		System.out.printf("wrote %d segments: text %.1f MB, binary %.1f MB%n", store.size(),
+				Files.size(directory.resolve(TEXT_FILE)) / (1024.0 * 1024.0),
+				Files.size(directory.resolve(BINARY_FILE)) / (1024.0 * 1024.0));
+	}
+
+
+	private static SegmentStore parseText(Path file) throws IOException {
+		SegmentStore store = new SegmentStore();
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String[] fields = line.split(",");
+				store.add(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+						Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+			}
+		}
+		return store;
+	}
+
+
+	private static void report(String what, long start, long loaded, long passed, int size, double checksum)
+			throws IOException {
+		System.out.printf("%-8s %9d segments  load %8.1f ms  load+pass %8.1f ms  RSS %7.1f MB  heap %7.1f MB  (%.1f)%n",
+				what, size, (loaded - start) / 1e6, (passed - start) / 1e6,
+				residentMegabytes(), usedHeapMegabytes(), checksum);
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: NetworkStartupReport write|text|binary DIR [SEGMENTS]");
+			return;
+		}
+		Path directory = Paths.get(args[1]);
+		long start = System.nanoTime();
+		switch (args[0]) {
+		case "write":
+			write(directory, args.length > 2 ? Integer.parseInt(args[2]) : 5_000_000);
+			break;
+		case "text": {
+			SegmentStore store = parseText(directory.resolve(TEXT_FILE));
+			long loaded = System.nanoTime();
+			double checksum = 0;
+			for (int i = 0; i < store.size(); i++) {
+				checksum += store.getLatitude1(i) - store.getLatitude2(i) + store.getLength(i);
+			}
+			report("text", start, loaded, System.nanoTime(), store.size(), checksum);
+			break;
+		}
+		case "binary": {
+			MappedNetwork network = MappedNetwork.open(directory.resolve(BINARY_FILE));
+			long loaded = System.nanoTime();
+			double checksum = 0;
+			for (int i = 0; i < network.size(); i++) {
+				checksum += network.getLatitude1(i) - network.getLatitude2(i) + network.getLength(i);
+			}
+			report("binary", start, loaded, System.nanoTime(), network.size(), checksum);
+			break;
+		}
+		default:
+			System.err.println("unknown step " + args[0]);
+		}
+	}
+}
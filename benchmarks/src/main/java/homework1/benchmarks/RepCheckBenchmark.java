@@ -0,0 +1,66 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoFeature;
+import homework1.GeoPoint;
+import homework1.RepCheck;
+import homework1.Route;
+
+/**
+ * Measures the getters of GeoFeature and Route at every RepCheck level.
+ * The objects are built at the default level, so that building them does
+ * not dominate the setup at the FULL level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepCheckBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int size;
+
+	@Param({"FULL", "SAMPLED", "CONSTRUCTION_ONLY", "OFF"})
+	public RepCheck.Level level;
+
+	private GeoFeature feature;
+	private Route route;
+
+	@Setup
+	public void setUp() {
+		feature = BenchmarkRoutes.feature(BenchmarkRoutes.featureSegments(size));
+		route = BenchmarkRoutes.route(BenchmarkRoutes.segments(size));
+		RepCheck.setLevel(level);
+	}
+
+	@TearDown
+	public void tearDown() {
+		RepCheck.setLevel(RepCheck.Level.CONSTRUCTION_ONLY);
+	}
+
+	@Benchmark
+	public double featureGetLength() {
+		return feature.getLength();
+	}
+
+	@Benchmark
+	public GeoPoint routeGetEnd() {
+		return route.getEnd();
+	}
+}
@@ -0,0 +1,104 @@
+package homework1.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.RoadGraph;
+import homework1.Route;
+import homework1.RouteFinder;
+import homework1.SegmentStore;
+
+/**
+ * Measures building a RoadGraph over a city-sized square grid of the given
+ * number of segments, and A* queries between random intersections of it.
+ * Every query picks the next of QUERIES fixed random pairs. The grid is
+ * about 110 m per block, so a 1M-segment grid is about 78 km on a side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RoadGraphBenchmark {
+
+	private static final int QUERIES = 1024;
+
+	@Param({"10000", "1000000"})
+	public int size;
+
+	/** The largest distance between the intersections of a query, in blocks. **/
+	@Param({"20", "100000"})
+	public int maxBlocks;
+
+	private SegmentStore grid;
+	private RoadGraph graph;
+	private RouteFinder finder;
+	private int[] sources;
+	private int[] targets;
+	private int query;
+
+	@Setup
+	public void setUp() {
+		int side = BenchmarkNetworks.sideFor(size);
+		grid = BenchmarkNetworks.grid(side);
+		graph = new RoadGraph(grid);
+		finder = new RouteFinder(graph);
+		Random random = new Random(42);
+		sources = new int[QUERIES];
+		targets = new int[QUERIES];
+		int blocks = Math.min(maxBlocks, side - 1);
+		for (int i = 0; i < QUERIES; i++) {
+			int row = random.nextInt(side);
+			int column = random.nextInt(side);
+			int toRow = clamp(row + random.nextInt(2 * blocks + 1) - blocks, side);
+			int toColumn = clamp(column + random.nextInt(2 * blocks + 1) - blocks, side);
+			sources[i] = graph.getNode(intersection(row, column));
+			targets[i] = graph.getNode(intersection(toRow, toColumn));
+		}
+	}
+
+	private static int clamp(int index, int side) {
+		return Math.max(0, Math.min(side - 1, index));
+	}
+
+	private static long intersection(int row, int column) {
+		return GeoPoint.pack(
+				BenchmarkNetworks.GRID_LATITUDE + row * BenchmarkNetworks.GRID_SPACING,
+				BenchmarkNetworks.GRID_LONGITUDE + column * BenchmarkNetworks.GRID_SPACING);
+	}
+
+	@Benchmark
+	public Route findRoute() {
+		int i = query++ & (QUERIES - 1);
+		return finder.findRoute(sources[i], targets[i]);
+	}
+
+	@Benchmark
+	public double distance() {
+		int i = query++ & (QUERIES - 1);
+		return finder.distance(sources[i], targets[i]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public RoadGraph buildGraph() {
+		return new RoadGraph(grid);
+	}
+}
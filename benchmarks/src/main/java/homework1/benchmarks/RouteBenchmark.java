@@ -0,0 +1,118 @@
+package homework1.benchmarks;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import homework1.GeoFeature;
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.Route;
+
+/**
+ * Measures appending to a Route, viewing it as GeoFeatures, and asking
+ * where it is after a distance, for routes of the given number of
+ * segments. positionAtByWalk is the distance query without the prefix sums
+ * of the lengths: a walk over the segments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int size;
+
+	private GeoSegment[] segments;
+	private Route route;
+	private GeoSegment next;
+	private double[] distances;
+	private int query;
+
+	@Setup
+	public void setUp() {
+		segments = BenchmarkRoutes.segments(size);
+		route = BenchmarkRoutes.route(segments);
+		next = BenchmarkRoutes.nextSegment(segments);
+		Random random = new Random(42);
+		distances = new double[1024];
+		for (int i = 0; i < distances.length; i++) {
+			distances[i] = random.nextDouble() * route.getLength();
+		}
+		route.positionAt(0);
+	}
+
+	private double nextDistance() {
+		query = (query + 1) & (distances.length - 1);
+		return distances[query];
+	}
+
+	@Benchmark
+	public Route addSegment() {
+		return route.addSegment(next);
+	}
+
+	@Benchmark
+	public Route buildRoute() {
+		return BenchmarkRoutes.route(segments);
+	}
+
+	@Benchmark
+	public Iterator<GeoFeature> getGeoFeatures() {
+		return route.getGeoFeatures();
+	}
+
+	@Benchmark
+	public void iterateGeoFeatures(Blackhole bh) {
+		Iterator<GeoFeature> iter = route.getGeoFeatures();
+		while (iter.hasNext()) {
+			bh.consume(iter.next());
+		}
+	}
+
+	@Benchmark
+	public GeoPoint positionAt() {
+		return route.positionAt(nextDistance());
+	}
+
+	@Benchmark
+	public GeoFeature featureAt() {
+		return route.featureAt(nextDistance());
+	}
+
+	@Benchmark
+	public double remainingLength() {
+		return route.remainingLength(route.segmentIndexAt(nextDistance()));
+	}
+
+	@Benchmark
+	public GeoPoint positionAtByWalk() {
+		double distance = nextDistance();
+		Iterator<GeoSegment> iter = route.getGeoSegments();
+		GeoSegment gs = iter.next();
+		while (distance > gs.getLength() && iter.hasNext()) {
+			distance -= gs.getLength();
+			gs = iter.next();
+		}
+		double fraction = gs.getLength() == 0 ? 0 : Math.min(1, distance / gs.getLength());
+		return new GeoPoint(
+				gs.getP1().getLatitude() + (int) Math.round(fraction * (gs.getP2().getLatitude() - gs.getP1().getLatitude())),
+				gs.getP1().getLongitude() + (int) Math.round(fraction * (gs.getP2().getLongitude() - gs.getP1().getLongitude())));
+	}
+}
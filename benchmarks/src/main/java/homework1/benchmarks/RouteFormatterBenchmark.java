@@ -0,0 +1,96 @@
+package homework1.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.DrivingRouteFormatter;
+import homework1.Route;
+import homework1.WalkingRouteFormatter;
+
+/**
+ * Measures computing walking and driving directions for a whole Route of
+ * the given number of segments, both as a String and streamed to an
+ * Appendable (a reused StringBuilder, and a buffered Writer that discards
+ * its output, as a stand-in for a file or socket). Run the streamed ones
+ * with -prof gc: they should allocate the same few bytes for any number
+ * of lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteFormatterBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int size;
+
+	private Route route;
+	private Route turningRoute;
+	private WalkingRouteFormatter walking;
+	private DrivingRouteFormatter driving;
+	private StringBuilder buffer;
+	private Writer writer;
+
+	@Setup
+	public void setUp() {
+		route = BenchmarkRoutes.route(BenchmarkRoutes.segments(size));
+		// every segment is its own feature, so every line reads two headings
+		turningRoute = BenchmarkRoutes.route(BenchmarkRoutes.segments(size, 1));
+		walking = new WalkingRouteFormatter();
+		driving = new DrivingRouteFormatter();
+		buffer = new StringBuilder();
+		writer = new BufferedWriter(Writer.nullWriter());
+	}
+
+	@Benchmark
+	public String walkingDirections() {
+		return walking.computeDirections(route, 0);
+	}
+
+	@Benchmark
+	public String drivingDirections() {
+		return driving.computeDirections(route, 0);
+	}
+
+	@Benchmark
+	public String turningDrivingDirections() {
+		return driving.computeDirections(turningRoute, 0);
+	}
+
+	@Benchmark
+	public int turningDrivingDirectionsToBuilder() throws IOException {
+		buffer.setLength(0);
+		driving.computeDirections(turningRoute, 0, buffer);
+		return buffer.length();
+	}
+
+	@Benchmark
+	public Writer turningDrivingDirectionsToWriter() throws IOException {
+		driving.computeDirections(turningRoute, 0, writer);
+		writer.flush();
+		return writer;
+	}
+
+	@Benchmark
+	public Writer turningWalkingDirectionsToWriter() throws IOException {
+		walking.computeDirections(turningRoute, 0, writer);
+		writer.flush();
+		return writer;
+	}
+}
@@ -0,0 +1,157 @@
+package homework1.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import homework1.DrivingRouteFormatter;
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.Route;
+import homework1.RouteSimplifier;
+import homework1.WalkingRouteFormatter;
+
+/**
+ * Reports how much RouteSimplifier shrinks Routes recorded from GPS traces,
+ * and how that changes the time to build them and to compute directions:
+ * <pre>
+ *   java -cp benchmarks.jar homework1.benchmarks.RouteSimplifierReport [STREETS]
+ * </pre>
+ * The trace drives STREETS streets (500 by default) of 300 to 1500 meters,
+ * which bend gently, with a turn of 30 to 120 degrees between each two. It
+ * has a fix every FIX_METERS meters with a GPS error of NOISE_METERS meters,
+ * and every fix is a segment, like a Route recorded by a phone. The GPS
+ * error makes the trace longer than the drive, and simplifying takes most
+ * of that back. Each time is the median of ROUNDS rounds: "build" appends
+ * the segments to a Route one at a time, and "directions" computes the
+ * driving and walking directions of the Route.
+ */
+public final class RouteSimplifierReport {
+
+	private static final double FIX_METERS = 5;
+	private static final double NOISE_METERS = 2;
+	private static final int ROUNDS = 15;
+	private static final double[] TOLERANCES = {0.001, 0.003, 0.005, 0.01};
+
+	private RouteSimplifierReport() {
+	}
+
+
+	//the segments of a trace of streets streets, a fix apart
+	private static GeoSegment[] trace(int streets, Random random) {
+		double metersPerLatitude = GeoPoint.KM_PER_DEGREE_LATITUDE * 1000 / 1000000;
+		double metersPerLongitude = GeoPoint.KM_PER_DEGREE_LONGITUDE * 1000 / 1000000;
+		List<GeoSegment> segments = new ArrayList<>();
+		//the position, in meters from the Ziv center, and heading, in radians, of the car
+		double north = 0, east = 0, heading = random.nextDouble() * 2 * Math.PI;
+		GeoPoint p1 = new GeoPoint(32783098, 35014528);
+		for (int street = 0; street < streets; street++) {
+			int fixes = (int) ((300 + random.nextInt(1200)) / FIX_METERS);
+			double bend = random.nextGaussian() * 0.002;
+			for (int i = 0; i < fixes; i++) {
+				bend = 0.95 * bend + random.nextGaussian() * 0.0005;
+				heading += bend;
+				north += FIX_METERS * Math.cos(heading);
+				east += FIX_METERS * Math.sin(heading);
+				GeoPoint p2 = new GeoPoint(
+					(int) Math.round(32783098 + (north + random.nextGaussian() * NOISE_METERS) / metersPerLatitude),
+					(int) Math.round(35014528 + (east + random.nextGaussian() * NOISE_METERS) / metersPerLongitude));
+				segments.add(new GeoSegment("Street " + street, p1, p2));
+				p1 = p2;
+			}
+			double turn = Math.toRadians(30 + random.nextInt(91));
+			heading += random.nextBoolean() ? turn : -turn;
+		}
+		return segments.toArray(new GeoSegment[0]);
+	}
+
+
+	private static GeoSegment[] segments(Route route) {
+		List<GeoSegment> segments = new ArrayList<>();
+		for (Iterator<GeoSegment> iter = route.getGeoSegments(); iter.hasNext();) {
+			segments.add(iter.next());
+		}
+		return segments.toArray(new GeoSegment[0]);
+	}
+
+
+	private static long median(long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+
+	private static volatile Object sink;
+
+	private static long build(GeoSegment[] segments) {
+		long[] nanos = new long[ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			sink = BenchmarkRoutes.route(segments);
+			nanos[r] = System.nanoTime() - start;
+		}
+		return median(nanos);
+	}
+
+
+	private static long directions(Route route) {
+		DrivingRouteFormatter driving = new DrivingRouteFormatter();
+		WalkingRouteFormatter walking = new WalkingRouteFormatter();
+		long[] nanos = new long[ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			sink = driving.computeDirections(route, 0);
+			sink = walking.computeDirections(route, 0);
+			nanos[r] = System.nanoTime() - start;
+		}
+		return median(nanos);
+	}
+
+
+	private static long simplify(Route route, double tolerance) {
+		long[] nanos = new long[ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			sink = RouteSimplifier.simplify(route, tolerance);
+			nanos[r] = System.nanoTime() - start;
+		}
+		return median(nanos);
+	}
+
+
+	public static void main(String[] args) {
+		int streets = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+		GeoSegment[] trace = trace(streets, new Random(42));
+		Route route = BenchmarkRoutes.route(trace);
+		//one untimed pass of everything, for the JIT
+		for (double tolerance : TOLERANCES) {
+			Route simplified = RouteSimplifier.simplify(route, tolerance);
+			build(segments(simplified));
+			directions(simplified);
+		}
+		long build = build(trace);
+		long directions = directions(route);
+		System.out.printf("%d streets, %d segments, %.3f km (%.3f km driven), a fix every %.0f m with %.0f m of GPS error%n",
+				streets, trace.length, route.getLength(), trace.length * FIX_METERS / 1000, FIX_METERS, NOISE_METERS);
+		System.out.printf("%-16s %9s %8s %9s %12s %14s %12s %10s%n", "tolerance", "segments", "ratio",
+				"length", "simplify ms", "build ms", "directions ms", "speedup");
+		System.out.printf("%-16s %9d %8s %9s %12s %14.3f %12.3f %10s%n", "none", trace.length, "1.0x",
+				"", "", build / 1e6, directions / 1e6, "");
+		for (double tolerance : TOLERANCES) {
+			Route simplified = RouteSimplifier.simplify(route, tolerance);
+			GeoSegment[] segments = segments(simplified);
+			long simplifiedBuild = build(segments);
+			long simplifiedDirections = directions(simplified);
+			System.out.printf("%-16s %9d %7.1fx %8.2f%% %12.3f %14.3f %12.3f %5.1fx/%.1fx%n",
+					tolerance * 1000 + " m", segments.length, (double) trace.length / segments.length,
+					100 * (simplified.getLength() - route.getLength()) / route.getLength(),
+					simplify(route, tolerance) / 1e6, simplifiedBuild / 1e6, simplifiedDirections / 1e6,
+					(double) (build + directions) / (simplifiedBuild + simplifiedDirections),
+					(double) directions / simplifiedDirections);
+		}
+		System.out.println("speedup: build and directions / directions alone, of the simplified Route");
+	}
+}
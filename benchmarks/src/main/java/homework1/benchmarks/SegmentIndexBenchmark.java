@@ -0,0 +1,118 @@
+package homework1.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.SegmentIndex;
+import homework1.SegmentMatch;
+import homework1.SegmentStore;
+
+/**
+ * Measures snapping random points to a square grid of the given number of
+ * segments with a SegmentIndex: the nearest segment, the 10 nearest, and
+ * the segments in a box of about 5 x 5 blocks, against finding the nearest
+ * segment by scanning all of them. Building the index is measured once
+ * per iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SegmentIndexBenchmark {
+
+	private static final int POINTS = 1024;
+
+	@Param({"1000000", "4000000"})
+	public int size;
+
+	private SegmentStore segments;
+	private SegmentIndex index;
+	private GeoPoint[] points;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		int side = BenchmarkNetworks.sideFor(size);
+		segments = BenchmarkNetworks.grid(side);
+		index = new SegmentIndex(segments);
+		Random random = new Random(42);
+		int extent = (side - 1) * BenchmarkNetworks.GRID_SPACING;
+		points = new GeoPoint[POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			points[i] = new GeoPoint(BenchmarkNetworks.GRID_LATITUDE + random.nextInt(extent),
+				BenchmarkNetworks.GRID_LONGITUDE + random.nextInt(extent));
+		}
+	}
+
+	private GeoPoint nextPoint() {
+		next = (next + 1) & (POINTS - 1);
+		return points[next];
+	}
+
+	@Benchmark
+	public SegmentMatch nearest() {
+		return index.nearest(nextPoint());
+	}
+
+	@Benchmark
+	public List<SegmentMatch> nearest10() {
+		return index.nearest(nextPoint(), 10);
+	}
+
+	@Benchmark
+	public int[] box() {
+		GeoPoint point = nextPoint();
+		int half = 5 * BenchmarkNetworks.GRID_SPACING / 2;
+		return index.segmentsIn(point.getLatitude() - half, point.getLongitude() - half,
+			point.getLatitude() + half, point.getLongitude() + half);
+	}
+
+	@Benchmark
+	public int nearestByScan() {
+		GeoPoint point = nextPoint();
+		int latitude = point.getLatitude();
+		int longitude = point.getLongitude();
+		int best = -1;
+		double bestDistance = Double.POSITIVE_INFINITY;
+		for (int i = 0, n = segments.size(); i < n; i++) {
+			//squared distance to the segment in millionths, scaled to the ground
+			double x1 = (segments.getLongitude1(i) - longitude) * GeoPoint.KM_PER_DEGREE_LONGITUDE;
+			double y1 = (segments.getLatitude1(i) - latitude) * GeoPoint.KM_PER_DEGREE_LATITUDE;
+			double dx = (segments.getLongitude2(i) - longitude) * GeoPoint.KM_PER_DEGREE_LONGITUDE - x1;
+			double dy = (segments.getLatitude2(i) - latitude) * GeoPoint.KM_PER_DEGREE_LATITUDE - y1;
+			double squaredLength = dx * dx + dy * dy;
+			double t = squaredLength == 0 ? 0 : Math.max(0, Math.min(1, -(x1 * dx + y1 * dy) / squaredLength));
+			double x = x1 + t * dx, y = y1 + t * dy;
+			double distance = x * x + y * y;
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public SegmentIndex build() {
+		return new SegmentIndex(segments);
+	}
+}
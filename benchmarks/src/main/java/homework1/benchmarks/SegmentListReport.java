@@ -0,0 +1,142 @@
+package homework1.benchmarks;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+
+import homework1.GeoSegment;
+import homework1.SegmentListModel;
+import homework1.SegmentStore;
+
+/**
+ * Reports how a list of a large network's segments opens, scrolls and
+ * filters, with the DefaultListModel the dialogs used to fill and with a
+ * SegmentListModel. It needs no window (so it runs headless):
+ * <pre>
+ *   java -Djava.awt.headless=true -cp benchmarks.jar homework1.benchmarks.SegmentListReport [SEGMENTS]
+ * </pre>
+ * "open" creates the model, the list and its scroll pane and lays them
+ * out at the dialog's size, 1000000 segments by default. "scroll" moves
+ * the view to a random row and paints it into an image. "filter" narrows
+ * the rows to the names starting with each prefix of "Column 12", as the
+ * dialog's filter field does on each keystroke; with a DefaultListModel
+ * that is a scan of the segments into a new model.
+ */
+public final class SegmentListReport {
+
+	private static final int SCROLLS = 500;
+	private static final String TYPED = "Column 12";
+
+	private SegmentListReport() {
+	}
+
+
+	private static void print(String what, long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-36s median %10.3f ms   p99 %10.3f ms   max %10.3f ms%n", what,
+				sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+				sorted[sorted.length - 1] / 1e6);
+	}
+
+
+	private static JScrollPane layOut(JList<GeoSegment> list) {
+		JScrollPane pane = new JScrollPane(list);
+		pane.setPreferredSize(new Dimension(450, 100));
+		pane.setSize(450, 100);
+		pane.doLayout();
+		pane.getViewport().doLayout();
+		list.getPreferredSize();
+		return pane;
+	}
+
+
+	private static long[] scroll(JList<GeoSegment> list, JScrollPane pane) {
+		BufferedImage image = new BufferedImage(450, 100, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(42);
+		long[] nanos = new long[SCROLLS];
+		for (int i = 0; i < SCROLLS; i++) {
+			int row = random.nextInt(list.getModel().getSize());
+			long start = System.nanoTime();
+			Rectangle cell = list.getCellBounds(row, row);
+			pane.getViewport().setViewPosition(cell.getLocation());
+			Graphics2D g = image.createGraphics();
+			pane.paint(g);
+			g.dispose();
+			nanos[i] = System.nanoTime() - start;
+		}
+		return nanos;
+	}
+
+
+	private static void measure(SegmentStore store) {
+		int n = store.size();
+		System.out.println("== " + n + " segments, " + store.getNameCount() + " names ==");
+
+		//DefaultListModel, as the dialogs filled it
+		long start = System.nanoTime();
+		DefaultListModel<GeoSegment> copied = new DefaultListModel<>();
+		for (int i = 0; i < n; i++) {
+			copied.addElement(store.get(i));
+		}
+		JList<GeoSegment> copiedList = new JList<>(copied);
+		copiedList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		JScrollPane copiedPane = layOut(copiedList);
+		System.out.printf("%-36s %10.1f ms%n", "open, DefaultListModel", (System.nanoTime() - start) / 1e6);
+		print("scroll, DefaultListModel", scroll(copiedList, copiedPane));
+		long[] scans = new long[TYPED.length()];
+		for (int k = 1; k <= TYPED.length(); k++) {
+			String prefix = TYPED.substring(0, k);
+			start = System.nanoTime();
+			DefaultListModel<GeoSegment> filtered = new DefaultListModel<>();
+			for (int i = 0; i < n; i++) {
+				if (store.getName(i).regionMatches(true, 0, prefix, 0, prefix.length())) {
+					filtered.addElement(store.get(i));
+				}
+			}
+			copiedList.setModel(filtered);
+			scans[k - 1] = System.nanoTime() - start;
+		}
+		print("filter, scan into DefaultListModel", scans);
+		copied = null;
+		copiedList = null;
+		copiedPane = null;
+
+		//SegmentListModel
+		start = System.nanoTime();
+		SegmentListModel model = new SegmentListModel(store);
+		JList<GeoSegment> list = model.newList();
+		JScrollPane pane = layOut(list);
+		System.out.printf("%-36s %10.1f ms%n", "open, SegmentListModel", (System.nanoTime() - start) / 1e6);
+		print("scroll, SegmentListModel", scroll(list, pane));
+		start = System.nanoTime();
+		model.setFilter(TYPED.substring(0, 1));
+		System.out.printf("%-36s %10.1f ms%n", "first filter (builds the index)", (System.nanoTime() - start) / 1e6);
+		long[] filters = new long[TYPED.length()];
+		for (int k = 1; k <= TYPED.length(); k++) {
+			start = System.nanoTime();
+			model.setFilter(TYPED.substring(0, k));
+			filters[k - 1] = System.nanoTime() - start;
+		}
+		print("filter, SegmentListModel", filters);
+		System.out.println("rows for \"" + TYPED + "\": " + model.getSize());
+	}
+
+
+	public static void main(String[] args) {
+		int segments = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int side = BenchmarkNetworks.sideFor(segments);
+		SegmentStore store = BenchmarkNetworks.grid(side);
+		//the first pass warms up the JIT
+		measure(BenchmarkNetworks.grid(BenchmarkNetworks.sideFor(segments / 10)));
+		measure(store);
+	}
+}
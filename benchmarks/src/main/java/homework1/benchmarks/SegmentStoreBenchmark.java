@@ -0,0 +1,80 @@
+package homework1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoSegment;
+import homework1.SegmentStore;
+
+/**
+ * Measures whole-network scans over GeoSegment objects and over the
+ * columns of a SegmentStore.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentStoreBenchmark {
+
+	private static final int BINS = 36;
+
+	@Param({"1000000"})
+	public int segments;
+
+	private GeoSegment[] objects;
+	private SegmentStore store;
+
+	@Setup
+	public void setUp() {
+		store = BenchmarkNetworks.grid(BenchmarkNetworks.sideFor(segments));
+		objects = new GeoSegment[store.size()];
+		for (int i = 0; i < objects.length; i++) {
+			objects[i] = new GeoSegment(store.getName(i),
+					store.get(i).getP1(), store.get(i).getP2());
+		}
+	}
+
+	@Benchmark
+	public double objectTotalLength() {
+		double total = 0;
+		for (GeoSegment gs : objects) {
+			total += gs.getLength();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double storeTotalLength() {
+		return store.totalLength();
+	}
+
+	@Benchmark
+	public int[] objectHeadingHistogram() {
+		int[] histogram = new int[BINS];
+		double binsPerDegree = BINS / 360.0;
+		for (GeoSegment gs : objects) {
+			if (gs.getLength() != 0) {
+				histogram[Math.min(BINS - 1, (int) (gs.getHeading() * binsPerDegree))]++;
+			}
+		}
+		return histogram;
+	}
+
+	@Benchmark
+	public int[] storeHeadingHistogram() {
+		return store.headingHistogram(BINS);
+	}
+}
@@ -0,0 +1,136 @@
+package homework1.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import homework1.GeoPoint;
+import homework1.RoadGraph;
+import homework1.RouteFinder;
+import homework1.SegmentIndex;
+import homework1.SegmentStore;
+import homework1.ZOrder;
+
+/**
+ * Measures how the memory layout of a 1M-segment grid affects traversals.
+ * The same segments are stored in grid order (rows, then columns), in
+ * random order, or in ZOrder.order, and a RoadGraph and a SegmentIndex are
+ * built over each store, so node and segment numbers follow the layout.
+ * The traversals are A* searches between random intersections a few dozen
+ * blocks apart, and snapping a batch of random points in random order and
+ * in Z-order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ZOrderBenchmark {
+
+	private static final int PAIRS = 64;
+	private static final int POINTS = 4096;
+
+	@Param({"1000000"})
+	public int size;
+
+	@Param({"grid", "random", "zorder"})
+	public String layout;
+
+	private RouteFinder finder;
+	private SegmentIndex index;
+	private int[] sources;
+	private int[] targets;
+	private int next;
+	private GeoPoint[] points;
+	private GeoPoint[] sortedPoints;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		int side = BenchmarkNetworks.sideFor(size);
+		SegmentStore grid = BenchmarkNetworks.grid(side);
+		Random random = new Random(42);
+		int[] order;
+		if (layout.equals("zorder")) {
+			order = ZOrder.order(grid);
+		} else {
+			order = new int[grid.size()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			if (layout.equals("random")) {
+				for (int i = order.length - 1; i > 0; i--) {
+					int j = random.nextInt(i + 1);
+					int swap = order[i];
+					order[i] = order[j];
+					order[j] = swap;
+				}
+			}
+		}
+		SegmentStore segments = grid.select(order);
+		RoadGraph graph = new RoadGraph(segments);
+		finder = new RouteFinder(graph);
+		index = new SegmentIndex(segments);
+
+		sources = new int[PAIRS];
+		targets = new int[PAIRS];
+		for (int i = 0; i < PAIRS; i++) {
+			int row = random.nextInt(side - 40);
+			int column = random.nextInt(side - 40);
+			sources[i] = graph.getNode(intersection(row, column));
+			targets[i] = graph.getNode(intersection(row + 10 + random.nextInt(30), column + 10 + random.nextInt(30)));
+		}
+		int extent = (side - 1) * BenchmarkNetworks.GRID_SPACING;
+		points = new GeoPoint[POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			points[i] = new GeoPoint(BenchmarkNetworks.GRID_LATITUDE + random.nextInt(extent),
+				BenchmarkNetworks.GRID_LONGITUDE + random.nextInt(extent));
+		}
+		sortedPoints = Arrays.copyOf(points, POINTS);
+		Arrays.sort(sortedPoints, ZOrder.comparator());
+	}
+
+	private static GeoPoint intersection(int row, int column) {
+		return new GeoPoint(BenchmarkNetworks.GRID_LATITUDE + row * BenchmarkNetworks.GRID_SPACING,
+			BenchmarkNetworks.GRID_LONGITUDE + column * BenchmarkNetworks.GRID_SPACING);
+	}
+
+	@Benchmark
+	public double route() {
+		next = (next + 1) % PAIRS;
+		return finder.distance(sources[next], targets[next]);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public double snapRandomOrder() {
+		double sum = 0;
+		for (GeoPoint point : points) {
+			sum += index.nearest(point).getDistance();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public double snapZOrder() {
+		double sum = 0;
+		for (GeoPoint point : sortedPoints) {
+			sum += index.nearest(point).getDistance();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,145 @@
+package homework1;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A BatchRouteFormatter computes directions for many Routes at once, in
+ * parallel, using a RouteFormatter for every single Route.
+ * <p>
+ * The work runs on a ForkJoinPool owned by the BatchRouteFormatter, with the
+ * parallelism given at construction, so a batch does not compete with other
+ * users of the common pool. A BatchRouteFormatter should be closed when it is
+ * no longer needed, to stop the threads of its pool.
+ * <p>
+ * RouteFormatters keep no state between calls, and Routes are immutable, so
+ * the same formatter and the same Route can be used by all threads.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   formatter : RouteFormatter   // formats the directions of every Route
+ *   parallelism : int            // the number of threads used for a batch
+ * </pre>
+ **/
+public final class BatchRouteFormatter implements AutoCloseable {
+
+	private final RouteFormatter formatter;
+	private final ForkJoinPool pool;
+
+	//Abstraction Function:
+	//formatter = this.formatter, parallelism = this.pool.getParallelism()
+
+	//Rep Invariant:
+	//formatter != null && pool != null
+
+
+  	/**
+     * Constructs a new BatchRouteFormatter that uses a thread per available
+     * processor.
+     * @requires formatter != null
+     * @effects constructs a new BatchRouteFormatter b such that
+     *          b.formatter = formatter &&
+     *          b.parallelism = Runtime.getRuntime().availableProcessors()
+     **/
+  	public BatchRouteFormatter(RouteFormatter formatter) {
+  		this(formatter, Runtime.getRuntime().availableProcessors());
+  	}
+
+
+  	/**
+     * Constructs a new BatchRouteFormatter.
+     * @requires formatter != null && parallelism > 0
+     * @effects constructs a new BatchRouteFormatter b such that
+     *          b.formatter = formatter && b.parallelism = parallelism
+     **/
+  	public BatchRouteFormatter(RouteFormatter formatter, int parallelism) {
+  		this.formatter = formatter;
+  		this.pool = new ForkJoinPool(parallelism);
+  		if (RepCheck.onConstruction()){
+  			checkRep();
+  		}
+  	}
+
+	  private void checkRep() throws RuntimeException{
+		  long start = RepCheck.start();
+		  if (this.formatter == null){
+			  throw new RuntimeException("formatter can't get null argument");
+		  }
+		  if (this.pool == null){
+			  throw new RuntimeException("pool can't get null argument");
+		  }
+		  RepCheck.record(BatchRouteFormatter.class, start);
+	  }
+
+
+  	/**
+  	 * Returns the number of threads used for a batch.
+     * @return this.parallelism
+     */
+  	public int getParallelism() {
+  		return this.pool.getParallelism();
+  	}
+
+
+  	/**
+     * Gives directions for every request, in parallel.
+     * @requires requests != null && no element of requests is null
+     * @return a list l such that l.size() = requests.size() and l.get(i) =
+     *         formatter.computeDirections(r.route, r.heading), where r is
+     *         the ith element of requests in its iteration order.
+     **/
+  	public List<String> computeDirections(Collection<DirectionsRequest> requests) {
+  		//a parallel stream started from a task of a pool runs on that pool
+  		return this.pool.submit(() -> requests.parallelStream()
+  				.map(this::computeDirections)
+  				.collect(Collectors.toList())).join();
+  	}
+
+
+  	/**
+     * Gives directions for every request, in parallel, and passes each of
+     * them to sink as soon as it is ready.
+     * @requires requests != null && sink != null &&
+     *           no element of requests is null
+     * @modifies sink
+     * @effects calls sink.accept(r, formatter.computeDirections(r.route,
+     *          r.heading)) once for every element r of requests. If ordered,
+     *          the calls are made one at a time in the encounter order of
+     *          requests. Otherwise they are made in any order, from several
+     *          threads at once, so sink must be thread-safe; this needs no
+     *          buffering of the finished directions.
+     *          Returns after all calls were made.
+     **/
+  	public void computeDirections(Stream<DirectionsRequest> requests, boolean ordered,
+  			BiConsumer<DirectionsRequest, String> sink) {
+  		this.pool.submit(() -> {
+  			Stream<DirectionsRequest> parallel = requests.parallel();
+  			if (ordered){
+  				//the directions are computed in parallel, only the calls to sink are in order
+  				parallel.map(r -> Map.entry(r, computeDirections(r)))
+  						.forEachOrdered(e -> sink.accept(e.getKey(), e.getValue()));
+  			} else {
+  				parallel.unordered().forEach(r -> sink.accept(r, computeDirections(r)));
+  			}
+  		}).join();
+  	}
+
+
+  	private String computeDirections(DirectionsRequest request) {
+  		return this.formatter.computeDirections(request.getRoute(), request.getHeading());
+  	}
+
+
+  	/**
+     * Stops the threads used for batches, once the running batches end.
+     * @effects no more batches can be given to this.
+     **/
+  	public void close() {
+  		this.pool.shutdown();
+  	}
+}
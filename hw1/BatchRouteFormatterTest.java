@@ -0,0 +1,93 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BatchRouteFormatterTest {
+
+	private List<DirectionsRequest> mRequests;
+
+
+	public BatchRouteFormatterTest() {
+		GeoSegment[] segments = ExampleGeoSegments.segments;
+		mRequests = new ArrayList<DirectionsRequest>();
+		//every contiguous run of the example segments, started with every heading
+		for (int heading = 0; heading < 360; heading += 45) {
+			for (GeoSegment gs : segments) {
+				Route route = new Route(gs);
+				mRequests.add(new DirectionsRequest(route, heading));
+				for (GeoSegment next : segments) {
+					if (next.getP1().equals(route.getEnd()) && !next.getP2().equals(route.getStart())) {
+						route = route.addSegment(next);
+						mRequests.add(new DirectionsRequest(route, heading));
+					}
+				}
+			}
+		}
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private List<String> sequential(RouteFormatter formatter) {
+		List<String> directions = new ArrayList<String>();
+		for (DirectionsRequest r : mRequests) {
+			directions.add(formatter.computeDirections(r.getRoute(), r.getHeading()));
+		}
+		return directions;
+	}
+
+
+	public void test(RouteFormatter formatter, String name) {
+		List<String> expected = sequential(formatter);
+
+		show(name);
+		for (int parallelism : new int[] {1, 4}) {
+			try (BatchRouteFormatter batch = new BatchRouteFormatter(formatter, parallelism)) {
+				show("Ordered list with parallelism " + parallelism + " equals sequential directions.",
+					batch.computeDirections(mRequests).equals(expected));
+
+				List<String> ordered = new ArrayList<String>();
+				batch.computeDirections(mRequests.stream(), true, (r, d) -> ordered.add(d));
+				show("Ordered stream with parallelism " + parallelism + " equals sequential directions.",
+					ordered.equals(expected));
+
+				Map<DirectionsRequest, String> unordered = new ConcurrentHashMap<DirectionsRequest, String>();
+				List<String> all = Collections.synchronizedList(new ArrayList<String>());
+				batch.computeDirections(mRequests.stream(), false, (r, d) -> {
+					unordered.put(r, d);
+					all.add(d);
+				});
+				boolean matches = all.size() == mRequests.size() && unordered.size() == mRequests.size();
+				for (int i = 0; i < mRequests.size(); i++) {
+					matches = matches && unordered.get(mRequests.get(i)).equals(expected.get(i));
+				}
+				show("Unordered stream with parallelism " + parallelism + " gives every request its directions once.",
+					matches);
+			}
+		}
+	}
+
+
+	public static void main(String[] args) {
+		BatchRouteFormatterTest batchTest = new BatchRouteFormatterTest();
+		batchTest.test(new WalkingRouteFormatter(), "walking");
+		batchTest.test(new DrivingRouteFormatter(), "driving");
+	}
+}
@@ -0,0 +1,427 @@
+package homework1;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A ContractionHierarchy is a preprocessed index of a RoadGraph that
+ * answers shortest-route queries by searching only a small part of the
+ * graph (see HierarchyRouteFinder). ContractionHierarchies are immutable.
+ * <p>
+ * The nodes of the graph are ranked, and the index holds the edges of the
+ * graph together with shortcut edges, each of which replaces a path of two
+ * edges through a lower ranked node. A query searches only edges that lead
+ * to higher ranked nodes, forward from the source and backward from the
+ * target, and the searches meet at the highest node of a shortest route.
+ * Every shortcut remembers the two edges it replaces, so a route found in
+ * the index is expanded back into the edges of the graph, and the Route
+ * built from it has the same GeoSegments as one found by a RouteFinder.
+ * <p>
+ * Building the index takes time (see <tt>build</tt>), so it is meant to be
+ * built once, written with <tt>write</tt>, and loaded with <tt>read</tt>.
+ * An index can only be used with the graph it was built from: the graph
+ * is checked when the index is read.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   graph : RoadGraph     // the graph indexed
+ * </pre>
+ */
+public final class ContractionHierarchy {
+
+	/** First int of a serialized index. **/
+	private static final int MAGIC = 0x43484958;
+
+	/** Version of the serialized format written by this class. **/
+	private static final int VERSION = 1;
+
+	//the most edges an index can have, the largest array a JVM can allocate
+	private static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+	//the number of values read before an array read from a stream first grows
+	private static final int READ_CHUNK = 1 << 16;
+
+	private final RoadGraph graph;
+
+	//edges 0..upCount-1 lead from a node to a higher ranked one and are grouped
+	//by their lower node: the upward edges of node n are upFirsts[n] <= e < upFirsts[n+1].
+	//edges upCount..edgeCount-1 lead from a node to a lower ranked one, grouped by
+	//their lower node too: downFirsts[n] <= e < downFirsts[n+1] lead to n.
+	private final int[] upFirsts;
+	private final int[] downFirsts;
+	private final int[] heads;
+	private final double[] weights;
+	private final int[] firsts;
+	private final int[] seconds;
+
+	//Abstraction Function:
+	//edge e joins the node of its group with heads[e], the higher ranked end,
+	//with length weights[e]. if firsts[e] < 0 it is graph edge ~firsts[e];
+	//otherwise it is the shortcut for edge firsts[e] followed by edge seconds[e]
+
+	//Rep Invariant:
+	//upFirsts.length = downFirsts.length = graph.nodeCount() + 1
+	//upFirsts and downFirsts are nondecreasing, upFirsts[0] = 0,
+	//upFirsts[nodeCount] = downFirsts[0] and downFirsts[nodeCount] = heads.length
+	//heads, weights, firsts and seconds have the same length
+	//0 <= firsts[e], seconds[e] < heads.length if firsts[e] >= 0, and
+	//0 <= ~firsts[e] < graph.edgeCount() otherwise
+
+
+	//builds the index from the edges made by HierarchyBuilder: edge e leads from
+	//sources[e] to targets[e]
+	ContractionHierarchy(RoadGraph graph, int[] ranks, int[] sources, int[] targets,
+			double[] edgeWeights, int[] edgeFirsts, int[] edgeSeconds, int edgeCount) {
+		this.graph = graph;
+		int nodeCount = graph.nodeCount();
+		upFirsts = new int[nodeCount + 1];
+		downFirsts = new int[nodeCount + 1];
+		//the lower end of every edge, and whether it leads up
+		for (int e = 0; e < edgeCount; e++) {
+			if (ranks[sources[e]] < ranks[targets[e]]) {
+				upFirsts[sources[e] + 1]++;
+			} else {
+				downFirsts[targets[e] + 1]++;
+			}
+		}
+		for (int n = 0; n < nodeCount; n++) {
+			upFirsts[n + 1] += upFirsts[n];
+		}
+		downFirsts[0] = upFirsts[nodeCount];
+		for (int n = 0; n < nodeCount; n++) {
+			downFirsts[n + 1] += downFirsts[n];
+		}
+		int[] nextUp = Arrays.copyOf(upFirsts, nodeCount);
+		int[] nextDown = Arrays.copyOf(downFirsts, nodeCount);
+		int[] positions = new int[edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			if (ranks[sources[e]] < ranks[targets[e]]) {
+				positions[e] = nextUp[sources[e]]++;
+			} else {
+				positions[e] = nextDown[targets[e]]++;
+			}
+		}
+		heads = new int[edgeCount];
+		weights = new double[edgeCount];
+		firsts = new int[edgeCount];
+		seconds = new int[edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			int position = positions[e];
+			boolean up = ranks[sources[e]] < ranks[targets[e]];
+			heads[position] = up ? targets[e] : sources[e];
+			weights[position] = edgeWeights[e];
+			if (edgeFirsts[e] < 0) {
+				firsts[position] = edgeFirsts[e];
+				seconds[position] = -1;
+			} else {
+				firsts[position] = positions[edgeFirsts[e]];
+				seconds[position] = positions[edgeSeconds[e]];
+			}
+		}
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	private ContractionHierarchy(RoadGraph graph, int[] upFirsts, int[] downFirsts, int[] heads,
+			double[] weights, int[] firsts, int[] seconds) {
+		this.graph = graph;
+		this.upFirsts = upFirsts;
+		this.downFirsts = downFirsts;
+		this.heads = heads;
+		this.weights = weights;
+		this.firsts = firsts;
+		this.seconds = seconds;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the size of the index
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		String error = groupsError(graph, upFirsts, downFirsts, heads.length);
+		if (error == null) {
+			error = edgesError(graph, heads, weights, firsts, seconds);
+		}
+		if (error != null) {
+			throw new RuntimeException(error);
+		}
+		RepCheck.record(ContractionHierarchy.class, start);
+	}
+
+
+	//the part of the rep invariant that upFirsts and downFirsts break, or null
+	private static String groupsError(RoadGraph graph, int[] upFirsts, int[] downFirsts, int edgeCount) {
+		int nodeCount = graph.nodeCount();
+		if (upFirsts.length != nodeCount + 1 || downFirsts.length != nodeCount + 1
+				|| upFirsts[0] != 0 || upFirsts[nodeCount] != downFirsts[0]
+				|| downFirsts[nodeCount] != edgeCount) {
+			return "edge groups must cover all the edges";
+		}
+		for (int n = 0; n < nodeCount; n++) {
+			if (upFirsts[n] > upFirsts[n + 1] || downFirsts[n] > downFirsts[n + 1]) {
+				return "edge groups must be nondecreasing";
+			}
+		}
+		return null;
+	}
+
+
+	//the part of the rep invariant that the edge columns break, or null
+	private static String edgesError(RoadGraph graph, int[] heads, double[] weights, int[] firsts,
+			int[] seconds) {
+		int nodeCount = graph.nodeCount();
+		int edgeCount = heads.length;
+		if (weights.length != edgeCount || firsts.length != edgeCount || seconds.length != edgeCount) {
+			return "all edge columns must have the same length";
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			if (heads[e] < 0 || heads[e] >= nodeCount) {
+				return "edge heads must be nodes of the graph";
+			}
+			if (firsts[e] < 0 ? ~firsts[e] >= graph.edgeCount()
+					: firsts[e] >= edgeCount || seconds[e] < 0 || seconds[e] >= edgeCount) {
+				return "edges must replace edges of the graph or of the index";
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Builds the index of a graph. This contracts every node of the graph,
+	 * and takes seconds to minutes for graphs of millions of edges.
+	 * @requires graph != null
+	 * @return a ContractionHierarchy with this.graph = graph
+	 */
+	public static ContractionHierarchy build(RoadGraph graph) {
+		return new HierarchyBuilder(graph).build();
+	}
+
+
+	/**
+	 * Returns the graph indexed.
+	 * @return this.graph
+	 */
+	public RoadGraph getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Returns the number of edges in the index.
+	 * @return the number of graph edges and shortcuts in the index.
+	 */
+	public int edgeCount() {
+		return heads.length;
+	}
+
+
+	/**
+	 * Returns the number of shortcuts in the index.
+	 * @return the number of shortcut edges in the index.
+	 */
+	public int shortcutCount() {
+		int count = 0;
+		for (int first : firsts) {
+			if (first >= 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	int upFirst(int node) {
+		return upFirsts[node];
+	}
+
+
+	int downFirst(int node) {
+		return downFirsts[node];
+	}
+
+
+	int head(int edge) {
+		return heads[edge];
+	}
+
+
+	double weight(int edge) {
+		return weights[edge];
+	}
+
+
+	/**
+	 * Expands an edge of the index into edges of the graph.
+	 * @requires 0 <= edge < edgeCount() && path.length >= count + the
+	 *           number of graph edges edge stands for, and stack.length is
+	 *           at least the shortcut depth of edge plus one
+	 * @modifies path, stack
+	 * @effects writes the graph edges that edge stands for, in the order of
+	 *          travel, to path starting at count.
+	 * @return count + the number of graph edges written.
+	 */
+	int expand(int edge, int[] path, int count, int[] stack) {
+		int top = 0;
+		stack[top++] = edge;
+		while (top > 0) {
+			int e = stack[--top];
+			if (firsts[e] < 0) {
+				path[count++] = ~firsts[e];
+			} else {
+				stack[top++] = seconds[e];
+				stack[top++] = firsts[e];
+			}
+		}
+		return count;
+	}
+
+
+	/**
+	 * Returns the number of graph edges an edge of the index stands for.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the number of graph edges edge stands for.
+	 */
+	int expandedLength(int edge) {
+		return firsts[edge] < 0 ? 1 : expandedLength(firsts[edge]) + expandedLength(seconds[edge]);
+	}
+
+
+	/**
+	 * Writes this index.
+	 * @requires out != null
+	 * @modifies out
+	 * @effects writes this index to out, in a form that read can load.
+	 * @throws IOException if out throws IOException.
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(graph.nodeCount());
+		data.writeInt(graph.edgeCount());
+		data.writeLong(fingerprint(graph));
+		data.writeInt(heads.length);
+		writeInts(data, upFirsts);
+		writeInts(data, downFirsts);
+		writeInts(data, heads);
+		for (double weight : weights) {
+			data.writeDouble(weight);
+		}
+		writeInts(data, firsts);
+		writeInts(data, seconds);
+		data.flush();
+	}
+
+
+	/**
+	 * Reads an index written by write.
+	 * @requires in != null && graph != null
+	 * @modifies in
+	 * @return the ContractionHierarchy written to in.
+	 * @throws IOException if in throws IOException, if in does not hold an
+	 *         index in a known version, if the index was not built from
+	 *         a graph equal to graph, or if it is truncated or corrupt.
+	 */
+	public static ContractionHierarchy read(InputStream in, RoadGraph graph) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != MAGIC) {
+			throw new IOException("not a contraction hierarchy index");
+		}
+		int version = data.readInt();
+		if (version != VERSION) {
+			throw new IOException("unknown contraction hierarchy version " + version);
+		}
+		if (data.readInt() != graph.nodeCount() || data.readInt() != graph.edgeCount()
+				|| data.readLong() != fingerprint(graph)) {
+			throw new IOException("the index was built from a different graph");
+		}
+		int edgeCount = data.readInt();
+		if (edgeCount < 0 || edgeCount > MAX_EDGES) {
+			throw new IOException("corrupt contraction hierarchy index: " + edgeCount + " edges");
+		}
+		int[] upFirsts = readInts(data, graph.nodeCount() + 1);
+		int[] downFirsts = readInts(data, graph.nodeCount() + 1);
+		//the groups are checked before the edges are read, so that they can't index past them
+		String error = groupsError(graph, upFirsts, downFirsts, edgeCount);
+		if (error != null) {
+			throw new IOException("corrupt contraction hierarchy index: " + error);
+		}
+		int[] heads = readInts(data, edgeCount);
+		double[] weights = readDoubles(data, edgeCount);
+		int[] firsts = readInts(data, edgeCount);
+		int[] seconds = readInts(data, edgeCount);
+		error = edgesError(graph, heads, weights, firsts, seconds);
+		if (error != null) {
+			throw new IOException("corrupt contraction hierarchy index: " + error);
+		}
+		return new ContractionHierarchy(graph, upFirsts, downFirsts, heads, weights, firsts, seconds);
+	}
+
+
+	private static void writeInts(DataOutputStream data, int[] values) throws IOException {
+		for (int value : values) {
+			data.writeInt(value);
+		}
+	}
+
+
+	//the arrays grow as the values are read, so a damaged count ends in an EOFException
+	//when the data runs out instead of allocating the whole count up front
+	private static int[] readInts(DataInputStream data, int count) throws IOException {
+		int[] values = new int[Math.min(count, READ_CHUNK)];
+		for (int i = 0; i < count; i++) {
+			if (i == values.length) {
+				values = Arrays.copyOf(values, (int) Math.min(count, 2L * values.length));
+			}
+			values[i] = data.readInt();
+		}
+		return values;
+	}
+
+
+	private static double[] readDoubles(DataInputStream data, int count) throws IOException {
+		double[] values = new double[Math.min(count, READ_CHUNK)];
+		for (int i = 0; i < count; i++) {
+			if (i == values.length) {
+				values = Arrays.copyOf(values, (int) Math.min(count, 2L * values.length));
+			}
+			values[i] = data.readDouble();
+		}
+		return values;
+	}
+
+
+	//a hash of the nodes and edges of graph, to recognize the graph an index was built from
+	private static long fingerprint(RoadGraph graph) {
+		long hash = graph.isOneWay() ? 1 : 0;
+		for (int n = 0; n < graph.nodeCount(); n++) {
+			hash = 31 * hash + graph.getNodePacked(n);
+			hash = 31 * hash + graph.firstEdge(n);
+		}
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			hash = 31 * hash + graph.getEdgeTarget(e);
+			hash = 31 * hash + graph.getEdgeSegment(e);
+		}
+		return hash;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "ContractionHierarchy[" + graph.nodeCount() + " nodes, " + edgeCount() + " edges]";
+	}
+}
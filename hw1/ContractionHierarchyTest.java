@@ -0,0 +1,196 @@
+package homework1;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ContractionHierarchyTest {
+
+	private SegmentStore mExample;
+	private SegmentStore mCity;
+
+
+	public ContractionHierarchyTest() {
+		mExample = new SegmentStore(ExampleGeoSegments.segments);
+		mCity = city(30, new Random(7));
+	}
+
+
+	//a grid of side x side intersections with jittered positions, some blocks
+	//missing and some doubled by a second street
+	static SegmentStore city(int side, Random random) {
+		int[][] latitudes = new int[side][side];
+		int[][] longitudes = new int[side][side];
+		for (int row = 0; row < side; row++) {
+			for (int column = 0; column < side; column++) {
+				latitudes[row][column] = 32700000 + row * 1000 + random.nextInt(400);
+				longitudes[row][column] = 34900000 + column * 1000 + random.nextInt(400);
+			}
+		}
+		SegmentStore store = new SegmentStore();
+		for (int row = 0; row < side; row++) {
+			for (int column = 0; column < side; column++) {
+				if (column + 1 < side && random.nextInt(10) > 0) {
+					store.add("Row " + row, latitudes[row][column], longitudes[row][column],
+						latitudes[row][column + 1], longitudes[row][column + 1]);
+				}
+				if (row + 1 < side && random.nextInt(10) > 0) {
+					store.add("Column " + column, latitudes[row][column], longitudes[row][column],
+						latitudes[row + 1][column], longitudes[row + 1][column]);
+				}
+				if (row + 1 < side && column + 1 < side && random.nextInt(5) == 0) {
+					store.add("Diagonal", latitudes[row][column], longitudes[row][column],
+						latitudes[row + 1][column + 1], longitudes[row + 1][column + 1]);
+				}
+			}
+		}
+		return store;
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//whether the hierarchy finds the same lengths as A* between the given pairs, and
+	//Routes that travel the graph
+	private boolean sameAsAStar(ContractionHierarchy hierarchy, int[] sources, int[] targets) {
+		RoadGraph graph = hierarchy.getGraph();
+		RouteFinder finder = new RouteFinder(graph);
+		HierarchyRouteFinder hierarchyFinder = new HierarchyRouteFinder(hierarchy);
+		for (int i = 0; i < sources.length; i++) {
+			double expected = finder.distance(sources[i], targets[i]);
+			double distance = hierarchyFinder.distance(sources[i], targets[i]);
+			Route route = hierarchyFinder.findRoute(sources[i], targets[i]);
+			if (expected == Double.POSITIVE_INFINITY || sources[i] == targets[i]) {
+				if (distance != expected || route != null) {
+					return false;
+				}
+			} else if (Math.abs(distance - expected) > 1e-9 || route == null
+					|| Math.abs(route.getLength() - expected) > 1e-9
+					|| route.getStart().toPacked() != graph.getNodePacked(sources[i])
+					|| route.getEnd().toPacked() != graph.getNodePacked(targets[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static int[] allPairs(int nodeCount, boolean sources) {
+		int[] nodes = new int[nodeCount * nodeCount];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = sources ? i / nodeCount : i % nodeCount;
+		}
+		return nodes;
+	}
+
+
+	private static int[] randomNodes(int nodeCount, int count, Random random) {
+		int[] nodes = new int[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = random.nextInt(nodeCount);
+		}
+		return nodes;
+	}
+
+
+	public void test() throws IOException {
+		show("build()");
+		for (boolean oneWay : new boolean[] {false, true}) {
+			RoadGraph graph = new RoadGraph(mExample, oneWay);
+			ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+			int n = graph.nodeCount();
+			show("Example routes between all points equal A* ones" + (oneWay ? " (one-way)." : "."),
+				sameAsAStar(hierarchy, allPairs(n, true), allPairs(n, false)));
+		}
+		Random random = new Random(11);
+		for (boolean oneWay : new boolean[] {false, true}) {
+			RoadGraph graph = new RoadGraph(mCity, oneWay);
+			ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+			int n = graph.nodeCount();
+			show("City routes between random points equal A* ones" + (oneWay ? " (one-way)." : "."),
+				sameAsAStar(hierarchy, randomNodes(n, 300, random), randomNodes(n, 300, random)));
+		}
+
+		show("findRoute()");
+		RoadGraph exampleGraph = new RoadGraph(mExample);
+		HierarchyRouteFinder exampleFinder = new HierarchyRouteFinder(ContractionHierarchy.build(exampleGraph));
+		Route route = exampleFinder.findRoute(ExampleGeoSegments.points[0], ExampleGeoSegments.points[5]);
+		Route expected = new RouteFinder(exampleGraph).findRoute(ExampleGeoSegments.points[0], ExampleGeoSegments.points[5]);
+		show("Shortcuts are expanded into the GeoSegments of the graph.", route != null && route.equals(expected));
+		show("Directions are the same as for the A* route.",
+			new DrivingRouteFormatter().computeDirections(route, 0)
+				.equals(new DrivingRouteFormatter().computeDirections(expected, 0)));
+
+		show("write() and read()");
+		RoadGraph graph = new RoadGraph(mCity);
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hierarchy.write(bytes);
+		ContractionHierarchy loaded = ContractionHierarchy.read(new ByteArrayInputStream(bytes.toByteArray()), graph);
+		boolean same = loaded.edgeCount() == hierarchy.edgeCount();
+		HierarchyRouteFinder finder = new HierarchyRouteFinder(hierarchy);
+		HierarchyRouteFinder loadedFinder = new HierarchyRouteFinder(loaded);
+		for (int i = 0; i < 200; i++) {
+			int source = random.nextInt(graph.nodeCount());
+			int target = random.nextInt(graph.nodeCount());
+			same = same && finder.distance(source, target) == loadedFinder.distance(source, target);
+		}
+		show("A loaded index answers like the one written.", same);
+		boolean rejected = false;
+		try {
+			ContractionHierarchy.read(new ByteArrayInputStream(bytes.toByteArray()), new RoadGraph(mCity, true));
+		} catch (IOException e) {
+			rejected = true;
+		}
+		show("An index is not loaded for a different graph.", rejected);
+
+		//with RepCheck off, so that read itself must find the damage
+		RepCheck.Level level = RepCheck.getLevel();
+		RepCheck.setLevel(RepCheck.Level.OFF);
+		byte[] index = bytes.toByteArray();
+		int headers = 28;
+		int heads = headers + 8 * (graph.nodeCount() + 1);
+		show("A negative or huge edge count is rejected.", rejected(index, graph, 24, -1)
+			&& rejected(index, graph, 24, Integer.MAX_VALUE));
+		show("Edge groups out of order are rejected.", rejected(index, graph, headers + 4, Integer.MAX_VALUE));
+		show("An edge head that is not a node is rejected.", rejected(index, graph, heads, graph.nodeCount()));
+		show("A truncated index is rejected.", rejected(Arrays.copyOf(index, index.length - 4), graph, 0,
+			ByteBuffer.wrap(index).getInt(0)));
+		RepCheck.setLevel(level);
+	}
+
+
+	//whether reading index, with the int at offset replaced by value, throws IOException
+	private static boolean rejected(byte[] index, RoadGraph graph, int offset, int value) {
+		byte[] damaged = index.clone();
+		ByteBuffer.wrap(damaged).putInt(offset, value);
+		try {
+			ContractionHierarchy.read(new ByteArrayInputStream(damaged), graph);
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		ContractionHierarchyTest hierarchyTest = new ContractionHierarchyTest();
+		hierarchyTest.test();
+	}
+}
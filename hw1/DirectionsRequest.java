@@ -0,0 +1,77 @@
+package homework1;
+
+/**
+ * A DirectionsRequest is a Route together with the heading at its start,
+ * the two arguments of RouteFormatter.computeDirections. It is the unit of
+ * work of a BatchRouteFormatter. DirectionsRequests are immutable.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   route : Route          // the route to give directions for
+ *   heading : angle        // the initial heading, in degrees
+ * </pre>
+ **/
+public final class DirectionsRequest {
+
+	private final Route route;
+	private final double heading;
+
+	//Abstraction Function:
+	//the request for directions along route, starting with the given heading
+
+	//Rep Invariant:
+	//route != null && 0 <= heading < 360
+
+
+  	/**
+     * Constructs a new DirectionsRequest.
+     * @requires route != null && 0 <= heading < 360
+     * @effects constructs a new DirectionsRequest r such that
+     *          r.route = route && r.heading = heading
+     **/
+  	public DirectionsRequest(Route route, double heading) {
+  		this.route = route;
+  		this.heading = heading;
+  		if (RepCheck.onConstruction()){
+  			checkRep();
+  		}
+  	}
+
+	  private void checkRep() throws RuntimeException{
+		  long start = RepCheck.start();
+		  if (this.route == null){
+			  throw new RuntimeException("route can't get null argument");
+		  }
+		  if (this.heading < 0 || this.heading >= 360){
+			  throw new RuntimeException("heading must be between 0 and 360");
+		  }
+		  RepCheck.record(DirectionsRequest.class, start);
+	  }
+
+
+  	/**
+  	 * Returns the route of this request.
+     * @return the route of this request.
+     */
+  	public Route getRoute() {
+  		return this.route;
+  	}
+
+
+  	/**
+  	 * Returns the initial heading of this request.
+     * @return the initial heading of this request, in degrees.
+     */
+  	public double getHeading() {
+  		return this.heading;
+  	}
+
+
+  	/**
+  	 * Returns a string representation of this.
+     * @return a string representation of this.
+     **/
+  	public String toString() {
+  		return "[" + this.route.getStart() + " -> " + this.route.getEnd() + ", " + this.heading + "]";
+  	}
+}
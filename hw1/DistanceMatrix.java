@@ -0,0 +1,133 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A DistanceMatrix holds the lengths of the shortest routes from every one
+ * of a list of origins to every one of a list of destinations, in
+ * kilometers (the sum of GeoSegment.getLength along the route), and gives
+ * them as walking times too, at WalkingRouteFormatter.MINUTES_PER_KILOMETER.
+ * DistanceMatrices are immutable.
+ * <p>
+ * The lengths are stored row by row in a single double array, so a
+ * 1000 x 1000 matrix takes 8 MB and no objects per cell.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   rows : int          // the number of origins
+ *   columns : int       // the number of destinations
+ *   km[i][j] : real     // the length of a shortest route from origin i to
+ *                       // destination j, 0 if they are the same node, or
+ *                       // infinity if there is no route
+ * </pre>
+ */
+public final class DistanceMatrix {
+
+	private final int rows;
+	private final int columns;
+	private final double[] kilometers;
+
+	//Abstraction Function:
+	//km[i][j] = kilometers[i * columns + j]
+
+	//Rep Invariant:
+	//rows, columns >= 0 && kilometers.length = rows * columns
+	//kilometers[k] >= 0 (or infinite) for all k
+
+
+	//takes ownership of kilometers
+	DistanceMatrix(int rows, int columns, double[] kilometers) {
+		this.rows = rows;
+		this.columns = columns;
+		this.kilometers = kilometers;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the size of the matrix
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (rows < 0 || columns < 0 || kilometers.length != (long) rows * columns) {
+			throw new RuntimeException("the matrix must have rows * columns cells");
+		}
+		for (double km : kilometers) {
+			if (!(km >= 0)) {
+				throw new RuntimeException("distances must be nonnegative");
+			}
+		}
+		RepCheck.record(DistanceMatrix.class, start);
+	}
+
+
+	/**
+	 * Returns the number of origins.
+	 * @return this.rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+
+	/**
+	 * Returns the number of destinations.
+	 * @return this.columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+
+	/**
+	 * Returns a distance.
+	 * @requires 0 <= row < this.rows && 0 <= column < this.columns
+	 * @return this.km[row][column]
+	 */
+	public double getKilometers(int row, int column) {
+		return kilometers[row * columns + column];
+	}
+
+
+	/**
+	 * Returns a walking time.
+	 * @requires 0 <= row < this.rows && 0 <= column < this.columns
+	 * @return this.km[row][column] * WalkingRouteFormatter.MINUTES_PER_KILOMETER,
+	 *         not rounded.
+	 */
+	public double getWalkingMinutes(int row, int column) {
+		return kilometers[row * columns + column] * WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+	}
+
+
+	/**
+	 * Returns all the distances.
+	 * @return a new array a such that a[i * columns + j] = this.km[i][j]
+	 */
+	public double[] toKilometers() {
+		return Arrays.copyOf(kilometers, kilometers.length);
+	}
+
+
+	/**
+	 * Returns all the walking times.
+	 * @return a new array a such that a[i * columns + j] =
+	 *         getWalkingMinutes(i, j)
+	 */
+	public double[] toWalkingMinutes() {
+		double[] minutes = new double[kilometers.length];
+		for (int k = 0; k < minutes.length; k++) {
+			minutes[k] = kilometers[k] * WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+		}
+		return minutes;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "DistanceMatrix[" + rows + " x " + columns + "]";
+	}
+}
@@ -0,0 +1,235 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A DistanceMatrixEngine computes DistanceMatrices, the lengths of the
+ * shortest routes between every origin and every destination, using a
+ * ContractionHierarchy.
+ * <p>
+ * Instead of a route query per cell, the engine runs one upward search per
+ * destination and one per origin (the bucket algorithm): every node a
+ * backward search from destination j settles gets an entry (j, distance)
+ * in its bucket, and a forward search from origin i then finds all of row
+ * i by scanning the buckets of the nodes it settles. An r x c matrix costs
+ * r + c searches plus the bucket scans.
+ * <p>
+ * The searches run on a ForkJoinPool owned by the engine, with the
+ * parallelism given at construction, one row or one destination at a time
+ * per thread. An engine should be closed when it is no longer needed, to
+ * stop the threads of its pool.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   hierarchy : ContractionHierarchy  // the index searched
+ *   graph : RoadGraph                 // hierarchy.graph
+ *   parallelism : int                 // the number of threads used
+ * </pre>
+ */
+public final class DistanceMatrixEngine implements AutoCloseable {
+
+	private final ContractionHierarchy hierarchy;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<UpwardSearch> searches;
+
+	//Abstraction Function:
+	//hierarchy = this.hierarchy, parallelism = this.pool.getParallelism()
+
+	//Rep Invariant:
+	//hierarchy != null && pool != null && searches != null
+
+
+  	/**
+     * Constructs a new DistanceMatrixEngine that uses a thread per
+     * available processor.
+     * @requires hierarchy != null
+     * @effects constructs a new DistanceMatrixEngine e such that
+     *          e.hierarchy = hierarchy &&
+     *          e.parallelism = Runtime.getRuntime().availableProcessors()
+     **/
+	public DistanceMatrixEngine(ContractionHierarchy hierarchy) {
+		this(hierarchy, Runtime.getRuntime().availableProcessors());
+	}
+
+
+  	/**
+     * Constructs a new DistanceMatrixEngine.
+     * @requires hierarchy != null && parallelism > 0
+     * @effects constructs a new DistanceMatrixEngine e such that
+     *          e.hierarchy = hierarchy && e.parallelism = parallelism
+     **/
+	public DistanceMatrixEngine(ContractionHierarchy hierarchy, int parallelism) {
+		this.hierarchy = hierarchy;
+		this.pool = new ForkJoinPool(parallelism);
+		//every thread of the pool gets its own search arrays
+		this.searches = ThreadLocal.withInitial(() -> new UpwardSearch(hierarchy));
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (hierarchy == null || pool == null || searches == null) {
+			throw new RuntimeException("hierarchy, pool and searches can't be null");
+		}
+		RepCheck.record(DistanceMatrixEngine.class, start);
+	}
+
+
+	/**
+	 * Returns the index searched.
+	 * @return this.hierarchy
+	 */
+	public ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+
+	/**
+	 * Returns the number of threads used.
+	 * @return this.parallelism
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+
+	/**
+	 * Computes the matrix between points.
+	 * @requires origins != null && destinations != null && no element of
+	 *           them is null
+	 * @return a DistanceMatrix m with m.rows = origins.length and
+	 *         m.columns = destinations.length, where m.km[i][j] is the
+	 *         length of a shortest route from origins[i] to destinations[j],
+	 *         or infinity if either is not a node of this.graph.
+	 */
+	public DistanceMatrix compute(GeoPoint[] origins, GeoPoint[] destinations) {
+		return compute(nodes(origins), nodes(destinations));
+	}
+
+
+	/**
+	 * Computes the matrix between nodes.
+	 * @requires sources != null && targets != null && all their elements
+	 *           are nodes of this.graph, or -1
+	 * @return a DistanceMatrix m with m.rows = sources.length and
+	 *         m.columns = targets.length, where m.km[i][j] is the length of
+	 *         a shortest route from sources[i] to targets[j] (0 if they are
+	 *         equal), or infinity if there is none or either is -1.
+	 */
+	public DistanceMatrix compute(int[] sources, int[] targets) {
+		int rows = sources.length;
+		int columns = targets.length;
+		double[] kilometers = new double[rows * columns];
+		Arrays.fill(kilometers, Double.POSITIVE_INFINITY);
+		pool.submit(() -> {
+			Buckets buckets = buckets(targets);
+			IntStream.range(0, rows).parallel().forEach(row -> {
+				if (sources[row] >= 0) {
+					fillRow(sources[row], buckets, kilometers, row * columns);
+				}
+			});
+		}).join();
+		return new DistanceMatrix(rows, columns, kilometers);
+	}
+
+
+	//the bucket entries of all nodes: bucket of node n is firsts[n] <= b < firsts[n+1]
+	private static final class Buckets {
+		final int[] firsts;
+		final int[] columns;
+		final double[] distances;
+
+		Buckets(int[] firsts, int[] columns, double[] distances) {
+			this.firsts = firsts;
+			this.columns = columns;
+			this.distances = distances;
+		}
+	}
+
+
+	//runs the backward searches of the targets in parallel and sorts their results into buckets
+	private Buckets buckets(int[] targets) {
+		int[][] nodes = new int[targets.length][];
+		double[][] distances = new double[targets.length][];
+		IntStream.range(0, targets.length).parallel().forEach(column -> {
+			if (targets[column] < 0) {
+				nodes[column] = new int[0];
+				distances[column] = new double[0];
+				return;
+			}
+			UpwardSearch search = searches.get();
+			search.run(targets[column], false);
+			int count = search.resultCount();
+			nodes[column] = new int[count];
+			distances[column] = new double[count];
+			for (int i = 0; i < count; i++) {
+				nodes[column][i] = search.resultNode(i);
+				distances[column][i] = search.resultDistance(i);
+			}
+		});
+
+		int nodeCount = hierarchy.getGraph().nodeCount();
+		int[] firsts = new int[nodeCount + 1];
+		for (int[] columnNodes : nodes) {
+			for (int node : columnNodes) {
+				firsts[node + 1]++;
+			}
+		}
+		for (int n = 0; n < nodeCount; n++) {
+			firsts[n + 1] += firsts[n];
+		}
+		int[] next = Arrays.copyOf(firsts, nodeCount);
+		int[] bucketColumns = new int[firsts[nodeCount]];
+		double[] bucketDistances = new double[firsts[nodeCount]];
+		for (int column = 0; column < nodes.length; column++) {
+			for (int i = 0; i < nodes[column].length; i++) {
+				int b = next[nodes[column][i]]++;
+				bucketColumns[b] = column;
+				bucketDistances[b] = distances[column][i];
+			}
+		}
+		return new Buckets(firsts, bucketColumns, bucketDistances);
+	}
+
+
+	//runs the forward search of source and scans the buckets it meets into row
+	private void fillRow(int source, Buckets buckets, double[] kilometers, int offset) {
+		UpwardSearch search = searches.get();
+		search.run(source, true);
+		for (int i = 0, count = search.resultCount(); i < count; i++) {
+			int node = search.resultNode(i);
+			double distance = search.resultDistance(i);
+			for (int b = buckets.firsts[node], end = buckets.firsts[node + 1]; b < end; b++) {
+				int k = offset + buckets.columns[b];
+				double total = distance + buckets.distances[b];
+				if (total < kilometers[k]) {
+					kilometers[k] = total;
+				}
+			}
+		}
+	}
+
+
+	private int[] nodes(GeoPoint[] points) {
+		RoadGraph graph = hierarchy.getGraph();
+		int[] nodes = new int[points.length];
+		for (int i = 0; i < points.length; i++) {
+			nodes[i] = graph.getNode(points[i]);
+		}
+		return nodes;
+	}
+
+
+	/**
+	 * Stops the threads used for matrices, once the running computations end.
+	 * @effects no more matrices can be computed by this.
+	 */
+	public void close() {
+		pool.shutdown();
+	}
+}
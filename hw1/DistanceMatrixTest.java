@@ -0,0 +1,102 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class DistanceMatrixTest {
+
+	private RoadGraph mExample;
+	private RoadGraph mCity;
+
+
+	public DistanceMatrixTest() {
+		mExample = new RoadGraph(new SegmentStore(ExampleGeoSegments.segments));
+		mCity = new RoadGraph(ContractionHierarchyTest.city(30, new Random(7)), true);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//whether every cell of matrix is the A* distance between its nodes
+	private boolean sameAsAStar(RoadGraph graph, DistanceMatrix matrix, int[] sources, int[] targets) {
+		RouteFinder finder = new RouteFinder(graph);
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < targets.length; j++) {
+				double expected = (sources[i] < 0 || targets[j] < 0)
+					? Double.POSITIVE_INFINITY : finder.distance(sources[i], targets[j]);
+				double km = matrix.getKilometers(i, j);
+				if (expected == Double.POSITIVE_INFINITY ? km != expected : Math.abs(km - expected) > 1e-9) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		show("compute()");
+		try (DistanceMatrixEngine engine = new DistanceMatrixEngine(ContractionHierarchy.build(mExample), 2)) {
+			GeoPoint[] points = ExampleGeoSegments.points;
+			DistanceMatrix matrix = engine.compute(points, points);
+			int[] nodes = new int[points.length];
+			for (int i = 0; i < points.length; i++) {
+				nodes[i] = mExample.getNode(points[i]);
+			}
+			show("Example matrix has a row per origin and a column per destination.",
+				matrix.getRows() == points.length && matrix.getColumns() == points.length);
+			show("Example matrix cells are A* distances.", sameAsAStar(mExample, matrix, nodes, nodes));
+			boolean minutes = true;
+			for (int i = 0; i < points.length; i++) {
+				for (int j = 0; j < points.length; j++) {
+					minutes = minutes && matrix.getWalkingMinutes(i, j) == matrix.getKilometers(i, j) * 20;
+				}
+			}
+			show("Walking minutes are 20 per kilometer.", minutes);
+			DistanceMatrix unknown = engine.compute(new GeoPoint[] {new GeoPoint(32780000, 35010000)}, points);
+			show("A point that is not a node has no routes.",
+				unknown.getKilometers(0, 0) == Double.POSITIVE_INFINITY);
+		}
+
+		ContractionHierarchy city = ContractionHierarchy.build(mCity);
+		Random random = new Random(3);
+		int[] sources = new int[40];
+		int[] targets = new int[50];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(mCity.nodeCount());
+		}
+		for (int j = 0; j < targets.length; j++) {
+			targets[j] = random.nextInt(mCity.nodeCount());
+		}
+		targets[7] = sources[3];
+		sources[5] = -1;
+		DistanceMatrix sequential;
+		try (DistanceMatrixEngine engine = new DistanceMatrixEngine(city, 1)) {
+			sequential = engine.compute(sources, targets);
+		}
+		show("One-way city matrix cells are A* distances.", sameAsAStar(mCity, sequential, sources, targets));
+		try (DistanceMatrixEngine engine = new DistanceMatrixEngine(city, 3)) {
+			show("Parallel rows give the same matrix.",
+				Arrays.equals(engine.compute(sources, targets).toKilometers(), sequential.toKilometers()));
+		}
+	}
+
+
+	public static void main(String[] args) {
+		DistanceMatrixTest matrixTest = new DistanceMatrixTest();
+		matrixTest.test();
+	}
+}
@@ -1,6 +1,6 @@
 package homework1;
 
-import java.text.DecimalFormat;
+import java.io.IOException;
 
 /**
  * The DrivingDirections class creates a textual description of directions
@@ -25,8 +25,6 @@ import java.text.DecimalFormat;
  */
 public class DrivingRouteFormatter extends RouteFormatter {
 
-	private static final DecimalFormat myFormatter = new DecimalFormat("0.0");
-  
   	/**
      * Computes a single line of a multi-line directions String that
      * represents the instructions for traversing a single geographic
@@ -52,11 +50,23 @@ public class DrivingRouteFormatter extends RouteFormatter {
      * above.
      **/
   	public String computeLine(GeoFeature geoFeature, double origHeading) {
-  		
+		  return lineOf(geoFeature, origHeading);
+  	}
+
+
+  	/**
+     * Writes the line computeLine returns to out, in pieces.
+     * @requires 0 <= origHeading < 360 && out != null
+     * @modifies out
+     * @effects appends computeLine(geoFeature, origHeading) to out.
+     * @throws IOException if out throws IOException.
+     **/
+  	protected void appendLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
   		double dist = geoFeature.getLength();
-		  String line = getTurnString(origHeading, geoFeature.getStartHeading());
-		  line += " onto " + geoFeature.getName() + " and go " + myFormatter.format(dist) + " kilometers.\n";
-		  return line;
+		  out.append(getTurnString(origHeading, geoFeature.getStartHeading()));
+		  out.append(" onto ").append(geoFeature.getName()).append(" and go ");
+		  appendTenths(out, dist);
+		  out.append(" kilometers.\n");
   	}
 
 }
@@ -1,7 +1,6 @@
 package homework1;
 
 import javax.swing.*;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -48,9 +47,15 @@ public class GeoFeature {
 	// info can be found at:
 	//   http://docs.oracle.com/javase/8/docs/api/java/util/List.html
 	
-	private final ArrayList<GeoSegment> geoSegments;
+	// geoSegments is a PersistentList, so addSegment shares the segments of
+	// this feature with the new one instead of copying them.
+	private final PersistentList<GeoSegment> geoSegments;
 	private final double length;
 
+	// hashCode() is linear in the number of segments, so it is computed on
+	// first use and cached. 0 means not computed yet (as in String).
+	private int hash;
+
 	//Abstraction Function:
 	//let gf be geographic feature and obj be GeoFeature object:
 	//gf.geoSegment = obj.geoSegment
@@ -77,13 +82,16 @@ public class GeoFeature {
      *          r.end = gs.p2
      **/
   	public GeoFeature(GeoSegment gs) {
-  		geoSegments = new ArrayList<GeoSegment>();
-		  geoSegments.add(gs);
+  		geoSegments = PersistentList.of(gs);
 		  length = gs.getLength();
-		  checkRep();
+		  if (RepCheck.onConstruction()){
+		  	checkRep();
+		  }
   	}
 
+	  //how often this is called is decided by RepCheck. it is linear in the number of segments
 	  private void checkRep() throws RuntimeException{
+		  long start = RepCheck.start();
 		  double totalLength = 0;
 		  GeoSegment gs;
 		  if (geoSegments == null){
@@ -99,7 +107,7 @@ public class GeoFeature {
 				  throw new RuntimeException("all geoSegment elements must have the same name");
 			  }
 			  //check if endpoint of current segment equals to start point of next segment
-			  if ((i > geoSegments.size() -1) && (!gs.getP2().equals(geoSegments.get(i+1).getP1()))){
+			  if ((i < geoSegments.size() -1) && (!gs.getP2().equals(geoSegments.get(i+1).getP1()))){
 				  throw new RuntimeException("all segments must have end point equals to start point of follow segment");
 			  }
 
@@ -108,6 +116,7 @@ public class GeoFeature {
 		  if (this.length != totalLength){
 			  throw new RuntimeException("length is not equal to sum of lengths in geoSegment list");
 		  }
+		  RepCheck.record(GeoFeature.class, start);
 	  }
   
 
@@ -116,7 +125,9 @@ public class GeoFeature {
       * @return name of geographic feature
       */
   	public String getName() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(0).getName();
   	}
 
@@ -126,7 +137,9 @@ public class GeoFeature {
      * @return location of the start of the geographic feature.
      */
   	public GeoPoint getStart() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(0).getP1();
   	}
 
@@ -136,7 +149,9 @@ public class GeoFeature {
      * @return location of the end of the geographic feature.
      */
   	public GeoPoint getEnd() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(geoSegments.size()-1).getP2();
   	}
 
@@ -148,7 +163,9 @@ public class GeoFeature {
 	 *         and the direction will not change.
      */
   	public double getStartHeading() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(0).getHeading();
   	}
 
@@ -159,7 +176,9 @@ public class GeoFeature {
      *         geographic feature, in  0 <= degrees < 360. if degrees = 360 start and end point are the same point.
      */
   	public double getEndHeading() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(geoSegments.size()-1).getHeading();
   	}
 
@@ -172,11 +191,22 @@ public class GeoFeature {
      *         values are not necessarily equal.
      */
   	public double getLength() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.length;
   	}
 
 
+	/**
+	 * Returns the number of segments of the geographic feature.
+	 * @return |this.geoSegments|
+	 */
+	int geoSegmentCount() {
+		return this.geoSegments.size();
+	}
+
+
   	/**
    	 * Creates a new GeoFeature that is equal to this GeoFeature with gs
    	 * appended to its end.
@@ -187,17 +217,36 @@ public class GeoFeature {
      *    	   r.length = this.length + gs.length
      **/
   	public GeoFeature addSegment(GeoSegment gs) {
-  		ArrayList<GeoSegment> newGeoSegment = new ArrayList<GeoSegment>(this.geoSegments);
-		  newGeoSegment.add(gs);
-		  checkRep();
-		  return new GeoFeature(newGeoSegment, this.length + gs.getLength());
+		  if (RepCheck.onConstruction()){
+			  checkAppend(gs);
+		  }
+		  return new GeoFeature(this.geoSegments.append(gs), this.length + gs.getLength());
   	}
 
-	  //
-	  private GeoFeature (ArrayList<GeoSegment> geoSegments, double length){
-		  this.geoSegments = new ArrayList<GeoSegment>(geoSegments);
+	  //this is already checked, so appending gs keeps the rep invariant iff gs continues this feature.
+	  //checking only gs keeps addSegment independent of the feature length.
+	  private void checkAppend(GeoSegment gs) throws RuntimeException{
+		  long start = RepCheck.start();
+		  if (gs == null){
+			  throw new RuntimeException("all elements of geoSegment must be != null");
+		  }
+		  GeoSegment last = this.geoSegments.last();
+		  if (!gs.getName().equals(last.getName())){
+			  throw new RuntimeException("all geoSegment elements must have the same name");
+		  }
+		  if (!gs.getP1().equals(last.getP2())){
+			  throw new RuntimeException("all segments must have end point equals to start point of follow segment");
+		  }
+		  RepCheck.record(GeoFeature.class, start);
+	  }
+
+	  //geoSegments is shared with the feature it was appended to, not copied
+	  private GeoFeature (PersistentList<GeoSegment> geoSegments, double length){
+		  this.geoSegments = geoSegments;
 		  this.length = length;
-		  checkRep();
+		  if (RepCheck.onAppend()){
+			  checkRep();
+		  }
 	  }
 
   	/**
@@ -219,7 +268,9 @@ public class GeoFeature {
      * @see homework1.GeoSegment
      */
   	public Iterator<GeoSegment> getGeoSegments() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.iterator();
   	}
 
@@ -233,6 +284,14 @@ public class GeoFeature {
   	public boolean equals(Object o) {
   		if (o != null){
 			  if (o instanceof GeoFeature){
+				  if (this == o){
+					  return true;
+				  }
+				  //features with different cached hashes can't be equal
+				  int otherHash = ((GeoFeature)o).hash;
+				  if (this.hash != 0 && otherHash != 0 && this.hash != otherHash){
+					  return false;
+				  }
 				  Iterator<GeoSegment> thisIter = this.getGeoSegments();
 				  Iterator<GeoSegment> objIter = ((GeoFeature)o).getGeoSegments();
 				  while (thisIter.hasNext() && objIter.hasNext()){
@@ -253,10 +312,15 @@ public class GeoFeature {
      * @return a hash code for this.
      **/
   	public int hashCode() {
-    	// This implementation will work, but you may want to modify it
-    	// improved performance.
-    	
-    	return 1;
+		  int h = this.hash;
+		  if (h == 0){
+			  h = 1;
+			  for (GeoSegment gs : this.geoSegments){
+				  h = 31 * h + gs.hashCode();
+			  }
+			  this.hash = h;
+		  }
+		  return h;
   	}
 
 
@@ -0,0 +1,422 @@
+package homework1;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A pull parser for GeoJSON road networks that gives the segments of
+ * every LineString and MultiLineString feature to a SegmentSink as soon
+ * as the feature ends, so memory is bounded by the largest feature. See
+ * NetworkImporter for the accepted input.
+ */
+final class GeoJsonParser {
+
+	private final Reader in;
+	private final SegmentSink sink;
+	private final char[] buffer = new char[1 << 16];
+	private int position;
+	private int limit;
+	private long line = 1;
+	private final StringBuilder text = new StringBuilder();
+	private byte[] number = new byte[32];
+
+	//the coordinates being read: positions, and where each part of them ends
+	private int[] latitudes = new int[256];
+	private int[] longitudes = new int[256];
+	private int[] partEnds = new int[16];
+	private int pointCount;
+	private int partCount;
+	private int positionDepth;
+
+
+	GeoJsonParser(Reader in, SegmentSink sink) {
+		this.in = in;
+		this.sink = sink;
+	}
+
+
+	/**
+	 * Parses the whole input.
+	 * @modifies in, sink
+	 * @effects gives the segments of the input to sink, in order.
+	 * @throws NetworkFormatException if the input is malformed.
+	 * @throws IOException if in throws IOException.
+	 */
+	void parse() throws IOException {
+		if (peek() != '{') {
+			throw error("expected a GeoJSON object");
+		}
+		GeoJsonObject root = readObject();
+		if (root.geometry != null) {
+			emit(root.name, root.geometry);
+		} else {
+			emit("", root);
+		}
+		if (peek() != -1) {
+			throw error("text after the GeoJSON object");
+		}
+	}
+
+
+	//what was read of an object: its type, its feature name, its geometry object, and
+	//its own coordinates as parts of positions at a depth (1 for a LineString)
+	private static final class GeoJsonObject {
+		String type;
+		String name = "";
+		GeoJsonObject geometry;
+		int[] latitudes;
+		int[] longitudes;
+		int[] partEnds;
+		int partCount;
+		int depth;
+	}
+
+
+	//reads an object; features of a "features" array are emitted as they end
+	private GeoJsonObject readObject() throws IOException {
+		GeoJsonObject object = new GeoJsonObject();
+		expect('{');
+		if (peek() == '}') {
+			next();
+			return object;
+		}
+		do {
+			String key = readString();
+			expect(':');
+			switch (key) {
+			case "type":
+				object.type = peek() == '"' ? readString() : null;
+				if (object.type == null) {
+					skipValue();
+				}
+				break;
+			case "properties":
+				if (peek() == '{') {
+					object.name = readName();
+				} else {
+					skipValue();
+				}
+				break;
+			case "geometry":
+				if (peek() == '{') {
+					object.geometry = readObject();
+				} else {
+					skipValue();
+				}
+				break;
+			case "coordinates":
+				readCoordinates(object);
+				break;
+			case "features":
+				expect('[');
+				if (peek() == ']') {
+					next();
+					break;
+				}
+				do {
+					GeoJsonObject feature = readObject();
+					if (feature.geometry != null) {
+						emit(feature.name, feature.geometry);
+					}
+				} while (comma(']'));
+				break;
+			default:
+				skipValue();
+			}
+		} while (comma('}'));
+		return object;
+	}
+
+
+	//reads a properties object and returns its "name", or "" if it has none
+	private String readName() throws IOException {
+		String name = "";
+		expect('{');
+		if (peek() == '}') {
+			next();
+			return name;
+		}
+		do {
+			String key = readString();
+			expect(':');
+			if (key.equals("name") && peek() == '"') {
+				name = readString();
+			} else {
+				skipValue();
+			}
+		} while (comma('}'));
+		return name;
+	}
+
+
+	//reads a coordinates array of any depth, keeping the positions of the parts made
+	//of positions (a LineString is one part, a MultiLineString one per line)
+	private void readCoordinates(GeoJsonObject object) throws IOException {
+		pointCount = 0;
+		partCount = 0;
+		positionDepth = -1;
+		readArray(0);
+		object.latitudes = Arrays.copyOf(latitudes, pointCount);
+		object.longitudes = Arrays.copyOf(longitudes, pointCount);
+		object.partEnds = Arrays.copyOf(partEnds, partCount);
+		object.partCount = partCount;
+		object.depth = positionDepth;
+	}
+
+
+	private void readArray(int depth) throws IOException {
+		long startLine = line;
+		expect('[');
+		int c = peek();
+		if (c == '-' || (c >= '0' && c <= '9')) {
+			readPosition(depth, startLine);
+			return;
+		}
+		if (c == ']') {
+			next();
+			return;
+		}
+		boolean positions = false;
+		do {
+			if (peek() != '[') {
+				throw error("expected a position or an array of positions");
+			}
+			int before = pointCount;
+			readArray(depth + 1);
+			positions = positions || (positionDepth == depth + 1 && pointCount > before);
+		} while (comma(']'));
+		if (positions) {
+			if (partCount == partEnds.length) {
+				partEnds = Arrays.copyOf(partEnds, 2 * partCount);
+			}
+			partEnds[partCount++] = pointCount;
+		}
+	}
+
+
+	//reads the rest of a position [longitude, latitude, ...] whose '[' was read
+	private void readPosition(int depth, long startLine) throws IOException {
+		if (positionDepth >= 0 && positionDepth != depth) {
+			throw error("positions at different depths");
+		}
+		positionDepth = depth;
+		long longitude = readCoordinate("longitude");
+		if (!comma(']')) {
+			throw error("a position needs a longitude and a latitude");
+		}
+		long latitude = readCoordinate("latitude");
+		while (comma(']')) {
+			skipValue();
+		}
+		if (longitude < GeoPoint.MIN_LONGITUDE || longitude > GeoPoint.MAX_LONGITUDE) {
+			throw new NetworkFormatException(startLine, "longitude " + longitude / 1e6 + " is out of range");
+		}
+		if (latitude < GeoPoint.MIN_LATITUDE || latitude > GeoPoint.MAX_LATITUDE) {
+			throw new NetworkFormatException(startLine, "latitude " + latitude / 1e6 + " is out of range");
+		}
+		if (pointCount == latitudes.length) {
+			latitudes = Arrays.copyOf(latitudes, 2 * pointCount);
+			longitudes = Arrays.copyOf(longitudes, 2 * pointCount);
+		}
+		latitudes[pointCount] = (int) latitude;
+		longitudes[pointCount++] = (int) longitude;
+	}
+
+
+	private long readCoordinate(String what) throws IOException {
+		int length = 0;
+		peek();
+		while (true) {
+			int c = peekRaw();
+			if (c == -1 || !(c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9'))) {
+				break;
+			}
+			if (length == number.length) {
+				number = Arrays.copyOf(number, 2 * length);
+			}
+			number[length++] = (byte) next();
+		}
+		long value = NetworkImporter.parseMillionths(number, 0, length);
+		if (value == Long.MIN_VALUE) {
+			throw error("the " + what + " is not a number");
+		}
+		return value;
+	}
+
+
+	//gives the segments of a LineString or MultiLineString geometry to the sink
+	private void emit(String name, GeoJsonObject geometry) {
+		boolean lines = ("LineString".equals(geometry.type) && geometry.depth == 1)
+			|| ("MultiLineString".equals(geometry.type) && geometry.depth == 2);
+		if (!lines || geometry.latitudes == null) {
+			return;
+		}
+		int start = 0;
+		for (int p = 0; p < geometry.partCount; p++) {
+			for (int i = start + 1; i < geometry.partEnds[p]; i++) {
+				sink.add(name, geometry.latitudes[i - 1], geometry.longitudes[i - 1],
+					geometry.latitudes[i], geometry.longitudes[i]);
+			}
+			start = geometry.partEnds[p];
+		}
+	}
+
+
+	//after a value: true if a ',' follows, false if close follows (both are consumed)
+	private boolean comma(char close) throws IOException {
+		int c = peek();
+		if (c == ',') {
+			next();
+			return true;
+		}
+		if (c == close) {
+			next();
+			return false;
+		}
+		throw error("expected ',' or '" + close + "'");
+	}
+
+
+	private void skipValue() throws IOException {
+		int c = peek();
+		switch (c) {
+		case '{':
+			next();
+			if (peek() == '}') {
+				next();
+				return;
+			}
+			do {
+				readString();
+				expect(':');
+				skipValue();
+			} while (comma('}'));
+			return;
+		case '[':
+			next();
+			if (peek() == ']') {
+				next();
+				return;
+			}
+			do {
+				skipValue();
+			} while (comma(']'));
+			return;
+		case '"':
+			readString();
+			return;
+		default:
+			if (c == -1 || c == ',' || c == '}' || c == ']' || c == ':') {
+				throw error("expected a value");
+			}
+			//a number or a literal
+			while (true) {
+				c = peekRaw();
+				if (c == -1 || c == ',' || c == '}' || c == ']' || c <= ' ') {
+					return;
+				}
+				next();
+			}
+		}
+	}
+
+
+	private String readString() throws IOException {
+		if (peek() != '"') {
+			throw error("expected a string");
+		}
+		next();
+		text.setLength(0);
+		while (true) {
+			int c = next();
+			if (c == -1 || c == '\n') {
+				throw error("unterminated string");
+			}
+			if (c == '"') {
+				return text.toString();
+			}
+			if (c == '\\') {
+				c = next();
+				switch (c) {
+				case 'b': text.append('\b'); break;
+				case 'f': text.append('\f'); break;
+				case 'n': text.append('\n'); break;
+				case 'r': text.append('\r'); break;
+				case 't': text.append('\t'); break;
+				case 'u':
+					int code = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(next(), 16);
+						if (digit < 0) {
+							throw error("bad \\u escape");
+						}
+						code = 16 * code + digit;
+					}
+					text.append((char) code);
+					break;
+				case '"': case '\\': case '/':
+					text.append((char) c);
+					break;
+				default:
+					throw error("bad escape in string");
+				}
+			} else {
+				text.append((char) c);
+			}
+		}
+	}
+
+
+	private void expect(char expected) throws IOException {
+		if (peek() != expected) {
+			throw error("expected '" + expected + "'");
+		}
+		next();
+	}
+
+
+	//the next character that is not whitespace, not consumed, or -1 at the end
+	private int peek() throws IOException {
+		while (true) {
+			int c = peekRaw();
+			if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\uFEFF') {
+				next();
+			} else {
+				return c;
+			}
+		}
+	}
+
+
+	private int peekRaw() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position];
+	}
+
+
+	private int next() throws IOException {
+		int c = peekRaw();
+		if (c != -1) {
+			position++;
+			if (c == '\n') {
+				line++;
+			}
+		}
+		return c;
+	}
+
+
+	private NetworkFormatException error(String problem) throws IOException {
+		int c = peekRaw();
+		String found = c == -1 ? "the end of the input" : "'" + (char) c + "'";
+		return new NetworkFormatException(line, problem + ", found " + found);
+	}
+}
@@ -22,6 +22,12 @@ package homework1;
  * implementation may use these values when determining distances and
  * headings.
  * <p>
+ * GeoPoints can also be handled without allocating an object per point, as
+ * a <tt>long</tt> holding the latitude in its high 32 bits and the
+ * longitude in its low 32 bits (see <tt>pack</tt>, <tt>distanceBetween</tt>
+ * and <tt>headingBetween</tt>, and the GeoPointArray class). A GeoPoint is
+ * a view of such a packed value.
+ * <p>
  * <b>The following fields are used in the specification:</b>
  * <pre>
  *   latitude :  real        // latitude measured in degrees
@@ -54,18 +60,18 @@ public class GeoPoint {
      */
   	public static final double KM_PER_DEGREE_LONGITUDE = 93.681;
 
-	  private final int latitude;
-	  private final int longitude;
+	  private final long packed;
 
   	
   	//Abstraction Function:
 	//GeoPoint representing point on earth in millionths degrees.
 	//if a representing latitude and b representing longitude on earth
 	//GeoPoint of this point will be (a/1000000, b/1000000)
+	//where a = unpackLatitude(packed) and b = unpackLongitude(packed)
 
 	//Rep Invariant:
-	//MIN_LATITUDE <= GeoPoint.latitude <= MAX_LATITUDE
-	//MIN_LONGITUDE <= GeoPoint.longitude <= MAX_LONGITUDE
+	//MIN_LATITUDE <= unpackLatitude(packed) <= MAX_LATITUDE
+	//MIN_LONGITUDE <= unpackLongitude(packed) <= MAX_LONGITUDE
   	
   	
   	/**
@@ -78,29 +84,113 @@ public class GeoPoint {
      *          given in millionths of degrees.
    	 **/
   	public GeoPoint(int latitude, int longitude) {
-  		this.latitude = latitude;
-		  this.longitude = longitude;
+  		this.packed = pack(latitude, longitude);
 
-		  checkRep();
+		  if (RepCheck.onConstruction()){
+		  	checkRep();
+		  }
   	}
 
+	  //how often this is called is decided by RepCheck
 	  private void checkRep() throws RuntimeException{
-		  if (MIN_LATITUDE > this.latitude || this.latitude > MAX_LATITUDE){
+		  long start = RepCheck.start();
+		  int latitude = unpackLatitude(this.packed);
+		  int longitude = unpackLongitude(this.packed);
+		  if (MIN_LATITUDE > latitude || latitude > MAX_LATITUDE){
 			  throw new RuntimeException("Latitude is out of range");
 		  }
-		  if(MIN_LONGITUDE > this.longitude || this.longitude > MAX_LONGITUDE){
+		  if(MIN_LONGITUDE > longitude || longitude > MAX_LONGITUDE){
 			  throw new RuntimeException("Longitude is out of range");
 		  }
+		  RepCheck.record(GeoPoint.class, start);
 	  }
 
+
+	/**
+	 * Packs a latitude and a longitude into a single long.
+	 * @requires (MIN_LATITUDE <= latitude <= MAX_LATITUDE) and
+	 *           (MIN_LONGITUDE <= longitude <= MAX_LONGITUDE)
+	 * @return a long holding latitude in its high 32 bits and longitude in
+	 *         its low 32 bits.
+	 */
+	public static long pack(int latitude, int longitude) {
+		return (((long) latitude) << 32) | (longitude & 0xffffffffL);
+	}
+
+
+	/**
+	 * Returns the latitude of a packed point.
+	 * @requires packed was returned by pack(latitude, longitude)
+	 * @return latitude, in millionths of degrees.
+	 */
+	public static int unpackLatitude(long packed) {
+		return (int) (packed >> 32);
+	}
+
+
+	/**
+	 * Returns the longitude of a packed point.
+	 * @requires packed was returned by pack(latitude, longitude)
+	 * @return longitude, in millionths of degrees.
+	 */
+	public static int unpackLongitude(long packed) {
+		return (int) packed;
+	}
+
+
+	/**
+	 * Creates a GeoPoint from a packed point.
+	 * @requires packed was returned by pack(latitude, longitude) for a
+	 *           valid latitude and longitude
+	 * @return new GeoPoint(unpackLatitude(packed), unpackLongitude(packed))
+	 */
+	public static GeoPoint fromPacked(long packed) {
+		return new GeoPoint(unpackLatitude(packed), unpackLongitude(packed));
+	}
+
+
+	/**
+	 * Computes the distance between packed points.
+	 * @requires from and to were returned by pack
+	 * @return the distance from the point from to the point to, using the
+	 *         flat-surface, near the Technion approximation.
+	 */
+	public static double distanceBetween(long from, long to) {
+		double latitudeDist, longitudeDist;
+		latitudeDist = (unpackLatitude(from) - unpackLatitude(to)) * KM_PER_DEGREE_LATITUDE / 1000000;
+		longitudeDist = (unpackLongitude(from) - unpackLongitude(to)) * KM_PER_DEGREE_LONGITUDE / 1000000;
+		return Math.sqrt((latitudeDist * latitudeDist) + (longitudeDist * longitudeDist));
+	}
+
+
+	/**
+	 * Computes the compass heading between packed points.
+	 * @requires from and to were returned by pack && from != to
+	 * @return the compass heading h from the point from to the point to, in
+	 *         degrees, using the flat-surface, near the Technion
+	 *         approximation, such that 0 <= h < 360.
+	 */
+	public static double headingBetween(long from, long to) {
+		double latitudeDist, longitudeDist;
+		latitudeDist = (unpackLatitude(to) - unpackLatitude(from)) * KM_PER_DEGREE_LATITUDE / 1000000;
+		longitudeDist = (unpackLongitude(to) - unpackLongitude(from)) * KM_PER_DEGREE_LONGITUDE / 1000000;
+		double heading = Math.toDegrees(Math.atan2(longitudeDist, latitudeDist));
+		if (heading < 0){
+			heading += 360;
+		}
+		return heading;
+	}
+
   	 
   	/**
      * Returns the latitude of this.
      * @return the latitude of this in millionths of degrees.
      */
   	public int getLatitude() {
-		  checkRep();
-  		return this.latitude;
+		  if (RepCheck.onAccess()){
+		  	checkRep();
+		  }
+  		return unpackLatitude(this.packed);
   	}
 
 
@@ -109,8 +199,19 @@ public class GeoPoint {
      * @return the latitude of this in millionths of degrees.
      */
   	public int getLongitude() {
-  		checkRep();
-		  return this.longitude;
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  return unpackLongitude(this.packed);
+  	}
+
+
+  	/**
+     * Returns this as a packed point.
+     * @return pack(this.latitude, this.longitude)
+     */
+  	public long toPacked() {
+		  return this.packed;
   	}
 
 
@@ -121,13 +222,10 @@ public class GeoPoint {
      *         the Technion approximation.
      **/
   	public double distanceTo(GeoPoint gp) {
-		  checkRep();
-  		double latitudeDist, longitudeDist, dist;
-		  latitudeDist = (this.latitude - gp.latitude) * KM_PER_DEGREE_LATITUDE / 1000000;
-		  longitudeDist = (this.longitude - gp.longitude) * KM_PER_DEGREE_LONGITUDE / 1000000;
-		  dist = Math.sqrt((latitudeDist * latitudeDist) + (longitudeDist * longitudeDist));
-		  checkRep();
-		  return dist;
+		  if (RepCheck.onAccess()){
+		  	checkRep();
+		  }
+		  return distanceBetween(this.packed, gp.packed);
   	}
 
 
@@ -141,17 +239,10 @@ public class GeoPoint {
      *         south = 180, and west = 270.
      **/
   	public double headingTo(GeoPoint gp) {
-
-		double latitudeDist, longitudeDist;
-		checkRep();
-		latitudeDist = (gp.latitude - this.latitude) * KM_PER_DEGREE_LATITUDE / 1000000;
-		longitudeDist = (gp.longitude - this.longitude) * KM_PER_DEGREE_LONGITUDE / 1000000;
-		double heading = Math.toDegrees(Math.atan2(longitudeDist, latitudeDist));
-		if (heading < 0){
-			heading += 360;
+		if (RepCheck.onAccess()){
+			checkRep();
 		}
-		checkRep();
-		return heading;
+		return headingBetween(this.packed, gp.packed);
   	}
 
 
@@ -161,12 +252,17 @@ public class GeoPoint {
      * 		   gp.latitude = this.latitude && gp.longitude = this.longitude
      **/
   	public boolean equals(Object gp) {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  if (this == gp){
+			  return true;
+		  }
 		  GeoPoint point;
 		  if (gp != null){
 			  if (gp instanceof GeoPoint){
 				  point = (GeoPoint) gp;
-				  return (this.latitude == point.latitude) && (this.longitude == point.longitude);
+				  return this.packed == point.packed;
 			  }
 		  }
 		  return false;
@@ -178,10 +274,10 @@ public class GeoPoint {
      * @return a hash code value for this GeoPoint.
    	 **/
   	public int hashCode() {
-    	// This implementation will work, but you may want to modify it
-    	// for improved performance.
-
-    	return 1;
+		  //nearby points differ only in the low bits of their coordinates, so the packed
+		  //coordinates are mixed by a multiplicative (Fibonacci) hash
+		  long bits = this.packed * 0x9E3779B97F4A7C15L;
+		  return (int) (bits ^ (bits >>> 32));
   	}
 
 
@@ -190,7 +286,7 @@ public class GeoPoint {
      * @return a string representation of this GeoPoint.
      **/
   	public String toString() {
-  		return ("(" + this.latitude + ", " + this.longitude + ")");
+  		return ("(" + unpackLatitude(this.packed) + ", " + unpackLongitude(this.packed) + ")");
   	}
 
 }
@@ -0,0 +1,283 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A GeoPointArray is a growable sequence of points kept as packed longs
+ * (see GeoPoint.pack), so storing a point costs 8 bytes instead of a
+ * GeoPoint object and a reference to it. Distances and headings between
+ * the stored points are computed directly on the packed values.
+ * <p>
+ * GeoPointArrays are mutable: points can be appended and replaced.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   points : sequence     // the points in the array, in order
+ * </pre>
+ */
+public class GeoPointArray {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] packed;
+	private int size;
+
+	//Abstraction Function:
+	//this.points = [GeoPoint.fromPacked(packed[0]), ..., GeoPoint.fromPacked(packed[size-1])]
+
+	//Rep Invariant:
+	//packed != null && 0 <= size <= packed.length
+	//packed[i] is a valid packed GeoPoint for 0 <= i < size
+
+
+	/**
+	 * Constructs an empty GeoPointArray.
+	 * @effects constructs a GeoPointArray with this.points = []
+	 */
+	public GeoPointArray() {
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Constructs an empty GeoPointArray with room for the given number of
+	 * points.
+	 * @requires capacity >= 0
+	 * @effects constructs a GeoPointArray with this.points = [] that can
+	 *          hold capacity points before it grows.
+	 */
+	public GeoPointArray(int capacity) {
+		if (capacity < 0) {
+			throw new RuntimeException("capacity must be >= 0");
+		}
+		this.packed = new long[capacity];
+		this.size = 0;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the number of points
+	private void checkRep() throws RuntimeException {
+		checkPoints(0, size);
+	}
+
+
+	//checks this after points[from..to-1] changed: this was checked before, so only
+	//they can break the rep invariant, and checking only them keeps add and set
+	//constant time. At the FULL level the whole rep is checked.
+	private void checkChange(int from, int to) throws RuntimeException {
+		if (RepCheck.onAppend()) {
+			checkRep();
+		} else if (RepCheck.onConstruction()) {
+			checkPoints(from, to);
+		}
+	}
+
+
+	private void checkPoints(int from, int to) throws RuntimeException {
+		long start = RepCheck.start();
+		if (packed == null || size < 0 || size > packed.length) {
+			throw new RuntimeException("size must be between 0 and the capacity");
+		}
+		for (int i = from; i < to; i++) {
+			checkPoint(GeoPoint.unpackLatitude(packed[i]), GeoPoint.unpackLongitude(packed[i]));
+		}
+		RepCheck.record(GeoPointArray.class, start);
+	}
+
+
+	private static void checkPoint(int latitude, int longitude) throws RuntimeException {
+		if (GeoPoint.MIN_LATITUDE > latitude || latitude > GeoPoint.MAX_LATITUDE) {
+			throw new RuntimeException("Latitude is out of range");
+		}
+		if (GeoPoint.MIN_LONGITUDE > longitude || longitude > GeoPoint.MAX_LONGITUDE) {
+			throw new RuntimeException("Longitude is out of range");
+		}
+	}
+
+
+	private void checkIndex(int index) throws RuntimeException {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+	}
+
+
+	/**
+	 * Returns the number of points in this.
+	 * @return the length of this.points.
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Appends a point.
+	 * @requires the point given by (latitude, longitude) is valid for GeoPoint
+	 * @modifies this
+	 * @effects this.points = this.points + [(latitude, longitude)]
+	 * @return the index of the new point.
+	 */
+	public int add(int latitude, int longitude) {
+		checkPoint(latitude, longitude);
+		if (size == packed.length) {
+			packed = Arrays.copyOf(packed, Math.max(DEFAULT_CAPACITY, 2 * size));
+		}
+		packed[size] = GeoPoint.pack(latitude, longitude);
+		size++;
+		checkChange(size - 1, size);
+		return size - 1;
+	}
+
+
+	/**
+	 * Appends a point.
+	 * @requires gp != null
+	 * @modifies this
+	 * @effects this.points = this.points + [gp]
+	 * @return the index of the new point.
+	 */
+	public int add(GeoPoint gp) {
+		return add(gp.getLatitude(), gp.getLongitude());
+	}
+
+
+	/**
+	 * Replaces a point.
+	 * @requires 0 <= index < this.size() && the point given by
+	 *           (latitude, longitude) is valid for GeoPoint
+	 * @modifies this
+	 * @effects this.points[index] = (latitude, longitude)
+	 */
+	public void set(int index, int latitude, int longitude) {
+		checkIndex(index);
+		checkPoint(latitude, longitude);
+		packed[index] = GeoPoint.pack(latitude, longitude);
+		checkChange(index, index + 1);
+	}
+
+
+	/**
+	 * Returns a point as a packed long.
+	 * @requires 0 <= index < this.size()
+	 * @return GeoPoint.pack(this.points[index].latitude, this.points[index].longitude)
+	 */
+	public long getPacked(int index) {
+		checkIndex(index);
+		return packed[index];
+	}
+
+
+	/**
+	 * Returns the latitude of a point.
+	 * @requires 0 <= index < this.size()
+	 * @return the latitude of this.points[index], in millionths of degrees.
+	 */
+	public int getLatitude(int index) {
+		checkIndex(index);
+		return GeoPoint.unpackLatitude(packed[index]);
+	}
+
+
+	/**
+	 * Returns the longitude of a point.
+	 * @requires 0 <= index < this.size()
+	 * @return the longitude of this.points[index], in millionths of degrees.
+	 */
+	public int getLongitude(int index) {
+		checkIndex(index);
+		return GeoPoint.unpackLongitude(packed[index]);
+	}
+
+
+	/**
+	 * Returns a point as a GeoPoint.
+	 * @requires 0 <= index < this.size()
+	 * @return a new GeoPoint equal to this.points[index].
+	 */
+	public GeoPoint get(int index) {
+		checkIndex(index);
+		return GeoPoint.fromPacked(packed[index]);
+	}
+
+
+	/**
+	 * Computes the distance between two points of this.
+	 * @requires 0 <= from, to < this.size()
+	 * @return this.points[from].distanceTo(this.points[to])
+	 */
+	public double distance(int from, int to) {
+		checkIndex(from);
+		checkIndex(to);
+		return GeoPoint.distanceBetween(packed[from], packed[to]);
+	}
+
+
+	/**
+	 * Computes the compass heading between two points of this.
+	 * @requires 0 <= from, to < this.size() && this.points[from] != this.points[to]
+	 * @return this.points[from].headingTo(this.points[to])
+	 */
+	public double heading(int from, int to) {
+		checkIndex(from);
+		checkIndex(to);
+		return GeoPoint.headingBetween(packed[from], packed[to]);
+	}
+
+
+	/**
+	 * Computes the distance from a point of this to another point.
+	 * @requires 0 <= index < this.size() && gp != null
+	 * @return this.points[index].distanceTo(gp)
+	 */
+	public double distanceTo(int index, GeoPoint gp) {
+		checkIndex(index);
+		return GeoPoint.distanceBetween(packed[index], gp.toPacked());
+	}
+
+
+	/**
+	 * Computes the total length of the path through the points of this.
+	 * @return sum (0 <= i < this.size()-1) . this.points[i].distanceTo(this.points[i+1])
+	 */
+	public double pathLength() {
+		double length = 0;
+		for (int i = 0; i < size - 1; i++) {
+			length += GeoPoint.distanceBetween(packed[i], packed[i + 1]);
+		}
+		return length;
+	}
+
+
+	/**
+	 * Releases capacity that holds no points.
+	 * @modifies this
+	 * @effects the memory used by this is proportional to this.size().
+	 */
+	public void trimToSize() {
+		if (packed.length != size) {
+			packed = Arrays.copyOf(packed, size);
+		}
+		checkChange(size, size);
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				str.append(", ");
+			}
+			str.append('(').append(GeoPoint.unpackLatitude(packed[i])).append(", ")
+					.append(GeoPoint.unpackLongitude(packed[i])).append(')');
+		}
+		return str.append(']').toString();
+	}
+}
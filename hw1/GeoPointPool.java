@@ -0,0 +1,152 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A GeoPointPool hands out one canonical GeoPoint per location, so that
+ * the segments of a network that meet at an intersection share a single
+ * GeoPoint object instead of each holding its own copy. Sharing saves
+ * most of the GeoPoints of a network (an intersection of four streets is
+ * the endpoint of up to eight segments), and equal shared points are
+ * recognized by identity in GeoPoint.equals.
+ * <p>
+ * Points are found by their packed coordinates in a primitive
+ * open-addressing map, so interning a point that is already in the pool
+ * allocates nothing. A GeoPointPool is not safe to share between threads.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   points : set of GeoPoint  // the canonical points, no two equal
+ * </pre>
+ */
+public final class GeoPointPool {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final LongIntHashMap ids;
+	private GeoPoint[] points;
+	private int size;
+
+	//Abstraction Function:
+	//points = {points[i] | 0 <= i < size}
+
+	//Rep Invariant:
+	//ids != null && points != null && size = ids.size() <= points.length
+	//ids.get(points[i].toPacked()) = i for 0 <= i < size
+
+
+	/**
+	 * Constructs an empty pool.
+	 * @effects constructs a GeoPointPool with this.points = {}
+	 */
+	public GeoPointPool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Constructs an empty pool with room for the given number of points.
+	 * @requires expected >= 0
+	 * @effects constructs a GeoPointPool with this.points = {} that does
+	 *          not grow before it holds expected points.
+	 */
+	public GeoPointPool(int expected) {
+		ids = new LongIntHashMap(expected);
+		points = new GeoPoint[Math.max(DEFAULT_CAPACITY, expected)];
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the number of points
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (ids == null || points == null || size != ids.size() || size > points.length) {
+			throw new RuntimeException("every point must have an id");
+		}
+		for (int i = 0; i < size; i++) {
+			if (ids.get(points[i].toPacked()) != i) {
+				throw new RuntimeException("point " + i + " must have id " + i);
+			}
+		}
+		RepCheck.record(GeoPointPool.class, start);
+	}
+
+
+	/**
+	 * Returns the canonical point at a location.
+	 * @requires latitude and longitude are valid for GeoPoint
+	 * @modifies this
+	 * @effects adds a new GeoPoint at (latitude, longitude) to this.points
+	 *          if none of them is there.
+	 * @return the GeoPoint of this.points at (latitude, longitude).
+	 */
+	public GeoPoint intern(int latitude, int longitude) {
+		long packed = GeoPoint.pack(latitude, longitude);
+		int id = ids.putIfAbsent(packed, size);
+		if (id != LongIntHashMap.NO_VALUE) {
+			return points[id];
+		}
+		if (size == points.length) {
+			points = Arrays.copyOf(points, 2 * size);
+		}
+		GeoPoint point = new GeoPoint(latitude, longitude);
+		points[size++] = point;
+		return point;
+	}
+
+
+	/**
+	 * Returns the canonical point equal to a point.
+	 * @requires point != null
+	 * @modifies this
+	 * @effects adds point to this.points if no point of this.points equals
+	 *          it.
+	 * @return the GeoPoint of this.points that equals point.
+	 */
+	public GeoPoint intern(GeoPoint point) {
+		long packed = point.toPacked();
+		int id = ids.putIfAbsent(packed, size);
+		if (id != LongIntHashMap.NO_VALUE) {
+			return points[id];
+		}
+		if (size == points.length) {
+			points = Arrays.copyOf(points, 2 * size);
+		}
+		points[size++] = point;
+		return point;
+	}
+
+
+	/**
+	 * Creates a GeoSegment between canonical points, e.g. in a SegmentSink
+	 * that builds GeoSegments.
+	 * @requires name != null && both points are valid for GeoPoint
+	 * @modifies this
+	 * @effects interns both points.
+	 * @return a new GeoSegment named name from intern(latitude1,
+	 *         longitude1) to intern(latitude2, longitude2).
+	 */
+	public GeoSegment segment(String name, int latitude1, int longitude1, int latitude2, int longitude2) {
+		return new GeoSegment(name, intern(latitude1, longitude1), intern(latitude2, longitude2));
+	}
+
+
+	/**
+	 * Returns the number of points in the pool.
+	 * @return |this.points|
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "GeoPointPool[" + size + " points]";
+	}
+}
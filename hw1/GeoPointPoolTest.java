@@ -0,0 +1,104 @@
+package homework1;
+
+import java.util.Iterator;
+import java.util.Random;
+
+public class GeoPointPoolTest {
+
+	private SegmentStore mCity;
+
+
+	public GeoPointPoolTest() {
+		mCity = ContractionHierarchyTest.city(20, new Random(11));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	public void testIntern() {
+		show("intern()");
+		GeoPointPool pool = new GeoPointPool(1);
+		GeoPoint first = pool.intern(32783098, 35014528);
+		GeoPoint given = new GeoPoint(-33868820, -151209296);
+		show("Interning a location twice gives the same point.",
+			pool.intern(32783098, 35014528) == first
+			&& pool.intern(new GeoPoint(32783098, 35014528)) == first);
+		show("A new point becomes the canonical one.",
+			pool.intern(given) == given && pool.intern(-33868820, -151209296) == given);
+		show("Neighboring locations are different points.",
+			pool.intern(32783099, 35014528) != first && pool.intern(32783098, 35014529) != first
+			&& pool.size() == 4);
+
+		boolean grown = true;
+		for (int i = 0; i < 1000; i++) {
+			pool.intern(i, -i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			GeoPoint point = pool.intern(i, -i);
+			grown = grown && point.getLatitude() == i && point.getLongitude() == -i;
+		}
+		show("The pool grows and keeps its points.", grown && pool.size() == 1004
+			&& pool.intern(32783098, 35014528) == first);
+	}
+
+
+	public void testSharing() {
+		show("Sharing");
+		GeoPointPool pool = new GeoPointPool();
+		boolean equal = true;
+		boolean shared = true;
+		GeoSegment[] segments = new GeoSegment[mCity.size()];
+		for (int i = 0; i < mCity.size(); i++) {
+			segments[i] = mCity.get(i, pool);
+			equal = equal && segments[i].equals(mCity.get(i));
+			shared = shared && segments[i].getP1() == pool.intern(mCity.getLatitude1(i), mCity.getLongitude1(i));
+		}
+		show("Pooled segments equal the stored ones and use the pool's points.", equal && shared);
+		show("Segments meeting at an intersection share its point.", pool.size() < mCity.size());
+
+		GeoSegment gs = pool.segment("Herzl", 32783098, 35014528, 32789768, 35018578);
+		GeoSegment reversed = gs.reverse();
+		show("reverse() shares the endpoints and matches a new segment.",
+			reversed.getP1() == gs.getP2() && reversed.getP2() == gs.getP1()
+			&& reversed.getLength() == new GeoSegment("Herzl", gs.getP2(), gs.getP1()).getLength()
+			&& reversed.getHeading() == new GeoSegment("Herzl", gs.getP2(), gs.getP1()).getHeading()
+			&& pool.segment("Herzl", 1, 2, 1, 2).reverse().getHeading() == 360);
+
+		RoadGraph graph = new RoadGraph(mCity);
+		int[] edges = new int[3];
+		edges[0] = graph.firstEdge(0);
+		for (int i = 1; i < edges.length; i++) {
+			edges[i] = graph.firstEdge(graph.getEdgeTarget(edges[i - 1]));
+		}
+		Route route = graph.toRoute(edges, edges.length);
+		boolean joined = true;
+		Iterator<GeoSegment> it = route.getGeoSegments();
+		GeoSegment previous = it.next();
+		while (it.hasNext()) {
+			GeoSegment next = it.next();
+			joined = joined && next.getP1() == previous.getP2();
+			previous = next;
+		}
+		show("Consecutive segments of a graph route share their point.", joined);
+	}
+
+
+	public static void main(String[] args) {
+		GeoPointPoolTest poolTest = new GeoPointPoolTest();
+		poolTest.testIntern();
+		poolTest.testSharing();
+	}
+}
@@ -0,0 +1,86 @@
+package homework1;
+
+public class GeoPointTest {
+
+	private GeoPoint gpZivCenter;
+	private GeoPoint gpWaterTower;
+	private GeoPoint gpSouthWest;		// south and west of the equator and meridian
+
+
+	public GeoPointTest() {
+		gpZivCenter = new GeoPoint(32783098,35014528);
+		gpWaterTower = new GeoPoint(32789768,35018578);
+		gpSouthWest = new GeoPoint(-33868820,-151209296);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	public void test() {
+		show("pack()");
+		long packed = GeoPoint.pack(-33868820, -151209296);
+		show("Negative coordinates survive packing.",
+			GeoPoint.unpackLatitude(packed) == -33868820 &&
+			GeoPoint.unpackLongitude(packed) == -151209296);
+		show("toPacked() and fromPacked() are inverse.",
+			GeoPoint.fromPacked(gpSouthWest.toPacked()).equals(gpSouthWest));
+		show("Packed distance equals distanceTo().",
+			GeoPoint.distanceBetween(gpZivCenter.toPacked(), gpWaterTower.toPacked())
+				== gpZivCenter.distanceTo(gpWaterTower));
+		show("Packed heading equals headingTo().",
+			GeoPoint.headingBetween(gpZivCenter.toPacked(), gpWaterTower.toPacked())
+				== gpZivCenter.headingTo(gpWaterTower));
+
+		show("hashCode()");
+		show(".equals() points must have the same .hashCode().",
+			gpZivCenter.hashCode() == new GeoPoint(32783098,35014528).hashCode());
+		show("Neighboring points have different hash codes.",
+			gpZivCenter.hashCode() != new GeoPoint(32783099,35014528).hashCode() &&
+			gpZivCenter.hashCode() != new GeoPoint(32783098,35014529).hashCode());
+
+		show("GeoPointArray");
+		GeoPointArray array = new GeoPointArray(1);
+		array.add(gpZivCenter);
+		array.add(gpWaterTower.getLatitude(), gpWaterTower.getLongitude());
+		array.add(gpSouthWest);
+		show("Array grows past its capacity.", array.size() == 3);
+		show("Array returns equal points.",
+			array.get(0).equals(gpZivCenter) && array.get(2).equals(gpSouthWest));
+		show("Array distance equals distanceTo().",
+			array.distance(0, 1) == gpZivCenter.distanceTo(gpWaterTower));
+		boolean rejected = false;
+		try {
+			array.add(GeoPoint.MAX_LATITUDE + 1, 0);
+		} catch (RuntimeException e) {
+			rejected = true;
+		}
+		show("Array rejects points out of range.", rejected && array.size() == 3);
+		RepCheck.Level level = RepCheck.getLevel();
+		RepCheck.setLevel(RepCheck.Level.FULL);
+		array.set(1, gpSouthWest.getLatitude(), gpSouthWest.getLongitude());
+		array.add(gpWaterTower);
+		array.trimToSize();
+		RepCheck.setLevel(level);
+		show("Array changes keep the rep when all of it is checked.", array.size() == 4
+			&& array.get(1).equals(gpSouthWest) && array.get(3).equals(gpWaterTower));
+	}
+
+
+	public static void main(String[] args) {
+		GeoPointTest pointTest = new GeoPointTest();
+		pointTest.test();
+	}
+}
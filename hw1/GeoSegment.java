@@ -45,14 +45,26 @@ public class GeoSegment  {
 	private final GeoPoint p1;
 	private final GeoPoint p2;
 
+	// GeoSegments are immutable, so the length and heading are computed once
+	// here instead of on every call to getLength() and getHeading().
+	private final double length;
+	private final double heading;
+
+	//how far, in units in the last place, a stored length or heading may be
+	//from the one computed here
+	private static final int ULPS = 4;
+
 	//Abstraction Function:
 	//for straight line on earth (e) and GeoSegment (g),
 	//p1 represent start point and p2 represent end point of the line:
-	//e.name = g.name, e.p1 = g.p1, e.p2 = g.p2
+	//e.name = g.name, e.p1 = g.p1, e.p2 = g.p2,
+	//e.length = g.length, e.heading = g.heading
 
 	//Rep Invariant:
-	//0 <= heading < 360
-	//length >= 0
+	//0 <= p1.headingTo(p2) < 360
+	//length = p1.distanceTo(p2) >= 0, up to ULPS units in the last place
+	//heading = 360 if length = 0, otherwise heading = p1.headingTo(p2) up to ULPS
+	//units in the last place
 	//p1, p2, name != null
 	
   	/**
@@ -64,14 +76,60 @@ public class GeoSegment  {
   		this.name = name;
 		  this.p1 = p1;
 		  this.p2 = p2;
-		  checkRep();
+		  this.length = p1.distanceTo(p2);
+		  this.heading = (this.length == 0) ? 360 : p1.headingTo(p2);
+		  if (RepCheck.onConstruction()){
+		  	checkRep();
+		  }
   	}
 
+
+  	/**
+     * Constructs a new GeoSegment whose length and heading were already
+     * computed, e.g. by a SegmentStore.
+     * @requires name != null && p1 != null && p2 != null &&
+     *           length = p1.distanceTo(p2) &&
+     *           heading = (length = 0 ? 360 : p1.headingTo(p2))
+     * @effects constructs a new GeoSegment with the specified name and endpoints.
+     **/
+  	GeoSegment(String name, GeoPoint p1, GeoPoint p2, double length, double heading) {
+  		this.name = name;
+		  this.p1 = p1;
+		  this.p2 = p2;
+		  this.length = length;
+		  this.heading = heading;
+		  if (RepCheck.onConstruction()){
+		  	checkStoredRep();
+		  }
+  	}
+
+	/**
+	 * make sure that the variables of a GeoSegment whose length and heading
+	 * were given get values in acceptable range, without computing the length
+	 * and heading again: that is what a SegmentStore saves by storing them.
+	 * throws RuntimeException
+	 */
+	private void checkStoredRep() throws RuntimeException{
+		  long start = RepCheck.start();
+		  if ((this.name == null) || (this.p1 == null) || (this.p2 == null)){
+			  throw new RuntimeException("name, p1 and p2 can't get null argument");
+		  }
+		  if (this.length < 0){
+			  throw new RuntimeException("length must be >=0");
+		  }
+		  if (!((this.heading >= 0 && this.heading < 360) || (this.heading == 360 && this.length == 0))){
+			  throw new RuntimeException("heading must be between 0 and 360, or 360 if length is 0");
+		  }
+		  RepCheck.record(GeoSegment.class, start);
+	  }
+
 	/**
 	 * make sure that all the variables in the class get values in acceptable range.
+	 * How often the methods of this class call it is decided by RepCheck.
 	 * throws RuntimeException
 	 */
 	public void checkRep() throws RuntimeException{
+		  long start = RepCheck.start();
 		  if (this.name == null){
 			  throw new RuntimeException("name can't get null argument");
 		  }
@@ -81,21 +139,40 @@ public class GeoSegment  {
 		  if (this.p2 == null){
 			  throw new RuntimeException("p2 can't get null argument");
 		  }
-		  if (this.p1.distanceTo(this.p2) < 0){
-			  throw new RuntimeException("length must be >=0");
+		  //a stored length and heading may come from another JVM, whose sqrt and atan2
+		  //can differ from this one's in the last bits
+		  if ((this.length < 0) || !nearlyEqual(this.length, this.p1.distanceTo(this.p2))){
+			  throw new RuntimeException("length must be >=0 and equal to the distance between p1 and p2");
 		  }
-		  if ((this.p1.headingTo(this.p2) < 0) || this.p1.headingTo(this.p2)>=360){
+		  double pointsHeading = this.p1.headingTo(this.p2);
+		  if ((pointsHeading < 0) || pointsHeading >= 360){
 			  throw new RuntimeException("heading must be between 0 and 360");
 		  }
+		  if ((this.length == 0) ? (this.heading != 360) : !nearlyEqual(this.heading, pointsHeading)){
+			  throw new RuntimeException("heading must be the heading from p1 to p2");
+		  }
+		  RepCheck.record(GeoSegment.class, start);
 	  }
+
+
+	//whether a and b differ by at most ULPS units in the last place
+	private static boolean nearlyEqual(double a, double b) {
+		return Math.abs(a - b) <= ULPS * Math.ulp(Math.max(Math.abs(a), Math.abs(b)));
+	}
+
+
   	/**
      * Returns a new GeoSegment like this one, but with its endpoints reversed.
      * @return a new GeoSegment gs such that gs.name = this.name
      *         && gs.p1 = this.p2 && gs.p2 = this.p1
      **/
   	public GeoSegment reverse() {
-  		checkRep();
-		  return new GeoSegment(this.name, this.p2, this.p1);
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  //the endpoints are shared, and the length is exactly symmetric
+		  return new GeoSegment(this.name, this.p2, this.p1, this.length,
+				  (this.length == 0) ? 360 : this.p2.headingTo(this.p1));
   	}
 
 
@@ -104,7 +181,9 @@ public class GeoSegment  {
      * @return the name of this GeoSegment.
      */
   	public String getName() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.name;
   	}
 
@@ -114,7 +193,9 @@ public class GeoSegment  {
      * @return first endpoint of the segment.
      */
   	public GeoPoint getP1() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.p1;
   	}
 
@@ -124,7 +205,9 @@ public class GeoSegment  {
      * @return second endpoint of the segment.
      */
   	public GeoPoint getP2() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.p2;
   	}
 
@@ -135,8 +218,10 @@ public class GeoSegment  {
      *         Technion approximation.
      */
   	public double getLength() {
-  		checkRep();
-		  return p1.distanceTo(p2);
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  return this.length;
   	}
 
 
@@ -148,11 +233,10 @@ public class GeoSegment  {
 	 *         (e.g. start and end point are the same point and length = 0), method will return 360
      **/
   	public double getHeading() {
-  		checkRep();
-		  if (this.getLength() == 0){
-			  return 360;
-		  }
-		  return p1.headingTo(p2);
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  return this.heading;
   	}
 
 
@@ -176,10 +260,7 @@ public class GeoSegment  {
      * @return a hash code value for this.
      **/
   	public int hashCode() {
-    	// This implementation will work, but you may want to modify it 
-    	// for improved performance. 
-
-    	return 1;
+		  return 31 * (31 * this.name.hashCode() + this.p1.hashCode()) + this.p2.hashCode();
   	}
 
 
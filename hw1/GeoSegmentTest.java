@@ -120,9 +120,31 @@ public class GeoSegmentTest {
 			!((nh > tolerance) && (Math.abs(360.0 - nh)> tolerance )));
 		show("South heading should be 180.",
 		 	same(gsNorth.reverse().getHeading(), 180.0));		
+
+		show("stored length and heading");
+		GeoSegment stored = new GeoSegment("East", gsEast.getP1(), gsEast.getP2(),
+			gsEast.getLength(), gsEast.getHeading());
+		show("A segment of stored values equals the computed one.", stored.equals(gsEast)
+			&& stored.getLength() == gsEast.getLength() && stored.getHeading() == gsEast.getHeading());
+		show("A negative stored length is rejected.",
+			rejects(gsEast.getP1(), gsEast.getP2(), -1, 90));
+		show("A stored heading of 360 is rejected unless the length is 0.",
+			rejects(gsEast.getP1(), gsEast.getP2(), 1, 360)
+			&& !rejects(gsEast.getP1(), gsEast.getP1(), 0, 360));
   	}
 
 
+	//whether a GeoSegment of the given stored length and heading can't be constructed
+	private static boolean rejects(GeoPoint p1, GeoPoint p2, double length, double heading) {
+		try {
+			new GeoSegment("Stored", p1, p2, length, heading);
+			return false;
+		} catch (RuntimeException e) {
+			return true;
+		}
+	}
+
+
 	public static void main(String[] args) {
 		GeoSegmentTest segmentTest = new GeoSegmentTest();
 		segmentTest.test();
@@ -3,13 +3,19 @@ package homework1;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Arrays;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * A JDailog GUI for choosing a GeoSegemnt and adding it to the route shown
  * by RoutDirectionGUI.
  * <p>
+ * The segments are shown by a SegmentListModel, so the dialog opens and
+ * scrolls as fast for a network of a million segments as for the example
+ * segments, and typing in the filter field shows only the segments whose
+ * names start with the typed text.
+ * <p>
  * A figure showing this GUI can be found in homework assignment #1.
  */
 public class GeoSegmentsDialog extends JDialog {
@@ -19,16 +25,30 @@ public class GeoSegmentsDialog extends JDialog {
 	// the RouteDirectionsGUI that this JDialog was opened from
 	private RouteFormatterGUI parent;
 	
-	// a control contained in this 
+	// the controls contained in this
 	private JList<GeoSegment> lstSegments;
+	private JTextField txtFilter;
 
 	
 	/**
-	 * Creates a new GeoSegmentsDialog JDialog.
+	 * Creates a new GeoSegmentsDialog JDialog of the example segments.
 	 * @effects Creates a new GeoSegmentsDialog JDialog with owner-frame
-	 * 			owner and parent pnlParent
+	 * 			owner and parent pnlParent, showing
+	 * 			ExampleGeoSegments.segments
 	 */
 	public GeoSegmentsDialog(Frame owner, RouteFormatterGUI pnlParent) {
+		this(owner, pnlParent, new SegmentStore(ExampleGeoSegments.segments));
+	}
+
+
+	/**
+	 * Creates a new GeoSegmentsDialog JDialog.
+	 * @requires segments != null
+	 * @effects Creates a new GeoSegmentsDialog JDialog with owner-frame
+	 * 			owner and parent pnlParent, showing the segments of
+	 * 			segments
+	 */
+	public GeoSegmentsDialog(Frame owner, RouteFormatterGUI pnlParent, SegmentStore segments) {
 		// create a modal JDialog with the an owner Frame (a modal window
 		// in one that doesn't allow other windows to be active at the
 		// same time).
@@ -36,19 +56,32 @@ public class GeoSegmentsDialog extends JDialog {
 		
 		this.parent = pnlParent;
 
-		DefaultListModel<GeoSegment> model = new DefaultListModel<>();
-		for (int i =0; i< ExampleGeoSegments.segments.length; i++){
-			model.addElement(ExampleGeoSegments.segments[i]);
-		}
 		//add the ScrollPane
-		lstSegments = new JList<GeoSegment>(model);
-		lstSegments.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		final SegmentListModel model = new SegmentListModel(segments);
+		lstSegments = model.newList();
 		JScrollPane scrlPane = new JScrollPane(lstSegments);
 		scrlPane.setPreferredSize(new Dimension(450, 100));
 
 		JLabel segmentLbl = new JLabel("GeoSegments:");
 		segmentLbl.setLabelFor(lstSegments);
 
+		//add the filter field, which filters the list on every keystroke
+		txtFilter = new JTextField(12);
+		txtFilter.setToolTipText("Show the GeoSegments whose names start with this text");
+		txtFilter.getDocument().addDocumentListener(new DocumentListener() {
+			public void insertUpdate(DocumentEvent e) {
+				model.setFilter(txtFilter.getText());
+			}
+
+			public void removeUpdate(DocumentEvent e) {
+				model.setFilter(txtFilter.getText());
+			}
+
+			public void changedUpdate(DocumentEvent e) {
+				model.setFilter(txtFilter.getText());
+			}
+		});
+
 		//add the button "Add"
 		JButton addBtn = new JButton("Add");
 		addBtn.addActionListener(new ActionListener() {
@@ -81,9 +114,19 @@ public class GeoSegmentsDialog extends JDialog {
 		gridbag.setConstraints(segmentLbl, c);
 		this.add(segmentLbl);
 
+		c.gridx = 1;
+		c.gridy = 0;
+		c.gridwidth = 1;
+		c.gridheight = 1;
+		c.insets = new Insets(0,0,0,0);
+		c.anchor = GridBagConstraints.LINE_END;
+		gridbag.setConstraints(txtFilter, c);
+		this.add(txtFilter);
+		c.anchor = GridBagConstraints.CENTER;
+
 		c.gridx = 0;
 		c.gridy = 1;
-		c.gridwidth = 1;
+		c.gridwidth = 2;
 		c.gridheight = 5;
 		c.insets = new Insets(0,0,0,0);
 		gridbag.setConstraints(scrlPane, c);
@@ -0,0 +1,357 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * Contracts the nodes of a RoadGraph one by one, least important first,
+ * adding a shortcut edge u -> x for every shortest path u -> v -> x that
+ * disappears when node v is contracted. This is the preprocessing step of
+ * a ContractionHierarchy.
+ * <p>
+ * The importance of a node is a weighted sum of its edge difference (the
+ * shortcuts its contraction would add minus the edges it would remove), the
+ * number of its neighbors that were already contracted, which spreads the
+ * contractions over the graph, and its level (one more than the highest
+ * level of a contracted neighbor), which keeps the hierarchy shallow and
+ * the query searches small. Importances are updated lazily: a node is
+ * re-evaluated when it is about to be contracted, and when a neighbor is
+ * contracted.
+ * <p>
+ * A shortcut is not needed if a witness search, a Dijkstra search from u
+ * that avoids v, finds a path to x that is no longer. A witness search ends
+ * when it settled every such x, and is limited to WITNESS_SETTLE_LIMIT
+ * nodes (SIMULATION_SETTLE_LIMIT when it only estimates the importance of
+ * a node); when the limit is hit the shortcut is added anyway, which costs
+ * space but never correctness.
+ */
+final class HierarchyBuilder {
+
+	/** Largest number of nodes a witness search settles. **/
+	static final int WITNESS_SETTLE_LIMIT = 500;
+
+	/** Largest number of nodes a witness search settles when only counting shortcuts. **/
+	static final int SIMULATION_SETTLE_LIMIT = 50;
+
+	private static final int DEFAULT_DEGREE = 4;
+
+	private final RoadGraph graph;
+	private final int nodeCount;
+
+	//the edges of the hierarchy: graph edges, then shortcuts. an edge of a graph
+	//edge g has first = ~g; a shortcut has the two edges it replaces
+	private int[] edgeSources;
+	private int[] edgeTargets;
+	private double[] edgeWeights;
+	private int[] edgeFirsts;
+	private int[] edgeSeconds;
+	private int edgeCount;
+
+	//the edges between nodes that are not contracted yet
+	private final int[][] outEdges;
+	private final int[] outDegrees;
+	private final int[][] inEdges;
+	private final int[] inDegrees;
+
+	private final int[] ranks;
+	private final int[] contractedNeighbors;
+	private final int[] levels;
+	private final int[] priorities;
+	private final int[] updates;
+	private int update;
+
+	//witness search state, valid for a node only if visits[node] = search
+	private final int[] visits;
+	private final double[] distances;
+	private final boolean[] settled;
+	private final NodeHeap heap;
+	private int search;
+
+	//the nodes a witness search looks for have targets[node] = search
+	private final int[] targets;
+
+	//Abstraction Function:
+	//the hierarchy built so far: edges 0..edgeCount-1, nodes with ranks[n] >= 0
+	//contracted in the order of their ranks
+
+	//Rep Invariant:
+	//outEdges[n][0..outDegrees[n]-1] are the edges from n to nodes that are not
+	//contracted, and inEdges likewise, while n is not contracted
+
+
+	/**
+	 * Prepares the contraction of a graph.
+	 * @requires graph != null
+	 */
+	HierarchyBuilder(RoadGraph graph) {
+		this.graph = graph;
+		this.nodeCount = graph.nodeCount();
+		int capacity = Math.max(16, 2 * graph.edgeCount());
+		edgeSources = new int[capacity];
+		edgeTargets = new int[capacity];
+		edgeWeights = new double[capacity];
+		edgeFirsts = new int[capacity];
+		edgeSeconds = new int[capacity];
+		outEdges = new int[nodeCount][];
+		outDegrees = new int[nodeCount];
+		inEdges = new int[nodeCount][];
+		inDegrees = new int[nodeCount];
+		ranks = new int[nodeCount];
+		Arrays.fill(ranks, -1);
+		contractedNeighbors = new int[nodeCount];
+		levels = new int[nodeCount];
+		priorities = new int[nodeCount];
+		updates = new int[nodeCount];
+		visits = new int[nodeCount];
+		distances = new double[nodeCount];
+		settled = new boolean[nodeCount];
+		heap = new NodeHeap();
+		targets = new int[nodeCount];
+	}
+
+
+	/**
+	 * Contracts all the nodes of the graph.
+	 * @return the hierarchy of the graph.
+	 */
+	ContractionHierarchy build() {
+		for (int n = 0; n < nodeCount; n++) {
+			outEdges[n] = new int[DEFAULT_DEGREE];
+			inEdges[n] = new int[DEFAULT_DEGREE];
+		}
+		for (int n = 0; n < nodeCount; n++) {
+			for (int e = graph.firstEdge(n), end = graph.firstEdge(n + 1); e < end; e++) {
+				int target = graph.getEdgeTarget(e);
+				if (target != n) {
+					addEdge(n, target, graph.getEdgeLength(e), ~e, -1);
+				}
+			}
+		}
+
+		NodeHeap order = new NodeHeap();
+		for (int n = 0; n < nodeCount; n++) {
+			priorities[n] = priority(n);
+			order.push(n, priorities[n]);
+		}
+		int rank = 0;
+		while (!order.isEmpty()) {
+			double key = order.peekKey();
+			int node = order.pop();
+			if (ranks[node] >= 0 || key != priorities[node]) {
+				continue;
+			}
+			//lazy update: contract only if the node is still the least important
+			int priority = priority(node);
+			if (!order.isEmpty() && priority > order.peekKey()) {
+				priorities[node] = priority;
+				order.push(node, priority);
+				continue;
+			}
+			contract(node, false);
+			ranks[node] = rank++;
+			detach(node, order);
+		}
+		return new ContractionHierarchy(graph, ranks, edgeSources, edgeTargets, edgeWeights,
+				edgeFirsts, edgeSeconds, edgeCount);
+	}
+
+
+	private int priority(int node) {
+		int shortcuts = contract(node, true);
+		return 4 * (shortcuts - outDegrees[node] - inDegrees[node]) + 2 * contractedNeighbors[node] + levels[node];
+	}
+
+
+	//removes the edges of a contracted node from its neighbors, and updates their priorities
+	private void detach(int node, NodeHeap order) {
+		for (int i = 0; i < inDegrees[node]; i++) {
+			int e = inEdges[node][i];
+			int neighbor = edgeSources[e];
+			remove(outEdges[neighbor], outDegrees, neighbor, e);
+			contractedNeighbors[neighbor]++;
+			levels[neighbor] = Math.max(levels[neighbor], levels[node] + 1);
+		}
+		for (int i = 0; i < outDegrees[node]; i++) {
+			int e = outEdges[node][i];
+			int neighbor = edgeTargets[e];
+			remove(inEdges[neighbor], inDegrees, neighbor, e);
+			contractedNeighbors[neighbor]++;
+			levels[neighbor] = Math.max(levels[neighbor], levels[node] + 1);
+		}
+		//a neighbor on both an in and an out edge is updated once
+		update++;
+		for (int i = 0; i < inDegrees[node]; i++) {
+			update(edgeSources[inEdges[node][i]], order);
+		}
+		for (int i = 0; i < outDegrees[node]; i++) {
+			update(edgeTargets[outEdges[node][i]], order);
+		}
+		outEdges[node] = null;
+		inEdges[node] = null;
+	}
+
+
+	private void update(int node, NodeHeap order) {
+		if (updates[node] == update) {
+			return;
+		}
+		updates[node] = update;
+		int priority = priority(node);
+		if (priority != priorities[node]) {
+			priorities[node] = priority;
+			order.push(node, priority);
+		}
+	}
+
+
+	private static void remove(int[] edges, int[] degrees, int node, int edge) {
+		int degree = degrees[node];
+		for (int i = 0; i < degree; i++) {
+			if (edges[i] == edge) {
+				edges[i] = edges[degree - 1];
+				degrees[node] = degree - 1;
+				return;
+			}
+		}
+	}
+
+
+	//adds the needed shortcuts around node, or only counts them if simulate
+	private int contract(int node, boolean simulate) {
+		int shortcuts = 0;
+		int[] ins = inEdges[node];
+		int[] outs = outEdges[node];
+		int inDegree = inDegrees[node];
+		int outDegree = outDegrees[node];
+		for (int i = 0; i < inDegree; i++) {
+			int in = ins[i];
+			int source = edgeSources[in];
+			double inWeight = edgeWeights[in];
+			startSearch();
+			double limit = -1;
+			int targetCount = 0;
+			for (int j = 0; j < outDegree; j++) {
+				int target = edgeTargets[outs[j]];
+				if (target != source) {
+					limit = Math.max(limit, inWeight + edgeWeights[outs[j]]);
+					if (targets[target] != search) {
+						targets[target] = search;
+						targetCount++;
+					}
+				}
+			}
+			if (limit < 0) {
+				//the only neighbor of node is source
+				continue;
+			}
+			witnessSearch(source, node, limit, targetCount,
+					simulate ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+			for (int j = 0; j < outDegree; j++) {
+				int out = outs[j];
+				int target = edgeTargets[out];
+				double weight = inWeight + edgeWeights[out];
+				if (target == source || (visits[target] == search && distances[target] <= weight)) {
+					continue;
+				}
+				shortcuts++;
+				if (!simulate) {
+					addEdge(source, target, weight, in, out);
+				}
+			}
+		}
+		return shortcuts;
+	}
+
+
+	private void startSearch() {
+		if (++search == 0) {
+			Arrays.fill(visits, 0);
+			Arrays.fill(targets, 0);
+			search = 1;
+		}
+	}
+
+
+	//Dijkstra from source over nodes that are not contracted, avoiding skipped, until
+	//targetCount targets are settled, or up to distance limit or settleLimit settled nodes
+	private void witnessSearch(int source, int skipped, double limit, int targetCount, int settleLimit) {
+		heap.clear();
+		visits[source] = search;
+		settled[source] = false;
+		distances[source] = 0;
+		heap.push(source, 0);
+		int settledCount = 0;
+		while (!heap.isEmpty() && settledCount < settleLimit) {
+			int node = heap.pop();
+			if (settled[node]) {
+				continue;
+			}
+			settled[node] = true;
+			settledCount++;
+			double distance = distances[node];
+			if (distance > limit || (targets[node] == search && --targetCount == 0)) {
+				break;
+			}
+			int[] outs = outEdges[node];
+			for (int i = 0, degree = outDegrees[node]; i < degree; i++) {
+				int e = outs[i];
+				int next = edgeTargets[e];
+				if (next == skipped) {
+					continue;
+				}
+				double nextDistance = distance + edgeWeights[e];
+				if (visits[next] != search) {
+					visits[next] = search;
+					settled[next] = false;
+				} else if (settled[next] || nextDistance >= distances[next]) {
+					continue;
+				}
+				distances[next] = nextDistance;
+				heap.push(next, nextDistance);
+			}
+		}
+	}
+
+
+	//adds an edge between nodes that are not contracted, unless an edge
+	//between them is already as short; a longer one is replaced
+	private void addEdge(int source, int target, double weight, int first, int second) {
+		int[] outs = outEdges[source];
+		for (int i = 0, degree = outDegrees[source]; i < degree; i++) {
+			int e = outs[i];
+			if (edgeTargets[e] == target) {
+				if (edgeWeights[e] > weight) {
+					edgeWeights[e] = weight;
+					edgeFirsts[e] = first;
+					edgeSeconds[e] = second;
+				}
+				return;
+			}
+		}
+		if (edgeCount == edgeSources.length) {
+			int capacity = 2 * edgeCount;
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+			edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+			edgeFirsts = Arrays.copyOf(edgeFirsts, capacity);
+			edgeSeconds = Arrays.copyOf(edgeSeconds, capacity);
+		}
+		int e = edgeCount++;
+		edgeSources[e] = source;
+		edgeTargets[e] = target;
+		edgeWeights[e] = weight;
+		edgeFirsts[e] = first;
+		edgeSeconds[e] = second;
+		append(outEdges, outDegrees, source, e);
+		append(inEdges, inDegrees, target, e);
+	}
+
+
+	private static void append(int[][] edges, int[] degrees, int node, int edge) {
+		int degree = degrees[node];
+		if (degree == edges[node].length) {
+			edges[node] = Arrays.copyOf(edges[node], 2 * degree);
+		}
+		edges[node][degree] = edge;
+		degrees[node] = degree + 1;
+	}
+}
@@ -0,0 +1,267 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A HierarchyRouteFinder computes shortest Routes between nodes of a
+ * RoadGraph using a ContractionHierarchy of the graph. It answers the same
+ * queries as a RouteFinder: the Routes it finds are made of the same
+ * GeoSegments of the graph and have the same (least) length, but a query
+ * settles a few hundred nodes instead of a large part of the graph.
+ * <p>
+ * A query runs a search forward from the source and one backward from the
+ * target, each only along edges to higher ranked nodes, and keeps the best
+ * node where they meet. A node is not expanded if it is reached more
+ * cheaply from a higher ranked node it has already seen (stall-on-demand).
+ * <p>
+ * A HierarchyRouteFinder keeps its search arrays between queries, so it is
+ * not safe to share one between threads; use one per thread. The
+ * ContractionHierarchy itself can be shared.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   hierarchy : ContractionHierarchy  // the index searched
+ *   graph : RoadGraph                 // hierarchy.graph
+ * </pre>
+ */
+public final class HierarchyRouteFinder {
+
+	private final ContractionHierarchy hierarchy;
+	private final RoadGraph graph;
+
+	private final Search forward;
+	private final Search backward;
+	private int query;
+	private int meeting;
+	private int[] stack;
+
+	//Abstraction Function:
+	//a HierarchyRouteFinder for hierarchy = this.hierarchy
+
+	//Rep Invariant:
+	//hierarchy != null && graph = hierarchy.getGraph()
+
+
+	//the state of one direction of a query, valid for a node only if visits[node] = query
+	private static final class Search {
+		final int[] visits;
+		final boolean[] settled;
+		final double[] distances;
+		final int[] parentEdges;
+		final int[] parents;
+		final NodeHeap heap = new NodeHeap();
+		int settledCount;
+
+		Search(int nodeCount) {
+			visits = new int[nodeCount];
+			settled = new boolean[nodeCount];
+			distances = new double[nodeCount];
+			parentEdges = new int[nodeCount];
+			parents = new int[nodeCount];
+		}
+
+		boolean reached(int node, int query) {
+			return visits[node] == query;
+		}
+
+		void visit(int node, int query, double distance, int parentEdge, int parent) {
+			visits[node] = query;
+			settled[node] = false;
+			distances[node] = distance;
+			parentEdges[node] = parentEdge;
+			parents[node] = parent;
+			heap.push(node, distance);
+		}
+
+		void start(int node, int query) {
+			heap.clear();
+			settledCount = 0;
+			visit(node, query, 0, -1, -1);
+		}
+
+		double top() {
+			return heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.peekKey();
+		}
+	}
+
+
+	/**
+	 * Constructs a HierarchyRouteFinder.
+	 * @requires hierarchy != null
+	 * @effects constructs a HierarchyRouteFinder with
+	 *          this.hierarchy = hierarchy
+	 */
+	public HierarchyRouteFinder(ContractionHierarchy hierarchy) {
+		this.hierarchy = hierarchy;
+		this.graph = hierarchy.getGraph();
+		forward = new Search(graph.nodeCount());
+		backward = new Search(graph.nodeCount());
+		stack = new int[64];
+	}
+
+
+	/**
+	 * Returns the index searched.
+	 * @return this.hierarchy
+	 */
+	public ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+
+	/**
+	 * Finds a shortest Route between two points.
+	 * @requires from != null && to != null
+	 * @return a Route of least length from from to to that travels the edges
+	 *         of this.graph, or null if from or to is not a node of the
+	 *         graph, from equals to, or to can't be reached from from.
+	 */
+	public Route findRoute(GeoPoint from, GeoPoint to) {
+		int source = graph.getNode(from);
+		int target = graph.getNode(to);
+		if (source < 0 || target < 0) {
+			return null;
+		}
+		return findRoute(source, target);
+	}
+
+
+	/**
+	 * Finds a shortest Route between two nodes.
+	 * @requires 0 <= source, target < graph.nodeCount()
+	 * @return a Route of least length from graph.nodes[source] to
+	 *         graph.nodes[target], or null if source = target or target
+	 *         can't be reached from source.
+	 */
+	public Route findRoute(int source, int target) {
+		if (source == target || search(source, target) == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+		//the edges of the index along the route, the forward half found from its end
+		int forwardCount = 0;
+		for (int node = meeting; node != source; node = forward.parents[node]) {
+			forwardCount++;
+		}
+		int edgeCount = forwardCount;
+		for (int node = meeting; node != target; node = backward.parents[node]) {
+			edgeCount++;
+		}
+		int[] edges = new int[edgeCount];
+		int i = forwardCount;
+		for (int node = meeting; node != source; node = forward.parents[node]) {
+			edges[--i] = forward.parentEdges[node];
+		}
+		i = forwardCount;
+		for (int node = meeting; node != target; node = backward.parents[node]) {
+			edges[i++] = backward.parentEdges[node];
+		}
+
+		int count = 0;
+		for (int edge : edges) {
+			count += hierarchy.expandedLength(edge);
+		}
+		if (stack.length < count + 1) {
+			stack = Arrays.copyOf(stack, count + 1);
+		}
+		int[] path = new int[count];
+		int next = 0;
+		for (int edge : edges) {
+			next = hierarchy.expand(edge, path, next, stack);
+		}
+		return graph.toRoute(path, count);
+	}
+
+
+	/**
+	 * Computes the length of a shortest Route between two nodes.
+	 * @requires 0 <= source, target < graph.nodeCount()
+	 * @return the length of findRoute(source, target), 0 if source = target,
+	 *         or Double.POSITIVE_INFINITY if target can't be reached.
+	 */
+	public double distance(int source, int target) {
+		if (source == target) {
+			return 0;
+		}
+		return search(source, target);
+	}
+
+
+	/**
+	 * Returns the number of nodes the last query settled, a measure of the
+	 * work it did.
+	 * @return the number of nodes settled by both directions of the last
+	 *         call to findRoute or distance.
+	 */
+	public int getSettledCount() {
+		return forward.settledCount + backward.settledCount;
+	}
+
+
+	//runs both directions until neither can improve the best meeting; returns its distance
+	private double search(int source, int target) {
+		if (++query == 0) {
+			Arrays.fill(forward.visits, 0);
+			Arrays.fill(backward.visits, 0);
+			query = 1;
+		}
+		forward.start(source, query);
+		backward.start(target, query);
+		double best = Double.POSITIVE_INFINITY;
+		meeting = -1;
+		while (true) {
+			double forwardTop = forward.top();
+			double backwardTop = backward.top();
+			if (Math.min(forwardTop, backwardTop) >= best) {
+				break;
+			}
+			boolean isForward = forwardTop <= backwardTop;
+			Search search = isForward ? forward : backward;
+			Search other = isForward ? backward : forward;
+			int node = search.heap.pop();
+			if (search.settled[node]) {
+				continue;
+			}
+			search.settled[node] = true;
+			search.settledCount++;
+			double distance = search.distances[node];
+			if (other.reached(node, query) && distance + other.distances[node] < best) {
+				best = distance + other.distances[node];
+				meeting = node;
+			}
+			//the edges of the search lead up from node; the edges of the other
+			//direction lead up too, but to node, so they can show it is stalled
+			int first = isForward ? hierarchy.upFirst(node) : hierarchy.downFirst(node);
+			int last = isForward ? hierarchy.upFirst(node + 1) : hierarchy.downFirst(node + 1);
+			int stallFirst = isForward ? hierarchy.downFirst(node) : hierarchy.upFirst(node);
+			int stallLast = isForward ? hierarchy.downFirst(node + 1) : hierarchy.upFirst(node + 1);
+			if (stalled(search, node, distance, stallFirst, stallLast)) {
+				continue;
+			}
+			for (int e = first; e < last; e++) {
+				int next = hierarchy.head(e);
+				double nextDistance = distance + hierarchy.weight(e);
+				if (!search.reached(next, query)) {
+					search.visit(next, query, nextDistance, e, node);
+				} else if (!search.settled[next] && nextDistance < search.distances[next]) {
+					search.distances[next] = nextDistance;
+					search.parentEdges[next] = e;
+					search.parents[next] = node;
+					search.heap.push(next, nextDistance);
+				}
+			}
+		}
+		return best;
+	}
+
+
+	//whether a higher node already seen reaches node more cheaply than distance
+	private boolean stalled(Search search, int node, double distance, int first, int last) {
+		for (int e = first; e < last; e++) {
+			int higher = hierarchy.head(e);
+			if (search.reached(higher, query) && search.distances[higher] + hierarchy.weight(e) < distance) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
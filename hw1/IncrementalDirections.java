@@ -0,0 +1,196 @@
+package homework1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * An IncrementalDirections is the directions text a RouteFormatter gives
+ * for a Route that grows one segment at a time, as in RouteFormatterGUI.
+ * The directions have one line per geographic feature, and extending a
+ * route can only change its last feature or add features after it, so
+ * the lines of the other features never change. extend() computes only
+ * the lines from the last feature on, and describes the new text as an
+ * edit of the old one: keep its first getKeptLength() characters, then
+ * append getAppendedText().
+ * <p>
+ * IncrementalDirections are immutable, so one can be extended on a
+ * background thread while another thread reads the text it was made from.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   formatter : RouteFormatter  // the formatter of the directions
+ *   heading : angle             // the heading at the start of the route, in degrees
+ *   route : Route               // the route described, or null for no route
+ *   text : String               // formatter.computeDirections(route, heading), or "" if route = null
+ *   kept : integer              // how much of the text of the directions this was extended from is kept
+ * </pre>
+ */
+public final class IncrementalDirections {
+
+	private final RouteFormatter formatter;
+	private final double heading;
+	private final Route route;
+	private final int completedFeatures;
+	private final int completedLength;
+	private final double completedHeading;
+	private final int length;
+	private final int kept;
+	private final String appended;
+
+	//Abstraction Function:
+	//text = the text this was extended from, cut to its first kept characters, + appended
+	//it has length characters, of which the first completedLength are the lines of the
+	//first completedFeatures features of route, the ones that extending route can not change
+
+	//Rep Invariant:
+	//formatter != null && appended != null
+	//0 <= kept <= length && kept + appended.length() = length
+	//0 <= completedLength <= length && completedFeatures >= 0
+	//route = null => length = 0 && completedFeatures = 0
+	//route != null => completedFeatures = route.geoFeatureCount() - 1
+	//completedHeading = heading if completedFeatures = 0, otherwise the end heading of
+	//the last completed feature
+
+
+	/**
+	 * Constructs the directions of no route.
+	 * @requires formatter != null && 0 <= heading < 360
+	 * @effects constructs an IncrementalDirections with this.formatter =
+	 *          formatter, this.heading = heading, this.route = null,
+	 *          this.text = "" and this.kept = 0.
+	 */
+	public IncrementalDirections(RouteFormatter formatter, double heading) {
+		this(formatter, heading, null, 0, 0, heading, 0, 0, "");
+	}
+
+
+	private IncrementalDirections(RouteFormatter formatter, double heading, Route route,
+			int completedFeatures, int completedLength, double completedHeading,
+			int length, int kept, String appended) {
+		this.formatter = formatter;
+		this.heading = heading;
+		this.route = route;
+		this.completedFeatures = completedFeatures;
+		this.completedLength = completedLength;
+		this.completedHeading = completedHeading;
+		this.length = length;
+		this.kept = kept;
+		this.appended = appended;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//constant time
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (formatter == null || appended == null) {
+			throw new RuntimeException("formatter and appended text can't be null");
+		}
+		if (kept < 0 || kept + appended.length() != length) {
+			throw new RuntimeException("the kept and appended text must make up the text");
+		}
+		if (completedLength < 0 || completedLength > length || completedFeatures < 0) {
+			throw new RuntimeException("the completed lines must be a part of the text");
+		}
+		if (route == null ? (length != 0 || completedFeatures != 0)
+				: completedFeatures != route.geoFeatureCount() - 1) {
+			throw new RuntimeException("all features but the last must be completed");
+		}
+		RepCheck.record(IncrementalDirections.class, start);
+	}
+
+
+	/**
+	 * Computes the directions of a route from these directions. This is
+	 * fast when route extends this.route, since only the lines from the
+	 * last feature of this.route on are computed; for any other route the
+	 * whole text is computed.
+	 * @requires route != null
+	 * @return the IncrementalDirections d of route with d.formatter =
+	 *         this.formatter and d.heading = this.heading, where d.kept is
+	 *         the length of the lines d.text shares with this.text, up to
+	 *         the line of the last feature of this.route.
+	 */
+	public IncrementalDirections extend(Route route) {
+		int first = completedFeatures;
+		int keep = completedLength;
+		double lineHeading = completedHeading;
+		//an extension shares the features of this.route, as the same GeoFeature objects
+		boolean extension = this.route != null && route.geoFeatureCount() > first
+				&& (first == 0 || route.geoFeature(first - 1) == this.route.geoFeature(first - 1));
+		if (!extension) {
+			first = 0;
+			keep = 0;
+			lineHeading = heading;
+		}
+
+		int count = route.geoFeatureCount();
+		int newCompletedLength = keep;
+		double newCompletedHeading = lineHeading;
+		StringBuilder text = new StringBuilder();
+		try {
+			for (int i = first; i < count; i++) {
+				GeoFeature gf = route.geoFeature(i);
+				formatter.appendLine(gf, lineHeading, text);
+				lineHeading = gf.getEndHeading();
+				if (i < count - 1) {
+					newCompletedLength = keep + text.length();
+					newCompletedHeading = lineHeading;
+				}
+			}
+		} catch (IOException e) {
+			//a StringBuilder never throws IOException
+			throw new UncheckedIOException(e);
+		}
+		return new IncrementalDirections(formatter, heading, route, count - 1, newCompletedLength,
+				newCompletedHeading, keep + text.length(), keep, text.toString());
+	}
+
+
+	/**
+	 * Returns the route these directions are for.
+	 * @return this.route
+	 */
+	public Route getRoute() {
+		return route;
+	}
+
+
+	/**
+	 * Returns the length of the directions text.
+	 * @return the length of this.text
+	 */
+	public int getLength() {
+		return length;
+	}
+
+
+	/**
+	 * Returns how much of the text of the directions this was extended from
+	 * is still the start of this text.
+	 * @return this.kept
+	 */
+	public int getKeptLength() {
+		return kept;
+	}
+
+
+	/**
+	 * Returns the text that follows the kept text.
+	 * @return this.text without its first this.kept characters.
+	 */
+	public String getAppendedText() {
+		return appended;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "IncrementalDirections[" + length + " characters, kept " + kept + "]";
+	}
+}
@@ -0,0 +1,104 @@
+package homework1;
+
+import java.util.Random;
+
+public class IncrementalDirectionsTest {
+
+	private GeoSegment[] mSegments;
+
+
+	public IncrementalDirectionsTest() {
+		//a winding path whose street names change every few segments, and come back
+		Random random = new Random(5);
+		String[] names = {"Herzl", "Jabotinsky", "HaGalil", "Khanita"};
+		mSegments = new GeoSegment[300];
+		GeoPoint point = new GeoPoint(32780000, 35010000);
+		int street = 0;
+		for (int i = 0; i < mSegments.length; i++) {
+			if (random.nextInt(3) == 0) {
+				street = (street + 1 + random.nextInt(names.length - 1)) % names.length;
+			}
+			GeoPoint next = new GeoPoint(point.getLatitude() + random.nextInt(2000) - 1000,
+				point.getLongitude() + random.nextInt(2000) - 1000);
+			mSegments[i] = new GeoSegment(names[street], point, next);
+			point = next;
+		}
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//applies the edit of directions to text
+	private static void apply(StringBuilder text, IncrementalDirections directions) {
+		text.setLength(directions.getKeptLength());
+		text.append(directions.getAppendedText());
+	}
+
+
+	private boolean follows(RouteFormatter formatter, double heading, int step) {
+		IncrementalDirections directions = new IncrementalDirections(formatter, heading);
+		StringBuilder text = new StringBuilder();
+		Route route = null;
+		for (int i = 0; i < mSegments.length; i += step) {
+			for (int j = i; j < Math.min(i + step, mSegments.length); j++) {
+				route = (route == null) ? new Route(mSegments[j]) : route.addSegment(mSegments[j]);
+			}
+			directions = directions.extend(route);
+			apply(text, directions);
+			if (!text.toString().equals(formatter.computeDirections(route, heading))
+					|| directions.getLength() != text.length() || directions.getRoute() != route) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		show("extend()");
+		show("Walking directions follow a route extended one segment at a time.",
+			follows(new WalkingRouteFormatter(), 0, 1));
+		show("Driving directions follow a route extended one segment at a time.",
+			follows(new DrivingRouteFormatter(), 90, 1));
+		show("Directions follow a route extended several segments at a time.",
+			follows(new DrivingRouteFormatter(), 0, 7));
+
+		RouteFormatter formatter = new DrivingRouteFormatter();
+		Route route = new Route(mSegments[0]);
+		for (int i = 1; i < 100; i++) {
+			route = route.addSegment(mSegments[i]);
+		}
+		IncrementalDirections directions = new IncrementalDirections(formatter, 0).extend(route);
+		Route extended = route.addSegment(mSegments[100]);
+		IncrementalDirections next = directions.extend(extended);
+		String text = formatter.computeDirections(route, 0);
+		show("Only the line of the last feature is rewritten.",
+			next.getKeptLength() == text.lastIndexOf('\n', text.length() - 2) + 1
+			&& next.getAppendedText().split("\n").length == extended.geoFeatureCount() - route.geoFeatureCount() + 1);
+
+		Route other = new Route(mSegments[150]).addSegment(mSegments[151]);
+		IncrementalDirections rewritten = next.extend(other);
+		show("A route that does not extend the old one is rewritten whole.",
+			rewritten.getKeptLength() == 0
+			&& rewritten.getAppendedText().equals(formatter.computeDirections(other, 0)));
+	}
+
+
+	public static void main(String[] args) {
+		IncrementalDirectionsTest directionsTest = new IncrementalDirectionsTest();
+		directionsTest.test();
+	}
+}
@@ -0,0 +1,125 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A map from long keys to nonnegative int values, stored in two primitive
+ * arrays with open addressing (linear probing), so no key or value is
+ * boxed. It is used to give packed GeoPoints dense ids.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   entries : set of (long, int)  // the mappings of this map, keys distinct
+ * </pre>
+ */
+final class LongIntHashMap {
+
+	/** Returned by get for a key with no mapping. **/
+	static final int NO_VALUE = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+	//Abstraction Function:
+	//entries = {(keys[i], values[i]) | values[i] != NO_VALUE}
+
+	//Rep Invariant:
+	//keys.length = values.length is a power of 2 and 2 * size <= keys.length
+	//size = number of i such that values[i] != NO_VALUE, and all values >= 0
+	//a key is found by probing from slot(key) without passing an empty slot
+
+
+	/**
+	 * Constructs an empty map with room for the given number of entries.
+	 * @requires expected >= 0
+	 * @effects constructs a map with entries = {} that does not grow
+	 *          before it holds expected entries.
+	 */
+	LongIntHashMap(int expected) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2L * expected) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, NO_VALUE);
+	}
+
+
+	//the same multiplicative hash as GeoPoint.hashCode, reduced to the table size
+	private int slot(long key) {
+		long bits = key * 0x9E3779B97F4A7C15L;
+		return (int) (bits >>> 32) & (keys.length - 1);
+	}
+
+
+	/**
+	 * Returns the value of a key.
+	 * @return v if (key, v) is in entries, NO_VALUE otherwise.
+	 */
+	int get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key); values[i] != NO_VALUE; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return values[i];
+			}
+		}
+		return NO_VALUE;
+	}
+
+
+	/**
+	 * Adds a mapping for key unless it already has one.
+	 * @requires value >= 0
+	 * @modifies this
+	 * @effects adds (key, value) to entries if key has no mapping.
+	 * @return the value key had before the call, or NO_VALUE if it had none.
+	 */
+	int putIfAbsent(long key, int value) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		for (; values[i] != NO_VALUE; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return values[i];
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (2 * ++size > keys.length) {
+			rehash();
+		}
+		return NO_VALUE;
+	}
+
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[2 * oldKeys.length];
+		values = new int[2 * oldValues.length];
+		Arrays.fill(values, NO_VALUE);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldValues[j] != NO_VALUE) {
+				int i = slot(oldKeys[j]);
+				while (values[i] != NO_VALUE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the number of entries.
+	 * @return |entries|
+	 */
+	int size() {
+		return size;
+	}
+}
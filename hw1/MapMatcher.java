@@ -0,0 +1,583 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A MapMatcher turns a GPS trace, a sequence of noisy position fixes, into
+ * the Routes of a RoadGraph that were most likely traveled, with the hidden
+ * Markov model of Newson and Krumm:
+ * <ul>
+ * <li>the candidates of a fix are the edges, in both directions of travel,
+ *     of the segments within the search radius of it, found with a
+ *     SegmentIndex; a fix with no candidates is skipped;</li>
+ * <li>a candidate at distance d from its fix has the emission probability
+ *     of a normal GPS error: exp(-(d / sigma)^2 / 2);</li>
+ * <li>going from a candidate of a fix to one of the next has the transition
+ *     probability exp(-|route - straight| / beta), where route is the
+ *     length of the shortest way between the two along the graph and
+ *     straight is GeoPoint.distanceTo between the two fixes. The ways from
+ *     a candidate to all the next ones are found by one Dijkstra search,
+ *     bounded to routes that are not much longer than straight. A fix
+ *     that falls back along the edge of its candidate has a negative
+ *     route, so GPS noise at a standstill costs little, while traveling
+ *     against the edge costs twice as much as traveling along it.</li>
+ * </ul>
+ * The most likely candidates are found with the Viterbi algorithm, over a
+ * window of the last fixes only. As soon as the most likely paths to all
+ * the candidates of the newest fix share their start, that start can no
+ * longer change and is added to the matched Route; if they still differ
+ * after window fixes, the oldest fix is decided by the most likely path.
+ * The memory used for a trace is therefore bounded by the window, whatever
+ * the length of the trace, apart from the Routes matched.
+ * <p>
+ * When no candidate of a fix can be reached from the candidates of the
+ * fix before it, the current Route ends there and a new one starts. The
+ * matched Route of a fix whose candidate lies inside an edge includes the
+ * whole edge.
+ * <p>
+ * A MapMatcher keeps its search arrays and the window between fixes, so
+ * it is not safe to share a MapMatcher between threads; use one MapMatcher
+ * per thread.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   graph : RoadGraph   // the graph matched to
+ *   sigma : real        // the standard deviation of the GPS error, in kilometers
+ *   beta : real         // the scale of the transition probability, in kilometers
+ *   radius : real       // how far from a fix its candidates can be, in kilometers
+ *   window : int        // the number of fixes the Viterbi algorithm looks back
+ *   trace : sequence    // the fixes added since the last finish
+ * </pre>
+ */
+public final class MapMatcher {
+
+	/** The default GPS error, 5 meters. **/
+	public static final double DEFAULT_SIGMA = 0.005;
+
+	/** The default transition scale, 5 meters. **/
+	public static final double DEFAULT_BETA = 0.005;
+
+	/** The default search radius, 50 meters. **/
+	public static final double DEFAULT_RADIUS = 0.05;
+
+	/** The default window, in fixes. **/
+	public static final int DEFAULT_WINDOW = 32;
+
+	//the most candidates of a fix, in edges
+	private static final int MAX_CANDIDATES = 16;
+
+	//how much longer than the straight line a route may be, in betas; its probability
+	//is then e^-40 times that of the straight one
+	private static final double DETOUR_BETAS = 40;
+
+	private final RoadGraph graph;
+	private final SegmentIndex index;
+	private final double sigma;
+	private final double beta;
+	private final double radius;
+	private final int window;
+
+	//the window: a ring of window + 1 fixes, step s being slot (first + s) % (window + 1),
+	//with their candidate edges, the node each edge leaves, the offset along the edge of the
+	//point closest to the fix, the log-probability of the most likely path to it, and the
+	//candidate of the step before on that path
+	private final GeoPoint[] fixes;
+	private final int[] counts;
+	private final int[][] edges;
+	private final int[][] sources;
+	private final double[][] offsets;
+	private final double[][] scores;
+	private final int[][] backs;
+	private int first = 0;
+	private int steps = 0;
+
+	//the Routes matched, the one being matched, and the last edge added to it
+	private List<Route> routes = new ArrayList<>();
+	private Route route = null;
+	private GeoPointPool pool = null;
+	private int lastEdge = -1;
+
+	//scratch arrays
+	private final double[] emissions = new double[MAX_CANDIDATES];
+	private final double[] nearDistances = new double[MAX_CANDIDATES];
+	private final int[] nearSegments = new int[MAX_CANDIDATES];
+	private final int[] chosen;
+	private final boolean[] alive = new boolean[MAX_CANDIDATES];
+	private final boolean[] aliveBefore = new boolean[MAX_CANDIDATES];
+	private int[] path = new int[16];
+
+	//Dijkstra search state, valid for a node only if visits[node] = query
+	private final int[] visits;
+	private final boolean[] settled;
+	private final double[] distances;
+	private final int[] parentEdges;
+	private final int[] parents;
+	private final NodeHeap heap = new NodeHeap();
+	private int query = 0;
+
+	//Abstraction Function:
+	//trace = the fixes of the Routes in routes and route, then fixes[first], ...,
+	//fixes[(first + steps - 1) % (window + 1)]; the fixes already matched are not kept
+
+	//Rep Invariant:
+	//graph != null && index indexes graph.segments
+	//sigma > 0 && beta > 0 && radius >= 0 && window >= 1
+	//0 <= steps <= window && 0 <= first <= window
+	//0 < counts[slot] <= MAX_CANDIDATES for the slots of the steps
+	//route = null <=> lastEdge = -1, and otherwise route ends with the edge lastEdge
+
+
+	/**
+	 * Constructs a MapMatcher with the default parameters.
+	 * @requires graph != null
+	 * @effects constructs a MapMatcher with this.graph = graph, sigma =
+	 *          DEFAULT_SIGMA, beta = DEFAULT_BETA, radius = DEFAULT_RADIUS,
+	 *          window = DEFAULT_WINDOW and an empty trace.
+	 */
+	public MapMatcher(RoadGraph graph) {
+		this(graph, DEFAULT_SIGMA, DEFAULT_BETA, DEFAULT_RADIUS, DEFAULT_WINDOW);
+	}
+
+
+	/**
+	 * Constructs a MapMatcher.
+	 * @requires graph != null && sigma > 0 && beta > 0 && radius >= 0 &&
+	 *           window >= 1
+	 * @effects constructs a MapMatcher with this.graph = graph, this.sigma =
+	 *          sigma, this.beta = beta, this.radius = radius, this.window =
+	 *          window and an empty trace.
+	 */
+	public MapMatcher(RoadGraph graph, double sigma, double beta, double radius, int window) {
+		this.graph = graph;
+		this.index = new SegmentIndex(graph.getSegments());
+		this.sigma = sigma;
+		this.beta = beta;
+		this.radius = radius;
+		this.window = window;
+		fixes = new GeoPoint[window + 1];
+		counts = new int[window + 1];
+		edges = new int[window + 1][MAX_CANDIDATES];
+		sources = new int[window + 1][MAX_CANDIDATES];
+		offsets = new double[window + 1][MAX_CANDIDATES];
+		scores = new double[window + 1][MAX_CANDIDATES];
+		backs = new int[window + 1][MAX_CANDIDATES];
+		chosen = new int[window + 1];
+		int nodeCount = graph.nodeCount();
+		visits = new int[nodeCount];
+		settled = new boolean[nodeCount];
+		distances = new double[nodeCount];
+		parentEdges = new int[nodeCount];
+		parents = new int[nodeCount];
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//constant time
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (graph == null || index == null || index.getSegments() != graph.getSegments()) {
+			throw new RuntimeException("the index must index the segments of the graph");
+		}
+		if (!(sigma > 0) || !(beta > 0) || !(radius >= 0) || window < 1) {
+			throw new RuntimeException("sigma, beta, radius and window must be positive");
+		}
+		if (steps < 0 || steps > window || first < 0 || first > window) {
+			throw new RuntimeException("the steps must fit in the window");
+		}
+		if ((route == null) != (lastEdge < 0)) {
+			throw new RuntimeException("the last edge must be that of the route");
+		}
+		RepCheck.record(MapMatcher.class, start);
+	}
+
+
+	/**
+	 * Returns the graph matched to.
+	 * @return this.graph
+	 */
+	public RoadGraph getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Matches a whole trace.
+	 * @requires trace != null and its fixes are not null
+	 * @modifies this
+	 * @effects adds the fixes of trace, then finishes.
+	 * @return the Routes of this.trace + trace, as finish() returns them.
+	 */
+	public List<Route> match(Iterable<GeoPoint> trace) {
+		for (GeoPoint fix : trace) {
+			add(fix);
+		}
+		return finish();
+	}
+
+
+	/**
+	 * Adds the next fix of the trace.
+	 * @requires fix != null
+	 * @modifies this
+	 * @effects this.trace = this.trace + [fix]; matches the start of the
+	 *          trace that later fixes can no longer change.
+	 */
+	public void add(GeoPoint fix) {
+		int slot = slot(steps);
+		if (!findCandidates(fix, slot)) {
+			return;
+		}
+		fixes[slot] = fix;
+		boolean reached = false;
+		if (steps > 0) {
+			int before = slot(steps - 1);
+			reached = transition(before, slot, fixes[before].distanceTo(fix));
+			if (!reached) {
+				//no candidate can be reached: end the route at the most likely candidate
+				commit(steps - 1, best(before));
+				closeRoute();
+			}
+		}
+		if (!reached) {
+			System.arraycopy(emissions, 0, scores[slot], 0, counts[slot]);
+			Arrays.fill(backs[slot], 0, counts[slot], -1);
+		}
+		normalize(slot);
+		steps++;
+
+		commitConverged();
+		if (steps > window) {
+			commitOldest();
+		}
+		if (RepCheck.onAccess()) {
+			checkRep();
+		}
+	}
+
+
+	/**
+	 * Ends the trace.
+	 * @modifies this
+	 * @effects matches the rest of this.trace and empties it.
+	 * @return the Routes most likely traveled along this.trace, in order:
+	 *         one Route, or a new one wherever no candidate of a fix could
+	 *         be reached from those of the fix before; an empty list if no
+	 *         fix had a candidate.
+	 */
+	public List<Route> finish() {
+		if (steps > 0) {
+			commit(steps - 1, best(slot(steps - 1)));
+		}
+		closeRoute();
+		List<Route> matched = routes;
+		routes = new ArrayList<>();
+		if (RepCheck.onAccess()) {
+			checkRep();
+		}
+		return matched;
+	}
+
+
+	/**
+	 * Returns the number of fixes of the trace that are not matched yet.
+	 * @return the number of fixes in the window, at most this.window.
+	 */
+	int getPendingFixes() {
+		return steps;
+	}
+
+
+	//the ring slot of step s
+	private int slot(int s) {
+		return (first + s) % (window + 1);
+	}
+
+
+	//finds the candidates of fix into slot, with their emission log-probabilities in
+	//emissions; returns whether there are any
+	private boolean findCandidates(GeoPoint fix, int slot) {
+		int[] near = index.segmentsNear(fix, radius);
+		int perSegment = graph.isOneWay() ? 1 : 2;
+		int limit = MAX_CANDIDATES / perSegment;
+		//keep the nearest segments, by insertion into the sorted scratch arrays
+		int found = 0;
+		for (int segment : near) {
+			double distance = index.distance(segment, fix);
+			if (found == limit && distance >= nearDistances[found - 1]) {
+				continue;
+			}
+			int i = found < limit ? found++ : limit - 1;
+			while (i > 0 && nearDistances[i - 1] > distance) {
+				nearDistances[i] = nearDistances[i - 1];
+				nearSegments[i] = nearSegments[i - 1];
+				i--;
+			}
+			nearDistances[i] = distance;
+			nearSegments[i] = segment;
+		}
+
+		SegmentStore segments = graph.getSegments();
+		int count = 0;
+		for (int i = 0; i < found; i++) {
+			int segment = nearSegments[i];
+			double offset = index.offset(segment, fix);
+			double length = segments.getLength(segment);
+			double emission = -0.5 * (nearDistances[i] / sigma) * (nearDistances[i] / sigma);
+			for (int reversed = 0; reversed < perSegment; reversed++) {
+				int source = graph.getNode(reversed == 0
+						? GeoPoint.pack(segments.getLatitude1(segment), segments.getLongitude1(segment))
+						: GeoPoint.pack(segments.getLatitude2(segment), segments.getLongitude2(segment)));
+				int edge = edgeOf(source, segment, reversed == 1);
+				edges[slot][count] = edge;
+				sources[slot][count] = source;
+				offsets[slot][count] = (reversed == 0) ? offset : length - offset;
+				emissions[count] = emission;
+				count++;
+			}
+		}
+		counts[slot] = count;
+		return count > 0;
+	}
+
+
+	//the edge that leaves source along segment, in its direction or reversed
+	private int edgeOf(int source, int segment, boolean reversed) {
+		for (int e = graph.firstEdge(source), end = graph.firstEdge(source + 1); e < end; e++) {
+			if (graph.getEdgeSegment(e) == segment && graph.isEdgeReversed(e) == reversed) {
+				return e;
+			}
+		}
+		throw new IllegalStateException("segment " + segment + " has no edge from node " + source);
+	}
+
+
+	//the most likely paths to the candidates of slot through those of before, where the
+	//fixes are straight kilometers apart; returns whether any candidate was reached
+	private boolean transition(int before, int slot, double straight) {
+		int count = counts[slot];
+		double[] slotScores = scores[slot];
+		Arrays.fill(slotScores, 0, count, Double.NEGATIVE_INFINITY);
+		Arrays.fill(backs[slot], 0, count, -1);
+		double limit = straight + 2 * radius + DETOUR_BETAS * beta;
+		boolean reached = false;
+		for (int i = 0; i < counts[before]; i++) {
+			double score = scores[before][i];
+			if (score == Double.NEGATIVE_INFINITY) {
+				continue;
+			}
+			int edge = edges[before][i];
+			double offset = offsets[before][i];
+			double remaining = graph.getEdgeLength(edge) - offset;
+			boolean searched = false;
+			for (int j = 0; j < count; j++) {
+				double route;
+				if (edges[slot][j] == edge) {
+					//negative if the fix fell back along the edge
+					route = offsets[slot][j] - offset;
+				} else {
+					if (!searched) {
+						search(graph.getEdgeTarget(edge), limit - remaining, -1);
+						searched = true;
+					}
+					int source = sources[slot][j];
+					if (visits[source] != query || !settled[source]) {
+						continue;
+					}
+					route = remaining + distances[source] + offsets[slot][j];
+				}
+				double next = score - Math.abs(route - straight) / beta + emissions[j];
+				if (next > slotScores[j]) {
+					slotScores[j] = next;
+					backs[slot][j] = i;
+					reached = true;
+				}
+			}
+		}
+		return reached;
+	}
+
+
+	//shifts the scores of slot so the best is 0, which keeps long traces from underflowing
+	private void normalize(int slot) {
+		double max = scores[slot][best(slot)];
+		for (int j = 0; j < counts[slot]; j++) {
+			scores[slot][j] -= max;
+		}
+	}
+
+
+	//the most likely candidate of slot
+	private int best(int slot) {
+		int best = 0;
+		for (int j = 1; j < counts[slot]; j++) {
+			if (scores[slot][j] > scores[slot][best]) {
+				best = j;
+			}
+		}
+		return best;
+	}
+
+
+	//matches the steps before the newest up to the last one that all the most likely paths
+	//to the candidates of the newest step go through
+	private void commitConverged() {
+		int newest = slot(steps - 1);
+		for (int j = 0; j < counts[newest]; j++) {
+			alive[j] = scores[newest][j] != Double.NEGATIVE_INFINITY;
+		}
+		for (int s = steps - 1; s > 0; s--) {
+			int slot = slot(s);
+			int before = slot(s - 1);
+			Arrays.fill(aliveBefore, 0, counts[before], false);
+			int aliveCount = 0;
+			int last = -1;
+			for (int j = 0; j < counts[slot]; j++) {
+				if (alive[j] && !aliveBefore[backs[slot][j]]) {
+					aliveBefore[backs[slot][j]] = true;
+					aliveCount++;
+					last = backs[slot][j];
+				}
+			}
+			if (aliveCount == 1) {
+				commit(s - 1, last);
+				return;
+			}
+			System.arraycopy(aliveBefore, 0, alive, 0, counts[before]);
+		}
+	}
+
+
+	//matches the oldest step by the most likely path, and drops the paths that don't go
+	//through the candidate it chose
+	private void commitOldest() {
+		int candidate = best(slot(steps - 1));
+		for (int s = steps - 1; s > 0; s--) {
+			candidate = backs[slot(s)][candidate];
+		}
+		commit(0, candidate);
+		for (int s = 0; s < steps; s++) {
+			int slot = slot(s);
+			for (int j = 0; j < counts[slot]; j++) {
+				if (scores[slot][j] == Double.NEGATIVE_INFINITY) {
+					continue;
+				}
+				boolean through = (s == 0) ? backs[slot][j] == candidate
+						: scores[slot(s - 1)][backs[slot][j]] != Double.NEGATIVE_INFINITY;
+				if (!through) {
+					scores[slot][j] = Double.NEGATIVE_INFINITY;
+				}
+			}
+		}
+	}
+
+
+	//matches steps 0..last, choosing candidate at step last and the candidates of its
+	//most likely path before it, and removes them from the window
+	private void commit(int last, int candidate) {
+		chosen[last] = candidate;
+		for (int s = last; s > 0; s--) {
+			chosen[s - 1] = backs[slot(s)][chosen[s]];
+		}
+		for (int s = 0; s <= last; s++) {
+			int slot = slot(s);
+			appendEdge(edges[slot][chosen[s]], sources[slot][chosen[s]]);
+		}
+		first = slot(last + 1);
+		steps -= last + 1;
+	}
+
+
+	//adds an edge that leaves source to the route, after the shortest way to it from the
+	//last edge added
+	private void appendEdge(int edge, int source) {
+		if (lastEdge < 0) {
+			pool = new GeoPointPool();
+			route = new Route(graph.getEdgeGeoSegment(edge, pool));
+			lastEdge = edge;
+			return;
+		}
+		if (edge == lastEdge) {
+			return;
+		}
+		int from = graph.getEdgeTarget(lastEdge);
+		search(from, Double.POSITIVE_INFINITY, source);
+		int count = 0;
+		for (int node = source; node != from; node = parents[node]) {
+			if (count == path.length) {
+				path = Arrays.copyOf(path, 2 * count);
+			}
+			path[count++] = parentEdges[node];
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			route = route.addSegment(graph.getEdgeGeoSegment(path[i], pool));
+		}
+		route = route.addSegment(graph.getEdgeGeoSegment(edge, pool));
+		lastEdge = edge;
+	}
+
+
+	//ends the route being matched, if any
+	private void closeRoute() {
+		if (route != null) {
+			routes.add(route);
+		}
+		route = null;
+		pool = null;
+		lastEdge = -1;
+	}
+
+
+	//runs Dijkstra from source, settling the nodes up to limit kilometers away, or until
+	//target is settled
+	private void search(int source, double limit, int target) {
+		if (++query == 0) {
+			//the visit stamps wrapped around, so old stamps could look current
+			Arrays.fill(visits, 0);
+			query = 1;
+		}
+		heap.clear();
+		visit(source, 0, -1, -1);
+		heap.push(source, 0);
+		while (!heap.isEmpty()) {
+			int node = heap.pop();
+			if (settled[node]) {
+				continue;
+			}
+			double distance = distances[node];
+			if (distance > limit) {
+				return;
+			}
+			settled[node] = true;
+			if (node == target) {
+				return;
+			}
+			for (int e = graph.firstEdge(node), end = graph.firstEdge(node + 1); e < end; e++) {
+				int next = graph.getEdgeTarget(e);
+				double nextDistance = distance + graph.getEdgeLength(e);
+				if (visits[next] != query) {
+					visit(next, nextDistance, e, node);
+				} else if (!settled[next] && nextDistance < distances[next]) {
+					distances[next] = nextDistance;
+					parentEdges[next] = e;
+					parents[next] = node;
+				} else {
+					continue;
+				}
+				heap.push(next, nextDistance);
+			}
+		}
+	}
+
+
+	private void visit(int node, double distance, int parentEdge, int parent) {
+		visits[node] = query;
+		settled[node] = false;
+		distances[node] = distance;
+		parentEdges[node] = parentEdge;
+		parents[node] = parent;
+	}
+}
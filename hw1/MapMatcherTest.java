@@ -0,0 +1,203 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class MapMatcherTest {
+
+	private static final int SIDE = 6;
+	private static final int SPACING = 1000;
+	private static final int LATITUDE = 32700000;
+	private static final int LONGITUDE = 34900000;
+
+	private SegmentStore mGrid;
+	private RoadGraph mGraph;
+	private Random mRandom;
+
+
+	public MapMatcherTest() {
+		mGrid = new SegmentStore();
+		for (int row = 0; row < SIDE; row++) {
+			for (int column = 0; column + 1 < SIDE; column++) {
+				mGrid.add("Row " + row, latitude(row), longitude(column), latitude(row), longitude(column + 1));
+			}
+		}
+		for (int column = 0; column < SIDE; column++) {
+			for (int row = 0; row + 1 < SIDE; row++) {
+				mGrid.add("Column " + column, latitude(row), longitude(column), latitude(row + 1), longitude(column));
+			}
+		}
+		mGraph = new RoadGraph(mGrid);
+		mRandom = new Random(11);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private static int latitude(double row) {
+		return (int) Math.round(LATITUDE + row * SPACING);
+	}
+
+
+	private static int longitude(double column) {
+		return (int) Math.round(LONGITUDE + column * SPACING);
+	}
+
+
+	//fixes every tenth of a block along straight lines between (row, column) waypoints,
+	//with a GPS error of about 5 meters
+	private List<GeoPoint> trace(double... waypoints) {
+		List<GeoPoint> trace = new ArrayList<>();
+		for (int w = 0; w + 3 < waypoints.length; w += 2) {
+			double row1 = waypoints[w], column1 = waypoints[w + 1];
+			double row2 = waypoints[w + 2], column2 = waypoints[w + 3];
+			int samples = (int) Math.ceil(10 * Math.max(Math.abs(row2 - row1), Math.abs(column2 - column1)));
+			for (int i = (w == 0) ? 0 : 1; i <= samples; i++) {
+				double row = row1 + (row2 - row1) * i / samples + mRandom.nextGaussian() * 0.045;
+				double column = column1 + (column2 - column1) * i / samples + mRandom.nextGaussian() * 0.053;
+				trace.add(new GeoPoint(latitude(row), longitude(column)));
+			}
+		}
+		return trace;
+	}
+
+
+	//the names and points of the segments of a route
+	private static String describe(Route route) {
+		StringBuilder sb = new StringBuilder();
+		Iterator<GeoSegment> iter = route.getGeoSegments();
+		while (iter.hasNext()) {
+			sb.append(iter.next());
+		}
+		return sb.toString();
+	}
+
+
+	private static int segmentCount(Route route) {
+		int count = 0;
+		for (Iterator<GeoSegment> iter = route.getGeoSegments(); iter.hasNext(); iter.next()) {
+			count++;
+		}
+		return count;
+	}
+
+
+	//the route through (row, column) intersections
+	private static String expected(int... intersections) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i + 3 < intersections.length; i += 2) {
+			int row1 = intersections[i], column1 = intersections[i + 1];
+			int row2 = intersections[i + 2], column2 = intersections[i + 3];
+			String name = (row1 == row2) ? "Row " + row1 : "Column " + column1;
+			sb.append(new GeoSegment(name, new GeoPoint(latitude(row1), longitude(column1)),
+				new GeoPoint(latitude(row2), longitude(column2))));
+		}
+		return sb.toString();
+	}
+
+
+	public void testMatch() {
+		show("match()");
+		MapMatcher matcher = new MapMatcher(mGraph);
+		List<Route> routes = matcher.match(trace(2, 0.2, 2, 4.8));
+		show("A trace along a street matches its segments.", routes.size() == 1
+			&& describe(routes.get(0)).equals(expected(2, 0, 2, 1, 2, 2, 2, 3, 2, 4, 2, 5)));
+		routes = matcher.match(trace(3, 4.7, 3, 1.3));
+		show("A trace against the segments matches them reversed.", routes.size() == 1
+			&& describe(routes.get(0)).equals(expected(3, 5, 3, 4, 3, 3, 3, 2, 3, 1)));
+		routes = matcher.match(trace(1, 0.3, 1, 3, 4.6, 3));
+		show("A trace that turns matches both streets.", routes.size() == 1
+			&& describe(routes.get(0)).equals(expected(1, 0, 1, 1, 1, 2, 1, 3, 2, 3, 3, 3, 4, 3, 5, 3)));
+
+		List<GeoPoint> trace = trace(1, 0.3, 1, 3, 4.6, 3);
+		trace.add(20, new GeoPoint(LATITUDE + 100000, LONGITUDE + 100000));
+		routes = matcher.match(trace);
+		show("A fix far from the segments is skipped.", routes.size() == 1
+			&& describe(routes.get(0)).equals(expected(1, 0, 1, 1, 1, 2, 1, 3, 2, 3, 3, 3, 4, 3, 5, 3)));
+		show("An empty trace matches no route.", matcher.finish().isEmpty()
+			&& matcher.match(new ArrayList<GeoPoint>()).isEmpty());
+	}
+
+
+	public void testWindow() {
+		show("window");
+		String turn = expected(1, 0, 1, 1, 1, 2, 1, 3, 2, 3, 3, 3, 4, 3, 5, 3);
+		boolean same = true;
+		for (int window = 4; window <= 32; window *= 2) {
+			List<Route> routes = new MapMatcher(mGraph, MapMatcher.DEFAULT_SIGMA, MapMatcher.DEFAULT_BETA,
+				MapMatcher.DEFAULT_RADIUS, window).match(trace(1, 0.3, 1, 3, 4.6, 3));
+			same = same && routes.size() == 1 && describe(routes.get(0)).equals(turn);
+		}
+		show("Small windows match the same turn.", same);
+		//a window of one fix decides each fix on its own, and may go past the corner and back
+		List<Route> greedy = new MapMatcher(mGraph, MapMatcher.DEFAULT_SIGMA, MapMatcher.DEFAULT_BETA,
+			MapMatcher.DEFAULT_RADIUS, 1).match(trace(1, 0.3, 1, 3, 4.6, 3));
+		show("A window of one fix still matches one route from start to end.", greedy.size() == 1
+			&& greedy.get(0).getStart().equals(new GeoPoint(latitude(1), longitude(0)))
+			&& greedy.get(0).getEnd().equals(new GeoPoint(latitude(5), longitude(3))));
+
+		//around the block of rows 1-2 and columns 1-2, 100 times
+		MapMatcher matcher = new MapMatcher(mGraph, MapMatcher.DEFAULT_SIGMA, MapMatcher.DEFAULT_BETA,
+			MapMatcher.DEFAULT_RADIUS, 8);
+		boolean bounded = true;
+		List<GeoPoint> loop = trace(1, 1.5, 1, 2, 2, 2, 2, 1, 1, 1, 1, 1.5);
+		for (int round = 0; round < 100; round++) {
+			for (GeoPoint fix : loop) {
+				matcher.add(fix);
+				bounded = bounded && matcher.getPendingFixes() <= 8;
+			}
+		}
+		show("A long trace keeps at most window fixes pending.", bounded);
+		List<Route> routes = matcher.finish();
+		show("It matches every round of the block.", routes.size() == 1
+			&& segmentCount(routes.get(0)) == 100 * 4 + 1
+			&& matcher.getPendingFixes() == 0);
+	}
+
+
+	public void testBreaks() {
+		show("breaks");
+		//the grid, and a street 10 blocks east of it that doesn't meet it
+		SegmentStore store = new SegmentStore();
+		for (int i = 0; i < mGrid.size(); i++) {
+			store.add(mGrid.getName(i), mGrid.getLatitude1(i), mGrid.getLongitude1(i),
+				mGrid.getLatitude2(i), mGrid.getLongitude2(i));
+		}
+		store.add("Island", latitude(2), longitude(15), latitude(2), longitude(16));
+		MapMatcher matcher = new MapMatcher(new RoadGraph(store));
+		List<GeoPoint> trace = trace(2, 3.2, 2, 4.8);
+		trace.addAll(trace(2, 15.2, 2, 15.8));
+		List<Route> routes = matcher.match(trace);
+		show("A trace that jumps to an unconnected street matches two routes.", routes.size() == 2
+			&& describe(routes.get(0)).equals(expected(2, 3, 2, 4, 2, 5))
+			&& routes.get(1).getGeoFeatures().next().getName().equals("Island"));
+
+		RoadGraph oneWay = new RoadGraph(mGrid, true);
+		routes = new MapMatcher(oneWay).match(trace(3, 4.7, 3, 1.3));
+		show("Against the segments of a one-way graph no fix can be reached, so the route breaks.",
+			routes.size() > 1);
+	}
+
+
+	public static void main(String[] args) {
+		MapMatcherTest matcherTest = new MapMatcherTest();
+		matcherTest.testMatch();
+		matcherTest.testWindow();
+		matcherTest.testBreaks();
+	}
+}
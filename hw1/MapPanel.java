@@ -0,0 +1,395 @@
+package homework1;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.JPanel;
+
+/**
+ * A JPanel that draws a road network and a Route on a map, which can be
+ * panned by dragging and zoomed with the mouse wheel.
+ * <p>
+ * The map uses the flat-earth projection of GeoPoint, at zoom levels
+ * MIN_ZOOM to MAX_ZOOM; each level doubles the scale of the one before it.
+ * The network is drawn in square tiles of TILE_SIZE pixels:
+ * <ul>
+ * <li>a tile draws only the segments a SegmentIndex finds in its box;</li>
+ * <li>a segment shorter than a pixel at the tile's zoom is drawn as a
+ *     single pixel, so a zoomed out tile costs a pixel write per segment
+ *     instead of a line;</li>
+ * <li>drawn tiles are kept in a cache, and the least recently shown ones
+ *     are dropped when it is full, so panning only draws the tiles that
+ *     come into view.</li>
+ * </ul>
+ * The route is drawn over the tiles on every paint, skipping the segments
+ * out of view and the points less than a pixel from the last one drawn.
+ */
+public class MapPanel extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Width and height of a tile, in pixels. **/
+	public static final int TILE_SIZE = 256;
+
+	/** The most zoomed out level, about 16 kilometers per pixel. **/
+	public static final int MIN_ZOOM = 0;
+
+	/** The most zoomed in level, about 1.5 centimeters per pixel. **/
+	public static final int MAX_ZOOM = 20;
+
+	private static final int DEFAULT_CACHED_TILES = 128;
+	private static final double PIXELS_PER_KILOMETER_AT_MIN_ZOOM = 1.0 / 16;
+
+	private static final Color LAND = new Color(0xf2, 0xef, 0xe9);
+	private static final Color ROAD = new Color(0x88, 0x88, 0x88);
+	private static final Color ROUTE = new Color(0xd0, 0x30, 0x20);
+	private static final BasicStroke ROUTE_STROKE =
+			new BasicStroke(3, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+	private final SegmentStore network;
+	private final SegmentIndex index;
+	private final LinkedHashMap<Long, BufferedImage> tiles;
+	private Route route = null;
+
+	// the view: its zoom level, and its center in pixels of that level, where x
+	// grows to the east and y to the south
+	private int zoom;
+	private double centerX;
+	private double centerY;
+
+	private long tilesDrawn = 0;
+
+
+	/**
+	 * Creates a new MapPanel of a road network.
+	 * @requires network != null
+	 * @effects Creates a new MapPanel that shows network, and no route,
+	 * 			zoomed to fit the network.
+	 */
+	public MapPanel(SegmentStore network) {
+		this(network, DEFAULT_CACHED_TILES);
+	}
+
+
+	/**
+	 * Creates a new MapPanel of a road network that keeps at most
+	 * cachedTiles drawn tiles.
+	 * @requires network != null && cachedTiles > 0
+	 * @effects Creates a new MapPanel that shows network, and no route,
+	 * 			zoomed to fit the network.
+	 */
+	public MapPanel(SegmentStore network, final int cachedTiles) {
+		this.network = network;
+		this.index = new SegmentIndex(network);
+		this.tiles = new LinkedHashMap<Long, BufferedImage>(2 * cachedTiles, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+				return size() > cachedTiles;
+			}
+		};
+		setBackground(LAND);
+		setPreferredSize(new Dimension(450, 300));
+		fitNetwork();
+
+		MouseAdapter mouse = new MouseAdapter() {
+			private int lastX;
+			private int lastY;
+
+			public void mousePressed(MouseEvent e) {
+				lastX = e.getX();
+				lastY = e.getY();
+			}
+
+			public void mouseDragged(MouseEvent e) {
+				panBy(e.getX() - lastX, e.getY() - lastY);
+				lastX = e.getX();
+				lastY = e.getY();
+			}
+
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				zoomAt(e.getX(), e.getY(), -e.getWheelRotation());
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+		addMouseWheelListener(mouse);
+	}
+
+
+	//pixels per millionth of a degree of longitude and of latitude at a zoom level
+	private static double xScale(int zoom) {
+		return GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000 * Math.scalb(PIXELS_PER_KILOMETER_AT_MIN_ZOOM, zoom);
+	}
+
+
+	private static double yScale(int zoom) {
+		return GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000 * Math.scalb(PIXELS_PER_KILOMETER_AT_MIN_ZOOM, zoom);
+	}
+
+
+	/**
+	 * Sets the route drawn over the network.
+	 * @modifies this
+	 * @effects this shows route, or no route if route = null.
+	 */
+	public void setRoute(Route route) {
+		this.route = route;
+		repaint();
+	}
+
+
+	/**
+	 * Returns the route drawn over the network.
+	 * @return the route shown by this, or null if there is none.
+	 */
+	public Route getRoute() {
+		return route;
+	}
+
+
+	/**
+	 * Centers the view on a point at a zoom level.
+	 * @requires center != null
+	 * @modifies this
+	 * @effects the view is centered on center at zoom, clamped to
+	 * 			MIN_ZOOM..MAX_ZOOM.
+	 */
+	public void setView(GeoPoint center, int zoom) {
+		this.zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+		this.centerX = center.getLongitude() * xScale(this.zoom);
+		this.centerY = -center.getLatitude() * yScale(this.zoom);
+		repaint();
+	}
+
+
+	/**
+	 * Returns the center of the view.
+	 * @return the point at the center of the view, rounded to millionths
+	 * 			of degrees and clamped to the valid GeoPoints.
+	 */
+	public GeoPoint getCenter() {
+		long latitude = Math.round(-centerY / yScale(zoom));
+		long longitude = Math.round(centerX / xScale(zoom));
+		return new GeoPoint((int) Math.max(GeoPoint.MIN_LATITUDE, Math.min(GeoPoint.MAX_LATITUDE, latitude)),
+				(int) Math.max(GeoPoint.MIN_LONGITUDE, Math.min(GeoPoint.MAX_LONGITUDE, longitude)));
+	}
+
+
+	/**
+	 * Returns the zoom level of the view.
+	 * @return the zoom level, MIN_ZOOM <= level <= MAX_ZOOM.
+	 */
+	public int getZoom() {
+		return zoom;
+	}
+
+
+	/**
+	 * Moves the map in the view, as dragging it does.
+	 * @modifies this
+	 * @effects the map moves dx pixels to the right and dy pixels down.
+	 */
+	public void panBy(int dx, int dy) {
+		centerX -= dx;
+		centerY -= dy;
+		repaint();
+	}
+
+
+	/**
+	 * Zooms in or out around a point of the view, as the mouse wheel does.
+	 * @modifies this
+	 * @effects zooms levels levels in (out, if levels < 0), within
+	 * 			MIN_ZOOM..MAX_ZOOM, keeping the map point at pixel (x, y) of
+	 * 			the view in place.
+	 */
+	public void zoomAt(int x, int y, int levels) {
+		int newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom + levels));
+		double factor = Math.scalb(1.0, newZoom - zoom);
+		double dx = x - getViewWidth() / 2.0;
+		double dy = y - getViewHeight() / 2.0;
+		centerX = (centerX + dx) * factor - dx;
+		centerY = (centerY + dy) * factor - dy;
+		zoom = newZoom;
+		repaint();
+	}
+
+
+	/**
+	 * Shows the whole network.
+	 * @modifies this
+	 * @effects centers the view on the network, at the largest zoom level
+	 * 			at which it fits in the view.
+	 */
+	public void fitNetwork() {
+		if (network.size() == 0) {
+			setView(new GeoPoint(0, 0), MIN_ZOOM);
+			return;
+		}
+		int minLatitude = Integer.MAX_VALUE, minLongitude = Integer.MAX_VALUE;
+		int maxLatitude = Integer.MIN_VALUE, maxLongitude = Integer.MIN_VALUE;
+		for (int i = 0; i < network.size(); i++) {
+			minLatitude = Math.min(minLatitude, Math.min(network.getLatitude1(i), network.getLatitude2(i)));
+			maxLatitude = Math.max(maxLatitude, Math.max(network.getLatitude1(i), network.getLatitude2(i)));
+			minLongitude = Math.min(minLongitude, Math.min(network.getLongitude1(i), network.getLongitude2(i)));
+			maxLongitude = Math.max(maxLongitude, Math.max(network.getLongitude1(i), network.getLongitude2(i)));
+		}
+		int fit = MIN_ZOOM;
+		while (fit < MAX_ZOOM && (double) (maxLongitude - minLongitude) * xScale(fit + 1) <= getViewWidth()
+				&& (double) (maxLatitude - minLatitude) * yScale(fit + 1) <= getViewHeight()) {
+			fit++;
+		}
+		setView(new GeoPoint((int) (((long) minLatitude + maxLatitude) / 2),
+				(int) (((long) minLongitude + maxLongitude) / 2)), fit);
+	}
+
+
+	/**
+	 * Returns the number of tiles drawn so far, for measuring the cache.
+	 * @return the number of tiles this has drawn.
+	 */
+	public long getTilesDrawn() {
+		return tilesDrawn;
+	}
+
+
+	/**
+	 * Returns the number of drawn tiles kept.
+	 * @return the number of tiles in the cache of this.
+	 */
+	public int getCachedTiles() {
+		return tiles.size();
+	}
+
+
+	//the size of the view, or the preferred size before this is laid out
+	private int getViewWidth() {
+		return getWidth() > 0 ? getWidth() : getPreferredSize().width;
+	}
+
+
+	private int getViewHeight() {
+		return getHeight() > 0 ? getHeight() : getPreferredSize().height;
+	}
+
+
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		int width = getViewWidth();
+		int height = getViewHeight();
+		long left = (long) Math.floor(centerX - width / 2.0);
+		long top = (long) Math.floor(centerY - height / 2.0);
+		for (long tileY = Math.floorDiv(top, TILE_SIZE); tileY * TILE_SIZE < top + height; tileY++) {
+			for (long tileX = Math.floorDiv(left, TILE_SIZE); tileX * TILE_SIZE < left + width; tileX++) {
+				g.drawImage(tile((int) tileX, (int) tileY), (int) (tileX * TILE_SIZE - left),
+						(int) (tileY * TILE_SIZE - top), null);
+			}
+		}
+		if (route != null) {
+			paintRoute((Graphics2D) g.create(), left, top, width, height);
+		}
+	}
+
+
+	//the drawn tile of this zoom level at column tileX and row tileY, from the cache if it is there
+	private BufferedImage tile(int tileX, int tileY) {
+		long key = ((long) zoom << 58) | ((tileX & 0x1fffffffL) << 29) | (tileY & 0x1fffffffL);
+		BufferedImage tile = tiles.get(key);
+		if (tile == null) {
+			tile = drawTile(tileX, tileY);
+			tiles.put(key, tile);
+		}
+		return tile;
+	}
+
+
+	private BufferedImage drawTile(int tileX, int tileY) {
+		tilesDrawn++;
+		BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+		double xScale = xScale(zoom);
+		double yScale = yScale(zoom);
+		double x0 = (double) tileX * TILE_SIZE;
+		double y0 = (double) tileY * TILE_SIZE;
+		//the box of the tile and a pixel around it, in millionths of degrees
+		long minLongitude = Math.max(GeoPoint.MIN_LONGITUDE, (long) Math.floor((x0 - 1) / xScale));
+		long maxLongitude = Math.min(GeoPoint.MAX_LONGITUDE, (long) Math.ceil((x0 + TILE_SIZE + 1) / xScale));
+		long minLatitude = Math.max(GeoPoint.MIN_LATITUDE, (long) Math.floor(-(y0 + TILE_SIZE + 1) / yScale));
+		long maxLatitude = Math.min(GeoPoint.MAX_LATITUDE, (long) Math.ceil(-(y0 - 1) / yScale));
+		if (minLongitude > maxLongitude || minLatitude > maxLatitude) {
+			return tile;
+		}
+		int[] found = index.segmentsIn((int) minLatitude, (int) minLongitude, (int) maxLatitude, (int) maxLongitude);
+
+		int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+		int road = ROAD.getRGB();
+		Graphics2D g = tile.createGraphics();
+		g.setColor(ROAD);
+		for (int segment : found) {
+			double x1 = network.getLongitude1(segment) * xScale - x0;
+			double y1 = -network.getLatitude1(segment) * yScale - y0;
+			double x2 = network.getLongitude2(segment) * xScale - x0;
+			double y2 = -network.getLatitude2(segment) * yScale - y0;
+			if (Math.abs(x2 - x1) < 1 && Math.abs(y2 - y1) < 1) {
+				//level of detail: a segment within a pixel is that pixel
+				int x = (int) Math.floor(x1);
+				int y = (int) Math.floor(y1);
+				if (x >= 0 && x < TILE_SIZE && y >= 0 && y < TILE_SIZE) {
+					pixels[y * TILE_SIZE + x] = road;
+				}
+			} else {
+				g.drawLine((int) Math.floor(x1), (int) Math.floor(y1), (int) Math.floor(x2), (int) Math.floor(y2));
+			}
+		}
+		g.dispose();
+		return tile;
+	}
+
+
+	//draws the route over the view whose top left pixel is (left, top)
+	private void paintRoute(Graphics2D g, long left, long top, int width, int height) {
+		g.setColor(ROUTE);
+		g.setStroke(ROUTE_STROKE);
+		double xScale = xScale(zoom);
+		double yScale = yScale(zoom);
+		int margin = (int) Math.ceil(ROUTE_STROKE.getLineWidth());
+		double lastX = Double.NaN;
+		double lastY = Double.NaN;
+		Iterator<GeoSegment> iter = route.getGeoSegments();
+		while (iter.hasNext()) {
+			GeoSegment gs = iter.next();
+			double x1 = gs.getP1().getLongitude() * xScale - left;
+			double y1 = -gs.getP1().getLatitude() * yScale - top;
+			double x2 = gs.getP2().getLongitude() * xScale - left;
+			double y2 = -gs.getP2().getLatitude() * yScale - top;
+			boolean outOfView = (x1 < -margin && x2 < -margin) || (x1 > width + margin && x2 > width + margin)
+					|| (y1 < -margin && y2 < -margin) || (y1 > height + margin && y2 > height + margin);
+			if (outOfView) {
+				lastX = Double.NaN;
+				continue;
+			}
+			if (Double.isNaN(lastX)) {
+				lastX = x1;
+				lastY = y1;
+			}
+			//level of detail: points within a pixel of the last one drawn are skipped
+			if (Math.abs(x2 - lastX) >= 1 || Math.abs(y2 - lastY) >= 1 || !iter.hasNext()) {
+				g.drawLine((int) Math.floor(lastX), (int) Math.floor(lastY), (int) Math.floor(x2), (int) Math.floor(y2));
+				lastX = x2;
+				lastY = y2;
+			}
+		}
+		g.dispose();
+	}
+}
@@ -0,0 +1,162 @@
+package homework1;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+public class MapPanelTest {
+
+	private static final int WIDTH = 400;
+	private static final int HEIGHT = 300;
+
+	private SegmentStore mStore;
+	private GeoSegment mRoad;
+
+
+	public MapPanelTest() {
+		//an east-west road of about 9 km, and a short one far to its north
+		mStore = new SegmentStore();
+		mStore.add("Road", 32000000, 35000000, 32000000, 35100000);
+		mStore.add("Far", 33000000, 35000000, 33000100, 35000100);
+		mRoad = mStore.get(0);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private static MapPanel newPanel(SegmentStore store, int cachedTiles) {
+		MapPanel panel = new MapPanel(store, cachedTiles);
+		panel.setSize(WIDTH, HEIGHT);
+		return panel;
+	}
+
+
+	private static BufferedImage paint(MapPanel panel) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		panel.paint(g);
+		g.dispose();
+		return image;
+	}
+
+
+	//whether a pixel of column x within two rows of row y is not the background
+	private static boolean drawnNear(BufferedImage image, int x, int y, Color background) {
+		for (int row = Math.max(0, y - 2); row <= Math.min(HEIGHT - 1, y + 2); row++) {
+			if (image.getRGB(x, row) != background.getRGB()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	//whether a pixel of column x within two rows of row y is mostly red
+	private static boolean redNear(BufferedImage image, int x, int y) {
+		for (int row = Math.max(0, y - 2); row <= Math.min(HEIGHT - 1, y + 2); row++) {
+			Color c = new Color(image.getRGB(x, row));
+			if (c.getRed() > 2 * c.getGreen() && c.getRed() > 2 * c.getBlue()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	public void testView() {
+		show("setView(), panBy(), zoomAt()");
+		MapPanel panel = newPanel(mStore, 16);
+		GeoPoint center = new GeoPoint(32000000, 35050000);
+		panel.setView(center, 12);
+		show("setView() sets the center and zoom.", panel.getCenter().equals(center) && panel.getZoom() == 12);
+		panel.zoomAt(WIDTH / 2, HEIGHT / 2, 3);
+		show("zoomAt() the center keeps the center.", panel.getCenter().equals(center) && panel.getZoom() == 15);
+		panel.zoomAt(0, 0, 100);
+		show("zoomAt() stops at MAX_ZOOM.", panel.getZoom() == MapPanel.MAX_ZOOM);
+		panel.setView(center, 12);
+		panel.panBy(-100, 0);
+		show("panBy() moves the map against the view.",
+				panel.getCenter().getLongitude() > center.getLongitude()
+				&& panel.getCenter().getLatitude() == center.getLatitude());
+	}
+
+
+	public void testPaint() {
+		show("paint()");
+		MapPanel panel = newPanel(mStore, 16);
+		Color land = panel.getBackground();
+		panel.setView(new GeoPoint(32000000, 35050000), 12);
+		BufferedImage image = paint(panel);
+		show("The road in view is drawn.", drawnNear(image, WIDTH / 2, HEIGHT / 2, land)
+				&& drawnNear(image, WIDTH / 4, HEIGHT / 2, land));
+		show("Nothing is drawn away from the road.", !drawnNear(image, WIDTH / 2, HEIGHT / 2 - 50, land));
+		panel.panBy(0, 40);
+		image = paint(panel);
+		show("Panning moves the road.", drawnNear(image, WIDTH / 2, HEIGHT / 2 + 40, land)
+				&& !drawnNear(image, WIDTH / 2, HEIGHT / 2, land));
+		panel.setView(new GeoPoint(32000000, 35050000), MapPanel.MIN_ZOOM);
+		image = paint(panel);
+		show("A road shorter than a pixel is drawn as a pixel.", drawnNear(image, WIDTH / 2 - 1, HEIGHT / 2, land)
+				|| drawnNear(image, WIDTH / 2, HEIGHT / 2, land));
+
+		panel.setView(new GeoPoint(32000000, 35050000), 12);
+		show("No route is drawn in red.", !redNear(paint(panel), WIDTH / 2, HEIGHT / 2));
+		panel.setRoute(new Route(mRoad));
+		show("The route is drawn over the road.", redNear(paint(panel), WIDTH / 2, HEIGHT / 2));
+		panel.panBy(0, 100);
+		show("The route moves with the map.", redNear(paint(panel), WIDTH / 2, HEIGHT / 2 + 100));
+	}
+
+
+	public void testTiles() {
+		show("tiles");
+		MapPanel panel = newPanel(mStore, 16);
+		panel.setView(new GeoPoint(32000000, 35050000), 12);
+		paint(panel);
+		long drawn = panel.getTilesDrawn();
+		paint(panel);
+		show("Repainting the same view draws no tiles.", drawn > 0 && panel.getTilesDrawn() == drawn);
+		panel.setRoute(new Route(mRoad));
+		paint(panel);
+		show("Setting a route draws no tiles.", panel.getTilesDrawn() == drawn);
+
+		panel = newPanel(mStore, 24);
+		panel.setView(new GeoPoint(32000000, 35050000), 12);
+		paint(panel);
+		drawn = panel.getTilesDrawn();
+		for (int i = 0; i < 20; i++) {
+			panel.panBy(MapPanel.TILE_SIZE, 0);
+			paint(panel);
+		}
+		show("The cache keeps at most its size of tiles.", panel.getCachedTiles() <= 24
+				&& panel.getTilesDrawn() > drawn);
+		drawn = panel.getTilesDrawn();
+		panel.panBy(-MapPanel.TILE_SIZE, 0);
+		paint(panel);
+		show("Panning back to the last view draws no tiles.", panel.getTilesDrawn() == drawn);
+		panel.setView(new GeoPoint(32000000, 35050000), 12);
+		paint(panel);
+		show("Panning back to an evicted view draws its tiles again.", panel.getTilesDrawn() > drawn);
+	}
+
+
+	public static void main(String[] args) {
+		MapPanelTest mapTest = new MapPanelTest();
+		mapTest.testView();
+		mapTest.testPaint();
+		mapTest.testTiles();
+	}
+}
@@ -0,0 +1,416 @@
+package homework1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A MappedNetwork is a road network read from a network file by mapping
+ * the file into memory: opening a file of millions of segments reads
+ * only its header and name offsets, and the segments are read from the
+ * mapped pages when they are used, with no copy on the Java heap.
+ * GeoSegments are created only when get is called. MappedNetworks are immutable, so one
+ * can be shared between threads.
+ * <p>
+ * A network file holds, in little-endian order:
+ * <pre>
+ *   header         8 ints: MAGIC, VERSION, segment count n, name count m,
+ *                  name bytes b, and 3 reserved 0s
+ *   coordinates    4n ints: latitude1, longitude1, latitude2, longitude2 of
+ *                  every segment, in millionths of degrees
+ *   lengths        n doubles: the lengths of the segments
+ *   headings       n doubles: the headings of the segments
+ *   name ids       n ints: the index of every segment's name in the table
+ *   name offsets   m+1 ints: name j is bytes offsets[j] to offsets[j+1]-1
+ *   name bytes     b bytes: the names, in UTF-8
+ * </pre>
+ * The lengths and headings are used as they are stored: a file written
+ * by another JVM may hold values that differ from this JVM's sqrt and
+ * atan2 in the last bits, and its segments are still valid.
+ * <p>
+ * open checks the header and the name table. The segment blocks are read
+ * only when they are used, so a corrupt name id makes getName, and get,
+ * throw RuntimeException.
+ * <p>
+ * Every block starts 8-byte aligned. A file is mapped as a single buffer,
+ * so it must be smaller than 2 GB (about 55 million segments). The
+ * mapping is released when the MappedNetwork is garbage collected.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   segments : sequence  // the segments of the file, in order
+ * </pre>
+ */
+public final class MappedNetwork {
+
+	/** The first int of every network file. **/
+	public static final int MAGIC = 0x524e4554;
+
+	/** The version of the format written by write. **/
+	public static final int VERSION = 1;
+
+	private static final int HEADER_BYTES = 32;
+
+	private final int size;
+	private final IntBuffer coordinates;
+	private final DoubleBuffer lengths;
+	private final DoubleBuffer headings;
+	private final IntBuffer nameIds;
+	private final IntBuffer nameOffsets;
+	private final ByteBuffer nameBytes;
+	//names decoded so far; decoding the same name twice in a race is harmless
+	private final String[] names;
+
+	//Abstraction Function:
+	//segments[i] = (names[nameIds[i]], (coordinates[4i], coordinates[4i+1]),
+	//               (coordinates[4i+2], coordinates[4i+3])), with length lengths[i]
+	//               and heading headings[i], for 0 <= i < size
+
+	//Rep Invariant:
+	//all buffers != null, coordinates holds 4 * size ints, lengths, headings
+	//and nameIds hold size values, nameOffsets holds names.length + 1 values
+	//0 <= nameIds[i] < names.length
+	//nameOffsets is nondecreasing from 0 to nameBytes.limit()
+
+
+	private MappedNetwork(ByteBuffer file, int size, int nameCount, int nameByteCount) {
+		this.size = size;
+		int offset = HEADER_BYTES;
+		coordinates = slice(file, offset, 16L * size).asIntBuffer();
+		offset += 16 * size;
+		lengths = slice(file, offset, 8L * size).asDoubleBuffer();
+		offset += 8 * size;
+		headings = slice(file, offset, 8L * size).asDoubleBuffer();
+		offset += 8 * size;
+		nameIds = slice(file, offset, 4L * size).asIntBuffer();
+		offset += align(4L * size);
+		nameOffsets = slice(file, offset, 4L * (nameCount + 1)).asIntBuffer();
+		offset += align(4L * (nameCount + 1));
+		nameBytes = slice(file, offset, nameByteCount);
+		names = new String[nameCount];
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the number of names; segment blocks are not read, so that opening a
+	//file does not page it in
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (coordinates.limit() != 4 * size || lengths.limit() != size || headings.limit() != size
+				|| nameIds.limit() != size || nameOffsets.limit() != names.length + 1) {
+			throw new RuntimeException("blocks must hold a value per segment and name");
+		}
+		String error = nameTableError(nameOffsets, names.length, nameBytes.limit());
+		if (error != null) {
+			throw new RuntimeException(error);
+		}
+		RepCheck.record(MappedNetwork.class, start);
+	}
+
+
+	//the part of the rep invariant that the name offsets break, or null
+	private static String nameTableError(IntBuffer nameOffsets, int nameCount, int nameByteCount) {
+		if (nameOffsets.get(0) != 0 || nameOffsets.get(nameCount) != nameByteCount) {
+			return "name offsets must span the name bytes";
+		}
+		for (int j = 0; j < nameCount; j++) {
+			if (nameOffsets.get(j) > nameOffsets.get(j + 1)) {
+				return "name offsets must be in order";
+			}
+		}
+		return null;
+	}
+
+
+	private static ByteBuffer slice(ByteBuffer file, int offset, long bytes) {
+		return file.slice(offset, (int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+
+	//the size of a file with the given counts
+	private static long fileBytes(int size, int nameCount, int nameByteCount) {
+		return HEADER_BYTES + 16L * size + 8L * size + 8L * size + align(4L * size)
+				+ align(4L * (nameCount + 1)) + nameByteCount;
+	}
+
+
+	/**
+	 * Writes the segments of a store to a network file.
+	 * @requires segments != null && path != null
+	 * @effects writes a network file to path, replacing it if it exists,
+	 *          that open reads as a MappedNetwork with segments =
+	 *          segments.segments.
+	 * @throws IOException if the file can't be written, or if it would be
+	 *         2 GB or larger.
+	 */
+	public static void write(SegmentStore segments, Path path) throws IOException {
+		int size = segments.size();
+		int nameCount = segments.getNameCount();
+		byte[][] encodedNames = new byte[nameCount][];
+		int nameByteCount = 0;
+		for (int j = 0; j < nameCount; j++) {
+			encodedNames[j] = segments.getNameById(j).getBytes(StandardCharsets.UTF_8);
+			nameByteCount += encodedNames[j].length;
+		}
+		long bytes = fileBytes(size, nameCount, nameByteCount);
+		if (bytes >= Integer.MAX_VALUE) {
+			throw new IOException("a network of " + size + " segments is too large for one file");
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+			file.order(ByteOrder.LITTLE_ENDIAN);
+			file.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(nameCount).putInt(nameByteCount)
+				.putInt(0).putInt(0).putInt(0);
+			for (int i = 0; i < size; i++) {
+				file.putInt(segments.getLatitude1(i)).putInt(segments.getLongitude1(i))
+					.putInt(segments.getLatitude2(i)).putInt(segments.getLongitude2(i));
+			}
+			for (int i = 0; i < size; i++) {
+				file.putDouble(segments.getLength(i));
+			}
+			for (int i = 0; i < size; i++) {
+				file.putDouble(segments.getHeading(i));
+			}
+			for (int i = 0; i < size; i++) {
+				file.putInt(segments.getNameId(i));
+			}
+			file.position((int) (file.position() + align(4L * size) - 4L * size));
+			int nameOffset = 0;
+			for (int j = 0; j < nameCount; j++) {
+				file.putInt(nameOffset);
+				nameOffset += encodedNames[j].length;
+			}
+			file.putInt(nameOffset);
+			file.position((int) (file.position() + align(4L * (nameCount + 1)) - 4L * (nameCount + 1)));
+			for (byte[] name : encodedNames) {
+				file.put(name);
+			}
+			file.force();
+		}
+	}
+
+
+	/**
+	 * Opens a network file.
+	 * @requires path != null
+	 * @return a MappedNetwork with the segments of the file at path.
+	 * @throws IOException if the file can't be read, if it is not a
+	 *         network file of a known version, or if its size or name
+	 *         table is corrupt. The segment blocks are not read, so a
+	 *         corrupt name id is found only by getName.
+	 */
+	public static MappedNetwork open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long bytes = channel.size();
+			if (bytes < HEADER_BYTES) {
+				throw new IOException(path + " is not a network file");
+			}
+			if (bytes >= Integer.MAX_VALUE) {
+				throw new IOException(path + " is too large to map");
+			}
+			MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+			file.order(ByteOrder.LITTLE_ENDIAN);
+			if (file.getInt(0) != MAGIC) {
+				throw new IOException(path + " is not a network file");
+			}
+			int version = file.getInt(4);
+			if (version != VERSION) {
+				throw new IOException("unknown network file version " + version);
+			}
+			int size = file.getInt(8);
+			int nameCount = file.getInt(12);
+			int nameByteCount = file.getInt(16);
+			if (size < 0 || nameCount < 0 || nameByteCount < 0
+					|| fileBytes(size, nameCount, nameByteCount) != bytes) {
+				throw new IOException(path + " is truncated or corrupt");
+			}
+			//the name table is checked here, whatever the RepCheck level, so that a
+			//corrupt one is an IOException and getName can trust it
+			long nameOffsetsStart = HEADER_BYTES + 32L * size + align(4L * size);
+			if (nameTableError(slice(file, (int) nameOffsetsStart, 4L * (nameCount + 1)).asIntBuffer(),
+					nameCount, nameByteCount) != null) {
+				throw new IOException(path + " has a corrupt name table");
+			}
+			return new MappedNetwork(file, size, nameCount, nameByteCount);
+		}
+	}
+
+
+	private void checkIndex(int index) throws RuntimeException {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+	}
+
+
+	/**
+	 * Returns the number of segments.
+	 * @return the length of this.segments.
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Returns a segment as a GeoSegment.
+	 * @requires 0 <= index < this.size()
+	 * @return a new GeoSegment equal to this.segments[index].
+	 */
+	public GeoSegment get(int index) {
+		checkIndex(index);
+		return new GeoSegment(getName(index),
+				new GeoPoint(coordinates.get(4 * index), coordinates.get(4 * index + 1)),
+				new GeoPoint(coordinates.get(4 * index + 2), coordinates.get(4 * index + 3)),
+				lengths.get(index), headings.get(index));
+	}
+
+
+	/**
+	 * Returns a segment as a GeoSegment whose endpoints are shared with the
+	 * other segments taken from pool.
+	 * @requires 0 <= index < this.size() && pool != null
+	 * @modifies pool
+	 * @effects interns the endpoints of this.segments[index] in pool.
+	 * @return a new GeoSegment equal to this.segments[index], whose
+	 *         endpoints are the points of pool.
+	 */
+	public GeoSegment get(int index, GeoPointPool pool) {
+		checkIndex(index);
+		return new GeoSegment(getName(index),
+				pool.intern(coordinates.get(4 * index), coordinates.get(4 * index + 1)),
+				pool.intern(coordinates.get(4 * index + 2), coordinates.get(4 * index + 3)),
+				lengths.get(index), headings.get(index));
+	}
+
+
+	/**
+	 * Returns the name of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].name
+	 * @throws RuntimeException if the name id of the segment in the file is
+	 *         not an index of the name table.
+	 */
+	public String getName(int index) {
+		checkIndex(index);
+		int id = nameIds.get(index);
+		if (id < 0 || id >= names.length) {
+			throw new RuntimeException("segment " + index + " has the corrupt name id " + id);
+		}
+		String name = names[id];
+		if (name == null) {
+			int from = nameOffsets.get(id);
+			byte[] bytes = new byte[nameOffsets.get(id + 1) - from];
+			nameBytes.get(from, bytes);
+			name = new String(bytes, StandardCharsets.UTF_8);
+			names[id] = name;
+		}
+		return name;
+	}
+
+
+	/**
+	 * Returns the latitude of the first endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p1.latitude
+	 */
+	public int getLatitude1(int index) {
+		checkIndex(index);
+		return coordinates.get(4 * index);
+	}
+
+
+	/**
+	 * Returns the longitude of the first endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p1.longitude
+	 */
+	public int getLongitude1(int index) {
+		checkIndex(index);
+		return coordinates.get(4 * index + 1);
+	}
+
+
+	/**
+	 * Returns the latitude of the second endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p2.latitude
+	 */
+	public int getLatitude2(int index) {
+		checkIndex(index);
+		return coordinates.get(4 * index + 2);
+	}
+
+
+	/**
+	 * Returns the longitude of the second endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p2.longitude
+	 */
+	public int getLongitude2(int index) {
+		checkIndex(index);
+		return coordinates.get(4 * index + 3);
+	}
+
+
+	/**
+	 * Returns the length of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].length
+	 */
+	public double getLength(int index) {
+		checkIndex(index);
+		return lengths.get(index);
+	}
+
+
+	/**
+	 * Returns the heading of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].heading
+	 */
+	public double getHeading(int index) {
+		checkIndex(index);
+		return headings.get(index);
+	}
+
+
+	/**
+	 * Copies the segments to the heap, e.g. to build a RoadGraph or a
+	 * SegmentIndex over them.
+	 * @return a new SegmentStore s with s.segments = this.segments
+	 */
+	public SegmentStore toSegmentStore() {
+		SegmentStore store = new SegmentStore(size);
+		for (int i = 0; i < size; i++) {
+			store.add(getName(i), coordinates.get(4 * i), coordinates.get(4 * i + 1),
+					coordinates.get(4 * i + 2), coordinates.get(4 * i + 3));
+		}
+		return store;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "MappedNetwork[" + size + " segments, " + names.length + " names]";
+	}
+}
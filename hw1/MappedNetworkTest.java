@@ -0,0 +1,158 @@
+package homework1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class MappedNetworkTest {
+
+	private SegmentStore mExample;
+	private SegmentStore mCity;
+
+
+	public MappedNetworkTest() {
+		mExample = new SegmentStore(ExampleGeoSegments.segments);
+		mCity = ContractionHierarchyTest.city(30, new Random(7));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//whether a network has exactly the segments of a store
+	private static boolean sameSegments(MappedNetwork network, SegmentStore store) {
+		if (network.size() != store.size()) {
+			return false;
+		}
+		for (int i = 0; i < store.size(); i++) {
+			GeoSegment segment = network.get(i);
+			if (!segment.equals(store.get(i)) || segment.getLength() != store.getLength(i)
+					|| segment.getHeading() != store.getHeading(i)
+					|| network.getLatitude1(i) != store.getLatitude1(i)
+					|| network.getLongitude2(i) != store.getLongitude2(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean rejected(Path path) {
+		try {
+			MappedNetwork.open(path);
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+
+	public void test() throws IOException {
+		Path file = Files.createTempFile("network", ".bin");
+		try {
+			show("write() and open()");
+			MappedNetwork.write(mExample, file);
+			MappedNetwork example = MappedNetwork.open(file);
+			show("The example segments are read back.", sameSegments(example, mExample));
+			MappedNetwork.write(mCity, file);
+			MappedNetwork city = MappedNetwork.open(file);
+			show("The city segments are read back.", sameSegments(city, mCity));
+			SegmentStore copy = city.toSegmentStore();
+			boolean same = copy.size() == mCity.size();
+			for (int i = 0; same && i < copy.size(); i++) {
+				same = copy.get(i).equals(mCity.get(i));
+			}
+			show("toSegmentStore() copies the segments.", same);
+			SegmentStore names = new SegmentStore();
+			names.add("רחוב הרצל", 32000000, 34000000, 32000100, 34000100);
+			names.add("", 32000100, 34000100, 32000200, 34000200);
+			MappedNetwork.write(names, file);
+			MappedNetwork named = MappedNetwork.open(file);
+			show("Names are written in UTF-8, empty ones too.",
+				named.getName(0).equals("רחוב הרצל") && named.getName(1).equals("") && sameSegments(named, names));
+			MappedNetwork.write(new SegmentStore(), file);
+			show("An empty network is read back.", MappedNetwork.open(file).size() == 0);
+
+			show("Bad files");
+			MappedNetwork.write(mExample, file);
+			byte[] bytes = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+			show("A truncated file is rejected.", rejected(file));
+			byte[] versioned = Arrays.copyOf(bytes, bytes.length);
+			ByteBuffer.wrap(versioned).order(ByteOrder.LITTLE_ENDIAN).putInt(4, MappedNetwork.VERSION + 1);
+			Files.write(file, versioned);
+			show("An unknown version is rejected.", rejected(file));
+			Files.write(file, "Herzl,32000000,34000000,32000100,34000100\n".getBytes("UTF-8"));
+			show("A text file is rejected.", rejected(file));
+			int size = mExample.size();
+			int nameCount = mExample.getNameCount();
+			int nameOffsets = 32 + 32 * size + (4 * size + 7) / 8 * 8;
+			byte[] unordered = Arrays.copyOf(bytes, bytes.length);
+			ByteBuffer.wrap(unordered).order(ByteOrder.LITTLE_ENDIAN).putInt(nameOffsets + 4, Integer.MAX_VALUE);
+			Files.write(file, unordered);
+			show("Name offsets out of order are rejected.", rejected(file));
+			byte[] misnamed = Arrays.copyOf(bytes, bytes.length);
+			ByteBuffer.wrap(misnamed).order(ByteOrder.LITTLE_ENDIAN).putInt(32 + 32 * size, nameCount);
+			Files.write(file, misnamed);
+			MappedNetwork corrupt = MappedNetwork.open(file);
+			boolean reported;
+			try {
+				corrupt.getName(0);
+				reported = false;
+			} catch (IndexOutOfBoundsException e) {
+				reported = false;
+			} catch (RuntimeException e) {
+				reported = true;
+			}
+			show("A name id out of the name table is reported by getName().", reported
+				&& corrupt.getName(1).equals(mExample.getName(1)));
+
+			show("Stored values");
+			//the heading of the first segment one ulp off, as another JVM's atan2 may compute it
+			byte[] shifted = Arrays.copyOf(bytes, bytes.length);
+			ByteBuffer buffer = ByteBuffer.wrap(shifted).order(ByteOrder.LITTLE_ENDIAN);
+			int headingOffset = 32 + 24 * mExample.size();
+			double heading = Math.nextUp(buffer.getDouble(headingOffset));
+			buffer.putDouble(headingOffset, heading);
+			Files.write(file, shifted);
+			MappedNetwork network = MappedNetwork.open(file);
+			RepCheck.Level level = RepCheck.getLevel();
+			boolean read;
+			try {
+				RepCheck.setLevel(RepCheck.Level.FULL);
+				GeoSegment segment = network.get(0);
+				read = segment.getHeading() == heading && segment.equals(mExample.get(0))
+					&& segment.reverse().equals(mExample.get(0).reverse());
+			} catch (RuntimeException e) {
+				read = false;
+			} finally {
+				RepCheck.setLevel(level);
+			}
+			show("A heading one ulp off is read and checked as valid.", read);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		MappedNetworkTest networkTest = new MappedNetworkTest();
+		networkTest.test();
+	}
+}
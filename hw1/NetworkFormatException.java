@@ -0,0 +1,46 @@
+package homework1;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a network file being imported is malformed. The exception
+ * tells the line of the file where the problem was found.
+ */
+public class NetworkFormatException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long line;
+	private final String problem;
+
+
+	/**
+	 * Constructs a NetworkFormatException.
+	 * @requires line >= 1 && problem != null
+	 * @effects constructs an exception for problem at line, with the
+	 *          message "line " + line + ": " + problem.
+	 */
+	public NetworkFormatException(long line, String problem) {
+		super("line " + line + ": " + problem);
+		this.line = line;
+		this.problem = problem;
+	}
+
+
+	/**
+	 * Returns the line of the problem.
+	 * @return the line number, from 1, where the problem was found.
+	 */
+	public long getLine() {
+		return line;
+	}
+
+
+	/**
+	 * Returns the problem, without the line.
+	 * @return what is wrong at getLine().
+	 */
+	public String getProblem() {
+		return problem;
+	}
+}
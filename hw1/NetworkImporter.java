@@ -0,0 +1,538 @@
+package homework1;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A NetworkImporter reads road networks exported as text by GIS tools, in
+ * one pass and with memory bounded by a few chunks of the input (plus
+ * whatever the SegmentSink keeps). Two formats are read:
+ * <ul>
+ * <li>CSV, a line "name,latitude1,longitude1,latitude2,longitude2" per
+ *     segment, with coordinates in decimal degrees. The name may be quoted
+ *     ("..." with "" for a quote, but no line breaks); blank lines are
+ *     skipped, and so is a first line none of whose four coordinate
+ *     fields is a number (a header).</li>
+ * <li>GeoJSON: a FeatureCollection, a Feature or a geometry. Every
+ *     LineString and MultiLineString becomes a segment per pair of
+ *     consecutive positions, named by the "name" property of its feature
+ *     ("" if it has none). Other geometries are skipped.</li>
+ * </ul>
+ * Coordinates are rounded to millionths of degrees. The first malformed
+ * line stops the import with a NetworkFormatException that tells the line
+ * number; segments before it have been given to the sink.
+ * <p>
+ * CSV is read in chunks of whole lines, and the chunks are parsed in
+ * parallel on a ForkJoinPool owned by the importer, with the parallelism
+ * given at construction, then handed to the sink in file order from the
+ * calling thread, so a sink need not be thread-safe. GeoJSON is parsed
+ * sequentially, one feature at a time. An importer should be closed when
+ * it is no longer needed, to stop the threads of its pool.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   parallelism : int   // the number of threads parsing CSV chunks
+ * </pre>
+ */
+public final class NetworkImporter implements AutoCloseable {
+
+	/** The size of the chunks CSV input is parsed in, in bytes. **/
+	public static final int CHUNK_BYTES = 8 << 20;
+
+	private static final String[] COLUMNS = {"name", "latitude1", "longitude1", "latitude2", "longitude2"};
+
+	private final ForkJoinPool pool;
+	private final int chunkBytes;
+
+	//Abstraction Function:
+	//parallelism = pool.getParallelism()
+
+	//Rep Invariant:
+	//pool != null && chunkBytes > 0
+
+
+	/**
+	 * Constructs a NetworkImporter that uses a thread per available
+	 * processor.
+	 * @effects constructs a new NetworkImporter with this.parallelism =
+	 *          Runtime.getRuntime().availableProcessors()
+	 */
+	public NetworkImporter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * Constructs a NetworkImporter.
+	 * @requires parallelism > 0
+	 * @effects constructs a new NetworkImporter with this.parallelism =
+	 *          parallelism
+	 */
+	public NetworkImporter(int parallelism) {
+		this(parallelism, CHUNK_BYTES);
+	}
+
+
+	//for tests of chunk boundaries
+	NetworkImporter(int parallelism, int chunkBytes) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.chunkBytes = chunkBytes;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (pool == null || chunkBytes <= 0) {
+			throw new RuntimeException("an importer needs a pool and a chunk size");
+		}
+		RepCheck.record(NetworkImporter.class, start);
+	}
+
+
+	/**
+	 * Returns the number of threads parsing CSV.
+	 * @return this.parallelism
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+
+	/**
+	 * Reads a CSV network file into a new SegmentStore.
+	 * @requires file != null
+	 * @return a SegmentStore with the segments of the file, in order.
+	 * @throws NetworkFormatException if the file is malformed.
+	 * @throws IOException if the file can't be read.
+	 */
+	public SegmentStore readCsv(Path file) throws IOException {
+		SegmentStore store = new SegmentStore();
+		readCsv(file, store::add);
+		return store;
+	}
+
+
+	/**
+	 * Reads a CSV network file.
+	 * @requires file != null && sink != null
+	 * @effects gives the segments of the file to sink, in order.
+	 * @throws NetworkFormatException if the file is malformed.
+	 * @throws IOException if the file can't be read.
+	 */
+	public void readCsv(Path file, SegmentSink sink) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			readCsv(in, sink);
+		}
+	}
+
+
+	/**
+	 * Reads a CSV network from a stream of UTF-8 text.
+	 * @requires in != null && sink != null
+	 * @modifies in
+	 * @effects reads in to its end and gives its segments to sink, in
+	 *          order.
+	 * @throws NetworkFormatException if the text is malformed.
+	 * @throws IOException if in throws IOException.
+	 */
+	public void readCsv(InputStream in, SegmentSink sink) throws IOException {
+		int batchSize = 2 * getParallelism();
+		byte[] carry = new byte[0];
+		long lineBase = 0;
+		boolean first = true;
+		boolean end = false;
+		while (!end) {
+			//read a batch of chunks of whole lines
+			byte[][] chunks = new byte[batchSize][];
+			int[] lengths = new int[batchSize];
+			int count = 0;
+			while (count < batchSize && !end) {
+				byte[] chunk = Arrays.copyOf(carry, Math.max(chunkBytes, carry.length + 1));
+				int length = carry.length;
+				int cut = -1;
+				while (cut < 0) {
+					if (length == chunk.length) {
+						chunk = Arrays.copyOf(chunk, 2 * chunk.length);
+					}
+					int read = in.readNBytes(chunk, length, chunk.length - length);
+					int scanFrom = length;
+					length += read;
+					if (read == 0) {
+						end = true;
+						cut = length;
+					} else {
+						cut = lastNewline(chunk, scanFrom, length);
+						if (cut >= 0) {
+							cut++;
+						}
+					}
+				}
+				carry = Arrays.copyOfRange(chunk, cut, length);
+				lengths[count] = cut;
+				chunks[count++] = chunk;
+			}
+
+			ParsedChunk[] parsed = new ParsedChunk[count];
+			boolean firstBatch = first;
+			byte[][] batch = chunks;
+			pool.submit(() -> IntStream.range(0, parsed.length).parallel().forEach(c ->
+				parsed[c] = parseChunk(batch[c], lengths[c], firstBatch && c == 0))).join();
+			first = false;
+
+			for (ParsedChunk chunk : parsed) {
+				for (int i = 0; i < chunk.count; i++) {
+					sink.add(chunk.names[i], chunk.coordinates[4 * i], chunk.coordinates[4 * i + 1],
+						chunk.coordinates[4 * i + 2], chunk.coordinates[4 * i + 3]);
+				}
+				if (chunk.error != null) {
+					throw new NetworkFormatException(lineBase + chunk.error.getLine(), chunk.error.getProblem());
+				}
+				lineBase += chunk.lines;
+			}
+		}
+	}
+
+
+	//the index of the last '\n' in bytes[from..to-1], or -1
+	private static int lastNewline(byte[] bytes, int from, int to) {
+		for (int i = to - 1; i >= from; i--) {
+			if (bytes[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	//the segments of a chunk, the number of lines it has, and the problem that
+	//stopped its parsing, if any, with a line number counted from the chunk start
+	private static final class ParsedChunk {
+		String[] names = new String[64];
+		int[] coordinates = new int[4 * 64];
+		int count;
+		long lines;
+		NetworkFormatException error;
+
+		void add(String name, int latitude1, int longitude1, int latitude2, int longitude2) {
+			if (count == names.length) {
+				names = Arrays.copyOf(names, 2 * count);
+				coordinates = Arrays.copyOf(coordinates, 8 * count);
+			}
+			names[count] = name;
+			coordinates[4 * count] = latitude1;
+			coordinates[4 * count + 1] = longitude1;
+			coordinates[4 * count + 2] = latitude2;
+			coordinates[4 * count + 3] = longitude2;
+			count++;
+		}
+	}
+
+
+	//parses the lines in bytes[0..length-1]; the first chunk of a file may start
+	//with a byte order mark and a header
+	private static ParsedChunk parseChunk(byte[] bytes, int length, boolean fileStart) {
+		ParsedChunk chunk = new ParsedChunk();
+		int position = 0;
+		if (fileStart && length >= 3 && (bytes[0] & 0xff) == 0xef
+				&& (bytes[1] & 0xff) == 0xbb && (bytes[2] & 0xff) == 0xbf) {
+			position = 3;
+		}
+		long[] fields = new long[4];
+		int[] fieldStarts = new int[6];
+		String previousName = null;
+		int previousStart = 0, previousLength = -1;
+		while (position < length) {
+			chunk.lines++;
+			int end = position;
+			while (end < length && bytes[end] != '\n') {
+				end++;
+			}
+			int next = end + 1;
+			if (end > position && bytes[end - 1] == '\r') {
+				end--;
+			}
+			if (isBlank(bytes, position, end)) {
+				position = next;
+				continue;
+			}
+			try {
+				//the name: up to the first comma, or a quoted string
+				int nameStart = position, nameLength;
+				String quoted = null;
+				int cursor;
+				if (bytes[position] == '"') {
+					StringBuilder name = new StringBuilder();
+					cursor = position + 1;
+					int from = cursor;
+					while (true) {
+						if (cursor >= end) {
+							throw new NetworkFormatException(chunk.lines, "unterminated quoted name");
+						}
+						if (bytes[cursor] == '"') {
+							name.append(new String(bytes, from, cursor - from, StandardCharsets.UTF_8));
+							if (cursor + 1 < end && bytes[cursor + 1] == '"') {
+								name.append('"');
+								cursor += 2;
+								from = cursor;
+								continue;
+							}
+							cursor++;
+							break;
+						}
+						cursor++;
+					}
+					if (cursor < end && bytes[cursor] != ',') {
+						throw new NetworkFormatException(chunk.lines, "text after the quoted name");
+					}
+					quoted = name.toString();
+					nameLength = -1;
+				} else {
+					cursor = position;
+					while (cursor < end && bytes[cursor] != ',') {
+						cursor++;
+					}
+					nameLength = cursor - position;
+				}
+
+				//the four coordinates
+				int fieldCount = 1;
+				while (cursor < end) {
+					cursor++;
+					fieldStarts[Math.min(fieldCount, 5)] = cursor;
+					while (cursor < end && bytes[cursor] != ',') {
+						cursor++;
+					}
+					fieldCount++;
+				}
+				if (fieldCount != 5) {
+					throw new NetworkFormatException(chunk.lines,
+						"expected 5 fields (name and 4 coordinates) but found " + fieldCount);
+				}
+				fieldStarts[5] = end + 1;
+				//only a first line with no number at all is a header, so that a malformed
+				//first segment is reported like any other
+				boolean header = fileStart && chunk.lines == 1 && chunk.count == 0;
+				for (int f = 0; f < 4; f++) {
+					fields[f] = parseMillionths(bytes, fieldStarts[f + 1], fieldStarts[f + 2] - 1);
+					header = header && fields[f] == Long.MIN_VALUE;
+				}
+				if (header) {
+					position = next;
+					continue;
+				}
+				for (int f = 0; f < 4; f++) {
+					long value = fields[f];
+					if (value == Long.MIN_VALUE) {
+						throw new NetworkFormatException(chunk.lines, COLUMNS[f + 1] + " \""
+							+ new String(bytes, fieldStarts[f + 1], fieldStarts[f + 2] - 1 - fieldStarts[f + 1],
+								StandardCharsets.UTF_8).trim() + "\" is not a number");
+					}
+					boolean latitude = f % 2 == 0;
+					if (latitude ? value < GeoPoint.MIN_LATITUDE || value > GeoPoint.MAX_LATITUDE
+							: value < GeoPoint.MIN_LONGITUDE || value > GeoPoint.MAX_LONGITUDE) {
+						throw new NetworkFormatException(chunk.lines, COLUMNS[f + 1] + " "
+							+ value / 1e6 + " is out of range");
+					}
+				}
+
+				//consecutive segments of a street share the name's String
+				String name;
+				if (quoted != null) {
+					name = quoted;
+				} else if (nameLength == previousLength
+						&& Arrays.equals(bytes, nameStart, nameStart + nameLength,
+							bytes, previousStart, previousStart + previousLength)) {
+					name = previousName;
+				} else {
+					name = new String(bytes, nameStart, nameLength, StandardCharsets.UTF_8);
+				}
+				previousName = name;
+				previousStart = nameStart;
+				previousLength = quoted != null ? -1 : nameLength;
+				chunk.add(name, (int) fields[0], (int) fields[1], (int) fields[2], (int) fields[3]);
+			} catch (NetworkFormatException e) {
+				chunk.error = e;
+				return chunk;
+			}
+			position = next;
+		}
+		return chunk;
+	}
+
+
+	private static boolean isBlank(byte[] bytes, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (bytes[i] != ' ' && bytes[i] != '\t') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Parses a decimal number of degrees, such as "-32.7830985", to
+	 * millionths of degrees, rounding halves away from zero. Spaces around
+	 * the number are ignored; exponents ("3.27e1") are accepted, but not
+	 * the other float syntax of Java, such as "32f" or "0x1p3".
+	 * @requires bytes != null && 0 <= from <= to <= bytes.length
+	 * @return the number in bytes[from..to-1] times 1000000, rounded, or
+	 *         Long.MIN_VALUE if it is not a number or is larger than 1e12.
+	 */
+	static long parseMillionths(byte[] bytes, int from, int to) {
+		while (from < to && bytes[from] == ' ') {
+			from++;
+		}
+		while (to > from && bytes[to - 1] == ' ') {
+			to--;
+		}
+		int i = from;
+		boolean negative = false;
+		if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+			negative = bytes[i] == '-';
+			i++;
+		}
+		long value = 0;
+		int digits = 0;
+		for (; i < to && bytes[i] >= '0' && bytes[i] <= '9' && digits < 7; i++, digits++) {
+			value = 10 * value + (bytes[i] - '0');
+		}
+		int fraction = 0;
+		boolean roundUp = false;
+		if (i < to && bytes[i] == '.') {
+			i++;
+			for (; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits++) {
+				if (fraction < 6) {
+					value = 10 * value + (bytes[i] - '0');
+					fraction++;
+				} else if (fraction == 6) {
+					roundUp = bytes[i] >= '5';
+					fraction++;
+				}
+			}
+		}
+		if (i != to || digits == 0) {
+			//exponents and long integer parts; Double.parseDouble also reads Java's
+			//"32f", "35d", "0x1p3", "NaN" and "Infinity", which are not decimal numbers
+			if (!isDecimal(bytes, from, to)) {
+				return Long.MIN_VALUE;
+			}
+			try {
+				double degrees = Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+				if (!(Math.abs(degrees) <= 1e6)) {
+					return Long.MIN_VALUE;
+				}
+				return Math.round(Math.abs(degrees) * 1e6) * (degrees < 0 ? -1 : 1);
+			} catch (NumberFormatException e) {
+				return Long.MIN_VALUE;
+			}
+		}
+		for (; fraction < 6; fraction++) {
+			value *= 10;
+		}
+		if (roundUp) {
+			value++;
+		}
+		return negative ? -value : value;
+	}
+
+
+	//whether bytes[from..to-1] is [+-]digits[.digits][(e|E)[+-]digits], where either the
+	//integer or the fraction digits may be missing but not both
+	private static boolean isDecimal(byte[] bytes, int from, int to) {
+		int i = from;
+		if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+			i++;
+		}
+		int digits = 0;
+		for (; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+			digits++;
+		}
+		if (i < to && bytes[i] == '.') {
+			for (i++; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+				digits++;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < to && (bytes[i] == 'e' || bytes[i] == 'E')) {
+			i++;
+			if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+				i++;
+			}
+			int exponentDigits = 0;
+			for (; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+				exponentDigits++;
+			}
+			if (exponentDigits == 0) {
+				return false;
+			}
+		}
+		return i == to;
+	}
+
+
+	/**
+	 * Reads a GeoJSON network file into a new SegmentStore.
+	 * @requires file != null
+	 * @return a SegmentStore with the segments of the file, in order.
+	 * @throws NetworkFormatException if the file is malformed.
+	 * @throws IOException if the file can't be read.
+	 */
+	public SegmentStore readGeoJson(Path file) throws IOException {
+		SegmentStore store = new SegmentStore();
+		readGeoJson(file, store::add);
+		return store;
+	}
+
+
+	/**
+	 * Reads a GeoJSON network file.
+	 * @requires file != null && sink != null
+	 * @effects gives the segments of the file to sink, in order.
+	 * @throws NetworkFormatException if the file is malformed.
+	 * @throws IOException if the file can't be read.
+	 */
+	public void readGeoJson(Path file, SegmentSink sink) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			readGeoJson(in, sink);
+		}
+	}
+
+
+	/**
+	 * Reads a GeoJSON network from a stream of UTF-8 text.
+	 * @requires in != null && sink != null
+	 * @modifies in
+	 * @effects reads in to its end and gives its segments to sink, in
+	 *          order.
+	 * @throws NetworkFormatException if the text is malformed.
+	 * @throws IOException if in throws IOException.
+	 */
+	public void readGeoJson(InputStream in, SegmentSink sink) throws IOException {
+		Reader reader = new InputStreamReader(new BufferedInputStream(in, 1 << 16), StandardCharsets.UTF_8);
+		new GeoJsonParser(reader, sink).parse();
+	}
+
+
+	/**
+	 * Stops the threads used for parsing, once the running imports end.
+	 * @effects no more CSV can be read by this.
+	 */
+	public void close() {
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,208 @@
+package homework1;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class NetworkImporterTest {
+
+	private SegmentStore mCity;
+
+
+	public NetworkImporterTest() {
+		mCity = ContractionHierarchyTest.city(30, new Random(7));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private static String degrees(int millionths) {
+		return (millionths < 0 ? "-" : "") + Math.abs(millionths) / 1000000 + "."
+			+ String.format("%06d", Math.abs(millionths) % 1000000);
+	}
+
+
+	private static String csv(SegmentStore store) {
+		StringBuilder text = new StringBuilder("name,lat1,lon1,lat2,lon2\n");
+		for (int i = 0; i < store.size(); i++) {
+			text.append(store.getName(i)).append(',')
+				.append(degrees(store.getLatitude1(i))).append(',').append(degrees(store.getLongitude1(i))).append(',')
+				.append(degrees(store.getLatitude2(i))).append(',').append(degrees(store.getLongitude2(i)))
+				.append(i % 3 == 0 ? "\r\n" : "\n");
+		}
+		return text.toString();
+	}
+
+
+	private static SegmentStore readCsv(NetworkImporter importer, String text) throws IOException {
+		SegmentStore store = new SegmentStore();
+		importer.readCsv(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), store::add);
+		return store;
+	}
+
+
+	private static SegmentStore readGeoJson(String text) throws IOException {
+		SegmentStore store = new SegmentStore();
+		try (NetworkImporter importer = new NetworkImporter(1)) {
+			importer.readGeoJson(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), store::add);
+		}
+		return store;
+	}
+
+
+	private static boolean same(SegmentStore a, SegmentStore b) {
+		if (a.size() != b.size()) {
+			return false;
+		}
+		for (int i = 0; i < a.size(); i++) {
+			if (!a.get(i).equals(b.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	//the line of the error reading text, or -1 if there is none
+	private static long csvErrorLine(NetworkImporter importer, String text) {
+		try {
+			readCsv(importer, text);
+			return -1;
+		} catch (NetworkFormatException e) {
+			return e.getLine();
+		} catch (IOException e) {
+			return -2;
+		}
+	}
+
+
+	private static long geoJsonErrorLine(String text) {
+		try {
+			readGeoJson(text);
+			return -1;
+		} catch (NetworkFormatException e) {
+			return e.getLine();
+		} catch (IOException e) {
+			return -2;
+		}
+	}
+
+
+	public void testCsv() throws IOException {
+		show("readCsv()");
+		String text = csv(mCity);
+		try (NetworkImporter importer = new NetworkImporter(1)) {
+			show("A CSV export is read back.", same(readCsv(importer, text), mCity));
+		}
+		boolean chunked = true;
+		for (int chunkBytes : new int[] {7, 100, 4096}) {
+			try (NetworkImporter importer = new NetworkImporter(3, chunkBytes)) {
+				chunked = chunked && same(readCsv(importer, text), mCity);
+			}
+		}
+		show("Parallel chunks of any size read the same segments in order.", chunked);
+
+		try (NetworkImporter importer = new NetworkImporter(2, 64)) {
+			SegmentStore store = readCsv(importer, "\uFEFF\"Herzl, \"\"Old\"\" Road\",32.1,34.9999995,32.1000004,-34.0000005\n"
+				+ "\n"
+				+ "Jabotinsky , 32 , 35 , +32.5 , 3.5e1");
+			show("Quoted names, blank lines, signs, exponents and rounding are read.",
+				store.size() == 2 && store.getName(0).equals("Herzl, \"Old\" Road")
+				&& store.getLatitude1(0) == 32100000 && store.getLongitude1(0) == 35000000
+				&& store.getLatitude2(0) == 32100000 && store.getLongitude2(0) == -34000001
+				&& store.getName(1).equals("Jabotinsky ") && store.getLatitude2(1) == 32500000
+				&& store.getLongitude2(1) == 35000000);
+			List<GeoSegment> segments = new ArrayList<>();
+			importer.readCsv(new ByteArrayInputStream("a,1,2,3,4\n".getBytes(StandardCharsets.UTF_8)),
+				(name, lat1, lon1, lat2, lon2) -> segments.add(
+					new GeoSegment(name, new GeoPoint(lat1, lon1), new GeoPoint(lat2, lon2))));
+			show("A sink can make GeoSegments.", segments.size() == 1
+				&& segments.get(0).equals(new GeoSegment("a", new GeoPoint(1000000, 2000000),
+					new GeoPoint(3000000, 4000000))));
+
+			String good = "a,1,2,3,4\n";
+			show("A missing field is reported at its line.",
+				csvErrorLine(importer, good + good + "b,1,2,3\n" + good) == 3);
+			show("A bad number is reported at its line.",
+				csvErrorLine(importer, good + "b,1,x,3,4\n") == 2);
+			show("An out of range latitude is reported at its line.",
+				csvErrorLine(importer, good + good + good + "b,91,2,3,4") == 4);
+			StringBuilder many = new StringBuilder();
+			for (int i = 0; i < 500; i++) {
+				many.append(good);
+			}
+			show("Errors far into a chunked file have their file line.",
+				csvErrorLine(importer, many + "\"unterminated,1,2,3,4\n" + good) == 501);
+			show("A header is only skipped on the first line.",
+				csvErrorLine(importer, "name,lat1,lon1,lat2,lon2\n" + good) == -1
+				&& csvErrorLine(importer, good + "name,lat1,lon1,lat2,lon2\n") == 2);
+			show("Java float syntax is not a number.",
+				csvErrorLine(importer, good + "b,32f,35,32,35\n") == 2
+				&& csvErrorLine(importer, good + "b,32,35d,32,35\n") == 2
+				&& csvErrorLine(importer, good + "b,32,35,0x1p3,35\n") == 2
+				&& csvErrorLine(importer, good + "b,32,35,32,NaN\n") == 2
+				&& csvErrorLine(importer, good + "b,3.2e,35,32,35\n") == 2);
+			show("A first line with some numbers is not a header, and is reported.",
+				csvErrorLine(importer, "x,32,35,32,abc\n" + good) == 1
+				&& csvErrorLine(importer, "x,,35,32,35\n" + good) == 1
+				&& csvErrorLine(importer, "x,12345678.5,2,3,4\n" + good) == 1);
+		}
+	}
+
+
+	public void testGeoJson() throws IOException {
+		show("readGeoJson()");
+		String collection = "{\"type\": \"FeatureCollection\",\n"
+			+ " \"features\": [\n"
+			+ "  {\"type\": \"Feature\", \"geometry\": {\"type\": \"LineString\",\n"
+			+ "    \"coordinates\": [[34.9, 32.1], [34.901, 32.1], [34.901, 32.1015, 12.5]]},\n"
+			+ "   \"properties\": {\"lanes\": [1, 2], \"name\": \"Herzl\"}},\n"
+			+ "  {\"type\": \"Feature\", \"properties\": {\"name\": \"Gate\"},\n"
+			+ "   \"geometry\": {\"type\": \"Point\", \"coordinates\": [34.9, 32.1]}},\n"
+			+ "  {\"type\": \"Feature\", \"properties\": null, \"geometry\": {\"coordinates\":\n"
+			+ "    [[[35, 32], [35.001, 32]], [[36, 33], [36, 33.001]]], \"type\": \"MultiLineString\"}},\n"
+			+ "  {\"type\": \"Feature\", \"properties\": {\"name\": \"Lake \\\"\\u05d0\\\"\"},\n"
+			+ "   \"geometry\": {\"type\": \"Polygon\", \"coordinates\": [[[1, 1], [1, 2], [2, 2], [1, 1]]]}}\n"
+			+ " ]}\n";
+		SegmentStore store = readGeoJson(collection);
+		SegmentStore expected = new SegmentStore();
+		expected.add("Herzl", 32100000, 34900000, 32100000, 34901000);
+		expected.add("Herzl", 32100000, 34901000, 32101500, 34901000);
+		expected.add("", 32000000, 35000000, 32000000, 35001000);
+		expected.add("", 33000000, 36000000, 33001000, 36000000);
+		show("LineStrings and MultiLineStrings become segments; other geometries are skipped.",
+			same(store, expected));
+		SegmentStore bare = readGeoJson("{\"type\":\"LineString\",\"coordinates\":[[34.9,32.1],[34.901,32.1]]}");
+		show("A bare geometry is read, with no name.", bare.size() == 1
+			&& bare.get(0).equals(new GeoSegment("", new GeoPoint(32100000, 34900000), new GeoPoint(32100000, 34901000))));
+
+		show("Bad GeoJSON is reported at its line.",
+			geoJsonErrorLine(collection.replace("[34.901, 32.1015, 12.5]", "[34.901]")) == 4
+			&& geoJsonErrorLine(collection.replace("\"Gate\"},", "\"Gate\"}")) == 7
+			&& geoJsonErrorLine(collection.replace("[36, 33.001]", "[36, 93.001]")) == 9
+			&& geoJsonErrorLine(collection + "}") == 13);
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		NetworkImporterTest importerTest = new NetworkImporterTest();
+		importerTest.testCsv();
+		importerTest.testGeoJson();
+	}
+}
@@ -0,0 +1,125 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of graph nodes ordered by a double key, stored in
+ * primitive arrays. There is no decrease-key operation: a node whose key
+ * improves is pushed again, and searches skip the stale copies when they
+ * pop a node they already settled.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   entries : bag of (int, double)  // the pushed (node, key) pairs
+ * </pre>
+ */
+final class NodeHeap {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private int[] nodes;
+	private double[] keys;
+	private int size;
+
+	//Abstraction Function:
+	//entries = {(nodes[i], keys[i]) | 0 <= i < size}
+
+	//Rep Invariant:
+	//nodes.length = keys.length >= size
+	//keys[(i-1)/2] <= keys[i] for 0 < i < size
+
+
+	/**
+	 * Constructs an empty heap.
+	 * @effects constructs a heap with entries = {}
+	 */
+	NodeHeap() {
+		nodes = new int[DEFAULT_CAPACITY];
+		keys = new double[DEFAULT_CAPACITY];
+	}
+
+
+	/**
+	 * Returns whether the heap is empty.
+	 * @return entries = {}
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	/**
+	 * Removes all the entries.
+	 * @modifies this
+	 * @effects entries = {}
+	 */
+	void clear() {
+		size = 0;
+	}
+
+
+	/**
+	 * Adds an entry.
+	 * @modifies this
+	 * @effects adds (node, key) to entries.
+	 */
+	void push(int node, double key) {
+		if (size == nodes.length) {
+			nodes = Arrays.copyOf(nodes, 2 * size);
+			keys = Arrays.copyOf(keys, 2 * size);
+		}
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (keys[parent] <= key) {
+				break;
+			}
+			nodes[i] = nodes[parent];
+			keys[i] = keys[parent];
+			i = parent;
+		}
+		nodes[i] = node;
+		keys[i] = key;
+	}
+
+
+	/**
+	 * Returns the smallest key.
+	 * @requires entries != {}
+	 * @return the smallest key in entries.
+	 */
+	double peekKey() {
+		return keys[0];
+	}
+
+
+	/**
+	 * Removes an entry with the smallest key.
+	 * @requires entries != {}
+	 * @modifies this
+	 * @effects removes an entry (n, k) with the smallest k from entries.
+	 * @return n
+	 */
+	int pop() {
+		int top = nodes[0];
+		int node = nodes[--size];
+		double key = keys[size];
+		int i = 0;
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && keys[child + 1] < keys[child]) {
+				child++;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			nodes[i] = nodes[child];
+			keys[i] = keys[child];
+			i = child;
+		}
+		nodes[i] = node;
+		keys[i] = key;
+		return top;
+	}
+}
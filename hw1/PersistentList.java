@@ -0,0 +1,238 @@
+package homework1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PersistentList is an immutable sequence of elements that supports
+ * appending in amortized constant time while keeping every older version
+ * valid and cheap to append to.
+ * <p>
+ * The elements are kept in a 32-way trie of full chunks plus a tail chunk
+ * that is still being filled. Versions share all chunks. The longest
+ * version over a tail appends in place by claiming the next free slot,
+ * so building a list one element at a time, which is how Routes and
+ * GeoFeatures are built, copies nothing but the trie path every 32
+ * elements. Appending to an older version copies its tail (at most 32
+ * elements) instead of the whole list.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   elements : sequence     // the elements of the list, in order
+ * </pre>
+ */
+final class PersistentList<E> implements Iterable<E> {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	private final Object[] tail;
+	private final AtomicInteger tailClaimed;
+
+	//Abstraction Function:
+	//this.elements = [leaves of root, left to right] + [tail[0], ..., tail[size-tailOffset()-1]]
+	//where every leaf of root is a full chunk of WIDTH elements
+
+	//Rep Invariant:
+	//0 <= size - tailOffset() <= tailClaimed.get() <= WIDTH
+	//root, tail != null && tail.length == WIDTH
+	//chunks reachable from root, and tail[i] for i < size - tailOffset(),
+	//are never written again once this was constructed
+
+
+	private PersistentList(int size, int shift, Object[] root, Object[] tail, AtomicInteger tailClaimed) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+		this.tailClaimed = tailClaimed;
+	}
+
+
+	/**
+	 * Creates an empty list.
+	 * @return a list l such that l.elements = []
+	 */
+	static <E> PersistentList<E> empty() {
+		return new PersistentList<E>(0, BITS, EMPTY_NODE, new Object[WIDTH], new AtomicInteger(0));
+	}
+
+
+	/**
+	 * Creates a list holding a single element.
+	 * @requires e != null
+	 * @return a list l such that l.elements = [e]
+	 */
+	static <E> PersistentList<E> of(E e) {
+		Object[] tail = new Object[WIDTH];
+		tail[0] = e;
+		return new PersistentList<E>(1, BITS, EMPTY_NODE, tail, new AtomicInteger(1));
+	}
+
+
+	//index of the first element that is kept in the tail
+	private int tailOffset() {
+		return (size < WIDTH) ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+
+	/**
+	 * Creates a new list that is equal to this list with e appended to its
+	 * end. This list is not changed.
+	 * @requires e != null
+	 * @return a list l such that l.elements = this.elements + [e]
+	 */
+	PersistentList<E> append(E e) {
+		int tailCount = size - tailOffset();
+		if (tailCount < WIDTH) {
+			if (tailClaimed.compareAndSet(tailCount, tailCount + 1)) {
+				//this is the longest version over the tail, so slot tailCount is free
+				tail[tailCount] = e;
+				return new PersistentList<E>(size + 1, shift, root, tail, tailClaimed);
+			}
+			Object[] newTail = new Object[WIDTH];
+			System.arraycopy(tail, 0, newTail, 0, tailCount);
+			newTail[tailCount] = e;
+			return new PersistentList<E>(size + 1, shift, root, newTail, new AtomicInteger(tailCount + 1));
+		}
+		//the tail is full, so it becomes a leaf of the trie and a new tail is started
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		}
+		else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		Object[] newTail = new Object[WIDTH];
+		newTail[0] = e;
+		return new PersistentList<E>(size + 1, newShift, newRoot, newTail, new AtomicInteger(1));
+	}
+
+
+	//copies the path from parent to the rightmost free leaf slot and puts leaf there
+	private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+		int index = ((size - 1) >>> level) & MASK;
+		Object[] node = parent.clone();
+		if (level == BITS) {
+			node[index] = leaf;
+		}
+		else {
+			Object[] child = (Object[]) parent[index];
+			node[index] = (child != null) ? pushTail(level - BITS, child, leaf) : newPath(level - BITS, leaf);
+		}
+		return node;
+	}
+
+
+	//creates a path of single-child nodes of the given height that ends in leaf
+	private static Object[] newPath(int level, Object[] leaf) {
+		if (level == 0) {
+			return leaf;
+		}
+		Object[] node = new Object[WIDTH];
+		node[0] = newPath(level - BITS, leaf);
+		return node;
+	}
+
+
+	//returns the chunk that holds the element at index
+	private Object[] chunkFor(int index) {
+		if (index >= tailOffset()) {
+			return tail;
+		}
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+
+	/**
+	 * Returns the number of elements in this list.
+	 * @return the length of this.elements.
+	 */
+	int size() {
+		return size;
+	}
+
+
+	/**
+	 * Returns an element of this list.
+	 * @requires 0 <= index < this.size()
+	 * @return this.elements[index]
+	 */
+	@SuppressWarnings("unchecked")
+	E get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+		return (E) chunkFor(index)[index & MASK];
+	}
+
+
+	/**
+	 * Returns the last element of this list.
+	 * @requires this.size() > 0
+	 * @return this.elements[this.size()-1]
+	 */
+	@SuppressWarnings("unchecked")
+	E last() {
+		return (E) tail[size - tailOffset() - 1];
+	}
+
+
+	/**
+	 * Returns a read-only Iterator over this list.
+	 * @return an Iterator over this.elements, in order, whose remove()
+	 *         throws UnsupportedOperationException.
+	 */
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int next = 0;
+			private Object[] chunk = null;
+
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				if ((next & MASK) == 0 || chunk == null) {
+					chunk = chunkFor(next);
+				}
+				return (E) chunk[next++ & MASK];
+			}
+		};
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder("[");
+		for (E e : this) {
+			if (str.length() > 1) {
+				str.append(", ");
+			}
+			str.append(e);
+		}
+		return str.append("]").toString();
+	}
+}
@@ -0,0 +1,253 @@
+package homework1;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RepCheck decides when the geo classes (GeoPoint, GeoSegment, GeoFeature
+ * and Route) check their rep invariants, and can count what these checks
+ * cost.
+ * <p>
+ * The level is read from the system property <tt>homework1.repCheck</tt>
+ * (one of <tt>full</tt>, <tt>sampled</tt>, <tt>construction</tt> or
+ * <tt>off</tt>) and can be changed at runtime by <tt>setLevel</tt>. The
+ * default is <tt>CONSTRUCTION_ONLY</tt>: every object is checked once when
+ * it is created, which is enough since the geo classes are immutable, and
+ * the getters do no checking at all.
+ * <p>
+ * Appending a segment to a Route or a GeoFeature creates the new object
+ * from an already checked one, so at the CONSTRUCTION_ONLY and SAMPLED
+ * levels only the appended segment is checked. At the FULL level the whole
+ * rep of the new object is checked, which makes appending linear in the
+ * length of the Route or GeoFeature.
+ * <p>
+ * The checks are counted and timed only if the system property
+ * <tt>homework1.repCheck.stats</tt> is <tt>true</tt> when RepCheck is
+ * loaded. Otherwise a check does not read the clock or touch a counter,
+ * and the counters stay 0.
+ */
+public final class RepCheck {
+
+	/**
+	 * The amount of rep invariant checking done by the geo classes.
+	 */
+	public enum Level {
+		/** Check the whole rep at construction and on every method call. **/
+		FULL,
+		/** Check at construction, and on about one of every
+		 *  <tt>getSampleRate()</tt> method calls. **/
+		SAMPLED,
+		/** Check only at construction. **/
+		CONSTRUCTION_ONLY,
+		/** Never check. **/
+		OFF
+	}
+
+	/** Name of the system property that selects the initial level. **/
+	public static final String LEVEL_PROPERTY = "homework1.repCheck";
+
+	/** Name of the system property that selects the sample rate. **/
+	public static final String SAMPLE_RATE_PROPERTY = "homework1.repCheck.sampleRate";
+
+	/** Name of the system property that turns on the counters. **/
+	public static final String STATS_PROPERTY = "homework1.repCheck.stats";
+
+	private static final int DEFAULT_SAMPLE_RATE = 64;
+
+	private static final boolean STATS = Boolean.getBoolean(STATS_PROPERTY);
+
+	private static volatile Level level = parseLevel(System.getProperty(LEVEL_PROPERTY));
+	private static volatile int sampleRate =
+			Integer.getInteger(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE);
+
+	private static final ClassValue<Counters> counters = new ClassValue<Counters>() {
+		protected Counters computeValue(Class<?> type) {
+			return new Counters();
+		}
+	};
+
+	private static final class Counters {
+		private final LongAdder checks = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+	}
+
+
+	private RepCheck() {
+	}
+
+
+	private static Level parseLevel(String value) {
+		if (value == null) {
+			return Level.CONSTRUCTION_ONLY;
+		}
+		switch (value.trim().toLowerCase(Locale.ROOT)) {
+		case "full":
+			return Level.FULL;
+		case "sampled":
+			return Level.SAMPLED;
+		case "construction":
+		case "construction_only":
+			return Level.CONSTRUCTION_ONLY;
+		case "off":
+			return Level.OFF;
+		default:
+			throw new RuntimeException("unknown " + LEVEL_PROPERTY + " value: " + value);
+		}
+	}
+
+
+	/**
+	 * Returns the current checking level.
+	 * @return the current checking level.
+	 */
+	public static Level getLevel() {
+		return level;
+	}
+
+
+	/**
+	 * Sets the checking level.
+	 * @requires newLevel != null
+	 * @effects objects created and methods called from now on are checked
+	 *          according to newLevel.
+	 */
+	public static void setLevel(Level newLevel) {
+		if (newLevel == null) {
+			throw new RuntimeException("level can't be null");
+		}
+		level = newLevel;
+	}
+
+
+	/**
+	 * Returns the sample rate of the SAMPLED level.
+	 * @return n such that about one of every n method calls is checked at
+	 *         the SAMPLED level.
+	 */
+	public static int getSampleRate() {
+		return sampleRate;
+	}
+
+
+	/**
+	 * Sets the sample rate of the SAMPLED level.
+	 * @requires rate > 0
+	 * @effects about one of every rate method calls is checked from now on
+	 *          at the SAMPLED level.
+	 */
+	public static void setSampleRate(int rate) {
+		if (rate <= 0) {
+			throw new RuntimeException("sample rate must be > 0");
+		}
+		sampleRate = rate;
+	}
+
+
+	/**
+	 * Returns whether a newly created object should be checked.
+	 * @return true iff the current level is not OFF.
+	 */
+	static boolean onConstruction() {
+		return level != Level.OFF;
+	}
+
+
+	/**
+	 * Returns whether an object created by appending to a checked object
+	 * should have its whole rep checked, rather than only the appended part.
+	 * @return true iff the current level is FULL.
+	 */
+	static boolean onAppend() {
+		return level == Level.FULL;
+	}
+
+
+	/**
+	 * Returns whether a method call should check the rep of its object.
+	 * @return true if the current level is FULL, true for about one of
+	 *         every getSampleRate() calls if it is SAMPLED, and false
+	 *         otherwise.
+	 */
+	static boolean onAccess() {
+		Level current = level;
+		if (current == Level.FULL) {
+			return true;
+		}
+		return current == Level.SAMPLED
+				&& ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+	}
+
+
+	/**
+	 * Returns whether checks are counted and timed.
+	 * @return true iff the property STATS_PROPERTY was true when RepCheck
+	 *         was loaded.
+	 */
+	public static boolean isCounting() {
+		return STATS;
+	}
+
+
+	/**
+	 * Starts a check.
+	 * @return the value of System.nanoTime() if isCounting(), 0 otherwise,
+	 *         to be passed to record when the check ends.
+	 */
+	static long start() {
+		return STATS ? System.nanoTime() : 0;
+	}
+
+
+	/**
+	 * Records a completed check.
+	 * @requires type != null && startNanos was returned by start() when
+	 *           the check started
+	 * @effects if isCounting(), adds one check, and the time passed since
+	 *          startNanos, to the counters of type.
+	 */
+	static void record(Class<?> type, long startNanos) {
+		if (!STATS) {
+			return;
+		}
+		Counters c = counters.get(type);
+		c.checks.increment();
+		c.nanos.add(System.nanoTime() - startNanos);
+	}
+
+
+	/**
+	 * Returns the number of rep checks done by a class.
+	 * @requires type != null
+	 * @return the number of rep checks done by objects of type since the
+	 *         counters were last reset; 0 if !isCounting().
+	 */
+	public static long getCheckCount(Class<?> type) {
+		return counters.get(type).checks.sum();
+	}
+
+
+	/**
+	 * Returns the time spent in rep checks by a class.
+	 * @requires type != null
+	 * @return the total time, in nanoseconds, of the rep checks done by
+	 *         objects of type since the counters were last reset. The time
+	 *         of a check includes the checks of the objects it contains.
+	 *         0 if !isCounting().
+	 */
+	public static long getCheckNanos(Class<?> type) {
+		return counters.get(type).nanos.sum();
+	}
+
+
+	/**
+	 * Resets the counters of a class.
+	 * @requires type != null
+	 * @effects getCheckCount(type) = 0 && getCheckNanos(type) = 0
+	 */
+	public static void resetCounters(Class<?> type) {
+		Counters c = counters.get(type);
+		c.checks.reset();
+		c.nanos.reset();
+	}
+}
@@ -0,0 +1,348 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A RoadGraph is the road network formed by the segments of a SegmentStore:
+ * its nodes are the distinct segment endpoints, and every segment is an
+ * edge from its p1 to its p2 and, unless the graph is one-way, also an edge
+ * from its p2 to its p1 (the reversed segment). RoadGraphs are immutable.
+ * <p>
+ * Nodes are numbered 0..nodeCount-1 and edges 0..edgeCount-1. The graph is
+ * kept in compressed adjacency arrays: the edges leaving node n are the
+ * edges firstEdge(n) <= e < firstEdge(n+1), and every edge is a few
+ * entries in primitive arrays, so networks of millions of segments take a
+ * few tens of bytes per segment and searches read adjacent memory.
+ * <p>
+ * A RoadGraph covers the segments that were in its SegmentStore when it was
+ * built. Segments added to the store later are not part of the graph.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   segments : SegmentStore  // the store the graph was built from
+ *   nodes : sequence         // the distinct endpoints of segments, as GeoPoints
+ *   edges : sequence         // (from, to, segment, reversed) for every segment,
+ *                            // and its reverse if the graph is not one-way
+ * </pre>
+ */
+public final class RoadGraph {
+
+	private final SegmentStore segments;
+	private final boolean oneWay;
+
+	private final long[] nodePoints;
+	private final int[] firstEdges;
+	private final int[] edgeTargets;
+	private final int[] edgeSegments;
+	private final double[] edgeLengths;
+	private final LongIntHashMap nodeIndex;
+
+	//Abstraction Function:
+	//nodes[n] = GeoPoint.fromPacked(nodePoints[n])
+	//edges[e] = (n, edgeTargets[e], edgeSegments[e] >>> 1, (edgeSegments[e] & 1) = 1)
+	//           for firstEdges[n] <= e < firstEdges[n+1]
+
+	//Rep Invariant:
+	//firstEdges.length = nodePoints.length + 1, firstEdges[0] = 0,
+	//firstEdges is nondecreasing and firstEdges[nodeCount] = edgeTargets.length
+	//nodePoints are distinct and nodeIndex.get(nodePoints[n]) = n
+	//edgeLengths[e] = length of segment edgeSegments[e] >>> 1
+	//oneWay => no edge is reversed
+
+
+	/**
+	 * Constructs the two-way road graph of a SegmentStore.
+	 * @requires segments != null
+	 * @effects constructs a RoadGraph with this.segments = segments in which
+	 *          every segment can be traveled in both directions.
+	 */
+	public RoadGraph(SegmentStore segments) {
+		this(segments, false);
+	}
+
+
+	/**
+	 * Constructs the road graph of a SegmentStore.
+	 * @requires segments != null
+	 * @effects constructs a RoadGraph with this.segments = segments. If
+	 *          oneWay, every segment can only be traveled from its p1 to its
+	 *          p2; otherwise it can be traveled in both directions.
+	 */
+	public RoadGraph(SegmentStore segments, boolean oneWay) {
+		this.segments = segments;
+		this.oneWay = oneWay;
+		int segmentCount = segments.size();
+
+		//number the endpoints
+		nodeIndex = new LongIntHashMap(segmentCount + 1);
+		long[] points = new long[Math.max(16, segmentCount + 1)];
+		int[] sources = new int[segmentCount];
+		int[] targets = new int[segmentCount];
+		int nodeCount = 0;
+		for (int s = 0; s < segmentCount; s++) {
+			long p1 = GeoPoint.pack(segments.getLatitude1(s), segments.getLongitude1(s));
+			long p2 = GeoPoint.pack(segments.getLatitude2(s), segments.getLongitude2(s));
+			for (int end = 0; end < 2; end++) {
+				long p = (end == 0) ? p1 : p2;
+				int node = nodeIndex.putIfAbsent(p, nodeCount);
+				if (node == LongIntHashMap.NO_VALUE) {
+					if (nodeCount == points.length) {
+						points = Arrays.copyOf(points, 2 * nodeCount);
+					}
+					node = nodeCount;
+					points[nodeCount++] = p;
+				}
+				if (end == 0) {
+					sources[s] = node;
+				} else {
+					targets[s] = node;
+				}
+			}
+		}
+		nodePoints = Arrays.copyOf(points, nodeCount);
+
+		//count the edges leaving every node, then place them
+		int edgeCount = oneWay ? segmentCount : 2 * segmentCount;
+		firstEdges = new int[nodeCount + 1];
+		for (int s = 0; s < segmentCount; s++) {
+			firstEdges[sources[s] + 1]++;
+			if (!oneWay) {
+				firstEdges[targets[s] + 1]++;
+			}
+		}
+		for (int n = 0; n < nodeCount; n++) {
+			firstEdges[n + 1] += firstEdges[n];
+		}
+		edgeTargets = new int[edgeCount];
+		edgeSegments = new int[edgeCount];
+		edgeLengths = new double[edgeCount];
+		int[] next = Arrays.copyOf(firstEdges, nodeCount);
+		for (int s = 0; s < segmentCount; s++) {
+			double length = segments.getLength(s);
+			int e = next[sources[s]]++;
+			edgeTargets[e] = targets[s];
+			edgeSegments[e] = s << 1;
+			edgeLengths[e] = length;
+			if (!oneWay) {
+				e = next[targets[s]]++;
+				edgeTargets[e] = sources[s];
+				edgeSegments[e] = (s << 1) | 1;
+				edgeLengths[e] = length;
+			}
+		}
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the size of the graph
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (firstEdges.length != nodePoints.length + 1 || firstEdges[0] != 0
+				|| firstEdges[nodePoints.length] != edgeTargets.length) {
+			throw new RuntimeException("edge ranges must cover all the edges");
+		}
+		for (int n = 0; n < nodePoints.length; n++) {
+			if (firstEdges[n] > firstEdges[n + 1]) {
+				throw new RuntimeException("edge ranges must be nondecreasing");
+			}
+			if (nodeIndex.get(nodePoints[n]) != n) {
+				throw new RuntimeException("node points must be distinct and indexed");
+			}
+		}
+		for (int e = 0; e < edgeTargets.length; e++) {
+			int s = edgeSegments[e] >>> 1;
+			if (edgeLengths[e] != segments.getLength(s)) {
+				throw new RuntimeException("edge length must be the length of its segment");
+			}
+			if (oneWay && (edgeSegments[e] & 1) != 0) {
+				throw new RuntimeException("a one-way graph has no reversed edges");
+			}
+		}
+		RepCheck.record(RoadGraph.class, start);
+	}
+
+
+	/**
+	 * Returns the store this graph was built from.
+	 * @return this.segments
+	 */
+	public SegmentStore getSegments() {
+		return segments;
+	}
+
+
+	/**
+	 * Returns whether segments can only be traveled from p1 to p2.
+	 * @return true if this graph is one-way.
+	 */
+	public boolean isOneWay() {
+		return oneWay;
+	}
+
+
+	/**
+	 * Returns the number of nodes.
+	 * @return |this.nodes|
+	 */
+	public int nodeCount() {
+		return nodePoints.length;
+	}
+
+
+	/**
+	 * Returns the number of edges.
+	 * @return |this.edges|
+	 */
+	public int edgeCount() {
+		return edgeTargets.length;
+	}
+
+
+	/**
+	 * Returns the node at a point.
+	 * @requires gp != null
+	 * @return n such that this.nodes[n] = gp, or -1 if gp is not an endpoint
+	 *         of a segment.
+	 */
+	public int getNode(GeoPoint gp) {
+		return getNode(gp.toPacked());
+	}
+
+
+	/**
+	 * Returns the node at a packed point.
+	 * @return n such that this.nodes[n] = GeoPoint.fromPacked(packed), or -1
+	 *         if the point is not an endpoint of a segment.
+	 */
+	public int getNode(long packed) {
+		return nodeIndex.get(packed);
+	}
+
+
+	/**
+	 * Returns the location of a node as a packed point.
+	 * @requires 0 <= node < nodeCount()
+	 * @return this.nodes[node].toPacked()
+	 */
+	public long getNodePacked(int node) {
+		return nodePoints[node];
+	}
+
+
+	/**
+	 * Returns the location of a node.
+	 * @requires 0 <= node < nodeCount()
+	 * @return this.nodes[node]
+	 */
+	public GeoPoint getNodePoint(int node) {
+		return GeoPoint.fromPacked(nodePoints[node]);
+	}
+
+
+	/**
+	 * Returns the first edge leaving a node.
+	 * @requires 0 <= node <= nodeCount()
+	 * @return e such that the edges leaving node are
+	 *         firstEdge(node) <= e < firstEdge(node + 1).
+	 */
+	public int firstEdge(int node) {
+		return firstEdges[node];
+	}
+
+
+	/**
+	 * Returns the node an edge leads to.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return this.edges[edge].to
+	 */
+	public int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+
+	/**
+	 * Returns the length of an edge.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the length of this.edges[edge].segment, in kilometers.
+	 */
+	public double getEdgeLength(int edge) {
+		return edgeLengths[edge];
+	}
+
+
+	/**
+	 * Returns the segment an edge travels.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the index in this.segments of this.edges[edge].segment
+	 */
+	public int getEdgeSegment(int edge) {
+		return edgeSegments[edge] >>> 1;
+	}
+
+
+	/**
+	 * Returns whether an edge travels its segment from p2 to p1.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return this.edges[edge].reversed
+	 */
+	public boolean isEdgeReversed(int edge) {
+		return (edgeSegments[edge] & 1) != 0;
+	}
+
+
+	/**
+	 * Returns an edge as a GeoSegment oriented in its direction of travel.
+	 * @requires 0 <= edge < edgeCount()
+	 * @return a new GeoSegment gs equal to the segment of the edge, or to its
+	 *         reverse if the edge is reversed, so that gs.p1 is the node the
+	 *         edge leaves and gs.p2 is the node it leads to.
+	 */
+	public GeoSegment getEdgeGeoSegment(int edge) {
+		GeoSegment gs = segments.get(getEdgeSegment(edge));
+		return isEdgeReversed(edge) ? gs.reverse() : gs;
+	}
+
+
+	/**
+	 * Returns the GeoSegment an edge travels, with its endpoints taken from
+	 * pool.
+	 * @requires 0 <= edge < edgeCount() && pool != null
+	 * @modifies pool
+	 * @effects interns the endpoints of the segment of edge in pool.
+	 * @return getEdgeGeoSegment(edge), with endpoints that are the points of
+	 *         pool.
+	 */
+	public GeoSegment getEdgeGeoSegment(int edge, GeoPointPool pool) {
+		GeoSegment gs = segments.get(getEdgeSegment(edge), pool);
+		return isEdgeReversed(edge) ? gs.reverse() : gs;
+	}
+
+
+	/**
+	 * Builds the Route that travels a path of edges.
+	 * @requires count > 0 && 0 <= edges[i] < edgeCount() and edges[i] leads
+	 *           to the node edges[i+1] leaves, for 0 <= i < count-1
+	 * @return a Route over the GeoSegments of edges[0..count-1], in order,
+	 *         where consecutive segments share the GeoPoint they meet at.
+	 */
+	public Route toRoute(int[] edges, int count) {
+		GeoPointPool pool = new GeoPointPool(count + 1);
+		Route route = new Route(getEdgeGeoSegment(edges[0], pool));
+		for (int i = 1; i < count; i++) {
+			route = route.addSegment(getEdgeGeoSegment(edges[i], pool));
+		}
+		return route;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "RoadGraph[" + nodeCount() + " nodes, " + edgeCount() + " edges"
+				+ (oneWay ? ", one-way" : "") + "]";
+	}
+}
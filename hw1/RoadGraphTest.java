@@ -0,0 +1,142 @@
+package homework1;
+
+import java.util.Iterator;
+
+public class RoadGraphTest {
+
+	private SegmentStore mStore;
+	private RoadGraph mGraph;
+	private RoadGraph mOneWayGraph;
+
+
+	public RoadGraphTest() {
+		mStore = new SegmentStore(ExampleGeoSegments.segments);
+		mGraph = new RoadGraph(mStore);
+		mOneWayGraph = new RoadGraph(mStore, true);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//all-pairs shortest distances between ExampleGeoSegments.points, by Floyd-Warshall
+	private double[][] shortestDistances(boolean oneWay) {
+		GeoPoint[] points = ExampleGeoSegments.points;
+		double[][] d = new double[points.length][points.length];
+		for (int i = 0; i < points.length; i++) {
+			for (int j = 0; j < points.length; j++) {
+				d[i][j] = (i == j) ? 0 : Double.POSITIVE_INFINITY;
+			}
+		}
+		for (GeoSegment gs : ExampleGeoSegments.segments) {
+			int i = indexOf(gs.getP1());
+			int j = indexOf(gs.getP2());
+			d[i][j] = Math.min(d[i][j], gs.getLength());
+			if (!oneWay) {
+				d[j][i] = Math.min(d[j][i], gs.getLength());
+			}
+		}
+		for (int k = 0; k < points.length; k++) {
+			for (int i = 0; i < points.length; i++) {
+				for (int j = 0; j < points.length; j++) {
+					d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+				}
+			}
+		}
+		return d;
+	}
+
+
+	private int indexOf(GeoPoint gp) {
+		GeoPoint[] points = ExampleGeoSegments.points;
+		for (int i = 0; i < points.length; i++) {
+			if (points[i].equals(gp)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	//whether every segment of route is an example segment, possibly reversed
+	private boolean usesExampleSegments(Route route, boolean oneWay) {
+		Iterator<GeoSegment> iter = route.getGeoSegments();
+		while (iter.hasNext()) {
+			GeoSegment gs = iter.next();
+			boolean found = false;
+			for (GeoSegment example : ExampleGeoSegments.segments) {
+				found = found || example.equals(gs) || (!oneWay && example.reverse().equals(gs));
+			}
+			if (!found) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	//whether the routes found between all pairs of points are shortest
+	private boolean allShortest(RoadGraph graph) {
+		GeoPoint[] points = ExampleGeoSegments.points;
+		double[][] expected = shortestDistances(graph.isOneWay());
+		RouteFinder finder = new RouteFinder(graph);
+		for (int i = 0; i < points.length; i++) {
+			for (int j = 0; j < points.length; j++) {
+				Route route = finder.findRoute(points[i], points[j]);
+				if (i == j || expected[i][j] == Double.POSITIVE_INFINITY) {
+					if (route != null) {
+						return false;
+					}
+				} else if (route == null
+						|| !route.getStart().equals(points[i]) || !route.getEnd().equals(points[j])
+						|| Math.abs(route.getLength() - expected[i][j]) > 1e-9
+						|| !usesExampleSegments(route, graph.isOneWay())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		show("RoadGraph()");
+		show("Nodes are the distinct endpoints.", mGraph.nodeCount() == ExampleGeoSegments.points.length);
+		show("A two-way graph has two edges per segment.", mGraph.edgeCount() == 2 * mStore.size());
+		show("A one-way graph has an edge per segment.", mOneWayGraph.edgeCount() == mStore.size());
+		int node = mGraph.getNode(ExampleGeoSegments.points[1]);
+		show("Nodes are found by their point.",
+			node >= 0 && mGraph.getNodePoint(node).equals(ExampleGeoSegments.points[1]));
+		show("Points that are not endpoints are not nodes.",
+			mGraph.getNode(new GeoPoint(32780000, 35010000)) == -1);
+
+		show("findRoute()");
+		show("Two-way routes between all points are shortest.", allShortest(mGraph));
+		show("One-way routes between all points are shortest and follow the segments.",
+			allShortest(mOneWayGraph));
+		RouteFinder finder = new RouteFinder(mOneWayGraph);
+		Route around = finder.findRoute(ExampleGeoSegments.points[1], ExampleGeoSegments.points[0]);
+		show("A one-way route goes around the loop.",
+			around != null && around.getLength() > ExampleGeoSegments.segments[0].getLength());
+		show("There is no route to a point that is not a node.",
+			finder.findRoute(ExampleGeoSegments.points[1], new GeoPoint(32780000, 35010000)) == null);
+	}
+
+
+	public static void main(String[] args) {
+		RoadGraphTest graphTest = new RoadGraphTest();
+		graphTest.test();
+	}
+}
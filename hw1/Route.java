@@ -1,7 +1,8 @@
 package homework1;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * A Route is a path that traverses arbitrary GeoSegments, regardless
@@ -43,16 +44,56 @@ public class Route {
 	//gf.end = obj.geoSegment[-1]
 	//gf.endHeading = obj.geoSegment[-1].getHeading()
 	//all segments with the same name will go into one feature,
+	//obj.geoFeatures + [obj.lastGeoFeature] is the grouping of obj.geoSegments into features,
+	//kept up to date by addSegment
 
 	//Rep Invariant:
 	//obj.length = sum this.geoSegment[i].getLength
 	//this.geoSegment[i] != null
 	//this.GeoSegment[i].getP2 == this.GeoSegment[i+1].getP1
 	//this.geoSegment[i].getName == this.geoSegment[j].getName for every i != j
-
-	private final ArrayList<GeoSegment> geoSegments;
+	//let f = this.geoFeatures + [this.lastGeoFeature]:
+	//f[i] != null
+	//f[i].getName != f[i+1].getName
+	//f[i].getEnd == f[i+1].getStart
+
+	// Segments and completed features are kept in PersistentLists, so
+	// addSegment shares them with the new Route instead of copying them.
+	// Only the last feature can still grow, so it is kept apart and
+	// replaced by addSegment.
+	private final PersistentList<GeoSegment> geoSegments;
+	private final PersistentList<GeoFeature> geoFeatures;
+	private final GeoFeature lastGeoFeature;
 	private final double length;
 
+	// hashCode() is linear in the number of segments, so it is computed on
+	// first use and cached. 0 means not computed yet (as in String).
+	private int hash;
+
+	// positionAt, segmentIndexAt, remainingLength and featureAt binary search
+	// the prefix sums of the segment lengths. Most routes are built by
+	// appending and never asked, so like hash the sums are computed on first
+	// use and cached, and addSegment stays constant time. null means not
+	// computed yet; the fields of a DistanceIndex are final, so a thread
+	// that sees one sees it complete.
+	private DistanceIndex distances;
+
+
+	//the segments and features of a route with the distance at which each segment starts
+	private static final class DistanceIndex {
+		final GeoSegment[] segments;
+		final double[] starts;          //starts[i] = sum of the lengths of segments[0..i-1]
+		final GeoFeature[] features;
+		final int[] featureFirsts;      //the index of the first segment of each feature
+
+		DistanceIndex(GeoSegment[] segments, double[] starts, GeoFeature[] features, int[] featureFirsts) {
+			this.segments = segments;
+			this.starts = starts;
+			this.features = features;
+			this.featureFirsts = featureFirsts;
+		}
+	}
+
 
   	/**
   	 * Constructs a new Route.
@@ -64,13 +105,18 @@ public class Route {
      *          r.end = gs.p2
      **/
   	public Route(GeoSegment gs) {
-  		geoSegments = new ArrayList<GeoSegment>();
-		  geoSegments.add(gs);
+  		geoSegments = PersistentList.of(gs);
+		  geoFeatures = PersistentList.empty();
+		  lastGeoFeature = new GeoFeature(gs);
 		  length = gs.getLength();
-		  checkRep();
+		  if (RepCheck.onConstruction()){
+		  	checkRep();
+		  }
   	}
 
+	  //how often this is called is decided by RepCheck. it is linear in the number of segments
 	  private void checkRep() throws RuntimeException{
+		  long start = RepCheck.start();
 		  double totalLength = 0;
 		  GeoSegment gs;
 		  if (geoSegments == null){
@@ -82,7 +128,7 @@ public class Route {
 				  throw new RuntimeException("all elements of geoSegment must be != null");
 			  }
 			  //check if endpoint of current segment equals to start point of next segment
-			  if ((i > geoSegments.size() -1) && (!gs.getP2().equals(geoSegments.get(i+1).getP1()))){
+			  if ((i < geoSegments.size() -1) && (!gs.getP2().equals(geoSegments.get(i+1).getP1()))){
 				  throw new RuntimeException("all segments must have end point equals to start point of follow segment");
 			  }
 
@@ -91,6 +137,27 @@ public class Route {
 		  if (this.length != totalLength){
 			  throw new RuntimeException("length is not equal to sum of lengths in geoSegment list");
 		  }
+		  if (geoFeatures == null || lastGeoFeature == null){
+			  throw new RuntimeException("geoFeatures and lastGeoFeature can't be null");
+		  }
+		  GeoFeature gf;
+		  GeoFeature prev = null;
+		  Iterator<GeoFeature> featureIter = this.getGeoFeatures();
+		  while (featureIter.hasNext()){
+			  gf = featureIter.next();
+			  if (gf == null){
+				  throw new RuntimeException("all elements of geoFeatures must be != null");
+			  }
+			  //consecutive features must have different names and be connected
+			  if ((prev != null) && (prev.getName().equals(gf.getName()))){
+				  throw new RuntimeException("consecutive geoFeatures must have different names");
+			  }
+			  if ((prev != null) && (!prev.getEnd().equals(gf.getStart()))){
+				  throw new RuntimeException("all features must have end point equals to start point of follow feature");
+			  }
+			  prev = gf;
+		  }
+		  RepCheck.record(Route.class, start);
 	  }
 
 
@@ -99,7 +166,9 @@ public class Route {
      * @return location of the start of the route.
      **/
   	public GeoPoint getStart() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(0).getP1();
   	}
 
@@ -109,7 +178,9 @@ public class Route {
      * @return location of the end of the route.
      **/
   	public GeoPoint getEnd() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(geoSegments.size()-1).getP2();
   	}
 
@@ -120,7 +191,9 @@ public class Route {
    	 *         route, in  0 <= degrees < 360. if degrees = 360 start and end point are the same point.
    	 **/
   	public double getStartHeading() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(0).getHeading();
   	}
 
@@ -131,7 +204,9 @@ public class Route {
      *         route, in  0 <= degrees < 360. if degrees = 360 start and end point are the same point.
      **/
   	public double getEndHeading() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.get(geoSegments.size()-1).getHeading();
   	}
 
@@ -143,11 +218,173 @@ public class Route {
      *         traverse the route. These values are not necessarily equal.
    	 **/
   	public double getLength() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.length;
   	}
 
 
+	/**
+	 * Returns the number of geographic features of the route.
+	 * @return |this.geoFeatures|
+	 */
+	int geoFeatureCount() {
+		return this.geoFeatures.size() + 1;
+	}
+
+
+	/**
+	 * Returns a geographic feature of the route, without iterating the
+	 * features before it. Routes extended from this one share its features,
+	 * except the last one, so they return the same GeoFeature objects.
+	 * @requires 0 <= index < geoFeatureCount()
+	 * @return this.geoFeatures[index]
+	 */
+	GeoFeature geoFeature(int index) {
+		return (index == this.geoFeatures.size()) ? this.lastGeoFeature : this.geoFeatures.get(index);
+	}
+
+
+  	/**
+  	 * Returns the index of the segment that is traveled at a distance from
+  	 * the start of the route.
+  	 * @return the largest i < |this.geoSegments| such that the segments
+  	 *         before geoSegments[i] add up to at most d, where d is
+  	 *         distance clamped to [0, this.length]. A distance where two
+  	 *         segments meet is in the later one, except at the end.
+  	 **/
+  	public int segmentIndexAt(double distance) {
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  return segmentIndexAt(distanceIndex(), distance);
+  	}
+
+
+  	/**
+  	 * Returns the location at a distance from the start of the route.
+  	 * @return the point of geoSegments[segmentIndexAt(distance)] that is d
+  	 *         kilometers along the route, where d is distance clamped to
+  	 *         [0, this.length], rounded to millionths of degrees.
+  	 **/
+  	public GeoPoint positionAt(double distance) {
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  DistanceIndex index = distanceIndex();
+		  int i = segmentIndexAt(index, distance);
+		  GeoSegment gs = index.segments[i];
+		  double along = distance - index.starts[i];
+		  if (gs.getLength() == 0 || along <= 0){
+			  return gs.getP1();
+		  }
+		  if (along >= gs.getLength()){
+			  return gs.getP2();
+		  }
+		  double fraction = along / gs.getLength();
+		  GeoPoint p1 = gs.getP1();
+		  GeoPoint p2 = gs.getP2();
+		  return new GeoPoint(
+				  p1.getLatitude() + (int) Math.round(fraction * (p2.getLatitude() - p1.getLatitude())),
+				  p1.getLongitude() + (int) Math.round(fraction * (p2.getLongitude() - p1.getLongitude())));
+  	}
+
+
+  	/**
+  	 * Returns the length of the route from the start of a segment to its
+  	 * end.
+  	 * @requires 0 <= segmentIndex < |this.geoSegments|
+  	 * @return sum (segmentIndex <= i < |geoSegments|) . geoSegments[i].length
+  	 * @throws IndexOutOfBoundsException if segmentIndex is not the index of
+  	 *         a segment.
+  	 **/
+  	public double remainingLength(int segmentIndex) {
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  DistanceIndex index = distanceIndex();
+		  if (segmentIndex < 0 || segmentIndex >= index.segments.length){
+			  throw new IndexOutOfBoundsException("segment " + segmentIndex + " of " + index.segments.length);
+		  }
+		  return this.length - index.starts[segmentIndex];
+  	}
+
+
+  	/**
+  	 * Returns the geographic feature that is traveled at a distance from the
+  	 * start of the route.
+  	 * @return the GeoFeature of this.geoFeatures that contains
+  	 *         geoSegments[segmentIndexAt(distance)].
+  	 **/
+  	public GeoFeature featureAt(double distance) {
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
+		  DistanceIndex index = distanceIndex();
+		  int segment = segmentIndexAt(index, distance);
+		  //the last feature whose first segment is at or before segment
+		  int low = 0;
+		  int high = index.featureFirsts.length - 1;
+		  while (low < high){
+			  int middle = (low + high + 1) >>> 1;
+			  if (index.featureFirsts[middle] <= segment){
+				  low = middle;
+			  } else {
+				  high = middle - 1;
+			  }
+		  }
+		  return index.features[low];
+  	}
+
+
+	//the last segment that starts at or before distance, clamped to the route
+	private static int segmentIndexAt(DistanceIndex index, double distance) {
+		int low = 0;
+		int high = index.segments.length - 1;
+		while (low < high){
+			int middle = (low + high + 1) >>> 1;
+			if (index.starts[middle] <= distance){
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+
+	//linear in the number of segments the first time, constant after it
+	private DistanceIndex distanceIndex() {
+		DistanceIndex index = this.distances;
+		if (index == null){
+			int count = this.geoSegments.size();
+			GeoSegment[] segments = new GeoSegment[count];
+			double[] starts = new double[count + 1];
+			int[] featureFirsts = new int[count];
+			int featureCount = 0;
+			int i = 0;
+			//summed in the order addSegment summed this.length, so starts[count] == this.length
+			for (GeoSegment gs : this.geoSegments){
+				segments[i] = gs;
+				starts[i + 1] = starts[i] + gs.getLength();
+				if (i == 0 || !gs.getName().equals(segments[i - 1].getName())){
+					featureFirsts[featureCount++] = i;
+				}
+				i++;
+			}
+			GeoFeature[] features = new GeoFeature[featureCount];
+			Iterator<GeoFeature> iter = this.getGeoFeatures();
+			for (int f = 0; f < featureCount; f++){
+				features[f] = iter.next();
+			}
+			index = new DistanceIndex(segments, starts, features, Arrays.copyOf(featureFirsts, featureCount));
+			this.distances = index;
+		}
+		return index;
+	}
+
+
   	/**
      * Creates a new route that is equal to this route with gs appended to
      * its end.
@@ -158,16 +395,41 @@ public class Route {
      *         r.length = this.length + gs.length
      **/
   	public Route addSegment(GeoSegment gs) {
-		ArrayList<GeoSegment> newGeoSegment = new ArrayList<GeoSegment>(this.geoSegments);
-		newGeoSegment.add(gs);
-		checkRep();
-		return new Route(newGeoSegment, this.length + gs.getLength());
+		if (RepCheck.onConstruction()){
+			checkAppend(gs);
+		}
+		//only the last feature can change: it is either extended by gs or followed by a new feature
+		if (gs.getName().equals(this.lastGeoFeature.getName())){
+			return new Route(this.geoSegments.append(gs), this.geoFeatures,
+					this.lastGeoFeature.addSegment(gs), this.length + gs.getLength());
+		}
+		return new Route(this.geoSegments.append(gs), this.geoFeatures.append(this.lastGeoFeature),
+				new GeoFeature(gs), this.length + gs.getLength());
   	}
 
-	private Route (ArrayList<GeoSegment> geoSegments, double length){
-		this.geoSegments = new ArrayList<GeoSegment>(geoSegments);
+	//this is already checked, so appending gs keeps the rep invariant iff gs continues this route.
+	//checking only gs keeps addSegment independent of the route length.
+	private void checkAppend(GeoSegment gs) throws RuntimeException{
+		long start = RepCheck.start();
+		if (gs == null){
+			throw new RuntimeException("all elements of geoSegment must be != null");
+		}
+		if (!gs.getP1().equals(this.geoSegments.last().getP2())){
+			throw new RuntimeException("all segments must have end point equals to start point of follow segment");
+		}
+		RepCheck.record(Route.class, start);
+	}
+
+	//the lists are shared with the route that gs was appended to, not copied
+	private Route (PersistentList<GeoSegment> geoSegments, PersistentList<GeoFeature> geoFeatures,
+				   GeoFeature lastGeoFeature, double length){
+		this.geoSegments = geoSegments;
+		this.geoFeatures = geoFeatures;
+		this.lastGeoFeature = lastGeoFeature;
 		this.length = length;
-		checkRep();
+		if (RepCheck.onAppend()){
+			checkRep();
+		}
 	}
 
 
@@ -190,30 +452,27 @@ public class Route {
      * @see homework1.GeoFeature
      **/
   	public Iterator<GeoFeature> getGeoFeatures() {
-		  //need to create geoFeature list out of geoSegments.
-		//will go over all geoSegment, every series of geoSegment with same name will add to same geoFeature
-  		checkRep();
-		  ArrayList<GeoFeature> geoFeatures = new ArrayList<GeoFeature>();
-		  Iterator<GeoSegment> segmentIter = this.geoSegments.iterator();
-		  //set first geoFeature with the first geoSegment
-		GeoFeature gf = new GeoFeature(segmentIter.next());
-		GeoSegment gs;
-
-		while (segmentIter.hasNext()){
-			gs = segmentIter.next();
-			if (gs.getName() == gf.getName()){
-				//current segment belong to this feature
-				gf = gf.addSegment(gs);
+		//the features are grouped incrementally by addSegment and the rep was checked when this
+		//was constructed, so this is a read-only view that does not depend on the route length
+		final Iterator<GeoFeature> completed = this.geoFeatures.iterator();
+		return new Iterator<GeoFeature>() {
+			private boolean lastReturned = false;
+
+			public boolean hasNext() {
+				return !lastReturned;
 			}
-			else{
-				//end of feature and start new one
-				geoFeatures.add(gf);
-				gf = new GeoFeature(gs);
+
+			public GeoFeature next() {
+				if (completed.hasNext()){
+					return completed.next();
+				}
+				if (lastReturned){
+					throw new NoSuchElementException();
+				}
+				lastReturned = true;
+				return lastGeoFeature;
 			}
-		}
-		geoFeatures.add(gf); // add last gioFeature to list
-		checkRep();
-		return geoFeatures.iterator();
+		};
   	}
 
 
@@ -232,7 +491,9 @@ public class Route {
      * @see homework1.GeoSegment
      **/
   	public Iterator<GeoSegment> getGeoSegments() {
-  		checkRep();
+  		if (RepCheck.onAccess()){
+  			checkRep();
+  		}
 		  return this.geoSegments.iterator();
   	}
 
@@ -246,6 +507,14 @@ public class Route {
   	public boolean equals(Object o) {
   		if (o != null){
 			  if (o instanceof Route) {
+				  if (this == o){
+					  return true;
+				  }
+				  //routes with different cached hashes can't be equal
+				  int otherHash = ((Route) o).hash;
+				  if (this.hash != 0 && otherHash != 0 && this.hash != otherHash){
+					  return false;
+				  }
 				  Iterator<GeoFeature> thisIter = this.getGeoFeatures();
 				  Iterator<GeoFeature> objIter = ((Route) o).getGeoFeatures();
 				  while (thisIter.hasNext() && objIter.hasNext()) {
@@ -266,10 +535,17 @@ public class Route {
      * @return a hash code for this.
      **/
   	public int hashCode() {
-    	// This implementation will work, but you may want to modify it
-    	// for improved performance.
-
-    	return 1;
+		  //routes with the same segments in the same order have the same features,
+		  //so hashing the segments is consistent with equals
+		  int h = this.hash;
+		  if (h == 0){
+			  h = 1;
+			  for (GeoSegment gs : this.geoSegments){
+				  h = 31 * h + gs.hashCode();
+			  }
+			  this.hash = h;
+		  }
+		  return h;
   	}
 
 
@@ -0,0 +1,182 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A RouteFinder computes shortest Routes between nodes of a RoadGraph with
+ * the A* search, using the straight-line distance (GeoPoint.distanceTo) to
+ * the destination as the heuristic. Segment lengths are straight-line
+ * distances too, so the heuristic never overestimates and the Routes found
+ * are shortest.
+ * <p>
+ * A RouteFinder keeps its search arrays between queries, so a query only
+ * touches the nodes it visits. It is therefore not safe to share a
+ * RouteFinder between threads; use one RouteFinder per thread.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   graph : RoadGraph     // the graph searched
+ * </pre>
+ */
+public final class RouteFinder {
+
+	private final RoadGraph graph;
+
+	//search state, valid for a node only if visits[node] = query
+	private final int[] visits;
+	private final boolean[] settled;
+	private final double[] distances;
+	private final int[] parentEdges;
+	private final int[] parents;
+	private final NodeHeap heap;
+	private int query;
+	private int settledCount;
+
+	//Abstraction Function:
+	//a RouteFinder for graph = this.graph
+
+	//Rep Invariant:
+	//graph != null and all search arrays have length graph.nodeCount()
+
+
+	/**
+	 * Constructs a RouteFinder.
+	 * @requires graph != null
+	 * @effects constructs a RouteFinder with this.graph = graph
+	 */
+	public RouteFinder(RoadGraph graph) {
+		this.graph = graph;
+		int nodeCount = graph.nodeCount();
+		visits = new int[nodeCount];
+		settled = new boolean[nodeCount];
+		distances = new double[nodeCount];
+		parentEdges = new int[nodeCount];
+		parents = new int[nodeCount];
+		heap = new NodeHeap();
+	}
+
+
+	/**
+	 * Returns the graph searched.
+	 * @return this.graph
+	 */
+	public RoadGraph getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Finds a shortest Route between two points.
+	 * @requires from != null && to != null
+	 * @return a Route of least length from from to to that travels the edges
+	 *         of this.graph, or null if from or to is not a node of the
+	 *         graph, from equals to, or to can't be reached from from.
+	 */
+	public Route findRoute(GeoPoint from, GeoPoint to) {
+		int source = graph.getNode(from);
+		int target = graph.getNode(to);
+		if (source < 0 || target < 0) {
+			return null;
+		}
+		return findRoute(source, target);
+	}
+
+
+	/**
+	 * Finds a shortest Route between two nodes.
+	 * @requires 0 <= source, target < graph.nodeCount()
+	 * @return a Route of least length from graph.nodes[source] to
+	 *         graph.nodes[target], or null if source = target or target
+	 *         can't be reached from source.
+	 */
+	public Route findRoute(int source, int target) {
+		if (source == target || !search(source, target)) {
+			return null;
+		}
+		int count = 0;
+		for (int node = target; node != source; node = parents[node]) {
+			count++;
+		}
+		int[] path = new int[count];
+		for (int node = target; node != source; node = parents[node]) {
+			path[--count] = parentEdges[node];
+		}
+		return graph.toRoute(path, path.length);
+	}
+
+
+	/**
+	 * Computes the length of a shortest Route between two nodes.
+	 * @requires 0 <= source, target < graph.nodeCount()
+	 * @return the length of findRoute(source, target), 0 if source = target,
+	 *         or Double.POSITIVE_INFINITY if target can't be reached.
+	 */
+	public double distance(int source, int target) {
+		if (source == target) {
+			return 0;
+		}
+		return search(source, target) ? distances[target] : Double.POSITIVE_INFINITY;
+	}
+
+
+	/**
+	 * Returns the number of nodes the last query settled, a measure of the
+	 * work it did.
+	 * @return the number of nodes settled by the last call to findRoute or
+	 *         distance.
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+
+	//runs A* from source until target is settled; returns whether it was reached
+	private boolean search(int source, int target) {
+		if (++query == 0) {
+			//the visit stamps wrapped around, so old stamps could look current
+			Arrays.fill(visits, 0);
+			query = 1;
+		}
+		settledCount = 0;
+		heap.clear();
+		long targetPoint = graph.getNodePacked(target);
+		visit(source, 0, -1, -1);
+		heap.push(source, GeoPoint.distanceBetween(graph.getNodePacked(source), targetPoint));
+		while (!heap.isEmpty()) {
+			int node = heap.pop();
+			if (settled[node]) {
+				continue;
+			}
+			settled[node] = true;
+			settledCount++;
+			if (node == target) {
+				return true;
+			}
+			double distance = distances[node];
+			for (int e = graph.firstEdge(node), end = graph.firstEdge(node + 1); e < end; e++) {
+				int next = graph.getEdgeTarget(e);
+				double nextDistance = distance + graph.getEdgeLength(e);
+				if (visits[next] != query) {
+					visit(next, nextDistance, e, node);
+				} else if (!settled[next] && nextDistance < distances[next]) {
+					distances[next] = nextDistance;
+					parentEdges[next] = e;
+					parents[next] = node;
+				} else {
+					continue;
+				}
+				heap.push(next, nextDistance + GeoPoint.distanceBetween(graph.getNodePacked(next), targetPoint));
+			}
+		}
+		return false;
+	}
+
+
+	private void visit(int node, double distance, int parentEdge, int parent) {
+		visits[node] = query;
+		settled[node] = false;
+		distances[node] = distance;
+		parentEdges[node] = parentEdge;
+		parents[node] = parent;
+	}
+}
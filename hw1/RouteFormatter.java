@@ -1,6 +1,10 @@
 package homework1;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Iterator;
 
 /**
@@ -21,15 +25,39 @@ public abstract class RouteFormatter {
      * 	       human-readable directions from start to end along this route.
      **/
   	public String computeDirections(Route route, double heading) {
-  		String direction = "";
+  		StringBuilder direction = new StringBuilder();
+		try {
+			computeDirections(route, heading, direction);
+		} catch (IOException e) {
+			//a StringBuilder never throws IOException
+			throw new UncheckedIOException(e);
+		}
+		return direction.toString();
+  	}
+
+
+  	/**
+     * Writes directions for following this Route, starting at its start
+     * point and facing in the specified heading, line by line to out. No
+     * String is built for the whole directions, so long routes can be
+     * written straight to a Writer, a StringBuilder or a channel.
+     * @requires route != null && out != null &&
+     * 			0 <= heading < 360
+     * @param route the route for which to print directions.
+   	 * @param heading the initial heading.
+   	 * @param out the destination of the directions.
+     * @modifies out
+     * @effects appends to out the String computeDirections(route, heading).
+     * @throws IOException if out throws IOException.
+     **/
+  	public void computeDirections(Route route, double heading, Appendable out) throws IOException {
 		Iterator<GeoFeature> iter = route.getGeoFeatures();
 		GeoFeature gf;
 		while (iter.hasNext()){
 			gf = iter.next();
-			direction += computeLine(gf, heading);
+			appendLine(gf, heading, out);
 			heading = gf.getEndHeading();
 		}
-		return direction;
   	}
 
 
@@ -46,6 +74,81 @@ public abstract class RouteFormatter {
   	public abstract String computeLine(GeoFeature geoFeature, double origHeading);
 
 
+  	/**
+     * Writes a single line of directions, the one computeLine returns, to
+     * out. Subclasses should override this to write the line in pieces,
+     * without building it as a String first.
+     * @requires geoFeature != null && out != null
+     * @param geoFeature the geographical feature to traverse.
+   	 * @param origHeading the initial heading.
+   	 * @param out the destination of the line.
+     * @modifies out
+     * @effects appends to out the String computeLine(geoFeature, origHeading).
+     * @throws IOException if out throws IOException.
+     */
+  	protected void appendLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
+  		out.append(computeLine(geoFeature, origHeading));
+  	}
+
+
+  	/**
+     * Computes a line by letting appendLine write it to a new StringBuilder.
+     * Subclasses that override appendLine can implement computeLine with it.
+     * @requires geoFeature != null
+     * @return the line that appendLine(geoFeature, origHeading, out) writes.
+     */
+  	protected String lineOf(GeoFeature geoFeature, double origHeading) {
+  		StringBuilder line = new StringBuilder();
+  		try {
+  			appendLine(geoFeature, origHeading, line);
+  		} catch (IOException e) {
+  			//a StringBuilder never throws IOException
+  			throw new UncheckedIOException(e);
+  		}
+  		return line.toString();
+  	}
+
+
+  	/**
+     * Writes a nonnegative integer in decimal, without creating a String.
+     * @requires value >= 0 && out != null
+     * @modifies out
+     * @effects appends Long.toString(value) to out.
+     * @throws IOException if out throws IOException.
+     */
+  	protected static void appendNumber(Appendable out, long value) throws IOException {
+  		long divisor = 1;
+  		while (value / divisor >= 10) {
+  			divisor *= 10;
+  		}
+  		for (; divisor > 0; divisor /= 10) {
+  			out.append((char) ('0' + (value / divisor) % 10));
+  		}
+  	}
+
+
+  	/**
+     * Writes a nonnegative number rounded to tenths, the way
+     * <tt>new DecimalFormat("0.0").format(value)</tt> does (rounding half
+     * to even on the exact value of the double), without creating a String.
+     * @requires 0 <= value < 10^15 && out != null
+     * @modifies out
+     * @effects appends new DecimalFormat("0.0").format(value) to out.
+     * @throws IOException if out throws IOException.
+     */
+  	protected static void appendTenths(Appendable out, double value) throws IOException {
+  		double scaled = value * 10;
+  		long tenths = Math.round(scaled);
+  		if (Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-6) {
+  			//too close to a tie for the rounding error of value * 10, so round the exact value
+  			tenths = new BigDecimal(value).setScale(1, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+  		}
+  		appendNumber(out, tenths / 10);
+  		out.append('.');
+  		out.append((char) ('0' + tenths % 10));
+  	}
+
+
   	/**
      * Computes directions to turn based on the heading change.
      * @requires 0 <= oldHeading < 360 &&
@@ -53,8 +156,10 @@ public abstract class RouteFormatter {
      * @param origHeading the start heading.
    	 * @param newHeading the desired new heading.
      * @return English directions to go from the old heading to the new
-     * 		   one. Let the angle from the original heading to the new
-     * 		   heading be a. The turn should be annotated as:
+     * 		   one: the phrase of Turn.between(origHeading, newHeading), a
+     * 		   constant, so appendLine can write it without allocating.
+     * 		   Let the angle from the original heading to the new heading
+     * 		   be a. The turn should be annotated as:
      * <p>
      * <pre>
      * Continue             if a < 10
@@ -64,40 +169,10 @@ public abstract class RouteFormatter {
      * U-turn               if 179 <= a
      * </pre>
      * and likewise for left turns.
+     * @see homework1.Turn
      */
   	protected String getTurnString(double origHeading, double newHeading) {
-  		double angle = newHeading - origHeading;
-		  if (angle > 180){
-			  //we should turn left in angle between 0 and 180
-			  angle -= 360;
-		  }
-		  if (angle < -180){
-			  //we should turn right in angle between 0 and 180
-			  angle += 360;
-		  }
-		  if (angle > 0) {
-			  //we turn right
-			  return TurnStringAssist(angle, "right");
-		  }
-		  else{
-			  return TurnStringAssist(Math.abs(angle), "left");
-		  }
-
+  		return Turn.between(origHeading, newHeading).getPhrase();
   	}
-	  private String TurnStringAssist(double angle, String direction){
-			  if (angle < 10){
-				  return "Continue";
-			  }
-			  if (angle < 60 ){
-				  return "Turn slight " + direction;
-			  }
-			  if (angle < 120){
-				  return "Turn " + direction;
-			  }
-			  if (angle < 179){
-				  return "Turn sharp " + direction;
-			  }
-			  return "U-turn";
-	  }
 
 }
@@ -3,11 +3,13 @@ package homework1;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.concurrent.ExecutionException;
 
 /**
  * A JPanel GUI for representing a Route. This Route is shown as a list of
  * GeoSegments. In addition, walking directions and driving directions for
- * traversing this route are shown.
+ * traversing this route are shown, and the route is drawn on a map of the
+ * segments that can be added.
  * <p>
  * A figure showing this GUI can be found in homework assignment #1.
  */
@@ -16,6 +18,7 @@ public class RouteFormatterGUI extends JPanel {
 	private static final long serialVersionUID = 1L;
 
 	private Route route = null;				// Route shown in this
+	private SegmentStore routeSegments = new SegmentStore();	// segments of route, for lstSegments
 
 	private GeoSegmentsDialog dlgSegments;	// secondary window
 
@@ -23,6 +26,16 @@ public class RouteFormatterGUI extends JPanel {
 	private JList<GeoSegment> lstSegments;
 	private JTextArea txtWalkingDirections;
 	private JTextArea txtDrivingDirections;
+	private MapPanel pnlMap;
+
+	// the directions shown in the text areas. They are recomputed by a
+	// SwingWorker, from the shown directions, when a segment is added; only
+	// the newest worker may show its result, and older ones are cancelled.
+	private IncrementalDirections walkingDirections =
+			new IncrementalDirections(new WalkingRouteFormatter(), 0);
+	private IncrementalDirections drivingDirections =
+			new IncrementalDirections(new DrivingRouteFormatter(), 0);
+	private SwingWorker<IncrementalDirections[], Void> directionsWorker = null;
 
 
 	/**
@@ -30,14 +43,16 @@ public class RouteFormatterGUI extends JPanel {
 	 * @effects Creates a new RoutFormatterGUI JPanel contained in frame.
 	 */
 	public RouteFormatterGUI(JFrame frame) {
-		// create a GeoSegmentsDialog (secondary window)
-		dlgSegments = new GeoSegmentsDialog(frame, this);
+		// create a GeoSegmentsDialog (secondary window), and a map of the
+		// segments it offers
+		SegmentStore network = new SegmentStore(ExampleGeoSegments.segments);
+		dlgSegments = new GeoSegmentsDialog(frame, this, network);
 		dlgSegments.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
 		dlgSegments.pack();
 
 		// create components
-		lstSegments = new JList<>(new DefaultListModel<GeoSegment>());
-		lstSegments.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		//a SegmentListModel shows long routes without copying their segments
+		lstSegments = new SegmentListModel(routeSegments).newList();
 		JScrollPane scrlSegments = new JScrollPane(lstSegments);
 		scrlSegments.setPreferredSize(new Dimension(450, 100));
 
@@ -58,6 +73,12 @@ public class RouteFormatterGUI extends JPanel {
 		JLabel lblDrivingDirections = new JLabel("Driving Directions:");
 		lblDrivingDirections.setLabelFor(txtDrivingDirections);
 
+		pnlMap = new MapPanel(network);
+		pnlMap.setPreferredSize(new Dimension(870, 300));
+		pnlMap.fitNetwork();
+		JLabel lblMap = new JLabel("Map (drag to pan, scroll to zoom):");
+		lblMap.setLabelFor(pnlMap);
+
 		JButton btnAddSegment = new JButton("Add GeoSegment");
 		btnAddSegment.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
@@ -129,6 +150,23 @@ public class RouteFormatterGUI extends JPanel {
 		c.anchor = GridBagConstraints.SOUTH;
 		gridbag.setConstraints(btnAddSegment, c);
 		this.add(btnAddSegment);
+
+		c.gridx = 0;
+		c.gridy = 6;
+		c.gridwidth = 3;
+		c.gridheight = 1;
+		c.insets = new Insets(20,0,0,0);
+		c.anchor = GridBagConstraints.CENTER;
+		gridbag.setConstraints(lblMap, c);
+		this.add(lblMap);
+
+		c.gridx = 0;
+		c.gridy = 7;
+		c.gridwidth = 3;
+		c.gridheight = 1;
+		c.insets = new Insets(0,0,0,0);
+		gridbag.setConstraints(pnlMap, c);
+		this.add(pnlMap);
 	}
 
 
@@ -139,34 +177,77 @@ public class RouteFormatterGUI extends JPanel {
 	 * 			defined by Route.addSegment(). In addition, updates the
 	 * 			walking direction and the driving direction of the GUI
 	 * 			with the return value of
-	 * 			RouteDirection.computeDirections(this.route,0)
+	 * 			RouteDirection.computeDirections(this.route,0). The
+	 * 			directions are computed in the background, and only the
+	 * 			lines from the last geographic feature on are rewritten.
 	 */
 	public void addSegment(GeoSegment segment) {
-		DefaultListModel<GeoSegment> model =
-				(DefaultListModel<GeoSegment>)(this.lstSegments.getModel());
+		SegmentListModel model = (SegmentListModel)(this.lstSegments.getModel());
 
 		//route is empty, can add any segment
 		if (route == null){
 			route = new Route(segment);
-			model.addElement(segment);
+			routeSegments.add(segment);
 		}
 		//Route is not empty, added segment must start with the end of this route
 		else{
 			if (route.getEnd().equals(segment.getP1())){
 				route = route.addSegment(segment);
-				model.addElement(segment);
+				routeSegments.add(segment);
 			}
 			//do nothing
 		}
+		model.refresh();
+		pnlMap.setRoute(route);
 
-		WalkingRouteFormatter walkingRoute = new WalkingRouteFormatter();
-		DrivingRouteFormatter drivingRoute = new DrivingRouteFormatter();
+		updateDirections();
+	}
+
+
+	//recomputes the directions of route on a SwingWorker, from the directions that are
+	//shown, so a worker that is cancelled before it shows its result leaves nothing behind
+	private void updateDirections() {
+		if (directionsWorker != null){
+			directionsWorker.cancel(false);
+		}
+		final Route shownRoute = route;
+		final IncrementalDirections walkingShown = walkingDirections;
+		final IncrementalDirections drivingShown = drivingDirections;
+		directionsWorker = new SwingWorker<IncrementalDirections[], Void>() {
+			protected IncrementalDirections[] doInBackground() {
+				IncrementalDirections walking = walkingShown.extend(shownRoute);
+				if (isCancelled()){
+					return null;
+				}
+				return new IncrementalDirections[] {walking, drivingShown.extend(shownRoute)};
+			}
+
+			protected void done() {
+				//a newer worker started from the directions this one started from
+				if (isCancelled() || directionsWorker != this){
+					return;
+				}
+				directionsWorker = null;
+				IncrementalDirections[] directions;
+				try {
+					directions = get();
+				} catch (InterruptedException | ExecutionException e) {
+					throw new RuntimeException("computing directions failed", e);
+				}
+				showDirections(txtWalkingDirections, directions[0]);
+				showDirections(txtDrivingDirections, directions[1]);
+				walkingDirections = directions[0];
+				drivingDirections = directions[1];
+			}
+		};
+		directionsWorker.execute();
+	}
 
-		String walkindDir = walkingRoute.computeDirections(route, 0);
-		txtWalkingDirections.setText(walkindDir);
 
-		String drinigDir = drivingRoute.computeDirections(route, 0);
-		txtDrivingDirections.setText(drinigDir);
+	//replaces the end of the text of area, from the kept part on, by the appended text
+	private static void showDirections(JTextArea area, IncrementalDirections directions) {
+		area.replaceRange(directions.getAppendedText(), directions.getKeptLength(),
+				area.getDocument().getLength());
 	}
 
 
@@ -0,0 +1,164 @@
+package homework1;
+
+import java.util.Iterator;
+
+/**
+ * RouteSimplifier merges the runs of short GeoSegments of Routes built from
+ * dense GPS data into longer ones, with the Douglas-Peucker algorithm: the
+ * points of a geographic feature are dropped as long as none is farther
+ * than a tolerance from the segment that replaces them.
+ * <p>
+ * Only segments of the same geographic feature are merged, and the first
+ * and last segment of every feature are kept as they are, so a simplified
+ * Route has the same geographic features as the original, with the same
+ * names, starts, ends and start and end headings: RouteFormatter gives the
+ * same turns for both. The length of a feature can only get shorter, by
+ * the detours of the dropped points.
+ * <p>
+ * Distances use the flat-surface, near the Technion approximation of
+ * GeoPoint.distanceTo.
+ */
+public final class RouteSimplifier {
+
+	private static final double KM_PER_MILLIONTH_LATITUDE = GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000;
+	private static final double KM_PER_MILLIONTH_LONGITUDE = GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000;
+
+	private RouteSimplifier() {
+	}
+
+
+	/**
+	 * Simplifies a Route.
+	 * @requires route != null && tolerance >= 0
+	 * @return a Route r with the geographic features of route, in order, each
+	 *         simplified as simplify(GeoFeature, tolerance) does; route
+	 *         itself if no segment could be merged.
+	 */
+	public static Route simplify(Route route, double tolerance) {
+		int count = route.geoFeatureCount();
+		GeoSegment[][] simplified = new GeoSegment[count][];
+		boolean changed = false;
+		for (int f = 0; f < count; f++) {
+			GeoFeature gf = route.geoFeature(f);
+			simplified[f] = simplifiedSegments(gf, tolerance);
+			changed = changed || simplified[f].length < gf.geoSegmentCount();
+		}
+		if (!changed) {
+			return route;
+		}
+		Route result = null;
+		for (GeoSegment[] segments : simplified) {
+			for (GeoSegment gs : segments) {
+				result = (result == null) ? new Route(gs) : result.addSegment(gs);
+			}
+		}
+		return result;
+	}
+
+
+	/**
+	 * Simplifies a geographic feature.
+	 * @requires feature != null && tolerance >= 0
+	 * @return a GeoFeature gf with the name, start, end, first segment and
+	 *         last segment of feature, whose other points are points of
+	 *         feature, in order, such that every point of feature is within
+	 *         tolerance kilometers of gf; feature itself if no segment could
+	 *         be merged.
+	 */
+	public static GeoFeature simplify(GeoFeature feature, double tolerance) {
+		GeoSegment[] segments = simplifiedSegments(feature, tolerance);
+		if (segments.length == feature.geoSegmentCount()) {
+			return feature;
+		}
+		GeoFeature result = new GeoFeature(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			result = result.addSegment(segments[i]);
+		}
+		return result;
+	}
+
+
+	//the segments of a feature after merging, the original ones where none were merged
+	private static GeoSegment[] simplifiedSegments(GeoFeature feature, double tolerance) {
+		int n = feature.geoSegmentCount();
+		GeoSegment[] segments = new GeoSegment[n];
+		Iterator<GeoSegment> iter = feature.getGeoSegments();
+		for (int i = 0; i < n; i++) {
+			segments[i] = iter.next();
+		}
+		//with 3 segments or less, all of them are a first, last or single middle one
+		if (n <= 3) {
+			return segments;
+		}
+
+		//the points of the feature, on a flat surface, in kilometers from its start
+		GeoPoint start = segments[0].getP1();
+		double[] x = new double[n + 1];
+		double[] y = new double[n + 1];
+		for (int i = 1; i <= n; i++) {
+			GeoPoint p = segments[i - 1].getP2();
+			x[i] = (p.getLongitude() - start.getLongitude()) * KM_PER_MILLIONTH_LONGITUDE;
+			y[i] = (p.getLatitude() - start.getLatitude()) * KM_PER_MILLIONTH_LATITUDE;
+		}
+
+		//Douglas-Peucker over points 1..n-1, the end of the first segment to the start of
+		//the last, with a stack of the ranges still to split instead of recursion
+		boolean[] kept = new boolean[n + 1];
+		kept[0] = kept[1] = kept[n - 1] = kept[n] = true;
+		int[] stack = new int[2 * n];
+		int top = 0;
+		stack[top++] = 1;
+		stack[top++] = n - 1;
+		int keptCount = 4;
+		while (top > 0) {
+			int high = stack[--top];
+			int low = stack[--top];
+			int farthest = -1;
+			double farthestDistance = tolerance * tolerance;
+			for (int i = low + 1; i < high; i++) {
+				double distance = squaredDistance(x[i], y[i], x[low], y[low], x[high], y[high]);
+				if (distance > farthestDistance) {
+					farthest = i;
+					farthestDistance = distance;
+				}
+			}
+			if (farthest >= 0) {
+				kept[farthest] = true;
+				keptCount++;
+				stack[top++] = low;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = high;
+			}
+		}
+		if (keptCount == n + 1) {
+			return segments;
+		}
+
+		GeoSegment[] simplified = new GeoSegment[keptCount - 1];
+		String name = segments[0].getName();
+		int count = 0;
+		int last = 0;
+		for (int i = 1; i <= n; i++) {
+			if (kept[i]) {
+				simplified[count++] = (i == last + 1) ? segments[last]
+						: new GeoSegment(name, segments[last].getP1(), segments[i - 1].getP2());
+				last = i;
+			}
+		}
+		return simplified;
+	}
+
+
+	//the squared distance from (x, y) to the segment from (x1, y1) to (x2, y2)
+	private static double squaredDistance(double x, double y, double x1, double y1, double x2, double y2) {
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		double squaredLength = dx * dx + dy * dy;
+		double t = (squaredLength == 0) ? 0
+				: Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / squaredLength));
+		double px = x1 + t * dx - x;
+		double py = y1 + t * dy - y;
+		return px * px + py * py;
+	}
+}
@@ -0,0 +1,202 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class RouteSimplifierTest {
+
+	private Random mRandom;
+
+
+	public RouteSimplifierTest() {
+		mRandom = new Random(13);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//a street of count segments from start, count millionths apart in the given steps,
+	//with up to jitter millionths of noise at the points between its ends
+	private List<GeoSegment> street(String name, GeoPoint start, int count, int latitudeStep,
+			int longitudeStep, int jitter) {
+		List<GeoSegment> segments = new ArrayList<>();
+		GeoPoint p1 = start;
+		for (int i = 1; i <= count; i++) {
+			int noise = (i == count || jitter == 0) ? 0 : mRandom.nextInt(2 * jitter + 1) - jitter;
+			GeoPoint p2 = new GeoPoint(start.getLatitude() + i * latitudeStep + noise,
+				start.getLongitude() + i * longitudeStep - noise);
+			segments.add(new GeoSegment(name, p1, p2));
+			p1 = p2;
+		}
+		return segments;
+	}
+
+
+	private static Route route(List<GeoSegment> segments) {
+		Route route = new Route(segments.get(0));
+		for (int i = 1; i < segments.size(); i++) {
+			route = route.addSegment(segments.get(i));
+		}
+		return route;
+	}
+
+
+	private static List<GeoSegment> segments(Iterator<GeoSegment> iter) {
+		List<GeoSegment> segments = new ArrayList<>();
+		while (iter.hasNext()) {
+			segments.add(iter.next());
+		}
+		return segments;
+	}
+
+
+	//the distance in kilometers from a point to a segment, by sampling the segment
+	private static double distanceTo(GeoPoint p, GeoSegment gs) {
+		double best = Double.POSITIVE_INFINITY;
+		for (int i = 0; i <= 1000; i++) {
+			GeoPoint q = new GeoPoint(
+				(int) Math.round(gs.getP1().getLatitude() + (gs.getP2().getLatitude() - gs.getP1().getLatitude()) * i / 1000.0),
+				(int) Math.round(gs.getP1().getLongitude() + (gs.getP2().getLongitude() - gs.getP1().getLongitude()) * i / 1000.0));
+			best = Math.min(best, p.distanceTo(q));
+		}
+		return best;
+	}
+
+
+	//whether every point of the original segments is within tolerance of the simplified ones
+	private static boolean within(List<GeoSegment> original, List<GeoSegment> simplified, double tolerance) {
+		for (GeoSegment gs : original) {
+			double best = Double.POSITIVE_INFINITY;
+			for (GeoSegment s : simplified) {
+				best = Math.min(best, distanceTo(gs.getP2(), s));
+			}
+			//sampling the segment overestimates the distance by up to half a sample
+			if (best > tolerance + 1e-4) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	public void testFeature() {
+		show("simplify(GeoFeature)");
+		GeoPoint start = new GeoPoint(32780000, 35010000);
+		List<GeoSegment> straight = street("Herzl", start, 100, 10, 7, 0);
+		GeoFeature feature = new GeoFeature(straight.get(0));
+		for (int i = 1; i < straight.size(); i++) {
+			feature = feature.addSegment(straight.get(i));
+		}
+		List<GeoSegment> merged = segments(RouteSimplifier.simplify(feature, 0.001).getGeoSegments());
+		show("A straight feature keeps its first and last segments and merges the rest.", merged.size() == 3
+			&& merged.get(0) == straight.get(0) && merged.get(2) == straight.get(99)
+			&& merged.get(1).getP1().equals(straight.get(1).getP1())
+			&& merged.get(1).getP2().equals(straight.get(98).getP2())
+			&& merged.get(1).getName().equals("Herzl"));
+		GeoFeature simplified = RouteSimplifier.simplify(feature, 0.001);
+		show("It keeps its start, end and headings, and its length.",
+			simplified.getStart().equals(feature.getStart()) && simplified.getEnd().equals(feature.getEnd())
+			&& simplified.getStartHeading() == feature.getStartHeading()
+			&& simplified.getEndHeading() == feature.getEndHeading()
+			&& Math.abs(simplified.getLength() - feature.getLength()) < 1e-9);
+
+		List<GeoSegment> noisy = street("Hankin", start, 500, 30, 20, 20);
+		feature = new GeoFeature(noisy.get(0));
+		for (int i = 1; i < noisy.size(); i++) {
+			feature = feature.addSegment(noisy.get(i));
+		}
+		boolean within = true;
+		boolean fewer = true;
+		for (double tolerance : new double[] {0.0005, 0.002, 0.01}) {
+			List<GeoSegment> result = segments(RouteSimplifier.simplify(feature, tolerance).getGeoSegments());
+			within = within && within(noisy, result, tolerance);
+			fewer = fewer && result.size() < noisy.size();
+		}
+		show("A noisy feature has fewer segments, within the tolerance of its points.", within && fewer);
+		show("A larger tolerance merges more.",
+			segments(RouteSimplifier.simplify(feature, 0.01).getGeoSegments()).size()
+			< segments(RouteSimplifier.simplify(feature, 0.0005).getGeoSegments()).size());
+		show("It can only get shorter.", RouteSimplifier.simplify(feature, 0.01).getLength() <= feature.getLength());
+
+		feature = new GeoFeature(straight.get(0)).addSegment(straight.get(1)).addSegment(straight.get(2));
+		show("A feature of three segments is returned as it is.", RouteSimplifier.simplify(feature, 1) == feature);
+	}
+
+
+	//a route of streets with a turn between each two, of 200 segments each
+	private Route streets(int jitter) {
+		List<GeoSegment> segments = new ArrayList<>();
+		String[] names = {"Herzl", "Hankin", "Jabotinsky", "Trumpeldor", "Herzl"};
+		int[][] steps = {{10, 0}, {7, 7}, {0, 10}, {-7, 7}, {10, 0}};
+		for (int s = 0; s < names.length; s++) {
+			GeoPoint from = segments.isEmpty() ? new GeoPoint(32780000, 35010000)
+				: segments.get(segments.size() - 1).getP2();
+			segments.addAll(street(names[s], from, 200, steps[s][0], steps[s][1], jitter));
+		}
+		return route(segments);
+	}
+
+
+	//the directions of a route without the distances and times, which merging shortens
+	private static String turns(RouteFormatter formatter, Route route) {
+		return formatter.computeDirections(route, 0).replaceAll("[0-9.]+ (minutes|kilometers)", "");
+	}
+
+
+	public void testRoute() {
+		show("simplify(Route)");
+		Route route = streets(3);
+		Route simplified = RouteSimplifier.simplify(route, 0.002);
+
+		Iterator<GeoFeature> original = route.getGeoFeatures();
+		Iterator<GeoFeature> result = simplified.getGeoFeatures();
+		boolean sameFeatures = true;
+		while (original.hasNext() && result.hasNext()) {
+			GeoFeature a = original.next();
+			GeoFeature b = result.next();
+			sameFeatures = sameFeatures && a.getName().equals(b.getName()) && a.getStart().equals(b.getStart())
+				&& a.getEnd().equals(b.getEnd()) && a.getStartHeading() == b.getStartHeading()
+				&& a.getEndHeading() == b.getEndHeading();
+		}
+		show("The features keep their names, ends and headings.",
+			sameFeatures && !original.hasNext() && !result.hasNext());
+		show("The route has far fewer segments.",
+			segments(simplified.getGeoSegments()).size() * 10 < segments(route.getGeoSegments()).size());
+
+		WalkingRouteFormatter walking = new WalkingRouteFormatter();
+		DrivingRouteFormatter driving = new DrivingRouteFormatter();
+		show("The directions turn the same way.", turns(walking, route).equals(turns(walking, simplified))
+			&& turns(driving, route).equals(turns(driving, simplified)));
+		route = streets(0);
+		simplified = RouteSimplifier.simplify(route, 0.002);
+		show("Along straight streets the directions are the same.",
+			walking.computeDirections(route, 0).equals(walking.computeDirections(simplified, 0))
+			&& driving.computeDirections(route, 0).equals(driving.computeDirections(simplified, 0)));
+
+		List<GeoSegment> three = segments(route.getGeoSegments()).subList(0, 3);
+		Route short1 = route(three);
+		show("A route with nothing to merge is returned as it is.", RouteSimplifier.simplify(short1, 1) == short1);
+	}
+
+
+	public static void main(String[] args) {
+		RouteSimplifierTest simplifierTest = new RouteSimplifierTest();
+		simplifierTest.testFeature();
+		simplifierTest.testRoute();
+	}
+}
@@ -0,0 +1,205 @@
+package homework1;
+
+import java.util.Iterator;
+
+public class RouteTest {
+
+	private static final double tolerance = 0.01;
+
+	private GeoSegment gsHankin;
+	private GeoSegment gsTrumpeldor1;
+	private GeoSegment gsTrumpeldor2;
+	private GeoSegment gsHaGalil;
+
+	private Route mRoute;
+
+
+	public RouteTest() {
+		gsHankin = ExampleGeoSegments.segments[0];
+		gsTrumpeldor1 = ExampleGeoSegments.segments[1];
+		gsTrumpeldor2 = ExampleGeoSegments.segments[2];
+		gsHaGalil = ExampleGeoSegments.segments[3];
+
+		mRoute = new Route(gsHankin);
+		mRoute = mRoute.addSegment(gsTrumpeldor1);
+		mRoute = mRoute.addSegment(gsTrumpeldor2);
+		mRoute = mRoute.addSegment(gsHaGalil);
+	}
+
+
+	boolean same(double x, double y) {
+		return ((y >= x-tolerance) && (y <= x+tolerance));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private int count(Iterator<?> iter) {
+		int count = 0;
+		while (iter.hasNext()) {
+			iter.next();
+			count++;
+		}
+		return count;
+	}
+
+
+	public void test() {
+		show("getGeoFeatures()");
+		show("Same-name segments are grouped into one feature.",
+			count(mRoute.getGeoFeatures()) == 3);
+		Iterator<GeoFeature> iter = mRoute.getGeoFeatures();
+		show("Features are in route order.",
+			iter.next().getName().equals("Hankin Road") &&
+			iter.next().getName().equals("Trumpeldor Avenue") &&
+			iter.next().getName().equals("HaGalil"));
+		show("Feature lengths sum to the route length.",
+			same(sumFeatureLengths(mRoute), mRoute.getLength()));
+		show("Equal names that are not the same String object share a feature.",
+			count(new Route(gsTrumpeldor1).addSegment(new GeoSegment(
+				new String("Trumpeldor Avenue"), gsTrumpeldor2.getP1(),
+				gsTrumpeldor2.getP2())).getGeoFeatures()) == 1);
+		boolean unmodifiable = false;
+		try {
+			Iterator<GeoFeature> removeIter = mRoute.getGeoFeatures();
+			removeIter.next();
+			removeIter.remove();
+		} catch (UnsupportedOperationException e) {
+			unmodifiable = true;
+		}
+		show("Features can not be removed through the iterator.", unmodifiable);
+
+		show("addSegment()");
+		Route shorter = new Route(gsHankin).addSegment(gsTrumpeldor1);
+		Route extended = shorter.addSegment(gsTrumpeldor2);
+		show("Extending a route does not change the original.",
+			count(shorter.getGeoSegments()) == 2 &&
+			count(extended.getGeoSegments()) == 3);
+		show("Extending the last feature does not add a feature.",
+			count(shorter.getGeoFeatures()) == count(extended.getGeoFeatures()));
+		Route branch = shorter.addSegment(new GeoSegment("Khanita",
+			gsTrumpeldor2.getP1(), ExampleGeoSegments.points[6]));
+		show("Branching off an older route keeps both routes intact.",
+			extended.getEnd().equals(gsTrumpeldor2.getP2()) &&
+			branch.getEnd().equals(ExampleGeoSegments.points[6]) &&
+			count(extended.getGeoFeatures()) == 2 &&
+			count(branch.getGeoFeatures()) == 3);
+		boolean rejected = false;
+		try {
+			mRoute.addSegment(gsHankin);
+		} catch (RuntimeException e) {
+			rejected = true;
+		}
+		show("A segment that does not start at the route end is rejected.", rejected);
+
+		show("equals()");
+		Route copy = new Route(gsHankin).addSegment(gsTrumpeldor1)
+				.addSegment(gsTrumpeldor2).addSegment(gsHaGalil);
+		show("Route is equal to a route built from the same segments.",
+			mRoute.equals(copy) && copy.equals(mRoute));
+		show("Route is not equal to a prefix of itself.",
+			!mRoute.equals(extended));
+
+		show("hashCode()");
+		show(".equals() routes must have the same .hashCode().",
+			mRoute.hashCode() == copy.hashCode());
+		java.util.HashSet<Route> routes = new java.util.HashSet<Route>();
+		routes.add(mRoute);
+		routes.add(extended);
+		show("Routes can be found in a HashSet.",
+			routes.contains(copy) && !routes.contains(shorter));
+		show("Routes with cached hashes are still equal.",
+			mRoute.equals(copy));
+
+		show("Distance queries");
+		double hankin = gsHankin.getLength();
+		double trumpeldor = hankin + gsTrumpeldor1.getLength() + gsTrumpeldor2.getLength();
+		show("positionAt() is the start at 0, the end at the length, and clamps.",
+			mRoute.positionAt(0).equals(mRoute.getStart()) &&
+			mRoute.positionAt(mRoute.getLength()).equals(mRoute.getEnd()) &&
+			mRoute.positionAt(-1).equals(mRoute.getStart()) &&
+			mRoute.positionAt(mRoute.getLength() + 1).equals(mRoute.getEnd()));
+		GeoPoint middle = mRoute.positionAt(hankin / 2);
+		show("positionAt() interpolates along a segment.",
+			same(gsHankin.getP1().distanceTo(middle), hankin / 2) &&
+			same(middle.distanceTo(gsHankin.getP2()), hankin / 2) &&
+			mRoute.positionAt(hankin).equals(gsTrumpeldor1.getP1()));
+		show("segmentIndexAt() puts a joint in the later segment.",
+			mRoute.segmentIndexAt(0) == 0 && mRoute.segmentIndexAt(hankin / 2) == 0 &&
+			mRoute.segmentIndexAt(hankin) == 1 && mRoute.segmentIndexAt(mRoute.getLength()) == 3);
+		show("remainingLength() is the length from a segment to the end.",
+			mRoute.remainingLength(0) == mRoute.getLength() &&
+			same(mRoute.remainingLength(1), mRoute.getLength() - hankin) &&
+			same(mRoute.remainingLength(3), gsHaGalil.getLength()));
+		boolean outOfRange = false;
+		try {
+			mRoute.remainingLength(4);
+		} catch (IndexOutOfBoundsException e) {
+			outOfRange = true;
+		}
+		show("remainingLength() rejects an index past the last segment.", outOfRange);
+		show("featureAt() finds the feature of a distance.",
+			mRoute.featureAt(hankin / 2).getName().equals("Hankin Road") &&
+			mRoute.featureAt(hankin).getName().equals("Trumpeldor Avenue") &&
+			mRoute.featureAt((hankin + trumpeldor) / 2).getName().equals("Trumpeldor Avenue") &&
+			mRoute.featureAt(mRoute.getLength()).getName().equals("HaGalil") &&
+			mRoute.featureAt(trumpeldor).getLength() == gsHaGalil.getLength());
+		show("Extending a queried route does not change its answers.",
+			extended.remainingLength(0) == extended.getLength() &&
+			extended.addSegment(gsHaGalil).positionAt(extended.getLength() + 1).equals(gsHaGalil.getP2()) &&
+			extended.positionAt(extended.getLength() + 1).equals(gsTrumpeldor2.getP2()));
+
+		show("RepCheck");
+		RepCheck.Level level = RepCheck.getLevel();
+		RepCheck.setLevel(RepCheck.Level.CONSTRUCTION_ONLY);
+		RepCheck.resetCounters(Route.class);
+		mRoute.getLength();
+		show("Getters do not check the rep at CONSTRUCTION_ONLY.",
+			RepCheck.getCheckCount(Route.class) == 0);
+		mRoute.addSegment(gsHaGalil.reverse());
+		show("Appending checks the appended segment.",
+			RepCheck.getCheckCount(Route.class) == 1);
+		RepCheck.setLevel(RepCheck.Level.FULL);
+		RepCheck.resetCounters(Route.class);
+		mRoute.getLength();
+		show("Getters check the rep at FULL.",
+			RepCheck.getCheckCount(Route.class) == 1);
+		RepCheck.setLevel(RepCheck.Level.OFF);
+		RepCheck.resetCounters(Route.class);
+		mRoute.addSegment(gsHaGalil.reverse());
+		show("Nothing is checked when OFF.",
+			RepCheck.getCheckCount(Route.class) == 0);
+		RepCheck.setLevel(level);
+	}
+
+
+	private double sumFeatureLengths(Route route) {
+		double length = 0;
+		Iterator<GeoFeature> iter = route.getGeoFeatures();
+		while (iter.hasNext()) {
+			length += iter.next().getLength();
+		}
+		return length;
+	}
+
+
+	public static void main(String[] args) {
+		//the RepCheck checks count, so turn on the counters before RepCheck is loaded
+		System.setProperty(RepCheck.STATS_PROPERTY, "true");
+		RouteTest routeTest = new RouteTest();
+		routeTest.test();
+	}
+}
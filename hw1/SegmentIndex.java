@@ -0,0 +1,451 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A SegmentIndex finds the segments of a SegmentStore near a point or in a
+ * box without looking at all of them. SegmentIndexes are immutable, so
+ * one can be shared between threads.
+ * <p>
+ * The index is a uniform grid over the bounding box of the segments, keyed
+ * by the millionth-degree coordinates of GeoPoint: cell (row, column)
+ * covers the latitudes minLatitude + row * cellLatitude and up, and the
+ * longitudes minLongitude + column * cellLongitude and up. Cells are about
+ * square on the ground and about as large as an average segment, so a
+ * segment lies in a few cells and a cell holds a few segments. Every
+ * segment is listed in all the cells its bounding box overlaps, in one
+ * compressed array of cell lists.
+ * <p>
+ * A nearest query scans rings of cells around the point, nearest ring
+ * first, and stops as soon as no unscanned cell can hold a segment closer
+ * than the ones found. Distances use the flat-surface, near the Technion
+ * approximation of GeoPoint.distanceTo.
+ * <p>
+ * A SegmentIndex covers the segments that were in its SegmentStore when it
+ * was built. Segments added to the store later are not indexed.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   segments : SegmentStore  // the store indexed
+ *   size : int               // the number of segments indexed, the first ones
+ *                            // of segments
+ * </pre>
+ */
+public final class SegmentIndex {
+
+	private static final double KM_PER_MILLIONTH_LATITUDE = GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000;
+	private static final double KM_PER_MILLIONTH_LONGITUDE = GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000;
+
+	private final SegmentStore segments;
+	private final int size;
+
+	private final int minLatitude;
+	private final int minLongitude;
+	private final int cellLatitude;
+	private final int cellLongitude;
+	private final int rows;
+	private final int columns;
+	private final int[] cellFirsts;
+	private final int[] cellSegments;
+
+	//Abstraction Function:
+	//an index of segments 0..size-1 of this.segments, where the segments in
+	//cell (row, column) are cellSegments[cellFirsts[c]..cellFirsts[c+1]-1],
+	//c = row * columns + column
+
+	//Rep Invariant:
+	//segments != null && 0 <= size <= segments.size()
+	//rows, columns, cellLatitude, cellLongitude >= 1
+	//cellFirsts.length = rows * columns + 1, cellFirsts[0] = 0,
+	//cellFirsts is nondecreasing and cellFirsts[rows * columns] = cellSegments.length
+	//every segment i < size is in exactly the cells its bounding box overlaps
+
+
+	/**
+	 * Constructs an index of a SegmentStore.
+	 * @requires segments != null
+	 * @effects constructs a SegmentIndex with this.segments = segments and
+	 *          this.size = segments.size()
+	 */
+	public SegmentIndex(SegmentStore segments) {
+		this.segments = segments;
+		this.size = segments.size();
+
+		int south = Integer.MAX_VALUE, west = Integer.MAX_VALUE;
+		int north = Integer.MIN_VALUE, east = Integer.MIN_VALUE;
+		double totalLength = 0;
+		for (int i = 0; i < size; i++) {
+			south = Math.min(south, Math.min(segments.getLatitude1(i), segments.getLatitude2(i)));
+			north = Math.max(north, Math.max(segments.getLatitude1(i), segments.getLatitude2(i)));
+			west = Math.min(west, Math.min(segments.getLongitude1(i), segments.getLongitude2(i)));
+			east = Math.max(east, Math.max(segments.getLongitude1(i), segments.getLongitude2(i)));
+			totalLength += segments.getLength(i);
+		}
+		if (size == 0) {
+			south = north = west = east = 0;
+		}
+
+		//cells of about one segment's length, but no more than about size of them
+		double heightKm = (north - south) * KM_PER_MILLIONTH_LATITUDE;
+		double widthKm = (east - west) * KM_PER_MILLIONTH_LONGITUDE;
+		int count = Math.max(1, size);
+		double cellKm = Math.max(Math.sqrt(heightKm * widthKm / count),
+				Math.max(totalLength / count, Math.max(heightKm, widthKm) / count));
+		minLatitude = south;
+		minLongitude = west;
+		cellLatitude = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, Math.round(cellKm / KM_PER_MILLIONTH_LATITUDE)));
+		cellLongitude = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, Math.round(cellKm / KM_PER_MILLIONTH_LONGITUDE)));
+		rows = (north - south) / cellLatitude + 1;
+		columns = (east - west) / cellLongitude + 1;
+
+		//count the segments of every cell, then fill the cell lists
+		int cellCount = rows * columns;
+		cellFirsts = new int[cellCount + 1];
+		for (int i = 0; i < size; i++) {
+			int row1 = rowOf(Math.min(segments.getLatitude1(i), segments.getLatitude2(i)));
+			int row2 = rowOf(Math.max(segments.getLatitude1(i), segments.getLatitude2(i)));
+			int column1 = columnOf(Math.min(segments.getLongitude1(i), segments.getLongitude2(i)));
+			int column2 = columnOf(Math.max(segments.getLongitude1(i), segments.getLongitude2(i)));
+			for (int row = row1; row <= row2; row++) {
+				for (int column = column1; column <= column2; column++) {
+					cellFirsts[row * columns + column + 1]++;
+				}
+			}
+		}
+		for (int c = 0; c < cellCount; c++) {
+			cellFirsts[c + 1] += cellFirsts[c];
+		}
+		int[] next = Arrays.copyOf(cellFirsts, cellCount);
+		cellSegments = new int[cellFirsts[cellCount]];
+		for (int i = 0; i < size; i++) {
+			int row1 = rowOf(Math.min(segments.getLatitude1(i), segments.getLatitude2(i)));
+			int row2 = rowOf(Math.max(segments.getLatitude1(i), segments.getLatitude2(i)));
+			int column1 = columnOf(Math.min(segments.getLongitude1(i), segments.getLongitude2(i)));
+			int column2 = columnOf(Math.max(segments.getLongitude1(i), segments.getLongitude2(i)));
+			for (int row = row1; row <= row2; row++) {
+				for (int column = column1; column <= column2; column++) {
+					cellSegments[next[row * columns + column]++] = i;
+				}
+			}
+		}
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//linear in the number of cells and cell entries
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (segments == null || size < 0 || size > segments.size()) {
+			throw new RuntimeException("the index must cover segments of its store");
+		}
+		if (rows < 1 || columns < 1 || cellLatitude < 1 || cellLongitude < 1
+				|| cellFirsts.length != rows * columns + 1 || cellFirsts[0] != 0
+				|| cellFirsts[rows * columns] != cellSegments.length) {
+			throw new RuntimeException("the grid must have rows * columns cell lists");
+		}
+		for (int c = 0; c < rows * columns; c++) {
+			if (cellFirsts[c] > cellFirsts[c + 1]) {
+				throw new RuntimeException("cell lists must be in order");
+			}
+		}
+		for (int segment : cellSegments) {
+			if (segment < 0 || segment >= size) {
+				throw new RuntimeException("cells must list indexed segments");
+			}
+		}
+		RepCheck.record(SegmentIndex.class, start);
+	}
+
+
+	//the row of the cells holding a latitude, clamped to the grid
+	private int rowOf(int latitude) {
+		long row = ((long) latitude - minLatitude) / cellLatitude;
+		return (int) Math.max(0, Math.min(rows - 1, row));
+	}
+
+
+	//the column of the cells holding a longitude, clamped to the grid
+	private int columnOf(int longitude) {
+		long column = ((long) longitude - minLongitude) / cellLongitude;
+		return (int) Math.max(0, Math.min(columns - 1, column));
+	}
+
+
+	/**
+	 * Returns the store indexed.
+	 * @return this.segments
+	 */
+	public SegmentStore getSegments() {
+		return segments;
+	}
+
+
+	/**
+	 * Returns the number of segments indexed.
+	 * @return this.size
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Finds the segment closest to a point.
+	 * @requires point != null
+	 * @return a SegmentMatch m of a segment i < this.size at the smallest
+	 *         distance from point, the one with the smallest index among
+	 *         equally close segments, or null if this.size = 0.
+	 */
+	public SegmentMatch nearest(GeoPoint point) {
+		List<SegmentMatch> matches = nearest(point, 1);
+		return matches.isEmpty() ? null : matches.get(0);
+	}
+
+
+	/**
+	 * Finds the segments closest to a point.
+	 * @requires point != null && k >= 0
+	 * @return the SegmentMatches of the min(k, this.size) segments closest
+	 *         to point, nearest first; equally close segments are ordered by
+	 *         index.
+	 */
+	public List<SegmentMatch> nearest(GeoPoint point, int k) {
+		int latitude = point.getLatitude();
+		int longitude = point.getLongitude();
+		k = Math.min(k, size);
+		//the best k so far, ordered by (squared distance, index)
+		int[] best = new int[k];
+		double[] bestDistances = new double[k];
+		int found = 0;
+		if (k == 0) {
+			return new ArrayList<>();
+		}
+
+		int centerRow = rowOf(latitude);
+		int centerColumn = columnOf(longitude);
+		for (int ring = 0; ; ring++) {
+			int row1 = centerRow - ring, row2 = centerRow + ring;
+			int column1 = centerColumn - ring, column2 = centerColumn + ring;
+			for (int row = Math.max(0, row1); row <= Math.min(rows - 1, row2); row++) {
+				boolean edgeRow = row == row1 || row == row2;
+				int step = edgeRow ? 1 : column2 - column1;
+				for (int column = column1; column <= column2; column += Math.max(1, step)) {
+					if (column < 0 || column >= columns) {
+						continue;
+					}
+					int cell = row * columns + column;
+					for (int s = cellFirsts[cell]; s < cellFirsts[cell + 1]; s++) {
+						int segment = cellSegments[s];
+						double distance = squaredDistance(segment, latitude, longitude);
+						found = insert(best, bestDistances, found, segment, distance);
+					}
+				}
+			}
+			//the closest an unscanned cell can be
+			double bound = Double.POSITIVE_INFINITY;
+			if (row1 > 0) {
+				bound = Math.min(bound, (latitude - (minLatitude + (long) row1 * cellLatitude)) * KM_PER_MILLIONTH_LATITUDE);
+			}
+			if (row2 < rows - 1) {
+				bound = Math.min(bound, (minLatitude + (long) (row2 + 1) * cellLatitude - latitude) * KM_PER_MILLIONTH_LATITUDE);
+			}
+			if (column1 > 0) {
+				bound = Math.min(bound, (longitude - (minLongitude + (long) column1 * cellLongitude)) * KM_PER_MILLIONTH_LONGITUDE);
+			}
+			if (column2 < columns - 1) {
+				bound = Math.min(bound, (minLongitude + (long) (column2 + 1) * cellLongitude - longitude) * KM_PER_MILLIONTH_LONGITUDE);
+			}
+			if (bound == Double.POSITIVE_INFINITY
+					|| (found == k && bound > 0 && bound * bound > bestDistances[k - 1])) {
+				break;
+			}
+		}
+
+		List<SegmentMatch> matches = new ArrayList<>(found);
+		for (int i = 0; i < found; i++) {
+			matches.add(match(best[i], latitude, longitude));
+		}
+		return matches;
+	}
+
+
+	//adds a segment to the best ones found if it is closer than the last, unless it is
+	//already there, and returns the new number found
+	private static int insert(int[] best, double[] bestDistances, int found, int segment, double distance) {
+		int k = best.length;
+		if (found == k && !closer(distance, segment, bestDistances[k - 1], best[k - 1])) {
+			return found;
+		}
+		for (int i = 0; i < found; i++) {
+			if (best[i] == segment) {
+				return found;
+			}
+		}
+		int i = found < k ? found++ : k - 1;
+		while (i > 0 && closer(distance, segment, bestDistances[i - 1], best[i - 1])) {
+			best[i] = best[i - 1];
+			bestDistances[i] = bestDistances[i - 1];
+			i--;
+		}
+		best[i] = segment;
+		bestDistances[i] = distance;
+		return found;
+	}
+
+
+	private static boolean closer(double distance, int segment, double otherDistance, int other) {
+		return distance < otherDistance || (distance == otherDistance && segment < other);
+	}
+
+
+	//where along a segment, from 0 at p1 to 1 at p2, is the point closest to a point
+	private double fractionAlong(int segment, int latitude, int longitude) {
+		double x1 = (segments.getLongitude1(segment) - longitude) * KM_PER_MILLIONTH_LONGITUDE;
+		double y1 = (segments.getLatitude1(segment) - latitude) * KM_PER_MILLIONTH_LATITUDE;
+		double dx = (segments.getLongitude2(segment) - longitude) * KM_PER_MILLIONTH_LONGITUDE - x1;
+		double dy = (segments.getLatitude2(segment) - latitude) * KM_PER_MILLIONTH_LATITUDE - y1;
+		double squaredLength = dx * dx + dy * dy;
+		if (squaredLength == 0) {
+			return 0;
+		}
+		return Math.max(0, Math.min(1, -(x1 * dx + y1 * dy) / squaredLength));
+	}
+
+
+	//the squared distance from a point to a segment, in square kilometers
+	private double squaredDistance(int segment, int latitude, int longitude) {
+		double t = fractionAlong(segment, latitude, longitude);
+		double x = ((segments.getLongitude1(segment) - longitude)
+				+ t * (segments.getLongitude2(segment) - segments.getLongitude1(segment))) * KM_PER_MILLIONTH_LONGITUDE;
+		double y = ((segments.getLatitude1(segment) - latitude)
+				+ t * (segments.getLatitude2(segment) - segments.getLatitude1(segment))) * KM_PER_MILLIONTH_LATITUDE;
+		return x * x + y * y;
+	}
+
+
+	private SegmentMatch match(int segment, int latitude, int longitude) {
+		double t = fractionAlong(segment, latitude, longitude);
+		int latitude1 = segments.getLatitude1(segment);
+		int longitude1 = segments.getLongitude1(segment);
+		GeoPoint point = new GeoPoint(
+				(int) Math.round(latitude1 + t * (segments.getLatitude2(segment) - latitude1)),
+				(int) Math.round(longitude1 + t * (segments.getLongitude2(segment) - longitude1)));
+		return new SegmentMatch(segment, segments.get(segment), point,
+				Math.sqrt(squaredDistance(segment, latitude, longitude)), t * segments.getLength(segment));
+	}
+
+
+	/**
+	 * Finds the segments in a box.
+	 * @requires minLatitude <= maxLatitude && minLongitude <= maxLongitude
+	 * @return the indices, in increasing order, of the segments i < this.size
+	 *         that have a point in the box of latitudes minLatitude to
+	 *         maxLatitude and longitudes minLongitude to maxLongitude, both
+	 *         inclusive.
+	 */
+	public int[] segmentsIn(int minLatitude, int minLongitude, int maxLatitude, int maxLongitude) {
+		int[] found = new int[16];
+		int count = 0;
+		int row1 = rowOf(minLatitude), row2 = rowOf(maxLatitude);
+		int column1 = columnOf(minLongitude), column2 = columnOf(maxLongitude);
+		for (int row = row1; row <= row2; row++) {
+			for (int column = column1; column <= column2; column++) {
+				int cell = row * columns + column;
+				for (int s = cellFirsts[cell]; s < cellFirsts[cell + 1]; s++) {
+					int segment = cellSegments[s];
+					int latitude1 = segments.getLatitude1(segment), latitude2 = segments.getLatitude2(segment);
+					int longitude1 = segments.getLongitude1(segment), longitude2 = segments.getLongitude2(segment);
+					//a segment in several cells is reported by the one holding the
+					//south-west corner of where its bounding box and the box meet
+					int cornerLatitude = Math.max(minLatitude, Math.min(latitude1, latitude2));
+					int cornerLongitude = Math.max(minLongitude, Math.min(longitude1, longitude2));
+					if (rowOf(cornerLatitude) != row || columnOf(cornerLongitude) != column
+							|| !crossesBox(latitude1, longitude1, latitude2, longitude2,
+									minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+						continue;
+					}
+					if (count == found.length) {
+						found = Arrays.copyOf(found, 2 * count);
+					}
+					found[count++] = segment;
+				}
+			}
+		}
+		int[] result = Arrays.copyOf(found, count);
+		Arrays.sort(result);
+		return result;
+	}
+
+
+	/**
+	 * Finds the segments within a distance of a point.
+	 * @requires point != null && radius >= 0
+	 * @return the indices, in increasing order, of the segments i < this.size
+	 *         whose distance from point is at most radius kilometers.
+	 */
+	public int[] segmentsNear(GeoPoint point, double radius) {
+		int latitude = point.getLatitude();
+		int longitude = point.getLongitude();
+		long latitudeRadius = (long) Math.ceil(radius / KM_PER_MILLIONTH_LATITUDE);
+		long longitudeRadius = (long) Math.ceil(radius / KM_PER_MILLIONTH_LONGITUDE);
+		int[] inBox = segmentsIn((int) Math.max(Integer.MIN_VALUE, latitude - latitudeRadius),
+				(int) Math.max(Integer.MIN_VALUE, longitude - longitudeRadius),
+				(int) Math.min(Integer.MAX_VALUE, latitude + latitudeRadius),
+				(int) Math.min(Integer.MAX_VALUE, longitude + longitudeRadius));
+		int count = 0;
+		for (int segment : inBox) {
+			if (squaredDistance(segment, latitude, longitude) <= radius * radius) {
+				inBox[count++] = segment;
+			}
+		}
+		return Arrays.copyOf(inBox, count);
+	}
+
+
+	//the distance from a point to a segment, in kilometers
+	double distance(int segment, GeoPoint point) {
+		return Math.sqrt(squaredDistance(segment, point.getLatitude(), point.getLongitude()));
+	}
+
+
+	//the distance from p1 of a segment to its point closest to a point, in kilometers
+	double offset(int segment, GeoPoint point) {
+		return fractionAlong(segment, point.getLatitude(), point.getLongitude()) * segments.getLength(segment);
+	}
+
+
+	//whether the segment from (y1, x1) to (y2, x2) has a point in the box
+	private static boolean crossesBox(int y1, int x1, int y2, int x2,
+			int minY, int minX, int maxY, int maxX) {
+		if (Math.max(y1, y2) < minY || Math.min(y1, y2) > maxY
+				|| Math.max(x1, x2) < minX || Math.min(x1, x2) > maxX) {
+			return false;
+		}
+		//the bounding boxes meet, so the segment misses the box only if all four
+		//corners are strictly on the same side of its line
+		long dy = (long) y2 - y1, dx = (long) x2 - x1;
+		long a = side(dy, dx, minY - (long) y1, minX - (long) x1);
+		long b = side(dy, dx, minY - (long) y1, maxX - (long) x1);
+		long c = side(dy, dx, maxY - (long) y1, minX - (long) x1);
+		long d = side(dy, dx, maxY - (long) y1, maxX - (long) x1);
+		return !((a > 0 && b > 0 && c > 0 && d > 0) || (a < 0 && b < 0 && c < 0 && d < 0));
+	}
+
+
+	private static long side(long dy, long dx, long y, long x) {
+		return Long.signum(dx * y - dy * x);
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "SegmentIndex[" + size + " segments in " + rows + " x " + columns + " cells]";
+	}
+}
@@ -0,0 +1,215 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class SegmentIndexTest {
+
+	private SegmentStore mExample;
+	private SegmentStore mCity;
+
+
+	public SegmentIndexTest() {
+		mExample = new SegmentStore(ExampleGeoSegments.segments);
+		mCity = ContractionHierarchyTest.city(30, new Random(7));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//the distance from a point to a segment, by sampling the segment densely and
+	//refining around the closest sample
+	private static double distanceTo(GeoSegment segment, double latitude, double longitude) {
+		double best = Double.POSITIVE_INFINITY;
+		double low = 0, high = 1;
+		for (int round = 0; round < 6; round++) {
+			double bestT = low;
+			for (int i = 0; i <= 100; i++) {
+				double t = low + (high - low) * i / 100;
+				double d = distance(segment, t, latitude, longitude);
+				if (d < best) {
+					best = d;
+					bestT = t;
+				}
+			}
+			double width = (high - low) / 100;
+			low = Math.max(0, bestT - width);
+			high = Math.min(1, bestT + width);
+		}
+		return best;
+	}
+
+
+	private static double distance(GeoSegment segment, double t, double latitude, double longitude) {
+		double pointLatitude = segment.getP1().getLatitude()
+			+ t * (segment.getP2().getLatitude() - segment.getP1().getLatitude());
+		double pointLongitude = segment.getP1().getLongitude()
+			+ t * (segment.getP2().getLongitude() - segment.getP1().getLongitude());
+		double y = (pointLatitude - latitude) * GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000;
+		double x = (pointLongitude - longitude) * GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000;
+		return Math.sqrt(x * x + y * y);
+	}
+
+
+	//whether the k nearest matches of random points near the segments are as close as
+	//the k closest segments found by looking at all of them
+	private boolean sameAsScan(SegmentStore store, int k, int points, Random random) {
+		SegmentIndex index = new SegmentIndex(store);
+		int south = Integer.MAX_VALUE, north = Integer.MIN_VALUE;
+		int west = Integer.MAX_VALUE, east = Integer.MIN_VALUE;
+		for (int i = 0; i < store.size(); i++) {
+			south = Math.min(south, Math.min(store.getLatitude1(i), store.getLatitude2(i)));
+			north = Math.max(north, Math.max(store.getLatitude1(i), store.getLatitude2(i)));
+			west = Math.min(west, Math.min(store.getLongitude1(i), store.getLongitude2(i)));
+			east = Math.max(east, Math.max(store.getLongitude1(i), store.getLongitude2(i)));
+		}
+		for (int p = 0; p < points; p++) {
+			//some points are outside the segments' bounding box
+			int latitude = south - (north - south) / 4 + random.nextInt((north - south) * 3 / 2 + 1);
+			int longitude = west - (east - west) / 4 + random.nextInt((east - west) * 3 / 2 + 1);
+			double[] all = new double[store.size()];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = distanceTo(store.get(i), latitude, longitude);
+			}
+			Arrays.sort(all);
+			List<SegmentMatch> matches = index.nearest(new GeoPoint(latitude, longitude), k);
+			if (matches.size() != Math.min(k, all.length)) {
+				return false;
+			}
+			for (int i = 0; i < matches.size(); i++) {
+				SegmentMatch match = matches.get(i);
+				if (Math.abs(match.getDistance() - all[i]) > 1e-6
+						|| !match.getSegment().equals(store.get(match.getSegmentIndex()))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	//whether segmentsIn finds the segments that have a sampled point in random boxes,
+	//and only segments whose bounding box meets the box
+	private boolean boxesSameAsScan(SegmentStore store, Random random) {
+		SegmentIndex index = new SegmentIndex(store);
+		for (int b = 0; b < 200; b++) {
+			GeoSegment any = store.get(random.nextInt(store.size()));
+			int minLatitude = any.getP1().getLatitude() - random.nextInt(3000);
+			int minLongitude = any.getP1().getLongitude() - random.nextInt(3000);
+			int maxLatitude = minLatitude + random.nextInt(4000);
+			int maxLongitude = minLongitude + random.nextInt(4000);
+			boolean[] in = new boolean[store.size()];
+			for (int segment : index.segmentsIn(minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+				if (in[segment]) {
+					return false;
+				}
+				in[segment] = true;
+			}
+			for (int i = 0; i < store.size(); i++) {
+				boolean boxesMeet = Math.max(store.getLatitude1(i), store.getLatitude2(i)) >= minLatitude
+					&& Math.min(store.getLatitude1(i), store.getLatitude2(i)) <= maxLatitude
+					&& Math.max(store.getLongitude1(i), store.getLongitude2(i)) >= minLongitude
+					&& Math.min(store.getLongitude1(i), store.getLongitude2(i)) <= maxLongitude;
+				boolean sampled = false;
+				for (int s = 0; s <= 1000 && !sampled; s++) {
+					double latitude = store.getLatitude1(i) + (store.getLatitude2(i) - store.getLatitude1(i)) * s / 1000.0;
+					double longitude = store.getLongitude1(i) + (store.getLongitude2(i) - store.getLongitude1(i)) * s / 1000.0;
+					sampled = latitude >= minLatitude && latitude <= maxLatitude
+						&& longitude >= minLongitude && longitude <= maxLongitude;
+				}
+				if ((sampled && !in[i]) || (in[i] && !boxesMeet)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	//whether segmentsNear finds the segments within the radius of random points, and no others
+	private boolean nearSameAsScan(SegmentStore store, Random random) {
+		SegmentIndex index = new SegmentIndex(store);
+		for (int p = 0; p < 100; p++) {
+			GeoSegment any = store.get(random.nextInt(store.size()));
+			int latitude = any.getP1().getLatitude() - 1500 + random.nextInt(3000);
+			int longitude = any.getP1().getLongitude() - 1500 + random.nextInt(3000);
+			double radius = random.nextDouble() * 0.3;
+			int[] near = index.segmentsNear(new GeoPoint(latitude, longitude), radius);
+			for (int i = 1; i < near.length; i++) {
+				if (near[i - 1] >= near[i]) {
+					return false;
+				}
+			}
+			for (int i = 0; i < store.size(); i++) {
+				double distance = distanceTo(store.get(i), latitude, longitude);
+				boolean found = Arrays.binarySearch(near, i) >= 0;
+				if ((found && distance > radius + 1e-6) || (!found && distance < radius - 1e-6)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		Random random = new Random(5);
+
+		show("nearest()");
+		show("Example nearest segments are the closest ones.", sameAsScan(mExample, 1, 300, random));
+		show("City nearest segments are the closest ones.", sameAsScan(mCity, 1, 300, random));
+		show("City 10 nearest segments are the 10 closest ones, in order.", sameAsScan(mCity, 10, 200, random));
+		show("Asking for more segments than indexed returns them all.", sameAsScan(mExample, 1000, 20, random));
+
+		SegmentIndex index = new SegmentIndex(mExample);
+		GeoSegment segment = ExampleGeoSegments.segments[0];
+		GeoPoint p1 = segment.getP1();
+		GeoPoint p2 = segment.getP2();
+		GeoPoint middle = new GeoPoint((p1.getLatitude() + p2.getLatitude()) / 2,
+			(p1.getLongitude() + p2.getLongitude()) / 2);
+		SegmentMatch match = index.nearest(middle);
+		show("A point on a segment matches it at distance 0.",
+			match.getSegment().equals(segment) && match.getDistance() < 1e-3);
+		show("Its offset is the distance along the segment.",
+			Math.abs(match.getOffset() - p1.distanceTo(middle)) < 1e-3);
+		show("Its projected point is the point itself.", match.getPoint().equals(middle));
+		match = index.nearest(p1);
+		show("An endpoint matches at offset 0 or the full length.",
+			match.getDistance() == 0 && (match.getOffset() == 0
+				|| Math.abs(match.getOffset() - match.getSegment().getLength()) < 1e-12));
+		show("An empty index has no nearest segment.",
+			new SegmentIndex(new SegmentStore()).nearest(p1) == null
+			&& new SegmentIndex(new SegmentStore()).nearest(p1, 3).isEmpty());
+
+		show("segmentsIn()");
+		show("Example boxes hold the segments that pass through them.", boxesSameAsScan(mExample, random));
+		show("City boxes hold the segments that pass through them.", boxesSameAsScan(mCity, random));
+
+		show("segmentsNear()");
+		show("City segments near a point are the ones within the radius.", nearSameAsScan(mCity, random));
+		show("A radius of a meter finds the segment through the point.",
+			Arrays.binarySearch(index.segmentsNear(middle, 0.001), 0) >= 0);
+		show("An empty index has no segments near a point.",
+			new SegmentIndex(new SegmentStore()).segmentsNear(p1, 1).length == 0);
+	}
+
+
+	public static void main(String[] args) {
+		SegmentIndexTest indexTest = new SegmentIndexTest();
+		indexTest.test();
+	}
+}
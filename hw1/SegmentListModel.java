@@ -0,0 +1,368 @@
+package homework1;
+
+import java.util.Arrays;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.ListSelectionModel;
+import javax.swing.text.Position;
+
+/**
+ * A SegmentListModel is a ListModel that shows the segments of a
+ * SegmentStore without copying them: a row's GeoSegment is created when
+ * the list asks for it, which a JList with a fixed cell size (see
+ * <tt>newList</tt>) only does for the rows on screen. Opening a list of a
+ * million segments therefore costs nothing per segment.
+ * <p>
+ * The rows can be filtered to the segments whose names start with a
+ * prefix, ignoring case. Filtering and type-ahead use an index of the
+ * segments sorted by name, built on first use in linear time, so a
+ * keystroke costs a binary search over the names instead of a scan over
+ * the segments. The filtered rows are in the order of their names, and
+ * of the segments for equal names.
+ * <p>
+ * A SegmentListModel must be used on the Swing event thread, like the
+ * JList that shows it.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   store : SegmentStore    // the segments shown
+ *   filter : String         // the prefix of the names shown, "" for all
+ *   rows : sequence         // the indices in store of the segments shown
+ * </pre>
+ */
+public class SegmentListModel extends AbstractListModel<GeoSegment> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final SegmentStore store;
+	private int size;
+	private String filter = "";
+	private int filterFrom;
+	private int filterTo;
+
+	//the name index, null until a filter or type-ahead needs it: the name ids sorted by
+	//name ignoring case, and the segments sorted by the rank of their names in that order
+	//(then by index), with the first of each rank
+	private int[] nameOrder;
+	private int[] byName;
+	private int[] rankFirsts;
+
+	//Abstraction Function:
+	//rows = [0, ..., size-1] if filter = "", otherwise byName[filterFrom..filterTo-1]
+
+	//Rep Invariant:
+	//store != null && filter != null && 0 <= size <= store.size()
+	//filter != "" => byName != null && 0 <= filterFrom <= filterTo <= size and
+	//byName[filterFrom..filterTo-1] are the segments whose names start with filter
+	//byName != null => byName is a permutation of [0, ..., size-1]
+
+
+	/**
+	 * Constructs a model of all the segments of a store.
+	 * @requires store != null
+	 * @effects constructs a SegmentListModel with this.store = store and
+	 *          this.filter = "".
+	 */
+	public SegmentListModel(SegmentStore store) {
+		this.store = store;
+		this.size = store.size();
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	//constant time
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (store == null || filter == null || size < 0 || size > store.size()) {
+			throw new RuntimeException("the model must show segments of its store");
+		}
+		if (!filter.isEmpty() && (byName == null || filterFrom < 0 || filterFrom > filterTo || filterTo > size)) {
+			throw new RuntimeException("a filter must be a range of the name index");
+		}
+		if (byName != null && byName.length != size) {
+			throw new RuntimeException("the name index must hold every segment");
+		}
+		RepCheck.record(SegmentListModel.class, start);
+	}
+
+
+	/**
+	 * Creates a JList that shows this model. The list has a fixed cell size,
+	 * that of a segment with the longest name of the store, so it renders
+	 * only the rows on screen; and its type-ahead finds the next segment
+	 * whose name starts with the typed prefix with the name index instead
+	 * of a scan.
+	 * @return a new single-selection JList of this model.
+	 */
+	public JList<GeoSegment> newList() {
+		JList<GeoSegment> list = new JList<GeoSegment>(this) {
+			private static final long serialVersionUID = 1L;
+
+			public int getNextMatch(String prefix, int startIndex, Position.Bias bias) {
+				return nextMatch(prefix, startIndex, bias == Position.Bias.Backward);
+			}
+		};
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		//fixes the cell width and height, so the list never measures the other rows; the
+		//width is at least that of a 20 character name, for a store that is still empty
+		String longest = "MMMMMMMMMMMMMMMMMMMM";
+		for (int id = 0; id < store.getNameCount(); id++) {
+			if (store.getNameById(id).length() > longest.length()) {
+				longest = store.getNameById(id);
+			}
+		}
+		GeoPoint widest = new GeoPoint(GeoPoint.MIN_LATITUDE, GeoPoint.MIN_LONGITUDE);
+		list.setPrototypeCellValue(new GeoSegment(longest + "    ", widest, widest));
+		return list;
+	}
+
+
+	/**
+	 * Returns the number of rows.
+	 * @return |this.rows|
+	 */
+	public int getSize() {
+		return filter.isEmpty() ? size : filterTo - filterFrom;
+	}
+
+
+	/**
+	 * Returns the segment of a row.
+	 * @requires 0 <= row < getSize()
+	 * @return a new GeoSegment equal to this.store.segments[rows[row]].
+	 */
+	public GeoSegment getElementAt(int row) {
+		return store.get(getSegmentIndex(row));
+	}
+
+
+	/**
+	 * Returns the index in the store of the segment of a row.
+	 * @requires 0 <= row < getSize()
+	 * @return this.rows[row]
+	 */
+	public int getSegmentIndex(int row) {
+		if (row < 0 || row >= getSize()) {
+			throw new IndexOutOfBoundsException("row " + row + " out of range for size " + getSize());
+		}
+		return filter.isEmpty() ? row : byName[filterFrom + row];
+	}
+
+
+	/**
+	 * Returns the filter of this.
+	 * @return this.filter
+	 */
+	public String getFilter() {
+		return filter;
+	}
+
+
+	/**
+	 * Shows only the segments whose names start with a prefix.
+	 * @requires prefix != null
+	 * @modifies this
+	 * @effects this.filter = prefix, and this.rows are the indices of the
+	 *          segments of this.store whose names start with prefix,
+	 *          ignoring case (all of them if prefix = ""), in the order of
+	 *          their names and then of their indices. Notifies the
+	 *          listeners of the change.
+	 */
+	public void setFilter(String prefix) {
+		int oldSize = getSize();
+		filter = prefix;
+		if (!prefix.isEmpty()) {
+			buildIndex();
+			filterFrom = rankFirsts[rankBound(prefix, false)];
+			filterTo = rankFirsts[rankBound(prefix, true)];
+		}
+		if (RepCheck.onAccess()) {
+			checkRep();
+		}
+		fireChanged(oldSize, getSize());
+	}
+
+
+	/**
+	 * Shows the segments appended to the store since this was constructed
+	 * or last refreshed.
+	 * @modifies this
+	 * @effects this.rows are those of this.filter over all the segments of
+	 *          this.store. Notifies the listeners of the change.
+	 */
+	public void refresh() {
+		if (size == store.size()) {
+			return;
+		}
+		int oldSize = getSize();
+		size = store.size();
+		nameOrder = null;
+		byName = null;
+		rankFirsts = null;
+		if (filter.isEmpty()) {
+			fireIntervalAdded(this, oldSize, size - 1);
+		} else {
+			setFilter(filter);
+		}
+	}
+
+
+	/**
+	 * Finds the next row of a segment whose name starts with a prefix, the
+	 * way JList.getNextMatch does for type-ahead, but with the name index.
+	 * @requires prefix != null && 0 <= startRow < getSize()
+	 * @return the first row at or after startRow (at or before it, if
+	 *         backward) whose segment's name starts with prefix, ignoring
+	 *         case, wrapping around the rows; or -1 if there is none.
+	 */
+	public int nextMatch(String prefix, int startRow, boolean backward) {
+		if (prefix.isEmpty() || getSize() == 0) {
+			return -1;
+		}
+		buildIndex();
+		int low = rankBound(prefix, false);
+		int high = rankBound(prefix, true);
+		if (!filter.isEmpty()) {
+			//the rows are sorted by name, so the matching ones are a range of them
+			int first = Math.max(rankFirsts[low], filterFrom) - filterFrom;
+			int end = Math.min(rankFirsts[high], filterTo) - filterFrom;
+			if (first >= end) {
+				return -1;
+			}
+			if (startRow >= first && startRow < end) {
+				return startRow;
+			}
+			return backward ? end - 1 : first;
+		}
+		//the rows are the segment indices, so search the segments of each matching name
+		int best = -1;
+		int wrapped = -1;
+		for (int rank = low; rank < high; rank++) {
+			int from = rankFirsts[rank];
+			int to = rankFirsts[rank + 1];
+			if (from == to) {
+				continue;
+			}
+			if (backward) {
+				int i = upperBound(byName, from, to, startRow) - 1;
+				if (i >= from) {
+					best = Math.max(best, byName[i]);
+				}
+				wrapped = Math.max(wrapped, byName[to - 1]);
+			} else {
+				int i = upperBound(byName, from, to, startRow - 1);
+				if (i < to && (best < 0 || byName[i] < best)) {
+					best = byName[i];
+				}
+				if (wrapped < 0 || byName[from] < wrapped) {
+					wrapped = byName[from];
+				}
+			}
+		}
+		return best >= 0 ? best : wrapped;
+	}
+
+
+	//the first position in a[from..to-1], which is sorted, whose value is greater than value
+	private static int upperBound(int[] a, int from, int to, int value) {
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (a[middle] <= value) {
+				from = middle + 1;
+			} else {
+				to = middle;
+			}
+		}
+		return from;
+	}
+
+
+	//the first rank whose name is not before the names starting with prefix, or (if after)
+	//the first rank whose name is after them
+	private int rankBound(String prefix, boolean after) {
+		int low = 0;
+		int high = nameOrder.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int c = comparePrefix(store.getNameById(nameOrder[middle]), prefix);
+			if (c < 0 || (after && c == 0)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+
+	//compares the start of name with prefix the way String.CASE_INSENSITIVE_ORDER compares
+	//strings, so that the names starting with prefix are a range of the sorted names
+	private static int comparePrefix(String name, String prefix) {
+		int length = Math.min(name.length(), prefix.length());
+		for (int i = 0; i < length; i++) {
+			char c1 = name.charAt(i);
+			char c2 = prefix.charAt(i);
+			if (c1 != c2) {
+				c1 = Character.toUpperCase(c1);
+				c2 = Character.toUpperCase(c2);
+				if (c1 != c2) {
+					c1 = Character.toLowerCase(c1);
+					c2 = Character.toLowerCase(c2);
+					if (c1 != c2) {
+						return c1 - c2;
+					}
+				}
+			}
+		}
+		return name.length() < prefix.length() ? -1 : 0;
+	}
+
+
+	//sorts the names, then the segments by name with a counting sort
+	private void buildIndex() {
+		if (byName != null) {
+			return;
+		}
+		int nameCount = store.getNameCount();
+		Integer[] sorted = new Integer[nameCount];
+		for (int id = 0; id < nameCount; id++) {
+			sorted[id] = id;
+		}
+		Arrays.sort(sorted, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(
+				store.getNameById(a), store.getNameById(b)));
+		nameOrder = new int[nameCount];
+		int[] nameRanks = new int[nameCount];
+		for (int rank = 0; rank < nameCount; rank++) {
+			nameOrder[rank] = sorted[rank];
+			nameRanks[sorted[rank]] = rank;
+		}
+		rankFirsts = new int[nameCount + 1];
+		for (int i = 0; i < size; i++) {
+			rankFirsts[nameRanks[store.getNameId(i)] + 1]++;
+		}
+		for (int rank = 0; rank < nameCount; rank++) {
+			rankFirsts[rank + 1] += rankFirsts[rank];
+		}
+		int[] next = Arrays.copyOf(rankFirsts, nameCount);
+		byName = new int[size];
+		for (int i = 0; i < size; i++) {
+			byName[next[nameRanks[store.getNameId(i)]]++] = i;
+		}
+	}
+
+
+	//tells the listeners that the rows changed from oldSize rows to newSize rows
+	private void fireChanged(int oldSize, int newSize) {
+		if (newSize < oldSize) {
+			fireIntervalRemoved(this, newSize, oldSize - 1);
+		} else if (newSize > oldSize) {
+			fireIntervalAdded(this, oldSize, newSize - 1);
+		}
+		if (Math.min(oldSize, newSize) > 0) {
+			fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.swing.JList;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.text.Position;
+
+public class SegmentListModelTest {
+
+	private static final String[] NAMES = {"Herzl", "herzliya", "HaGalil", "Hankin Road", "Hanita",
+		"Jabotinsky", "jaffa", "Trumpeldor Avenue", "", "Khanita", "HERZL", "Ha"};
+
+	private SegmentStore mStore;
+
+
+	public SegmentListModelTest() {
+		Random random = new Random(3);
+		mStore = new SegmentStore();
+		for (int i = 0; i < 2000; i++) {
+			int latitude = 32700000 + random.nextInt(100000);
+			int longitude = 35000000 + random.nextInt(100000);
+			mStore.add(NAMES[random.nextInt(NAMES.length)], latitude, longitude, latitude + 100, longitude + 100);
+		}
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private static boolean matches(String name, String prefix) {
+		return name.regionMatches(true, 0, prefix, 0, prefix.length());
+	}
+
+
+	//the rows of model, as store indices
+	private static int[] rows(SegmentListModel model) {
+		int[] rows = new int[model.getSize()];
+		for (int row = 0; row < rows.length; row++) {
+			rows[row] = model.getSegmentIndex(row);
+		}
+		return rows;
+	}
+
+
+	//the number of segments whose names start with prefix
+	private int count(String prefix) {
+		int count = 0;
+		for (int i = 0; i < mStore.size(); i++) {
+			if (matches(mStore.getName(i), prefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	//the row getNextMatch should find, by scanning the rows
+	private static int scanMatch(SegmentStore store, int[] rows, String prefix, int start, boolean backward) {
+		for (int k = 0; k < rows.length; k++) {
+			int row = backward ? Math.floorMod(start - k, rows.length) : (start + k) % rows.length;
+			if (matches(store.getName(rows[row]), prefix)) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+
+	private boolean nextMatchesScan(SegmentListModel model) {
+		int[] rows = rows(model);
+		for (String prefix : new String[] {"h", "HA", "Han", "herzl", "J", "k", "x"}) {
+			for (int start = 0; start < rows.length; start += 37) {
+				for (boolean backward : new boolean[] {false, true}) {
+					if (model.nextMatch(prefix, start, backward) != scanMatch(mStore, rows, prefix, start, backward)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+
+	public void testFilter() {
+		show("setFilter()");
+		SegmentListModel model = new SegmentListModel(mStore);
+		int[] all = new int[mStore.size()];
+		Arrays.setAll(all, i -> i);
+		show("Without a filter the rows are the store.", Arrays.equals(rows(model), all)
+			&& model.getElementAt(17).equals(mStore.get(17)));
+
+		boolean same = true;
+		for (String prefix : new String[] {"h", "H", "ha", "HAN", "herzl", "Herzli", "j", "x", "Trumpeldor Avenue!"}) {
+			model.setFilter(prefix);
+			int[] rows = rows(model);
+			same = same && rows.length == count(prefix);
+			for (int row = 0; same && row < rows.length; row++) {
+				same = matches(mStore.getName(rows[row]), prefix) && (row == 0
+					|| String.CASE_INSENSITIVE_ORDER.compare(mStore.getName(rows[row - 1]), mStore.getName(rows[row])) <= 0);
+			}
+		}
+		show("A filter shows the segments whose names start with it, ignoring case, by name.", same);
+		model.setFilter("");
+		show("Clearing the filter shows all the segments again.", Arrays.equals(rows(model), all));
+
+		show("nextMatch()");
+		show("Type-ahead finds the same rows as a scan, without a filter.", nextMatchesScan(model));
+		model.setFilter("h");
+		show("Type-ahead finds the same rows as a scan, with a filter.", nextMatchesScan(model));
+
+		JList<GeoSegment> list = model.newList();
+		show("newList() has a fixed cell size and uses the index for type-ahead.",
+			list.getFixedCellHeight() > 0 && list.getFixedCellWidth() > 0
+			&& list.getNextMatch("herz", 0, Position.Bias.Forward) == model.nextMatch("herz", 0, false));
+	}
+
+
+	public void testRefresh() {
+		show("refresh()");
+		SegmentStore store = new SegmentStore();
+		store.add("Herzl", 1, 1, 2, 2);
+		SegmentListModel model = new SegmentListModel(store);
+		final int[] added = new int[1];
+		model.addListDataListener(new ListDataListener() {
+			public void intervalAdded(ListDataEvent e) {
+				added[0] += e.getIndex1() - e.getIndex0() + 1;
+			}
+
+			public void intervalRemoved(ListDataEvent e) {
+			}
+
+			public void contentsChanged(ListDataEvent e) {
+			}
+		});
+		store.add("Hankin", 2, 2, 3, 3);
+		store.add("Jaffa", 3, 3, 4, 4);
+		model.refresh();
+		show("Appended segments are shown and announced.", model.getSize() == 3 && added[0] == 2
+			&& model.getElementAt(2).getName().equals("Jaffa"));
+		model.setFilter("h");
+		store.add("herzliya", 4, 4, 5, 5);
+		model.refresh();
+		show("Appended segments are filtered.", model.getSize() == 3
+			&& model.getElementAt(0).getName().equals("Hankin")
+			&& model.getElementAt(2).getName().equals("herzliya"));
+	}
+
+
+	public static void main(String[] args) {
+		SegmentListModelTest modelTest = new SegmentListModelTest();
+		modelTest.testFilter();
+		modelTest.testRefresh();
+	}
+}
@@ -0,0 +1,112 @@
+package homework1;
+
+/**
+ * A SegmentMatch is the point of a segment closest to a query point, as
+ * found by a SegmentIndex: the segment, the closest point on it (the
+ * projection of the query point, clamped to the segment) and how far it is
+ * along the segment. SegmentMatches are immutable.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   segmentIndex : int   // the index of the segment in its SegmentStore
+ *   segment : GeoSegment // the segment
+ *   point : GeoPoint     // the closest point of the segment, rounded to millionths
+ *   distance : real      // the distance from the query point to the segment, in
+ *                        // kilometers
+ *   offset : real        // the distance from segment.p1 to point along the segment,
+ *                        // in kilometers
+ * </pre>
+ */
+public final class SegmentMatch {
+
+	private final int segmentIndex;
+	private final GeoSegment segment;
+	private final GeoPoint point;
+	private final double distance;
+	private final double offset;
+
+	//Abstraction Function:
+	//the match of segment number segmentIndex at point, distance away, offset along it
+
+	//Rep Invariant:
+	//segment != null && point != null && segmentIndex >= 0
+	//distance >= 0 && 0 <= offset <= segment.length
+
+
+	SegmentMatch(int segmentIndex, GeoSegment segment, GeoPoint point, double distance, double offset) {
+		this.segmentIndex = segmentIndex;
+		this.segment = segment;
+		this.point = point;
+		this.distance = distance;
+		this.offset = offset;
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		if (segment == null || point == null || segmentIndex < 0) {
+			throw new RuntimeException("a match must have a segment and a point");
+		}
+		if (distance < 0 || offset < 0 || offset > segment.getLength()) {
+			throw new RuntimeException("distance and offset must be within the segment");
+		}
+		RepCheck.record(SegmentMatch.class, start);
+	}
+
+
+	/**
+	 * Returns the index of the segment matched.
+	 * @return this.segmentIndex
+	 */
+	public int getSegmentIndex() {
+		return segmentIndex;
+	}
+
+
+	/**
+	 * Returns the segment matched.
+	 * @return this.segment
+	 */
+	public GeoSegment getSegment() {
+		return segment;
+	}
+
+
+	/**
+	 * Returns the closest point of the segment.
+	 * @return this.point
+	 */
+	public GeoPoint getPoint() {
+		return point;
+	}
+
+
+	/**
+	 * Returns the distance from the query point.
+	 * @return this.distance, in kilometers.
+	 */
+	public double getDistance() {
+		return distance;
+	}
+
+
+	/**
+	 * Returns how far along the segment the closest point is.
+	 * @return this.offset, in kilometers from segment.p1.
+	 */
+	public double getOffset() {
+		return offset;
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "[" + segment + " at " + point + ", " + distance + " km away, " + offset + " km along]";
+	}
+}
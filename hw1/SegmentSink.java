@@ -0,0 +1,24 @@
+package homework1;
+
+/**
+ * A SegmentSink receives segments one at a time, e.g. from a
+ * NetworkImporter reading a file. SegmentStore.add is a SegmentSink, and
+ * so is any method that creates GeoSegments from the coordinates:
+ * <pre>
+ *   importer.readCsv(path, store::add);
+ *   importer.readCsv(path, (name, lat1, lon1, lat2, lon2) -> list.add(
+ *       pool.segment(name, lat1, lon1, lat2, lon2)));
+ * </pre>
+ * where pool is a GeoPointPool, so that segments meeting at a point share
+ * its GeoPoint.
+ */
+public interface SegmentSink {
+
+	/**
+	 * Receives a segment.
+	 * @requires name != null && both points are valid for GeoPoint
+	 * @effects takes the segment named name from (latitude1, longitude1)
+	 *          to (latitude2, longitude2), in millionths of degrees.
+	 */
+	void add(String name, int latitude1, int longitude1, int latitude2, int longitude2);
+}
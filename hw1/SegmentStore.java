@@ -0,0 +1,491 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A SegmentStore holds a large number of GeoSegments column by column:
+ * the endpoint coordinates in int arrays, the lengths and headings in
+ * double arrays, and the names as ids into a dictionary of distinct names.
+ * A segment costs a few dozen bytes in a SegmentStore instead of a
+ * GeoSegment, two GeoPoints and their references, and scans over a single
+ * column (e.g. summing lengths) touch only that column.
+ * <p>
+ * GeoSegment views of the stored segments are created on demand by
+ * <tt>get</tt>. SegmentStores are mutable: segments can only be appended.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   segments : sequence     // the stored segments, in order
+ * </pre>
+ */
+public class SegmentStore {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] latitudes1;
+	private int[] longitudes1;
+	private int[] latitudes2;
+	private int[] longitudes2;
+	private double[] lengths;
+	private double[] headings;
+	private int[] nameIds;
+	private int size;
+
+	private String[] names;
+	private int nameCount;
+	private final HashMap<String, Integer> nameIndex;
+
+	//Abstraction Function:
+	//this.segments[i] = (names[nameIds[i]],
+	//                    (latitudes1[i], longitudes1[i]), (latitudes2[i], longitudes2[i]))
+	//for 0 <= i < size
+
+	//Rep Invariant:
+	//all arrays != null, and all segment columns have the same length >= size
+	//0 <= nameIds[i] < nameCount for 0 <= i < size
+	//names[0..nameCount-1] are distinct, non null, and nameIndex.get(names[j]) = j
+	//lengths[i] = distance from point 1 to point 2 of segment i
+	//headings[i] = heading from point 1 to point 2 of segment i, or 360 if lengths[i] = 0
+
+
+	/**
+	 * Constructs an empty SegmentStore.
+	 * @effects constructs a SegmentStore with this.segments = []
+	 */
+	public SegmentStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Constructs an empty SegmentStore with room for the given number of
+	 * segments.
+	 * @requires capacity >= 0
+	 * @effects constructs a SegmentStore with this.segments = [] that can
+	 *          hold capacity segments before it grows.
+	 */
+	public SegmentStore(int capacity) {
+		if (capacity < 0) {
+			throw new RuntimeException("capacity must be >= 0");
+		}
+		latitudes1 = new int[capacity];
+		longitudes1 = new int[capacity];
+		latitudes2 = new int[capacity];
+		longitudes2 = new int[capacity];
+		lengths = new double[capacity];
+		headings = new double[capacity];
+		nameIds = new int[capacity];
+		names = new String[DEFAULT_CAPACITY];
+		nameIndex = new HashMap<String, Integer>();
+		if (RepCheck.onConstruction()) {
+			checkRep();
+		}
+	}
+
+
+	/**
+	 * Constructs a SegmentStore holding the given segments.
+	 * @requires segments != null && no element of segments is null
+	 * @effects constructs a SegmentStore with this.segments = segments
+	 */
+	public SegmentStore(GeoSegment[] segments) {
+		this(segments.length);
+		for (GeoSegment gs : segments) {
+			add(gs);
+		}
+	}
+
+
+	//linear in the number of segments and names; computes every length and heading again
+	private void checkRep() throws RuntimeException {
+		long start = RepCheck.start();
+		checkColumns();
+		if (nameIndex.size() != nameCount) {
+			throw new RuntimeException("every name must have one id");
+		}
+		for (int j = 0; j < nameCount; j++) {
+			if (names[j] == null || !Integer.valueOf(j).equals(nameIndex.get(names[j]))) {
+				throw new RuntimeException("name " + j + " must be non null and have id " + j);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			checkSegment(i);
+			long p1 = GeoPoint.pack(latitudes1[i], longitudes1[i]);
+			long p2 = GeoPoint.pack(latitudes2[i], longitudes2[i]);
+			if (lengths[i] != GeoPoint.distanceBetween(p1, p2)
+					|| headings[i] != ((lengths[i] == 0) ? 360 : GeoPoint.headingBetween(p1, p2))) {
+				throw new RuntimeException("segment " + i + " must have the length and heading of its points");
+			}
+		}
+		RepCheck.record(SegmentStore.class, start);
+	}
+
+
+	//checks this after segments from..size-1 were appended or its arrays were copied:
+	//this was checked before, so only the columns and the new segments can break the
+	//rep invariant, and checking only them keeps add constant time. At the FULL level
+	//the whole rep is checked.
+	private void checkChange(int from) throws RuntimeException {
+		if (RepCheck.onAppend()) {
+			checkRep();
+		} else if (RepCheck.onConstruction()) {
+			long start = RepCheck.start();
+			checkColumns();
+			for (int i = from; i < size; i++) {
+				checkSegment(i);
+			}
+			RepCheck.record(SegmentStore.class, start);
+		}
+	}
+
+
+	private void checkColumns() throws RuntimeException {
+		if (latitudes1 == null || longitudes1 == null || latitudes2 == null || longitudes2 == null
+				|| lengths == null || headings == null || nameIds == null || names == null
+				|| nameIndex == null) {
+			throw new RuntimeException("all arrays must be != null");
+		}
+		int capacity = latitudes1.length;
+		if (longitudes1.length != capacity || latitudes2.length != capacity || longitudes2.length != capacity
+				|| lengths.length != capacity || headings.length != capacity || nameIds.length != capacity
+				|| size < 0 || size > capacity || nameCount < 0 || nameCount > names.length) {
+			throw new RuntimeException("all columns must have the same length >= size");
+		}
+	}
+
+
+	//the parts of the rep invariant of segment i that need no arithmetic
+	private void checkSegment(int i) throws RuntimeException {
+		int id = nameIds[i];
+		if (id < 0 || id >= nameCount || names[id] == null) {
+			throw new RuntimeException("segment " + i + " must have a name of the dictionary");
+		}
+		if (!(lengths[i] >= 0) || !((headings[i] >= 0 && headings[i] < 360)
+				|| (headings[i] == 360 && lengths[i] == 0))) {
+			throw new RuntimeException("segment " + i + " must have a length >= 0 and a heading in range");
+		}
+	}
+
+
+	private void checkIndex(int index) throws RuntimeException {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+		}
+	}
+
+
+	private void grow() {
+		int capacity = Math.max(DEFAULT_CAPACITY, 2 * latitudes1.length);
+		latitudes1 = Arrays.copyOf(latitudes1, capacity);
+		longitudes1 = Arrays.copyOf(longitudes1, capacity);
+		latitudes2 = Arrays.copyOf(latitudes2, capacity);
+		longitudes2 = Arrays.copyOf(longitudes2, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+		headings = Arrays.copyOf(headings, capacity);
+		nameIds = Arrays.copyOf(nameIds, capacity);
+	}
+
+
+	//returns the id of name, adding it to the dictionary if it is new
+	private int nameId(String name) {
+		Integer id = nameIndex.get(name);
+		if (id != null) {
+			return id;
+		}
+		if (nameCount == names.length) {
+			names = Arrays.copyOf(names, Math.max(DEFAULT_CAPACITY, 2 * nameCount));
+		}
+		names[nameCount] = name;
+		nameIndex.put(name, nameCount);
+		return nameCount++;
+	}
+
+
+	/**
+	 * Appends a segment.
+	 * @requires name != null && both points are valid for GeoPoint
+	 * @modifies this
+	 * @effects this.segments = this.segments +
+	 *          [(name, (latitude1, longitude1), (latitude2, longitude2))]
+	 * @return the index of the new segment.
+	 */
+	public int add(String name, int latitude1, int longitude1, int latitude2, int longitude2) {
+		if (name == null) {
+			throw new RuntimeException("name can't get null argument");
+		}
+		if (GeoPoint.MIN_LATITUDE > latitude1 || latitude1 > GeoPoint.MAX_LATITUDE
+				|| GeoPoint.MIN_LATITUDE > latitude2 || latitude2 > GeoPoint.MAX_LATITUDE) {
+			throw new RuntimeException("Latitude is out of range");
+		}
+		if (GeoPoint.MIN_LONGITUDE > longitude1 || longitude1 > GeoPoint.MAX_LONGITUDE
+				|| GeoPoint.MIN_LONGITUDE > longitude2 || longitude2 > GeoPoint.MAX_LONGITUDE) {
+			throw new RuntimeException("Longitude is out of range");
+		}
+		if (size == latitudes1.length) {
+			grow();
+		}
+		long p1 = GeoPoint.pack(latitude1, longitude1);
+		long p2 = GeoPoint.pack(latitude2, longitude2);
+		latitudes1[size] = latitude1;
+		longitudes1[size] = longitude1;
+		latitudes2[size] = latitude2;
+		longitudes2[size] = longitude2;
+		lengths[size] = GeoPoint.distanceBetween(p1, p2);
+		headings[size] = (lengths[size] == 0) ? 360 : GeoPoint.headingBetween(p1, p2);
+		nameIds[size] = nameId(name);
+		size++;
+		checkChange(size - 1);
+		return size - 1;
+	}
+
+
+	/**
+	 * Appends a segment.
+	 * @requires gs != null
+	 * @modifies this
+	 * @effects this.segments = this.segments + [gs]
+	 * @return the index of the new segment.
+	 */
+	public int add(GeoSegment gs) {
+		GeoPoint p1 = gs.getP1();
+		GeoPoint p2 = gs.getP2();
+		return add(gs.getName(), p1.getLatitude(), p1.getLongitude(),
+				p2.getLatitude(), p2.getLongitude());
+	}
+
+
+	/**
+	 * Returns the number of segments in this.
+	 * @return the length of this.segments.
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Returns a segment as a GeoSegment.
+	 * @requires 0 <= index < this.size()
+	 * @return a new GeoSegment equal to this.segments[index].
+	 */
+	public GeoSegment get(int index) {
+		checkIndex(index);
+		return new GeoSegment(names[nameIds[index]],
+				new GeoPoint(latitudes1[index], longitudes1[index]),
+				new GeoPoint(latitudes2[index], longitudes2[index]),
+				lengths[index], headings[index]);
+	}
+
+
+	/**
+	 * Returns a segment as a GeoSegment whose endpoints are shared with the
+	 * other segments taken from pool.
+	 * @requires 0 <= index < this.size() && pool != null
+	 * @modifies pool
+	 * @effects interns the endpoints of this.segments[index] in pool.
+	 * @return a new GeoSegment equal to this.segments[index], whose
+	 *         endpoints are the points of pool.
+	 */
+	public GeoSegment get(int index, GeoPointPool pool) {
+		checkIndex(index);
+		return new GeoSegment(names[nameIds[index]],
+				pool.intern(latitudes1[index], longitudes1[index]),
+				pool.intern(latitudes2[index], longitudes2[index]),
+				lengths[index], headings[index]);
+	}
+
+
+	/**
+	 * Returns the name of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].name
+	 */
+	public String getName(int index) {
+		checkIndex(index);
+		return names[nameIds[index]];
+	}
+
+
+	/**
+	 * Returns the name id of a segment. Segments have the same name iff
+	 * they have the same name id.
+	 * @requires 0 <= index < this.size()
+	 * @return the id of this.segments[index].name, such that
+	 *         getNameById(getNameId(index)) = this.segments[index].name
+	 */
+	public int getNameId(int index) {
+		checkIndex(index);
+		return nameIds[index];
+	}
+
+
+	/**
+	 * Returns the number of distinct names in this.
+	 * @return the number of distinct names of this.segments. Name ids are
+	 *         0 to getNameCount()-1.
+	 */
+	public int getNameCount() {
+		return nameCount;
+	}
+
+
+	/**
+	 * Returns a name by its id.
+	 * @requires 0 <= id < this.getNameCount()
+	 * @return the name whose id is id.
+	 */
+	public String getNameById(int id) {
+		if (id < 0 || id >= nameCount) {
+			throw new IndexOutOfBoundsException("name id " + id + " out of range for " + nameCount + " names");
+		}
+		return names[id];
+	}
+
+
+	/**
+	 * Returns the latitude of the first endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p1.latitude
+	 */
+	public int getLatitude1(int index) {
+		checkIndex(index);
+		return latitudes1[index];
+	}
+
+
+	/**
+	 * Returns the longitude of the first endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p1.longitude
+	 */
+	public int getLongitude1(int index) {
+		checkIndex(index);
+		return longitudes1[index];
+	}
+
+
+	/**
+	 * Returns the latitude of the second endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p2.latitude
+	 */
+	public int getLatitude2(int index) {
+		checkIndex(index);
+		return latitudes2[index];
+	}
+
+
+	/**
+	 * Returns the longitude of the second endpoint of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].p2.longitude
+	 */
+	public int getLongitude2(int index) {
+		checkIndex(index);
+		return longitudes2[index];
+	}
+
+
+	/**
+	 * Returns the length of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].length
+	 */
+	public double getLength(int index) {
+		checkIndex(index);
+		return lengths[index];
+	}
+
+
+	/**
+	 * Returns the heading of a segment.
+	 * @requires 0 <= index < this.size()
+	 * @return this.segments[index].heading
+	 */
+	public double getHeading(int index) {
+		checkIndex(index);
+		return headings[index];
+	}
+
+
+	/**
+	 * Returns the total length of all segments.
+	 * @return sum (0 <= i < this.size()) . this.segments[i].length
+	 */
+	public double totalLength() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += lengths[i];
+		}
+		return total;
+	}
+
+
+	/**
+	 * Counts the segments by heading.
+	 * @requires bins > 0
+	 * @return an array h of length bins such that h[b] is the number of
+	 *         segments with nonzero length and b*360/bins <= heading < (b+1)*360/bins.
+	 *         Zero-length segments have no heading and are not counted.
+	 */
+	public int[] headingHistogram(int bins) {
+		if (bins <= 0) {
+			throw new RuntimeException("bins must be > 0");
+		}
+		int[] histogram = new int[bins];
+		double binsPerDegree = bins / 360.0;
+		for (int i = 0; i < size; i++) {
+			if (lengths[i] != 0) {
+				histogram[Math.min(bins - 1, (int) (headings[i] * binsPerDegree))]++;
+			}
+		}
+		return histogram;
+	}
+
+
+	/**
+	 * Copies some of the segments, in a given order, e.g. to lay out a
+	 * network in ZOrder.order for locality.
+	 * @requires indices != null && 0 <= indices[i] < this.size() for all i
+	 * @return a new SegmentStore s with s.segments[i] =
+	 *         this.segments[indices[i]] for 0 <= i < indices.length
+	 */
+	public SegmentStore select(int[] indices) {
+		SegmentStore selected = new SegmentStore(indices.length);
+		for (int index : indices) {
+			checkIndex(index);
+			selected.add(names[nameIds[index]], latitudes1[index], longitudes1[index],
+					latitudes2[index], longitudes2[index]);
+		}
+		return selected;
+	}
+
+
+	/**
+	 * Releases capacity that holds no segments.
+	 * @modifies this
+	 * @effects the memory used by this is proportional to this.size()
+	 *          and to the number of distinct names.
+	 */
+	public void trimToSize() {
+		latitudes1 = Arrays.copyOf(latitudes1, size);
+		longitudes1 = Arrays.copyOf(longitudes1, size);
+		latitudes2 = Arrays.copyOf(latitudes2, size);
+		longitudes2 = Arrays.copyOf(longitudes2, size);
+		lengths = Arrays.copyOf(lengths, size);
+		headings = Arrays.copyOf(headings, size);
+		nameIds = Arrays.copyOf(nameIds, size);
+		names = Arrays.copyOf(names, nameCount);
+		checkChange(size);
+	}
+
+
+	/**
+	 * Returns a string representation of this.
+	 * @return a string representation of this.
+	 */
+	public String toString() {
+		return "SegmentStore[" + size + " segments, " + nameCount + " names]";
+	}
+}
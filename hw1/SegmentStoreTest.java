@@ -0,0 +1,88 @@
+package homework1;
+
+public class SegmentStoreTest {
+
+	private SegmentStore mStore;
+
+
+	public SegmentStoreTest() {
+		mStore = new SegmentStore(ExampleGeoSegments.segments);
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	public void test() {
+		GeoSegment[] segments = ExampleGeoSegments.segments;
+
+		show("get()");
+		boolean equal = mStore.size() == segments.length;
+		for (int i = 0; i < segments.length; i++) {
+			equal = equal && mStore.get(i).equals(segments[i]);
+		}
+		show("Views are equal to the stored segments.", equal);
+		boolean sameValues = true;
+		for (int i = 0; i < segments.length; i++) {
+			sameValues = sameValues &&
+				mStore.getLength(i) == segments[i].getLength() &&
+				mStore.getHeading(i) == segments[i].getHeading() &&
+				mStore.get(i).getHeading() == segments[i].getHeading();
+		}
+		show("Stored lengths and headings equal the GeoSegment ones.", sameValues);
+
+		show("names");
+		show("Equal names share an id.",
+			mStore.getNameId(0) == mStore.getNameId(10) &&
+			mStore.getNameId(0) != mStore.getNameId(1));
+		show("Distinct names are counted once.", mStore.getNameCount() == 9);
+
+		show("scans");
+		double total = 0;
+		for (GeoSegment gs : segments) {
+			total += gs.getLength();
+		}
+		show("totalLength() is the sum of the lengths.", mStore.totalLength() == total);
+		int counted = 0;
+		for (int count : mStore.headingHistogram(8)) {
+			counted += count;
+		}
+		show("headingHistogram() counts every segment.", counted == segments.length);
+
+		show("trimToSize()");
+		SegmentStore empty = new SegmentStore();
+		empty.trimToSize();
+		empty.add("Hankin Road", 32782269, 35013820, 32783098, 35014528);
+		show("A trimmed store can still grow.",
+			empty.size() == 1 && empty.get(0).equals(segments[0]));
+
+		show("RepCheck");
+		RepCheck.Level level = RepCheck.getLevel();
+		RepCheck.setLevel(RepCheck.Level.FULL);
+		SegmentStore checked = mStore.select(new int[] {3, 0, 3});
+		checked.add(segments[1]);
+		checked.trimToSize();
+		RepCheck.setLevel(level);
+		show("Appending, selecting and trimming keep the rep when all of it is checked.",
+			checked.size() == 4 && checked.get(0).equals(segments[3]) && checked.get(3).equals(segments[1])
+			&& checked.getNameId(0) == checked.getNameId(2));
+	}
+
+
+	public static void main(String[] args) {
+		SegmentStoreTest storeTest = new SegmentStoreTest();
+		storeTest.test();
+	}
+}
@@ -0,0 +1,81 @@
+package homework1;
+
+/**
+ * A Turn is the kind of turn needed to go from one heading to another,
+ * as it is named in directions. Each Turn has a phrase, the English text
+ * that directions write for it; the phrases are String constants, so
+ * writing a Turn creates no String.
+ * <p>
+ * Let the angle from the original heading to the new heading be a. The
+ * turn is:
+ * <pre>
+ * CONTINUE       "Continue"             if a < 10
+ * SLIGHT_RIGHT   "Turn slight right"    if 10 <= a < 60
+ * RIGHT          "Turn right"           if 60 <= a < 120
+ * SHARP_RIGHT    "Turn sharp right"     if 120 <= a < 179
+ * U_TURN         "U-turn"               if 179 <= a
+ * </pre>
+ * and likewise for left turns.
+ */
+public enum Turn {
+
+	CONTINUE("Continue"),
+	SLIGHT_RIGHT("Turn slight right"),
+	RIGHT("Turn right"),
+	SHARP_RIGHT("Turn sharp right"),
+	SLIGHT_LEFT("Turn slight left"),
+	LEFT("Turn left"),
+	SHARP_LEFT("Turn sharp left"),
+	U_TURN("U-turn");
+
+	private final String phrase;
+
+
+	private Turn(String phrase) {
+		this.phrase = phrase;
+	}
+
+
+	/**
+	 * Classifies the turn between two headings.
+	 * @requires 0 <= origHeading < 360 && 0 <= newHeading < 360
+	 * @param origHeading the start heading.
+	 * @param newHeading the desired new heading.
+	 * @return the Turn from origHeading to newHeading, as in the table above.
+	 */
+	public static Turn between(double origHeading, double newHeading) {
+		double angle = newHeading - origHeading;
+		if (angle > 180) {
+			//we should turn left in angle between 0 and 180
+			angle -= 360;
+		}
+		if (angle < -180) {
+			//we should turn right in angle between 0 and 180
+			angle += 360;
+		}
+		boolean right = angle > 0;
+		angle = Math.abs(angle);
+		if (angle < 10) {
+			return CONTINUE;
+		}
+		if (angle < 60) {
+			return right ? SLIGHT_RIGHT : SLIGHT_LEFT;
+		}
+		if (angle < 120) {
+			return right ? RIGHT : LEFT;
+		}
+		if (angle < 179) {
+			return right ? SHARP_RIGHT : SHARP_LEFT;
+		}
+		return U_TURN;
+	}
+
+
+	/**
+	 * Returns the text directions use for this turn.
+	 * @return the phrase of this, e.g. "Turn slight right".
+	 */
+	public String getPhrase() {
+		return phrase;
+	}
+}
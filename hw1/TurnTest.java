@@ -0,0 +1,62 @@
+package homework1;
+
+public class TurnTest {
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	//true iff turning by each angle from heading 100 gives the turn at the same index
+	private boolean turns(double[] angles, Turn[] expected) {
+		for (int i = 0; i < angles.length; i++) {
+			double heading = (100 + angles[i] + 360) % 360;
+			if (Turn.between(100, heading) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		show("between()");
+		show("Right turns change at 10, 60, 120 and 179 degrees.",
+			turns(new double[] {0, 9.9, 10, 59.9, 60, 119.9, 120, 178.9, 179, 180},
+				new Turn[] {Turn.CONTINUE, Turn.CONTINUE, Turn.SLIGHT_RIGHT, Turn.SLIGHT_RIGHT,
+					Turn.RIGHT, Turn.RIGHT, Turn.SHARP_RIGHT, Turn.SHARP_RIGHT, Turn.U_TURN, Turn.U_TURN}));
+		show("Left turns change at the same angles.",
+			turns(new double[] {-9.9, -10, -59.9, -60, -119.9, -120, -178.9, -179},
+				new Turn[] {Turn.CONTINUE, Turn.SLIGHT_LEFT, Turn.SLIGHT_LEFT, Turn.LEFT,
+					Turn.LEFT, Turn.SHARP_LEFT, Turn.SHARP_LEFT, Turn.U_TURN}));
+		show("Turns across north take the short way.",
+			Turn.between(350, 20) == Turn.SLIGHT_RIGHT && Turn.between(20, 350) == Turn.SLIGHT_LEFT
+			&& Turn.between(270, 0) == Turn.RIGHT && Turn.between(0, 270) == Turn.LEFT);
+
+		show("getPhrase()");
+		show("Phrases are the words of directions.",
+			Turn.CONTINUE.getPhrase().equals("Continue")
+			&& Turn.SLIGHT_RIGHT.getPhrase().equals("Turn slight right")
+			&& Turn.SHARP_LEFT.getPhrase().equals("Turn sharp left")
+			&& Turn.U_TURN.getPhrase().equals("U-turn"));
+		show("Phrases are constants, not new Strings.",
+			Turn.between(0, 90).getPhrase() == "Turn right"
+			&& new DrivingRouteFormatter().getTurnString(0, 300) == "Turn left");
+	}
+
+
+	public static void main(String[] args) {
+		TurnTest turnTest = new TurnTest();
+		turnTest.test();
+	}
+}
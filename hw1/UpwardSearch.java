@@ -0,0 +1,149 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A Dijkstra search of a ContractionHierarchy from a single node along
+ * the edges that lead to higher ranked nodes, forward or backward, run
+ * until every such node is settled. Its result is the list of settled
+ * nodes with their distances; nodes that are stalled (reached more cheaply
+ * from a higher node) are left out, since no shortest route meets there.
+ * <p>
+ * An UpwardSearch keeps its arrays between searches, so it is not safe to
+ * share one between threads.
+ */
+final class UpwardSearch {
+
+	private final ContractionHierarchy hierarchy;
+
+	//search state, valid for a node only if visits[node] = search
+	private final int[] visits;
+	private final boolean[] settled;
+	private final double[] distances;
+	private final NodeHeap heap;
+	private int search;
+
+	//the result of the last search
+	private int[] resultNodes;
+	private double[] resultDistances;
+	private int resultCount;
+
+	//Abstraction Function:
+	//the last search settled resultNodes[i] at resultDistances[i], 0 <= i < resultCount
+
+	//Rep Invariant:
+	//search arrays have length hierarchy.getGraph().nodeCount()
+	//resultNodes.length = resultDistances.length >= resultCount
+
+
+	/**
+	 * Prepares searches of a hierarchy.
+	 * @requires hierarchy != null
+	 */
+	UpwardSearch(ContractionHierarchy hierarchy) {
+		this.hierarchy = hierarchy;
+		int nodeCount = hierarchy.getGraph().nodeCount();
+		visits = new int[nodeCount];
+		settled = new boolean[nodeCount];
+		distances = new double[nodeCount];
+		heap = new NodeHeap();
+		resultNodes = new int[64];
+		resultDistances = new double[64];
+	}
+
+
+	/**
+	 * Searches from a node.
+	 * @requires 0 <= source < hierarchy.getGraph().nodeCount()
+	 * @modifies this
+	 * @effects the result of this becomes the nodes settled by the search
+	 *          from source (forward if forward, backward otherwise) that are
+	 *          not stalled, with their distances from (or to) source.
+	 */
+	void run(int source, boolean forward) {
+		if (++search == 0) {
+			Arrays.fill(visits, 0);
+			search = 1;
+		}
+		resultCount = 0;
+		heap.clear();
+		visits[source] = search;
+		settled[source] = false;
+		distances[source] = 0;
+		heap.push(source, 0);
+		while (!heap.isEmpty()) {
+			int node = heap.pop();
+			if (settled[node]) {
+				continue;
+			}
+			settled[node] = true;
+			double distance = distances[node];
+			int first = forward ? hierarchy.upFirst(node) : hierarchy.downFirst(node);
+			int last = forward ? hierarchy.upFirst(node + 1) : hierarchy.downFirst(node + 1);
+			int stallFirst = forward ? hierarchy.downFirst(node) : hierarchy.upFirst(node);
+			int stallLast = forward ? hierarchy.downFirst(node + 1) : hierarchy.upFirst(node + 1);
+			if (stalled(distance, stallFirst, stallLast)) {
+				continue;
+			}
+			if (resultCount == resultNodes.length) {
+				resultNodes = Arrays.copyOf(resultNodes, 2 * resultCount);
+				resultDistances = Arrays.copyOf(resultDistances, 2 * resultCount);
+			}
+			resultNodes[resultCount] = node;
+			resultDistances[resultCount++] = distance;
+			for (int e = first; e < last; e++) {
+				int next = hierarchy.head(e);
+				double nextDistance = distance + hierarchy.weight(e);
+				if (visits[next] != search) {
+					visits[next] = search;
+					settled[next] = false;
+				} else if (settled[next] || nextDistance >= distances[next]) {
+					continue;
+				}
+				distances[next] = nextDistance;
+				heap.push(next, nextDistance);
+			}
+		}
+	}
+
+
+	//whether a higher node already seen reaches this one more cheaply than distance
+	private boolean stalled(double distance, int first, int last) {
+		for (int e = first; e < last; e++) {
+			int higher = hierarchy.head(e);
+			if (visits[higher] == search && distances[higher] + hierarchy.weight(e) < distance) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Returns the number of nodes in the result.
+	 * @return the number of nodes settled and not stalled by the last search.
+	 */
+	int resultCount() {
+		return resultCount;
+	}
+
+
+	/**
+	 * Returns a node of the result.
+	 * @requires 0 <= i < resultCount()
+	 * @return the ith node of the result.
+	 */
+	int resultNode(int i) {
+		return resultNodes[i];
+	}
+
+
+	/**
+	 * Returns the distance of a node of the result.
+	 * @requires 0 <= i < resultCount()
+	 * @return the distance of the ith node of the result.
+	 */
+	double resultDistance(int i) {
+		return resultDistances[i];
+	}
+}
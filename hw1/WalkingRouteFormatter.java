@@ -1,6 +1,6 @@
 package homework1;
 
-import java.text.DecimalFormat;
+import java.io.IOException;
 
 /**
  * A WalkingDirections class knows how to create a textual description of
@@ -26,6 +26,10 @@ import java.text.DecimalFormat;
  **/
 public class WalkingRouteFormatter extends RouteFormatter {
 
+	/** Walking speed assumed by the directions, in minutes per kilometer. **/
+	public static final double MINUTES_PER_KILOMETER = 20;
+
+
   	/**
      * Computes a single line of a multi-line directions String that
      * represents the instructions for walking along a single geographic
@@ -52,10 +56,22 @@ public class WalkingRouteFormatter extends RouteFormatter {
      * above.
      **/
   	public String computeLine(GeoFeature geoFeature, double origHeading) {
+		return lineOf(geoFeature, origHeading);
+  	}
 
-		long time = Math.round(geoFeature.getLength()*20);
-		String line = getTurnString(origHeading, geoFeature.getStartHeading());
-		line += " onto " + geoFeature.getName() + " and walk for " + time + " minutes.\n";
-		return line;
+
+  	/**
+     * Writes the line computeLine returns to out, in pieces.
+     * @requires 0 <= origHeading < 360 && out != null
+     * @modifies out
+     * @effects appends computeLine(geoFeature, origHeading) to out.
+     * @throws IOException if out throws IOException.
+     **/
+  	protected void appendLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
+		long time = Math.round(geoFeature.getLength()*MINUTES_PER_KILOMETER);
+		out.append(getTurnString(origHeading, geoFeature.getStartHeading()));
+		out.append(" onto ").append(geoFeature.getName()).append(" and walk for ");
+		appendNumber(out, time);
+		out.append(" minutes.\n");
   	}
 }
@@ -1,5 +1,8 @@
 package homework1;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 public class WalkingRouteFormatterTest {
 	
 	private WalkingRouteFormatter mDirections;
@@ -25,10 +28,26 @@ public class WalkingRouteFormatterTest {
 		else
 			System.out.println("Test not passed correctly");
 	}
+
+
+	public void testAppendable() {
+		StringWriter out = new StringWriter();
+		try {
+			mDirections.computeDirections(mShortRoute, 0, out);
+		} catch (IOException e) {
+			System.out.println("Test not passed correctly");
+			return;
+		}
+		if (out.toString().equals(mDirections.computeDirections(mShortRoute, 0)))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+	}
   	
   	
 	public static void main(String[] args) {
 		WalkingRouteFormatterTest directionsTest = new WalkingRouteFormatterTest();
 		directionsTest.test();
+		directionsTest.testAppendable();
 	}
 }
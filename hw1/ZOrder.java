@@ -0,0 +1,285 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ZOrder gives points a spatial order: the Morton (Z-order) key of a point
+ * interleaves the bits of its latitude and longitude, so points close on
+ * the ground mostly have close keys, and every square cell of a quadtree
+ * over the world is one interval of keys. Sorting by key keeps nearby
+ * points together in memory, and a bounding box becomes a few key
+ * intervals that can be scanned in a sorted array or handed to the worker
+ * that holds them.
+ * <p>
+ * Keys are computed from the millionth-degree integers of GeoPoint: the
+ * latitude and longitude are offset to 0 (GeoPoint.MIN_LATITUDE and
+ * GeoPoint.MIN_LONGITUDE), giving 31-bit numbers, and their bits are
+ * interleaved, longitude first, into a nonnegative 62-bit long. Geohash
+ * strings, the base-32 form of the same interleaving over degrees, are
+ * also given.
+ */
+public final class ZOrder {
+
+	/** The number of bits of each coordinate in a key. **/
+	public static final int BITS = 31;
+
+	private static final String GEOHASH_DIGITS = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+	private static final Comparator<GeoPoint> COMPARATOR =
+		Comparator.comparingLong(gp -> ZOrder.encode(gp.getLatitude(), gp.getLongitude()));
+
+	private ZOrder() {
+	}
+
+
+	//spreads the low 31 bits of value to the even bits of a long
+	private static long spread(long value) {
+		value &= 0x7fffffffL;
+		value = (value | (value << 16)) & 0x0000ffff0000ffffL;
+		value = (value | (value << 8)) & 0x00ff00ff00ff00ffL;
+		value = (value | (value << 4)) & 0x0f0f0f0f0f0f0f0fL;
+		value = (value | (value << 2)) & 0x3333333333333333L;
+		value = (value | (value << 1)) & 0x5555555555555555L;
+		return value;
+	}
+
+
+	//gathers the even bits of a long
+	private static int gather(long value) {
+		value &= 0x5555555555555555L;
+		value = (value | (value >>> 1)) & 0x3333333333333333L;
+		value = (value | (value >>> 2)) & 0x0f0f0f0f0f0f0f0fL;
+		value = (value | (value >>> 4)) & 0x00ff00ff00ff00ffL;
+		value = (value | (value >>> 8)) & 0x0000ffff0000ffffL;
+		value = (value | (value >>> 16)) & 0x00000000ffffffffL;
+		return (int) value;
+	}
+
+
+	/**
+	 * Computes the Z-order key of a point.
+	 * @requires latitude and longitude are valid for GeoPoint
+	 * @return the key of the point: the bits of longitude - MIN_LONGITUDE
+	 *         and latitude - MIN_LATITUDE interleaved, longitude in the
+	 *         higher bit of each pair.
+	 */
+	public static long encode(int latitude, int longitude) {
+		return (spread(longitude - GeoPoint.MIN_LONGITUDE) << 1) | spread(latitude - GeoPoint.MIN_LATITUDE);
+	}
+
+
+	/**
+	 * Computes the Z-order key of a point.
+	 * @requires point != null
+	 * @return encode(point.latitude, point.longitude)
+	 */
+	public static long encode(GeoPoint point) {
+		return encode(point.getLatitude(), point.getLongitude());
+	}
+
+
+	/**
+	 * Returns the latitude of a key.
+	 * @requires key = encode(latitude, longitude) for some point
+	 * @return latitude
+	 */
+	public static int decodeLatitude(long key) {
+		return gather(key) + GeoPoint.MIN_LATITUDE;
+	}
+
+
+	/**
+	 * Returns the longitude of a key.
+	 * @requires key = encode(latitude, longitude) for some point
+	 * @return longitude
+	 */
+	public static int decodeLongitude(long key) {
+		return gather(key >>> 1) + GeoPoint.MIN_LONGITUDE;
+	}
+
+
+	/**
+	 * Returns a comparator that orders GeoPoints by key.
+	 * @return a comparator c such that c.compare(a, b) has the sign of
+	 *         encode(a) - encode(b). It is consistent with equals.
+	 */
+	public static Comparator<GeoPoint> comparator() {
+		return COMPARATOR;
+	}
+
+
+	/**
+	 * Computes the geohash of a point.
+	 * @requires point != null && 1 <= precision <= 12
+	 * @return the standard geohash of point with precision characters.
+	 */
+	public static String geohash(GeoPoint point, int precision) {
+		//bisect the ranges in millionths; halves of them are exact in a double
+		double[] latitudes = {GeoPoint.MIN_LATITUDE, GeoPoint.MAX_LATITUDE};
+		double[] longitudes = {GeoPoint.MIN_LONGITUDE, GeoPoint.MAX_LONGITUDE};
+		int latitude = point.getLatitude();
+		int longitude = point.getLongitude();
+		StringBuilder hash = new StringBuilder(precision);
+		boolean onLongitude = true;
+		int digit = 0;
+		for (int bit = 0; bit < 5 * precision; bit++) {
+			double[] range = onLongitude ? longitudes : latitudes;
+			double middle = (range[0] + range[1]) / 2;
+			digit <<= 1;
+			if ((onLongitude ? longitude : latitude) >= middle) {
+				digit |= 1;
+				range[0] = middle;
+			} else {
+				range[1] = middle;
+			}
+			onLongitude = !onLongitude;
+			if (bit % 5 == 4) {
+				hash.append(GEOHASH_DIGITS.charAt(digit));
+				digit = 0;
+			}
+		}
+		return hash.toString();
+	}
+
+
+	/**
+	 * Splits a bounding box into key intervals. The intervals are the cells
+	 * of a quadtree over the world that meet the box, refined while there
+	 * are at most maxIntervals of them, so they cover the box and, unless
+	 * maxIntervals was reached, nothing else.
+	 * @requires minLatitude <= maxLatitude && minLongitude <= maxLongitude,
+	 *           all valid for GeoPoint && maxIntervals >= 1
+	 * @return an array a of 2n longs, 1 <= n <= maxIntervals, where
+	 *         [a[2i], a[2i+1]] are disjoint, non-adjacent, inclusive key
+	 *         intervals in increasing order, and every point in the box of
+	 *         latitudes minLatitude to maxLatitude and longitudes minLongitude
+	 *         to maxLongitude (inclusive) has a key in one of them.
+	 */
+	public static long[] intervals(int minLatitude, int minLongitude, int maxLatitude, int maxLongitude,
+			int maxIntervals) {
+		long south = (long) minLatitude - GeoPoint.MIN_LATITUDE;
+		long north = (long) maxLatitude - GeoPoint.MIN_LATITUDE;
+		long west = (long) minLongitude - GeoPoint.MIN_LONGITUDE;
+		long east = (long) maxLongitude - GeoPoint.MIN_LONGITUDE;
+
+		//the cells inside the box, as merged intervals, and the cells that cross its
+		//edge, as the keys of their south-west corners, at the current level
+		long[] inside = new long[0];
+		long[] crossing = {0};
+		int crossingCount = 1;
+		//cells of the current level have sides of 2^level
+		int level = BITS;
+		while (level > 0 && crossingCount > 0) {
+			int childSide = level - 1;
+			long[] childInside = new long[8 * crossingCount];
+			int childInsideCount = 0;
+			long[] childCrossing = new long[4 * crossingCount];
+			int childCrossingCount = 0;
+			for (int c = 0; c < crossingCount; c++) {
+				for (long quadrant = 0; quadrant < 4; quadrant++) {
+					long child = crossing[c] | (quadrant << (2 * childSide));
+					long x = gather(child >>> 1), y = gather(child);
+					long size = 1L << childSide;
+					if (x > east || x + size - 1 < west || y > north || y + size - 1 < south) {
+						continue;
+					}
+					if (x >= west && x + size - 1 <= east && y >= south && y + size - 1 <= north) {
+						childInside[childInsideCount++] = child;
+						childInside[childInsideCount++] = child + (1L << (2 * childSide)) - 1;
+					} else {
+						childCrossing[childCrossingCount++] = child;
+					}
+				}
+			}
+			long[] refined = merge(inside, Arrays.copyOf(childInside, childInsideCount));
+			if (refined.length / 2 + childCrossingCount > maxIntervals) {
+				break;
+			}
+			inside = refined;
+			crossing = childCrossing;
+			crossingCount = childCrossingCount;
+			level = childSide;
+		}
+
+		//cells still crossing the edge are taken whole
+		long[] whole = new long[2 * crossingCount];
+		for (int c = 0; c < crossingCount; c++) {
+			whole[2 * c] = crossing[c];
+			whole[2 * c + 1] = crossing[c] + (1L << (2 * level)) - 1;
+		}
+		return merge(inside, whole);
+	}
+
+
+	//merges two lists of sorted disjoint intervals into one, joining adjacent ones
+	private static long[] merge(long[] a, long[] b) {
+		//the intervals are disjoint, so sorting their starts and ends apart keeps them paired
+		int count = (a.length + b.length) / 2;
+		long[] starts = new long[count];
+		long[] ends = new long[count];
+		for (int i = 0; i < a.length; i += 2) {
+			starts[i / 2] = a[i];
+			ends[i / 2] = a[i + 1];
+		}
+		for (int i = 0; i < b.length; i += 2) {
+			starts[(a.length + i) / 2] = b[i];
+			ends[(a.length + i) / 2] = b[i + 1];
+		}
+		Arrays.sort(starts);
+		Arrays.sort(ends);
+		long[] merged = new long[2 * count];
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			if (size > 0 && starts[i] == merged[size - 1] + 1) {
+				merged[size - 1] = ends[i];
+			} else {
+				merged[size++] = starts[i];
+				merged[size++] = ends[i];
+			}
+		}
+		return Arrays.copyOf(merged, size);
+	}
+
+
+	/**
+	 * Orders the segments of a store by the key of their midpoints.
+	 * @requires segments != null
+	 * @return a permutation p of 0..segments.size()-1 such that the keys of
+	 *         the midpoints of segments p[0], p[1], ... are nondecreasing,
+	 *         equal keys in index order.
+	 */
+	public static int[] order(SegmentStore segments) {
+		int n = segments.size();
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = encode(
+				(int) (((long) segments.getLatitude1(i) + segments.getLatitude2(i)) / 2),
+				(int) (((long) segments.getLongitude1(i) + segments.getLongitude2(i)) / 2));
+		}
+		long[] sorted = Arrays.copyOf(keys, n);
+		Arrays.sort(sorted);
+		//segment i goes to the first free slot of its key's run of slots
+		int[] used = new int[n];
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			int first = firstAtLeast(sorted, keys[i]);
+			order[first + used[first]++] = i;
+		}
+		return order;
+	}
+
+
+	private static int firstAtLeast(long[] sorted, long key) {
+		int low = 0, high = sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
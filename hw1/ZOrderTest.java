@@ -0,0 +1,146 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ZOrderTest {
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+
+	private static boolean inIntervals(long[] intervals, long key) {
+		for (int i = 0; i < intervals.length; i += 2) {
+			if (intervals[i] <= key && key <= intervals[i + 1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private static boolean wellFormed(long[] intervals, int maxIntervals) {
+		if (intervals.length == 0 || intervals.length % 2 != 0 || intervals.length / 2 > maxIntervals) {
+			return false;
+		}
+		for (int i = 0; i < intervals.length; i += 2) {
+			if (intervals[i] > intervals[i + 1] || (i > 0 && intervals[i] <= intervals[i - 1] + 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	//whether every point of random small boxes has its key in the box's intervals, and,
+	//when the intervals are exact, every key of the intervals is in the box
+	private boolean boxesCovered(int maxIntervals, boolean exact, Random random) {
+		for (int b = 0; b < 100; b++) {
+			int minLatitude = 32000000 + random.nextInt(1000000);
+			int minLongitude = 34000000 + random.nextInt(1000000);
+			int maxLatitude = minLatitude + random.nextInt(40);
+			int maxLongitude = minLongitude + random.nextInt(40);
+			long[] intervals = ZOrder.intervals(minLatitude, minLongitude, maxLatitude, maxLongitude, maxIntervals);
+			if (!wellFormed(intervals, maxIntervals)) {
+				return false;
+			}
+			for (int latitude = minLatitude; latitude <= maxLatitude; latitude++) {
+				for (int longitude = minLongitude; longitude <= maxLongitude; longitude++) {
+					if (!inIntervals(intervals, ZOrder.encode(latitude, longitude))) {
+						return false;
+					}
+				}
+			}
+			if (exact) {
+				for (int i = 0; i < intervals.length; i += 2) {
+					for (long key = intervals[i]; key <= intervals[i + 1]; key++) {
+						int latitude = ZOrder.decodeLatitude(key);
+						int longitude = ZOrder.decodeLongitude(key);
+						if (latitude < minLatitude || latitude > maxLatitude
+								|| longitude < minLongitude || longitude > maxLongitude) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+
+	public void test() {
+		Random random = new Random(3);
+
+		show("encode()");
+		boolean roundTrip = true;
+		for (int i = 0; i < 100000; i++) {
+			int latitude = GeoPoint.MIN_LATITUDE + random.nextInt(GeoPoint.MAX_LATITUDE - GeoPoint.MIN_LATITUDE + 1);
+			int longitude = GeoPoint.MIN_LONGITUDE + random.nextInt(GeoPoint.MAX_LONGITUDE - GeoPoint.MIN_LONGITUDE + 1);
+			long key = ZOrder.encode(latitude, longitude);
+			roundTrip = roundTrip && key >= 0
+				&& ZOrder.decodeLatitude(key) == latitude && ZOrder.decodeLongitude(key) == longitude;
+		}
+		show("Keys decode to their points.", roundTrip);
+		show("The corners of the world have the smallest and largest keys.",
+			ZOrder.encode(GeoPoint.MIN_LATITUDE, GeoPoint.MIN_LONGITUDE) == 0
+			&& ZOrder.encode(GeoPoint.MAX_LATITUDE, GeoPoint.MAX_LONGITUDE)
+				> ZOrder.encode(GeoPoint.MAX_LATITUDE - 1, GeoPoint.MAX_LONGITUDE - 1));
+		GeoPoint a = new GeoPoint(32000000, 34000000);
+		GeoPoint b = new GeoPoint(32000001, 34000000);
+		GeoPoint c = new GeoPoint(32000000, 34000001);
+		show("The comparator orders by key, latitude in the lower bit.",
+			ZOrder.comparator().compare(a, b) < 0 && ZOrder.comparator().compare(b, c) < 0
+			&& ZOrder.comparator().compare(a, new GeoPoint(32000000, 34000000)) == 0);
+
+		show("geohash()");
+		show("Geohashes are the standard ones.",
+			ZOrder.geohash(new GeoPoint(57649110, 10407440), 11).equals("u4pruydqqvj")
+			&& ZOrder.geohash(new GeoPoint(42605000, -5603000), 5).equals("ezs42")
+			&& ZOrder.geohash(new GeoPoint(GeoPoint.MIN_LATITUDE, GeoPoint.MIN_LONGITUDE), 3).equals("000"));
+
+		show("intervals()");
+		show("Exact intervals hold the keys of a box and only them.", boxesCovered(100000, true, random));
+		show("Coarse intervals still cover the box.", boxesCovered(4, false, random));
+		show("A single interval covers the box.", boxesCovered(1, false, random));
+
+		show("order()");
+		SegmentStore store = ContractionHierarchyTest.city(20, new Random(7));
+		int[] order = ZOrder.order(store);
+		int[] sorted = Arrays.copyOf(order, order.length);
+		Arrays.sort(sorted);
+		boolean permutation = true;
+		for (int i = 0; i < sorted.length; i++) {
+			permutation = permutation && sorted[i] == i;
+		}
+		SegmentStore ordered = store.select(order);
+		boolean nondecreasing = ordered.size() == store.size();
+		long last = -1;
+		for (int i = 0; i < ordered.size(); i++) {
+			long key = ZOrder.encode(
+				(ordered.getLatitude1(i) + ordered.getLatitude2(i)) / 2,
+				(ordered.getLongitude1(i) + ordered.getLongitude2(i)) / 2);
+			nondecreasing = nondecreasing && key >= last
+				&& ordered.get(i).equals(store.get(order[i]));
+			last = key;
+		}
+		show("The order is a permutation of the segments.", permutation);
+		show("Selected in that order, midpoint keys are nondecreasing.", nondecreasing);
+	}
+
+
+	public static void main(String[] args) {
+		ZOrderTest zOrderTest = new ZOrderTest();
+		zOrderTest.test();
+	}
+}